@@ -0,0 +1,255 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Locale;
+
+/**
+ * Benchmark degli algoritmi di albero di copertura minimo e di componenti
+ * connesse: {@link KruskalMSP}, {@link PrimMSP},
+ * {@link UndirectedGraphConnectedComponentsComputer} e, per confronto,
+ * {@link BreadthFirstConnectedComponentsComputer} e
+ * {@link ParallelConnectedComponentsComputer}.
+ *
+ * Gli algoritmi vengono eseguiti su diverse famiglie di grafi prodotte da
+ * {@link GraphGenerator} con un seme fisso: grafi casuali sparsi, griglie,
+ * grafi completi, grafi con distribuzione dei gradi a legge di potenza e grafi
+ * con molte piccole componenti. I grafi casuali vengono misurati anche con pesi già ordinati
+ * nell'ordine in cui vengono letti gli archi e con pesi tutti uguali, che sono
+ * i casi peggiori del quicksort usato da Kruskal; se l'ordinamento esaurisce
+ * lo stack la misura viene segnalata come saltata.
+ *
+ * Ogni combinazione viene misurata su dimensioni crescenti (predefinite o
+ * passate come argomenti) e per ogni algoritmo viene riportato l'esponente
+ * della crescita del tempo rispetto al numero di nodi, stimato tra la
+ * dimensione più piccola e la più grande.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+final class GraphAlgorithmsBenchmark {
+
+    /*
+     * Dimensioni dei grafi misurati se non ne vengono passate altre
+     */
+    private static final int[] DEFAULT_SIZES = {256, 512, 1_024, 2_048, 4_096};
+
+    /*
+     * Seme dei generatori casuali
+     */
+    private static final long SEED = 42;
+
+    /*
+     * Nomi degli algoritmi misurati, nello stesso ordine delle operazioni
+     * eseguite da run
+     */
+    private static final String[] ENGINE_NAMES = {
+            "KruskalMSP", "PrimMSP", "DisjointSetsCC", "BreadthFirstCC", "ParallelCC"};
+
+    private GraphAlgorithmsBenchmark() {
+    }
+
+    /**
+     * Ordine dei pesi assegnati agli archi.
+     */
+    private enum Weights {
+
+        /*
+         * I pesi casuali prodotti dal generatore
+         */
+        RANDOM {
+            @Override
+            double weight(int i, int j, int n, double generated) {
+                return generated;
+            }
+        },
+
+        /*
+         * Pesi crescenti nell'ordine in cui le righe della matrice vengono
+         * lette
+         */
+        SORTED {
+            @Override
+            double weight(int i, int j, int n, double generated) {
+                return (double) Math.min(i, j) * n + Math.max(i, j);
+            }
+        },
+
+        /*
+         * Tutti i pesi uguali
+         */
+        EQUAL {
+            @Override
+            double weight(int i, int j, int n, double generated) {
+                return 1;
+            }
+        };
+
+        abstract double weight(int i, int j, int n, double generated);
+    }
+
+    /**
+     * Famiglia di grafi generati.
+     */
+    private enum Family {
+
+        /*
+         * Grafo di Erdős-Rényi con grado medio 8
+         */
+        RANDOM(Integer.MAX_VALUE) {
+            @Override
+            GraphGenerator generator(int n) {
+                return GraphGenerator.erdosRenyi(n, Math.min(1, 8.0 / Math.max(1, n - 1)), SEED);
+            }
+        },
+
+        /*
+         * Griglia quadrata, con al più n nodi
+         */
+        GRID(Integer.MAX_VALUE) {
+            @Override
+            GraphGenerator generator(int n) {
+                int side = Math.max(1, (int) Math.sqrt(n));
+                return GraphGenerator.grid(n / side, side, SEED);
+            }
+        },
+
+        /*
+         * Tutte le coppie di nodi collegate
+         */
+        COMPLETE(1_024) {
+            @Override
+            GraphGenerator generator(int n) {
+                return GraphGenerator.complete(n, SEED);
+            }
+        },
+
+        /*
+         * Modello di Barabási-Albert con 3 archi per ogni nuovo nodo
+         */
+        POWER_LAW(Integer.MAX_VALUE) {
+            @Override
+            GraphGenerator generator(int n) {
+                return GraphGenerator.barabasiAlbert(n, 3, SEED);
+            }
+        },
+
+        /*
+         * Grafo geometrico casuale con grado medio 1.5, sotto la soglia di
+         * percolazione: molte componenti piccole
+         */
+        COMPONENTS(Integer.MAX_VALUE) {
+            @Override
+            GraphGenerator generator(int n) {
+                return GraphGenerator.randomGeometric(n, Math.sqrt(1.5 / (Math.PI * Math.max(1, n))), SEED);
+            }
+        };
+
+        /*
+         * Numero massimo di nodi misurato per la famiglia
+         */
+        final int maxNodes;
+
+        Family(int maxNodes) {
+            this.maxNodes = maxNodes;
+        }
+
+        abstract GraphGenerator generator(int n);
+    }
+
+    /**
+     * Esegue i benchmark.
+     *
+     * @param args le dimensioni dei grafi da misurare, se diverse da quelle
+     *             predefinite
+     */
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int k = 0; k < args.length; k++) {
+                sizes[k] = Integer.parseInt(args[k]);
+            }
+        }
+
+        MicroBenchmark bench = MicroBenchmark.fromSystemProperties();
+        bench.printHeader();
+        for (Family family : Family.values()) {
+            for (Weights weights : Weights.values()) {
+                if (family == Family.RANDOM || weights == Weights.RANDOM)
+                    run(bench, family, weights, sizes);
+            }
+        }
+    }
+
+    /**
+     * Misura tutti gli algoritmi su una famiglia di grafi per tutte le
+     * dimensioni, poi stampa gli esponenti di crescita.
+     *
+     * @param bench lo strumento di misura
+     * @param family la famiglia di grafi
+     * @param weights l'ordine dei pesi
+     * @param sizes le dimensioni da misurare
+     */
+    private static void run(MicroBenchmark bench, Family family, Weights weights, int[] sizes) {
+        String name = family.name().toLowerCase(Locale.ROOT) + "/" + weights.name().toLowerCase(Locale.ROOT);
+        double[][] means = new double[ENGINE_NAMES.length][sizes.length];
+        for (int s = 0; s < sizes.length; s++) {
+            int n = sizes[s];
+            String parameters = name + " n=" + n;
+            if (n > family.maxNodes || (long) n * n * 8 > Runtime.getRuntime().maxMemory() / 2) {
+                bench.skip("graph", parameters, "dimensione troppo grande per la famiglia o per la memoria");
+                continue;
+            }
+
+            GraphGenerator generator = family.generator(n);
+            Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<>();
+            GraphNode<Integer>[] nodes = Graph.newNodeArray(generator.nodeCount());
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = new GraphNode<>(i);
+                g.addNode(nodes[i]);
+            }
+            generator.generate((i, j, weight) ->
+                    g.addWeightedEdge(nodes[i], nodes[j], weights.weight(i, j, nodes.length, weight)));
+            GraphNode<Integer> source = nodes[0];
+
+            KruskalMSP<Integer> kruskal = new KruskalMSP<>();
+            PrimMSP<Integer> prim = new PrimMSP<>();
+            UndirectedGraphConnectedComponentsComputer<Integer> sets = new UndirectedGraphConnectedComponentsComputer<>();
+            BreadthFirstConnectedComponentsComputer<Integer> bfs = new BreadthFirstConnectedComponentsComputer<>();
+            ParallelConnectedComponentsComputer<Integer> parallel = new ParallelConnectedComponentsComputer<>();
+            MicroBenchmark.Operation[] engines = {
+                    k -> kruskal.computeMSP(g),
+                    k -> {
+                        prim.computeMSP(g, source);
+                        return source;
+                    },
+                    k -> sets.computeConnectedComponents(g),
+                    k -> bfs.computeConnectedComponents(g),
+                    k -> parallel.computeConnectedComponents(g)
+            };
+            for (int e = 0; e < engines.length; e++) {
+                try {
+                    means[e][s] = bench.measure(ENGINE_NAMES[e], parameters, engines[e]);
+                } catch (StackOverflowError error) {
+                    bench.skip(ENGINE_NAMES[e], parameters, "StackOverflowError");
+                }
+            }
+        }
+
+        for (int e = 0; e < ENGINE_NAMES.length; e++) {
+            int first = -1;
+            int last = -1;
+            for (int s = 0; s < sizes.length; s++) {
+                if (means[e][s] > 0) {
+                    if (first < 0)
+                        first = s;
+                    last = s;
+                }
+            }
+            if (first >= 0 && sizes[last] != sizes[first]) {
+                double exponent = Math.log(means[e][last] / means[e][first])
+                        / Math.log((double) sizes[last] / sizes[first]);
+                bench.report(ENGINE_NAMES[e], name + " n=" + sizes[first] + ".." + sizes[last],
+                        String.format(Locale.ROOT, "crescita ~ n^%.2f", exponent));
+            }
+        }
+    }
+}
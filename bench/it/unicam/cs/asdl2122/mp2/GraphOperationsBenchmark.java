@@ -0,0 +1,171 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark delle operazioni di modifica e di interrogazione di
+ * {@link AdjacencyMatrixUndirectedGraph}: addNode, addEdge, removeNode,
+ * getEdge, getEdgesOf, edgeCount e getNode(int). Ogni operazione viene misurata
+ * su grafi di Erdős-Rényi di diverse dimensioni e densità, generati sempre con
+ * lo stesso seme in modo che le esecuzioni siano confrontabili.
+ *
+ * Le dimensioni predefinite vanno da 10<sup>2</sup> a 10<sup>5</sup> nodi e
+ * possono essere sostituite passando le dimensioni come argomenti. Le
+ * combinazioni di dimensione e densità la cui matrice non entra nella memoria
+ * disponibile vengono saltate e segnalate. Le operazioni che modificano il
+ * grafo vengono annullate nella preparazione dell'iterazione successiva;
+ * solo removeNode, che reinserisce i nodi rimossi senza i loro archi, fa
+ * diminuire leggermente la densità e viene quindi misurata per ultima.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+final class GraphOperationsBenchmark {
+
+    /*
+     * Dimensioni dei grafi misurati se non ne vengono passate altre
+     */
+    private static final int[] DEFAULT_SIZES = {100, 1_000, 10_000, 100_000};
+
+    /*
+     * Gradi medi dei grafi sparsi
+     */
+    private static final int[] AVERAGE_DEGREES = {4, 32};
+
+    /*
+     * Frazione delle coppie di nodi collegate nei grafi densi
+     */
+    private static final double DENSE_FRACTION = 0.1;
+
+    /*
+     * Numero massimo di passi elementari eseguiti in un'iterazione, usato per
+     * scegliere quante operazioni misurare in base al loro costo
+     */
+    private static final long STEPS_PER_ITERATION = 20_000_000L;
+
+    /*
+     * Seme dei generatori casuali
+     */
+    private static final long SEED = 42;
+
+    private GraphOperationsBenchmark() {
+    }
+
+    /**
+     * Esegue i benchmark.
+     *
+     * @param args le dimensioni dei grafi da misurare, se diverse da quelle
+     *             predefinite
+     */
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int k = 0; k < args.length; k++) {
+                sizes[k] = Integer.parseInt(args[k]);
+            }
+        }
+
+        MicroBenchmark bench = MicroBenchmark.fromSystemProperties();
+        bench.printHeader();
+        for (int n : sizes) {
+            for (int degree : AVERAGE_DEGREES) {
+                run(bench, n, Math.min((long) n * degree / 2, pairs(n)), "d=" + degree);
+            }
+            run(bench, n, (long) (pairs(n) * DENSE_FRACTION), "p=" + DENSE_FRACTION);
+        }
+    }
+
+    /**
+     * Misura tutte le operazioni su un grafo di Erdős-Rényi.
+     *
+     * @param bench lo strumento di misura
+     * @param n il numero di nodi
+     * @param m il numero atteso di archi
+     * @param density la descrizione della densità
+     */
+    private static void run(MicroBenchmark bench, int n, long m, String density) {
+        String parameters = "n=" + n + " " + density;
+        // Riferimenti della matrice e archi, con un margine per la crescita delle righe
+        long estimate = (long) n * n * 8 + m * 64;
+        if (estimate > Runtime.getRuntime().maxMemory() / 2) {
+            bench.skip("graph", parameters, "memoria stimata " + (estimate >> 20) + " MB");
+            return;
+        }
+
+        Graph<Integer> g = GraphGenerator.erdosRenyi(n, (double) m / pairs(n), SEED)
+                .populate(new AdjacencyMatrixUndirectedGraph<>(), i -> i);
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] firsts = new int[(int) Math.min(100_000, STEPS_PER_ITERATION / 100)];
+        int[] seconds = new int[firsts.length];
+        for (int k = 0; k < firsts.length; k++) {
+            firsts[k] = random.nextInt(n);
+            seconds[k] = random.nextInt(n);
+        }
+
+        bench.measure("getEdge(int,int)", parameters, null,
+                k -> g.getEdge(firsts[k], seconds[k]), firsts.length);
+        bench.measure("getEdgesOf(int)", parameters, null,
+                k -> g.getEdgesOf(firsts[k]), operations(n, firsts.length));
+        bench.measure("getNode(int)", parameters, null,
+                k -> g.getNode(firsts[k]), operations(n, firsts.length));
+        bench.measureInt("edgeCount", parameters, null,
+                k -> g.edgeCount(), operations((long) n * n, firsts.length));
+
+        int added = operations(n, 1_000);
+        bench.measureInt("addNode", parameters, () -> {
+            while (g.nodeCount() > n) {
+                g.removeNode(g.nodeCount() - 1);
+            }
+        }, k -> g.addNode(n + k) ? 1 : 0, added);
+
+        // Coppie di nodi non collegate, da collegare e scollegare a ogni iterazione
+        int[] sources = new int[(int) Math.min(1_000, pairs(n) - m)];
+        int[] destinations = new int[sources.length];
+        for (int k = 0; k < sources.length; k++) {
+            do {
+                sources[k] = random.nextInt(n);
+                destinations[k] = random.nextInt(n);
+            } while (g.getEdge(sources[k], destinations[k]) != null);
+        }
+        if (sources.length > 0) {
+            bench.measureInt("addEdge(int,int)", parameters, () -> {
+                for (int k = 0; k < sources.length; k++) {
+                    if (g.getEdge(sources[k], destinations[k]) != null)
+                        g.removeEdge(sources[k], destinations[k]);
+                }
+            }, k -> g.addWeightedEdge(sources[k], destinations[k], 1.0) ? 1 : 0, sources.length);
+        }
+
+        int removed = operations((long) n * n, 100);
+        int[] next = {n + added};
+        bench.measureInt("removeNode(int)", parameters, () -> {
+            while (g.nodeCount() < n) {
+                g.addNode(next[0]++);
+            }
+        }, k -> {
+            g.removeNode(firsts[k] % g.nodeCount());
+            return 0;
+        }, removed);
+    }
+
+    /**
+     * Restituisce il numero di coppie di nodi distinti.
+     *
+     * @param n il numero di nodi
+     * @return n(n - 1) / 2
+     */
+    private static long pairs(int n) {
+        return (long) n * (n - 1) / 2;
+    }
+
+    /**
+     * Sceglie quante volte eseguire un'operazione in un'iterazione.
+     *
+     * @param cost il numero di passi elementari di un'operazione
+     * @param max il numero massimo di operazioni
+     * @return un numero di operazioni compreso tra 1 e max
+     */
+    private static int operations(long cost, int max) {
+        return (int) Math.max(1, Math.min(max, STEPS_PER_ITERATION / Math.max(1, cost)));
+    }
+}
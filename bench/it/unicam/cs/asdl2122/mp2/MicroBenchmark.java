@@ -0,0 +1,442 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Semplice strumento di misura per i benchmark del progetto. Ogni misura è
+ * composta da alcune iterazioni di riscaldamento, i cui tempi vengono
+ * scartati, seguite da alcune iterazioni misurate; prima di ogni iterazione
+ * viene eseguita una preparazione il cui tempo non viene conteggiato.
+ *
+ * Per ogni misura vengono riportati il tempo medio per operazione, la sua
+ * deviazione standard tra le iterazioni e, se la JVM lo permette, i byte
+ * allocati per operazione dal thread che esegue il benchmark e la velocità di
+ * allocazione corrispondente in MB al secondo. I risultati vengono stampati
+ * come righe separate da tabulazioni, in modo che possano essere salvati e
+ * confrontati tra esecuzioni diverse.
+ *
+ * I valori restituiti dalle operazioni vengono consumati, in modo che il
+ * compilatore non possa eliminare il lavoro misurato. Le operazioni che
+ * restituiscono un valore primitivo vanno misurate con le varianti
+ * {@link IntOperation}, {@link LongOperation} e {@link DoubleOperation},
+ * che lo consumano senza convertirlo in oggetto: con {@link Operation} il
+ * valore verrebbe incapsulato a ogni esecuzione e il costo della
+ * conversione, tempo e byte allocati, sarebbe attribuito all'operazione.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+final class MicroBenchmark {
+
+    /**
+     * Un'operazione da misurare.
+     */
+    @FunctionalInterface
+    interface Operation {
+
+        /**
+         * Esegue l'operazione.
+         *
+         * @param k il numero dell'invocazione all'interno dell'iterazione, a
+         *          partire da zero
+         * @return un valore qualsiasi calcolato dall'operazione, che verrà
+         *         consumato
+         */
+        Object run(int k);
+    }
+
+    /**
+     * Un'operazione da misurare che restituisce un int.
+     */
+    @FunctionalInterface
+    interface IntOperation {
+
+        /**
+         * Esegue l'operazione.
+         *
+         * @param k il numero dell'invocazione all'interno dell'iterazione, a
+         *          partire da zero
+         * @return un valore qualsiasi calcolato dall'operazione, che verrà
+         *         consumato
+         */
+        int run(int k);
+    }
+
+    /**
+     * Un'operazione da misurare che restituisce un long.
+     */
+    @FunctionalInterface
+    interface LongOperation {
+
+        /**
+         * Esegue l'operazione.
+         *
+         * @param k il numero dell'invocazione all'interno dell'iterazione, a
+         *          partire da zero
+         * @return un valore qualsiasi calcolato dall'operazione, che verrà
+         *         consumato
+         */
+        long run(int k);
+    }
+
+    /**
+     * Un'operazione da misurare che restituisce un double.
+     */
+    @FunctionalInterface
+    interface DoubleOperation {
+
+        /**
+         * Esegue l'operazione.
+         *
+         * @param k il numero dell'invocazione all'interno dell'iterazione, a
+         *          partire da zero
+         * @return un valore qualsiasi calcolato dall'operazione, che verrà
+         *         consumato
+         */
+        double run(int k);
+    }
+
+    /*
+     * Esecuzione ripetuta di un'operazione che ne consuma i valori, comune a
+     * tutte le varianti
+     */
+    @FunctionalInterface
+    private interface Loop {
+
+        /*
+         * Esegue l'operazione il numero di volte dato e restituisce la durata
+         * in nanosecondi
+         */
+        long run(int operations);
+    }
+
+    /*
+     * Valore di allocazione riportato quando la JVM non permette di misurarla
+     */
+    static final long NOT_AVAILABLE = ThreadAllocations.NOT_AVAILABLE;
+
+    /*
+     * Campi su cui vengono scritti i valori prodotti dalle operazioni. I
+     * risultati oggetto vengono scritti su un campo non volatile, che costa
+     * una sola scrittura in memoria ma impedisce al compilatore di eliminare
+     * la loro creazione
+     */
+    private static volatile long sink;
+    private static Object objectSink;
+
+    /*
+     * Numero di iterazioni i cui tempi vengono scartati
+     */
+    private final int warmupIterations;
+
+    /*
+     * Numero di iterazioni misurate
+     */
+    private final int measurementIterations;
+
+    /*
+     * Dove vengono stampati i risultati
+     */
+    private final PrintStream out;
+
+    /**
+     * Crea uno strumento di misura.
+     *
+     * @param warmupIterations il numero di iterazioni di riscaldamento
+     * @param measurementIterations il numero di iterazioni misurate
+     * @param out dove stampare i risultati
+     *
+     * @throws IllegalArgumentException se il numero di iterazioni misurate non
+     * è positivo o quello di riscaldamento è negativo
+     * @throws NullPointerException se out è null
+     */
+    MicroBenchmark(int warmupIterations, int measurementIterations, PrintStream out) {
+        if (warmupIterations < 0 || measurementIterations <= 0)
+            throw new IllegalArgumentException("Numero di iterazioni non valido");
+        if (out == null)
+            throw new NullPointerException("Impossibile stampare i risultati su un flusso nullo");
+
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.out = out;
+    }
+
+    /**
+     * Crea uno strumento di misura configurato con le proprietà di sistema
+     * {@code bench.warmup} e {@code bench.iterations}, che valgono
+     * rispettivamente 3 e 5 se non sono specificate.
+     *
+     * @return uno strumento di misura che stampa su System.out
+     */
+    static MicroBenchmark fromSystemProperties() {
+        return new MicroBenchmark(Integer.getInteger("bench.warmup", 3),
+                Integer.getInteger("bench.iterations", 5), System.out);
+    }
+
+    /**
+     * Stampa l'intestazione delle colonne dei risultati.
+     */
+    void printHeader() {
+        out.println("benchmark\tparametri\tns/op\t±\tB/op\tMB/s");
+    }
+
+    /**
+     * Stampa una riga per una misura che non è stata eseguita.
+     *
+     * @param name il nome del benchmark
+     * @param parameters la descrizione dei parametri
+     * @param reason il motivo per cui la misura è stata saltata
+     */
+    void skip(String name, String parameters, String reason) {
+        report(name, parameters, "saltato: " + reason);
+    }
+
+    /**
+     * Stampa una riga con un'informazione che non è una misura, ad esempio
+     * un valore ricavato da più misure.
+     *
+     * @param name il nome del benchmark
+     * @param parameters la descrizione dei parametri
+     * @param text l'informazione da stampare
+     */
+    void report(String name, String parameters, String text) {
+        out.println(name + "\t" + parameters + "\t" + text);
+    }
+
+    /**
+     * Misura un'operazione e stampa il risultato.
+     *
+     * @param name il nome del benchmark
+     * @param parameters la descrizione dei parametri, ad esempio la
+     *                   dimensione del grafo
+     * @param setUp la preparazione eseguita prima di ogni iterazione, fuori
+     *              dalla misura, oppure null
+     * @param operation l'operazione da misurare
+     * @param operationsPerIteration il numero di volte in cui l'operazione
+     *                               viene eseguita in ogni iterazione
+     * @return il tempo medio per operazione in nanosecondi
+     *
+     * @throws NullPointerException se l'operazione è null
+     * @throws IllegalArgumentException se il numero di operazioni non è
+     * positivo
+     */
+    double measure(String name, String parameters, Runnable setUp, Operation operation,
+                   int operationsPerIteration) {
+        return measureLoop(name, parameters, setUp, loop(operation), operationsPerIteration);
+    }
+
+    /**
+     * Misura un'operazione che restituisce un int e stampa il risultato, come
+     * {@link #measure(String, String, Runnable, Operation, int)}.
+     *
+     * @param name il nome del benchmark
+     * @param parameters la descrizione dei parametri
+     * @param setUp la preparazione eseguita prima di ogni iterazione, oppure
+     *              null
+     * @param operation l'operazione da misurare
+     * @param operationsPerIteration il numero di esecuzioni per iterazione
+     * @return il tempo medio per operazione in nanosecondi
+     *
+     * @throws NullPointerException se l'operazione è null
+     * @throws IllegalArgumentException se il numero di operazioni non è
+     * positivo
+     */
+    double measureInt(String name, String parameters, Runnable setUp, IntOperation operation,
+                      int operationsPerIteration) {
+        nullCheck(operation);
+
+        return measureLoop(name, parameters, setUp, operations -> {
+            long consumed = 0;
+            long start = System.nanoTime();
+            for (int k = 0; k < operations; k++) {
+                consumed += operation.run(k);
+            }
+            long elapsed = System.nanoTime() - start;
+            sink = consumed;
+            return elapsed;
+        }, operationsPerIteration);
+    }
+
+    /**
+     * Misura un'operazione che restituisce un long e stampa il risultato,
+     * come {@link #measure(String, String, Runnable, Operation, int)}.
+     *
+     * @param name il nome del benchmark
+     * @param parameters la descrizione dei parametri
+     * @param setUp la preparazione eseguita prima di ogni iterazione, oppure
+     *              null
+     * @param operation l'operazione da misurare
+     * @param operationsPerIteration il numero di esecuzioni per iterazione
+     * @return il tempo medio per operazione in nanosecondi
+     *
+     * @throws NullPointerException se l'operazione è null
+     * @throws IllegalArgumentException se il numero di operazioni non è
+     * positivo
+     */
+    double measureLong(String name, String parameters, Runnable setUp, LongOperation operation,
+                       int operationsPerIteration) {
+        nullCheck(operation);
+
+        return measureLoop(name, parameters, setUp, operations -> {
+            long consumed = 0;
+            long start = System.nanoTime();
+            for (int k = 0; k < operations; k++) {
+                consumed += operation.run(k);
+            }
+            long elapsed = System.nanoTime() - start;
+            sink = consumed;
+            return elapsed;
+        }, operationsPerIteration);
+    }
+
+    /**
+     * Misura un'operazione che restituisce un double e stampa il risultato,
+     * come {@link #measure(String, String, Runnable, Operation, int)}.
+     *
+     * @param name il nome del benchmark
+     * @param parameters la descrizione dei parametri
+     * @param setUp la preparazione eseguita prima di ogni iterazione, oppure
+     *              null
+     * @param operation l'operazione da misurare
+     * @param operationsPerIteration il numero di esecuzioni per iterazione
+     * @return il tempo medio per operazione in nanosecondi
+     *
+     * @throws NullPointerException se l'operazione è null
+     * @throws IllegalArgumentException se il numero di operazioni non è
+     * positivo
+     */
+    double measureDouble(String name, String parameters, Runnable setUp, DoubleOperation operation,
+                         int operationsPerIteration) {
+        nullCheck(operation);
+
+        return measureLoop(name, parameters, setUp, operations -> {
+            long consumed = 0;
+            long start = System.nanoTime();
+            for (int k = 0; k < operations; k++) {
+                consumed ^= Double.doubleToRawLongBits(operation.run(k));
+            }
+            long elapsed = System.nanoTime() - start;
+            sink = consumed;
+            return elapsed;
+        }, operationsPerIteration);
+    }
+
+    /*
+     * Misura comune a tutte le varianti
+     */
+    private double measureLoop(String name, String parameters, Runnable setUp, Loop loop,
+                               int operationsPerIteration) {
+        if (operationsPerIteration <= 0)
+            throw new IllegalArgumentException("Il numero di operazioni deve essere positivo");
+
+        for (int it = 0; it < warmupIterations; it++) {
+            iteration(setUp, loop, operationsPerIteration);
+        }
+
+        double[] nanos = new double[measurementIterations];
+        long bytes = 0;
+        for (int it = 0; it < measurementIterations; it++) {
+            if (setUp != null)
+                setUp.run();
+            long allocatedBefore = ThreadAllocations.allocatedBytes();
+            nanos[it] = (double) iteration(null, loop, operationsPerIteration) / operationsPerIteration;
+            long allocatedAfter = ThreadAllocations.allocatedBytes();
+            bytes += allocatedAfter - allocatedBefore;
+        }
+
+        double mean = 0;
+        for (double t : nanos) {
+            mean += t;
+        }
+        mean /= measurementIterations;
+        double variance = 0;
+        for (double t : nanos) {
+            variance += (t - mean) * (t - mean);
+        }
+        double deviation = measurementIterations > 1 ? Math.sqrt(variance / (measurementIterations - 1)) : 0;
+        long bytesPerOperation = ThreadAllocations.isSupported()
+                ? bytes / ((long) measurementIterations * operationsPerIteration)
+                : NOT_AVAILABLE;
+
+        if (bytesPerOperation == NOT_AVAILABLE) {
+            out.println(String.format(Locale.ROOT, "%s\t%s\t%.1f\t%.1f\tn.d.\tn.d.", name, parameters, mean,
+                    deviation));
+        } else {
+            // byte per nanosecondo, cioè 1000 MB al secondo
+            out.println(String.format(Locale.ROOT, "%s\t%s\t%.1f\t%.1f\t%d\t%.1f", name, parameters, mean,
+                    deviation, bytesPerOperation, bytesPerOperation / mean * 1000));
+        }
+        return mean;
+    }
+
+    /**
+     * Misura un'operazione senza preparazione, scegliendo quante volte
+     * eseguirla in ogni iterazione in modo che un'iterazione duri circa il
+     * tempo indicato dalla proprietà di sistema {@code bench.millis} (di
+     * default 200 millisecondi). Il numero di esecuzioni viene stimato da una
+     * prima esecuzione dell'operazione.
+     *
+     * @param name il nome del benchmark
+     * @param parameters la descrizione dei parametri
+     * @param operation l'operazione da misurare
+     * @return il tempo medio per operazione in nanosecondi
+     *
+     * @throws NullPointerException se l'operazione è null
+     */
+    double measure(String name, String parameters, Operation operation) {
+        Loop loop = loop(operation);
+        long target = Integer.getInteger("bench.millis", 200) * 1_000_000L;
+        long single = Math.max(1, iteration(null, loop, 1));
+        int operations = (int) Math.max(1, Math.min(1_000_000, target / single));
+        return measureLoop(name, parameters, null, loop, operations);
+    }
+
+    /**
+     * Esegue un'iterazione e ne restituisce la durata.
+     *
+     * @param setUp la preparazione, oppure null
+     * @param loop l'esecuzione ripetuta dell'operazione
+     * @param operations il numero di esecuzioni dell'operazione
+     * @return la durata delle esecuzioni in nanosecondi, esclusa la
+     *         preparazione
+     */
+    private static long iteration(Runnable setUp, Loop loop, int operations) {
+        if (setUp != null)
+            setUp.run();
+        return loop.run(operations);
+    }
+
+    /**
+     * Restituisce l'esecuzione ripetuta di un'operazione che restituisce un
+     * oggetto, il cui risultato viene scritto ogni volta su un campo.
+     *
+     * @param operation l'operazione
+     * @return l'esecuzione ripetuta dell'operazione
+     *
+     * @throws NullPointerException se l'operazione è null
+     */
+    private static Loop loop(Operation operation) {
+        nullCheck(operation);
+
+        return operations -> {
+            long start = System.nanoTime();
+            for (int k = 0; k < operations; k++) {
+                objectSink = operation.run(k);
+            }
+            return System.nanoTime() - start;
+        };
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link NullPointerException} se
+     * l'operazione passata è null
+     *
+     * @param operation l'operazione da controllare
+     *
+     * @throws NullPointerException se l'operazione è null
+     */
+    private static void nullCheck(Object operation) {
+        if (operation == null)
+            throw new NullPointerException("Impossibile misurare un'operazione nulla");
+    }
+}
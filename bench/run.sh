@@ -0,0 +1,22 @@
+#!/bin/sh
+# Compila i sorgenti del progetto insieme ai benchmark ed esegue il benchmark
+# indicato (di default GraphOperationsBenchmark) con gli argomenti successivi.
+#
+#   bench/run.sh [ClasseBenchmark] [argomenti...]
+#
+# Le opzioni della JVM si passano con JAVA_OPTS, ad esempio
+#   JAVA_OPTS="-Xmx8g -Dbench.iterations=10" bench/run.sh GraphOperationsBenchmark 1000 10000
+set -e
+
+cd "$(dirname "$0")/.."
+out="${BENCH_OUT:-${TMPDIR:-/tmp}/mp2-bench}"
+rm -rf "$out"
+mkdir -p "$out"
+
+javac -encoding UTF-8 -d "$out" \
+    $(find src -name '*.java' ! -name '*Test.java') \
+    $(find bench -name '*.java')
+
+benchmark="${1:-GraphOperationsBenchmark}"
+[ $# -gt 0 ] && shift
+exec java ${JAVA_OPTS:--Xmx4g} -cp "$out" "it.unicam.cs.asdl2122.mp2.$benchmark" "$@"
@@ -1,6 +1,9 @@
 package it.unicam.cs.asdl2122.mp2;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
 
@@ -18,7 +21,10 @@ import java.util.*;
  * 
  * Gli oggetti GraphNode<L>, cioè i nodi, sono memorizzati in una mappa che
  * associa ad ogni nodo l'indice assegnato in fase di inserimento. Il dominio
- * della mappa rappresenta quindi l'insieme dei nodi.
+ * della mappa rappresenta quindi l'insieme dei nodi. La mappa è una
+ * {@link NodeIndexMap} a indirizzamento aperto, che si può interrogare anche
+ * direttamente con un'etichetta: i metodi che ricevono etichette ricavano
+ * così l'indice senza creare nodi temporanei.
  * 
  * Gli archi sono memorizzati nella matrice di adiacenza. A differenza della
  * rappresentazione standard con matrice di adiacenza, la posizione i,j della
@@ -31,11 +37,40 @@ import java.util.*;
  * Questa classe supporta i metodi di cancellazione di nodi e archi e
  * supporta tutti i metodi che usano indici, utilizzando l'indice assegnato a
  * ogni nodo in fase di inserimento.
+ *
+ * I metodi {@link #getNodes()} e {@link #getEdges()} restituiscono viste non
+ * modificabili, create una volta sola e collegate al grafo: riflettono ogni
+ * modifica successiva e non copiano nulla. L'insieme dei nodi scorre la lista
+ * dei nodi in ordine di indice, quello degli archi scorre la metà superiore
+ * della matrice; entrambi conoscono la propria dimensione in tempo costante e
+ * rispondono a contains() con una ricerca nella mappa dei nodi. Chi ha
+ * bisogno di una fotografia che non cambi con il grafo deve copiarle, per
+ * esempio con {@code new HashSet<>(g.getEdges())}. Modificare il grafo mentre
+ * si scorre una vista ha un risultato non definito.
+ *
+ * Il grafo memorizza una propria copia di ogni arco aggiunto, e
+ * {@link #getEdge(int, int)} e gli altri metodi restituiscono queste copie:
+ * cambiare il peso dell'arco passato ad {@link #addEdge(GraphEdge)} non ha
+ * effetto sul grafo, mentre cambiarlo con {@link GraphEdge#setWeight(double)}
+ * su un arco restituito dal grafo è una modifica del grafo.
+ *
+ * Ogni modifica, compreso il cambio di peso con
+ * {@link #setEdgeWeight(int, int, double)} o con
+ * {@link GraphEdge#setWeight(double)} su un arco del grafo, incrementa il
+ * contatore di
+ * {@link #getModificationCount()}, che fa da versione del grafo per
+ * {@link GraphResultCache}, e viene registrata nel registro di
+ * {@link #getChangeLog()} quando qualcuno vi è iscritto.
+ *
+ * Lo stream di {@link #edgeStream()} divide la metà superiore della matrice in
+ * intervalli di righe con lo stesso numero di celle, così le parti di uno
+ * stream parallelo hanno circa lo stesso lavoro; anche in questo caso il
+ * grafo non deve essere modificato durante l'elaborazione.
  * 
  * @author Luca Tesei (template)
  * Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it (implementazione)
  */
-public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
+public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> implements IndexedAdjacency {
     /*
      * Le seguenti variabili istanza sono protected al solo scopo di agevolare
      * il JUnit testing
@@ -45,7 +80,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      * Insieme dei nodi e associazione di ogni nodo con il proprio indice nella
      * matrice di adiacenza
      */
-    protected Map<GraphNode<L>, Integer> nodesIndex;
+    protected NodeIndexMap<L> nodesIndex;
 
     /*
      * Matrice di adiacenza, gli elementi sono null o oggetti della classe
@@ -55,12 +90,31 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      */
     protected ArrayList<ArrayList<GraphEdge<L>>> matrix;
 
+    /*
+     * I nodi in ordine di indice
+     */
+    private final ArrayList<GraphNode<L>> nodes;
+
+    /*
+     * Numero di archi, aggiornato a ogni modifica
+     */
+    private int edgeCount;
+
+    /*
+     * Viste restituite da getNodes() e getEdges()
+     */
+    private final Set<GraphNode<L>> nodesView;
+    private final Set<GraphEdge<L>> edgesView;
+
     /**
      * Crea un grafo vuoto.
      */
     public AdjacencyMatrixUndirectedGraph() {
         this.matrix = new ArrayList<>();
-        this.nodesIndex = new HashMap<>();
+        this.nodesIndex = new NodeIndexMap<>();
+        this.nodes = new ArrayList<>();
+        this.nodesView = new NodesView();
+        this.edgesView = new EdgesView();
     }
 
     @Override
@@ -70,25 +124,16 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
 
     @Override
     public int edgeCount() {
-        int count = 0;
-
-        for (int i = 0; i < matrix.size(); i++) {
-            ArrayList<GraphEdge<L>> row = matrix.get(i);
-
-            // Il secondo for parte da i, evitando di contare entrambi gli archi (i, j) e (j, i)
-            for (int j = i; j < row.size(); j++) {
-                if (row.get(j) != null)
-                    count++;
-            }
-        }
-
-        return count;
+        return edgeCount;
     }
 
     @Override
     public void clear() {
         nodesIndex.clear();
         matrix.clear();
+        nodes.clear();
+        edgeCount = 0;
+        recordChange(GraphChangeLog.CLEARED, -1, -1, Double.NaN);
     }
 
     @Override
@@ -96,6 +141,14 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         return false;
     }
 
+    /*
+     * Tutti i metodi che modificano il grafo registrano la modifica
+     */
+    @Override
+    protected boolean recordsChanges() {
+        return true;
+    }
+
     /*
      * Gli indici dei nodi vanno assegnati nell'ordine di inserimento a partire
      * da zero
@@ -104,11 +157,11 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     public boolean addNode(GraphNode<L> node) {
         nullCheck(node);
 
-        Integer index = nodesIndex.get(node);
-        if (index != null)
+        if (nodesIndex.get(node) >= 0)
             return false; // Il nodo è già presente
 
-        nodesIndex.put(node, nodeCount());
+        nodesIndex.put(node);
+        nodes.add(node);
 
         // Aumenta di 1 la dimensione di tutte le righe
         for (ArrayList<GraphEdge<L>> row : matrix) {
@@ -117,6 +170,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         // Aggiunge una nuova riga di dimensione nodeCount()
         matrix.add(new ArrayList<>(Collections.nCopies(nodeCount(), null)));
 
+        recordChange(GraphChangeLog.NODE_ADDED, nodeCount() - 1, -1, Double.NaN);
         return true;
     }
 
@@ -126,7 +180,10 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      */
     @Override
     public boolean addNode(L label) {
-        return addNode(new GraphNode<>(label));
+        nullCheck(label);
+
+        // Il nodo viene creato solo se l'etichetta non è già presente
+        return nodesIndex.indexOfLabel(label) < 0 && addNode(new GraphNode<>(label));
     }
 
     /*
@@ -136,25 +193,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      */
     @Override
     public void removeNode(GraphNode<L> node) {
-        nullCheck(node);
-
-        Integer oldIndex = nodesIndex.remove(node);
-        if (oldIndex == null)
-            throw new IllegalArgumentException("Il nodo specificato non esiste");
-
-        // Rimuove gli archi che collegavano il nodo eliminato
-        // Il metodo remove aggiorna gli indici della matrice in automatico
-        matrix.remove(oldIndex.intValue());
-        for (ArrayList<GraphEdge<L>> row : matrix) {
-            row.remove(oldIndex.intValue());
-        }
-
-        for (Map.Entry<GraphNode<L>, Integer> entry : nodesIndex.entrySet()) {
-            Integer index = entry.getValue();
-            // Aggiorna gli indici maggiori di quello del nodo eliminato
-            if (index != null && index > oldIndex)
-                entry.setValue(index - 1);
-        }
+        removeNode(getNodeIndexOf(node));
     }
 
     /*
@@ -164,7 +203,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      */
     @Override
     public void removeNode(L label) {
-        removeNode(new GraphNode<>(label));
+        removeNode(labelToIndex(label));
     }
 
     /*
@@ -174,44 +213,58 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      */
     @Override
     public void removeNode(int i) {
-        removeNode(getNode(i));
+        indexCheck(i);
+
+        // Gli indici maggiori di quello del nodo eliminato diminuiscono di uno
+        nodesIndex.remove(nodes.remove(i));
+
+        // Gli archi del nodo risultano cancellati prima del nodo
+        ArrayList<GraphEdge<L>> incident = matrix.get(i);
+        for (int j = 0; j < incident.size(); j++) {
+            GraphEdge<L> edge = incident.get(j);
+            if (edge != null) {
+                edgeCount--;
+                recordChange(GraphChangeLog.EDGE_REMOVED, i, j, edge.getWeight());
+            }
+        }
+        recordChange(GraphChangeLog.NODE_REMOVED, i, -1, Double.NaN);
+
+        // Rimuove gli archi che collegavano il nodo eliminato
+        // Il metodo remove aggiorna gli indici della matrice in automatico
+        matrix.remove(i);
+        for (ArrayList<GraphEdge<L>> row : matrix) {
+            row.remove(i);
+        }
     }
 
     @Override
     public GraphNode<L> getNode(GraphNode<L> node) {
         nullCheck(node);
 
-        for (GraphNode<L> graphNode : nodesIndex.keySet()) {
-            if (node.equals(graphNode))
-                return graphNode;
-        }
-        return null;
+        return getNode(node.getLabel());
     }
 
     @Override
     public GraphNode<L> getNode(L label) {
-        return getNode(new GraphNode<>(label));
+        nullCheck(label);
+
+        int index = nodesIndex.indexOfLabel(label);
+        return index < 0 ? null : nodes.get(index);
     }
 
     @Override
     public GraphNode<L> getNode(int i) {
         indexCheck(i);
 
-        for (Map.Entry<GraphNode<L>, Integer> entry : nodesIndex.entrySet()) {
-            Integer index = entry.getValue();
-            if (index != null && index == i)
-                return entry.getKey();
-        }
-
-        throw new IndexOutOfBoundsException("L'indice passato non corrisponde a nessun nodo");
+        return nodes.get(i);
     }
 
     @Override
     public int getNodeIndexOf(GraphNode<L> node) {
         nullCheck(node);
 
-        Integer index = nodesIndex.get(node);
-        if (index == null) // Map.get() restituisce null se la chiave non esiste
+        int index = nodesIndex.get(node);
+        if (index < 0) // NodeIndexMap.get() restituisce -1 se la chiave non esiste
             throw new IllegalArgumentException("Il nodo specificato non esiste");
 
         return index;
@@ -219,14 +272,42 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
 
     @Override
     public int getNodeIndexOf(L label) {
-        return getNodeIndexOf(new GraphNode<>(label));
+        return labelToIndex(label);
     }
 
+    /*
+     * Vista non modificabile della lista dei nodi
+     */
     @Override
     public Set<GraphNode<L>> getNodes() {
-        return new HashSet<>(nodesIndex.keySet());
+        return nodesView;
     }
 
+    /*
+     * Copia la lista dei nodi in ordine di indice, senza copiare l'insieme dei
+     * nodi
+     */
+    @Override
+    public GraphNode<L>[] getNodesByIndex() {
+        return nodes.toArray(Graph.<L>newNodeArray(nodes.size()));
+    }
+
+    /**
+     * Aggiunge un arco a questo grafo. Il grafo non memorizza l'oggetto
+     * passato ma una propria copia, con gli stessi nodi e lo stesso peso:
+     * cambiare in seguito il peso dell'arco passato non modifica il grafo,
+     * e i metodi che restituiscono archi, come {@link #getEdge(int, int)},
+     * restituiscono la copia, uguale all'arco passato secondo equals.
+     *
+     * @param edge l'arco da inserire
+     * @return true se l'arco è stato inserito, false se un arco esattamente
+     *         uguale già esiste
+     *
+     * @throws NullPointerException se l'arco passato è nullo
+     * @throws IllegalArgumentException se almeno uno dei due nodi
+     * specificati nell'arco non esiste
+     * @throws IllegalArgumentException se l'arco è orientato
+     */
     @Override
     public boolean addEdge(GraphEdge<L> edge) {
         nullCheck(edge);
@@ -234,51 +315,40 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if (edge.isDirected())
             throw new IllegalArgumentException("Impossibile aggiungere un arco orientato in un grafo non orientato");
 
-        int i = getNodeIndexOf(edge.getNode1());
-        int j = getNodeIndexOf(edge.getNode2());
-
-        ArrayList<GraphEdge<L>> row = matrix.get(i);
-        // È sufficiente controllare solo una delle posizioni
-        if (row.get(j) != null && edge.equals(row.get(j)))
-            return false; // Esiste già un arco con gli stessi nodi di quello passato
-
-        // Aggiunge l'arco in posizione (i, j)
-        row.set(j, edge);
-
-        // Aggiunge l'arco in posizione (j, i)
-        row = matrix.get(j);
-        row.set(i, edge);
-        return true;
+        return addEdgeAt(getNodeIndexOf(edge.getNode1()), getNodeIndexOf(edge.getNode2()), edge.getWeight());
     }
 
     @Override
     public boolean addEdge(GraphNode<L> node1, GraphNode<L> node2) {
-        return addEdge(new GraphEdge<>(node1, node2, isDirected()));
+        return addWeightedEdge(node1, node2, Double.NaN);
     }
 
     @Override
     public boolean addWeightedEdge(GraphNode<L> node1, GraphNode<L> node2, double weight) {
-        return addEdge(new GraphEdge<>(node1, node2, isDirected(), weight));
+        return addEdgeAt(getNodeIndexOf(node1), getNodeIndexOf(node2), weight);
     }
 
     @Override
     public boolean addEdge(L label1, L label2) {
-        return addEdge(getNode(label1), getNode(label2));
+        return addWeightedEdge(label1, label2, Double.NaN);
     }
 
     @Override
     public boolean addWeightedEdge(L label1, L label2, double weight) {
-        return addWeightedEdge(getNode(label1), getNode(label2), weight);
+        return addEdgeAt(labelToIndex(label1), labelToIndex(label2), weight);
     }
 
     @Override
     public boolean addEdge(int i, int j) {
-        return addEdge(getNode(i), getNode(j));
+        return addWeightedEdge(i, j, Double.NaN);
     }
 
     @Override
     public boolean addWeightedEdge(int i, int j, double weight) {
-        return addWeightedEdge(getNode(i), getNode(j), weight);
+        indexCheck(i);
+        indexCheck(j);
+
+        return addEdgeAt(i, j, weight);
     }
 
     @Override
@@ -300,21 +370,40 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         // Elimina l'arco in posizione (j, i)
         row = matrix.get(j);
         row.set(i, null);
+        edgeCount--;
+        recordChange(GraphChangeLog.EDGE_REMOVED, i, j, graphEdge.getWeight());
     }
 
     @Override
     public void removeEdge(GraphNode<L> node1, GraphNode<L> node2) {
-        removeEdge(new GraphEdge<>(node1, node2, isDirected()));
+        nullCheck(node1);
+        nullCheck(node2);
+
+        removeEdge(getNodeIndexOf(node1), getNodeIndexOf(node2));
     }
 
     @Override
     public void removeEdge(L label1, L label2) {
-        removeEdge(getNode(label1), getNode(label2));
+        nullCheck(label1);
+        nullCheck(label2);
+
+        removeEdge(labelToIndex(label1), labelToIndex(label2));
     }
 
     @Override
     public void removeEdge(int i, int j) {
-        removeEdge(getEdge(i, j));
+        indexCheck(i);
+        indexCheck(j);
+
+        ArrayList<GraphEdge<L>> row = matrix.get(i);
+        GraphEdge<L> edge = row.get(j);
+        if (edge == null)
+            throw new IllegalArgumentException("L'arco passato non esiste");
+
+        row.set(j, null);
+        matrix.get(j).set(i, null);
+        edgeCount--;
+        recordChange(GraphChangeLog.EDGE_REMOVED, i, j, edge.getWeight());
     }
 
     @Override
@@ -329,12 +418,18 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
 
     @Override
     public GraphEdge<L> getEdge(GraphNode<L> node1, GraphNode<L> node2) {
-        return getEdge(new GraphEdge<>(node1, node2, isDirected()));
+        nullCheck(node1);
+        nullCheck(node2);
+
+        return matrix.get(getNodeIndexOf(node1)).get(getNodeIndexOf(node2));
     }
 
     @Override
     public GraphEdge<L> getEdge(L label1, L label2) {
-        return getEdge(new GraphNode<>(label1), new GraphNode<>(label2));
+        nullCheck(label1);
+        nullCheck(label2);
+
+        return matrix.get(labelToIndex(label1)).get(labelToIndex(label2));
     }
 
     @Override
@@ -361,7 +456,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
 
     @Override
     public Set<GraphNode<L>> getAdjacentNodesOf(L label) {
-        return getAdjacentNodesOf(getNode(label));
+        return getAdjacentNodesOf(nodes.get(labelToIndex(label)));
     }
 
     @Override
@@ -394,7 +489,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
 
     @Override
     public Set<GraphEdge<L>> getEdgesOf(L label) {
-        return getEdgesOf(new GraphNode<>(label));
+        return getEdgesOf(labelToIndex(label));
     }
 
     @Override
@@ -427,18 +522,337 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
                 "Operazione non supportata in un grafo non orientato");
     }
 
+    /*
+     * Vista non modificabile della metà superiore della matrice
+     */
     @Override
     public Set<GraphEdge<L>> getEdges() {
-        Set<GraphEdge<L>> edges = new HashSet<>();
+        return edgesView;
+    }
 
-        for (ArrayList<GraphEdge<L>> row : matrix) {
-            for (GraphEdge<L> edge : row) {
-                if (edge != null)
-                    edges.add(edge);
+    /*
+     * La dimensione è esatta solo prima della prima divisione, perché il
+     * numero di archi di un intervallo di righe non è noto senza scandirlo
+     */
+    @Override
+    public Stream<GraphEdge<L>> edgeStream() {
+        return StreamSupport.stream(new EdgesSpliterator(0, matrix.size(), edgeCount, true), false);
+    }
+
+    /*
+     * Scandisce direttamente la riga i della matrice, senza costruire l'insieme
+     * degli archi
+     */
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        indexCheck(i);
+        nullCheck(action);
+
+        ArrayList<GraphEdge<L>> row = matrix.get(i);
+        for (int j = 0; j < row.size(); j++) {
+            GraphEdge<L> edge = row.get(j);
+            if (edge != null)
+                action.accept(j, edge.getWeight());
+        }
+    }
+
+    /*
+     * Cambia il peso dell'arco registrando la modifica con gli indici nell'ordine
+     * passato
+     */
+    @Override
+    public void setEdgeWeight(int i, int j, double weight) {
+        indexCheck(i);
+        indexCheck(j);
+
+        GraphEdge<L> edge = matrix.get(i).get(j);
+        if (edge == null)
+            throw new IllegalArgumentException("L'arco passato non esiste");
+        ((OwnedEdge) edge).assign(weight);
+        recordChange(GraphChangeLog.WEIGHT_CHANGED, i, j, weight);
+    }
+
+    /**
+     * Inserisce tra i nodi di indici dati un nuovo arco del grafo, creato
+     * direttamente come copia di proprietà del grafo.
+     *
+     * @param i l'indice del primo nodo, già controllato
+     * @param j l'indice del secondo nodo, già controllato
+     * @param weight il peso dell'arco, Double.NaN se non è pesato
+     * @return true se l'arco è stato inserito, false se esiste già un arco
+     *         tra i due nodi
+     */
+    private boolean addEdgeAt(int i, int j, double weight) {
+        ArrayList<GraphEdge<L>> row = matrix.get(i);
+        // È sufficiente controllare solo una delle posizioni
+        if (row.get(j) != null)
+            return false; // Esiste già un arco con gli stessi nodi
+
+        GraphEdge<L> owned = new OwnedEdge(nodes.get(i), nodes.get(j), weight);
+
+        // Aggiunge l'arco in posizione (i, j)
+        row.set(j, owned);
+
+        // Aggiunge l'arco in posizione (j, i)
+        row = matrix.get(j);
+        row.set(i, owned);
+        edgeCount++;
+        recordChange(GraphChangeLog.EDGE_ADDED, i, j, weight);
+        return true;
+    }
+
+    /*
+     * Arco memorizzato nella matrice: un peso cambiato con setWeight() viene
+     * registrato come modifica del grafo finché l'arco ne fa parte
+     */
+    private final class OwnedEdge extends GraphEdge<L> {
+
+        OwnedEdge(GraphNode<L> node1, GraphNode<L> node2, double weight) {
+            super(node1, node2, false, weight);
+        }
+
+        @Override
+        public void setWeight(double weight) {
+            super.setWeight(weight);
+            int i = nodesIndex.get(getNode1());
+            int j = nodesIndex.get(getNode2());
+            // Un arco cancellato dal grafo non lo modifica più
+            if (i >= 0 && j >= 0 && matrix.get(i).get(j) == this)
+                recordChange(GraphChangeLog.WEIGHT_CHANGED, i, j, weight);
+        }
+
+        /*
+         * Cambia il peso senza registrare la modifica
+         */
+        void assign(double weight) {
+            super.setWeight(weight);
+        }
+    }
+
+    /*
+     * Insieme dei nodi collegato alla lista dei nodi
+     */
+    private final class NodesView extends AbstractSet<GraphNode<L>> {
+
+        @Override
+        public int size() {
+            return nodes.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return o instanceof GraphNode && nodesIndex.get((GraphNode<L>) o) >= 0;
+        }
+
+        @Override
+        public Iterator<GraphNode<L>> iterator() {
+            return Collections.unmodifiableList(nodes).iterator();
+        }
+    }
+
+    /*
+     * Insieme degli archi collegato alla matrice
+     */
+    private final class EdgesView extends AbstractSet<GraphEdge<L>> {
+
+        @Override
+        public int size() {
+            return edgeCount;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!(o instanceof GraphEdge))
+                return false;
+
+            GraphEdge<L> edge = (GraphEdge<L>) o;
+            int i = nodesIndex.get(edge.getNode1());
+            int j = nodesIndex.get(edge.getNode2());
+            return i >= 0 && j >= 0 && edge.equals(matrix.get(i).get(j));
+        }
+
+        @Override
+        public Iterator<GraphEdge<L>> iterator() {
+            return new EdgesIterator();
+        }
+    }
+
+    /*
+     * Scorre la metà superiore della matrice, riga per riga, in modo che ogni
+     * arco sia restituito una volta sola
+     */
+    private final class EdgesIterator implements Iterator<GraphEdge<L>> {
+
+        /*
+         * Posizione del prossimo arco da restituire
+         */
+        private int row;
+        private int column;
+
+        EdgesIterator() {
+            findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return row < matrix.size();
+        }
+
+        @Override
+        public GraphEdge<L> next() {
+            if (!hasNext())
+                throw new NoSuchElementException("Non ci sono altri archi");
+
+            GraphEdge<L> edge = matrix.get(row).get(column++);
+            findNext();
+            return edge;
+        }
+
+        /*
+         * Porta la posizione sul primo arco a partire da quella corrente
+         */
+        private void findNext() {
+            while (row < matrix.size()) {
+                ArrayList<GraphEdge<L>> cells = matrix.get(row);
+                while (column < cells.size()) {
+                    if (cells.get(column) != null)
+                        return;
+                    column++;
+                }
+                row++;
+                column = row;
             }
         }
+    }
 
-        return edges;
+    /*
+     * Scorre la metà superiore delle righe [row, end) della matrice. Una
+     * divisione cede la seconda metà delle righe ancora intere, scelta in
+     * modo che le due parti abbiano lo stesso numero di celle: le prime
+     * righe della metà superiore sono le più lunghe
+     */
+    private final class EdgesSpliterator implements Spliterator<GraphEdge<L>> {
+
+        /*
+         * Posizione corrente e prima riga esclusa
+         */
+        private int row;
+        private int column;
+        private int end;
+
+        /*
+         * Numero stimato di archi, esatto se exact è true
+         */
+        private long estimate;
+        private boolean exact;
+
+        EdgesSpliterator(int row, int end, long estimate, boolean exact) {
+            this.row = row;
+            this.column = row;
+            this.end = end;
+            this.estimate = estimate;
+            this.exact = exact;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super GraphEdge<L>> action) {
+            nullCheck(action);
+
+            while (row < end) {
+                ArrayList<GraphEdge<L>> cells = matrix.get(row);
+                while (column < cells.size()) {
+                    GraphEdge<L> edge = cells.get(column++);
+                    if (edge != null) {
+                        action.accept(edge);
+                        return true;
+                    }
+                }
+                row++;
+                column = row;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super GraphEdge<L>> action) {
+            nullCheck(action);
+
+            for (; row < end; row++, column = row) {
+                ArrayList<GraphEdge<L>> cells = matrix.get(row);
+                for (; column < cells.size(); column++) {
+                    GraphEdge<L> edge = cells.get(column);
+                    if (edge != null)
+                        action.accept(edge);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<GraphEdge<L>> trySplit() {
+            // Una riga già iniziata resta a questa parte
+            int first = column == row ? row : row + 1;
+            if (end - first < 2)
+                return null;
+
+            long total = cells(first, end);
+            int low = first + 1;
+            int high = end - 1;
+            // Prima riga della seconda parte: la minima che lascia almeno metà delle celle alla prima
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (2 * cells(first, middle) >= total)
+                    high = middle;
+                else
+                    low = middle + 1;
+            }
+
+            long suffix = (long) ((double) estimate * cells(low, end) / total);
+            EdgesSpliterator split = new EdgesSpliterator(low, end, suffix, false);
+            end = low;
+            estimate -= suffix;
+            exact = false;
+            return split;
+        }
+
+        /*
+         * Numero di celle della metà superiore nelle righe [from, to)
+         */
+        private long cells(int from, int to) {
+            long n = matrix.size();
+            long rows = to - from;
+            return rows * n - rows * (from + to - 1) / 2;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | (exact ? SIZED : 0);
+        }
+    }
+
+    /**
+     * Metodo di utilità che restituisce l'indice del nodo con l'etichetta
+     * data, cercandola nella mappa dei nodi senza creare oggetti
+     *
+     * @param label l'etichetta del nodo
+     * @return l'indice del nodo
+     *
+     * @throws NullPointerException se l'etichetta è <code>null</code>
+     * @throws IllegalArgumentException se nessun nodo ha l'etichetta data
+     */
+    private int labelToIndex(L label) {
+        nullCheck(label);
+
+        int index = nodesIndex.indexOfLabel(label);
+        if (index < 0)
+            throw new IllegalArgumentException("Il nodo specificato non esiste");
+        return index;
     }
 
     /**
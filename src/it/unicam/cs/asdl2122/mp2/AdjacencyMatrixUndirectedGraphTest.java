@@ -3,7 +3,9 @@ package it.unicam.cs.asdl2122.mp2;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.Spliterator;
 
 import org.junit.jupiter.api.Test;
 
@@ -321,6 +323,26 @@ class AdjacencyMatrixUndirectedGraphTest {
         assertFalse(g.addEdge("w", "u"));
     }
 
+    @Test
+    final void testAddEdgeStoresCopy() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("s");
+        g.addNode("u");
+        GraphEdge<String> esu = new GraphEdge<String>(new GraphNode<String>("s"), new GraphNode<String>("u"), false, 2.0);
+        assertTrue(g.addEdge(esu));
+        GraphEdge<String> stored = g.getEdge(0, 1);
+        assertTrue(stored != esu && stored.equals(esu));
+        assertTrue(stored.getNode1() == g.getNode(0) && stored.getNode2() == g.getNode(1));
+        esu.setWeight(9.0);
+        assertTrue(g.getWeight(0, 1) == 2.0);
+        assertTrue(g.addWeightedEdge(1, 1, 3.0));
+        assertTrue(g.getEdge(1, 1).getWeight() == 3.0);
+        assertFalse(g.addEdge(1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.addEdge(0, 2));
+        assertThrows(NullPointerException.class, () -> g.addEdge((GraphNode<String>) null, g.getNode(0)));
+        assertThrows(IllegalArgumentException.class, () -> g.addEdge("s", "x"));
+    }
+
     @Test
     final void testRemoveEdge() {
         Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
@@ -589,4 +611,114 @@ class AdjacencyMatrixUndirectedGraphTest {
         assertTrue(g.getDegreeOf(nw) == 1);
     }
 
+    @Test
+    final void testForEachNeighbour() {
+        AdjacencyMatrixUndirectedGraph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.forEachNeighbour(0, (j, w) -> {}));
+        g.addNode("s");
+        g.addNode("u");
+        g.addNode("x");
+        assertThrows(NullPointerException.class,
+                () -> g.forEachNeighbour(0, null));
+        g.addWeightedEdge("x", "s", 2.5);
+        g.addEdge("s", "s");
+        g.addWeightedEdge("u", "x", 1.0);
+        StringBuilder visited = new StringBuilder();
+        g.forEachNeighbour(0, (j, w) -> visited.append(j).append('/').append(w).append(' '));
+        assertEquals("0/NaN 2/2.5 ", visited.toString());
+        visited.setLength(0);
+        g.forEachNeighbour(2, (j, w) -> visited.append(j).append('/').append(w).append(' '));
+        assertEquals("0/2.5 1/1.0 ", visited.toString());
+    }
+
+    @Test
+    final void testHasEdgeAndGetWeight() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        assertThrows(IndexOutOfBoundsException.class, () -> g.hasEdge(0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getWeight(0, 0));
+        g.addNode("s");
+        g.addNode("u");
+        g.addNode("x");
+        g.addWeightedEdge("s", "u", 3.5);
+        g.addEdge("x", "x");
+        assertTrue(g.hasEdge(1, 0));
+        assertTrue(g.getWeight(0, 1) == 3.5);
+        assertTrue(g.hasEdge(2, 2));
+        assertTrue(Double.isNaN(g.getWeight(2, 2)));
+        assertFalse(g.hasEdge(0, 2));
+        assertTrue(Double.isNaN(g.getWeight(2, 0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.hasEdge(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> g.removeEdge(0, 2));
+        g.removeEdge(new GraphNode<String>("u"), new GraphNode<String>("s"));
+        assertFalse(g.hasEdge(0, 1));
+    }
+
+    @Test
+    final void testLiveViews() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        Set<GraphNode<String>> nodes = g.getNodes();
+        Set<GraphEdge<String>> edges = g.getEdges();
+        assertTrue(nodes.isEmpty());
+        assertFalse(edges.iterator().hasNext());
+        g.addNode("s");
+        g.addNode("u");
+        g.addNode("x");
+        g.addWeightedEdge("s", "u", 2);
+        g.addEdge("x", "x");
+        g.addEdge("u", "x");
+        assertTrue(nodes.size() == 3);
+        assertTrue(nodes.contains(new GraphNode<String>("x")));
+        assertFalse(nodes.contains(new GraphNode<String>("y")));
+        assertFalse(nodes.contains("x"));
+        assertTrue(edges.size() == 3);
+        assertTrue(g.edgeCount() == 3);
+        assertTrue(edges.contains(new GraphEdge<String>(new GraphNode<String>("u"), new GraphNode<String>("s"), false)));
+        assertFalse(edges.contains(new GraphEdge<String>(new GraphNode<String>("s"), new GraphNode<String>("x"), false)));
+        assertFalse(edges.contains(new GraphEdge<String>(new GraphNode<String>("s"), new GraphNode<String>("y"), false)));
+        Set<GraphEdge<String>> copy = new HashSet<GraphEdge<String>>(edges);
+        assertTrue(copy.size() == 3);
+        assertTrue(edges.equals(copy));
+        assertThrows(UnsupportedOperationException.class, () -> nodes.add(new GraphNode<String>("y")));
+        assertThrows(UnsupportedOperationException.class, () -> edges.clear());
+        assertThrows(UnsupportedOperationException.class, () -> {
+            Iterator<GraphNode<String>> iterator = nodes.iterator();
+            iterator.next();
+            iterator.remove();
+        });
+
+        g.removeNode("u");
+        assertTrue(nodes.size() == 2);
+        assertTrue(edges.size() == 1);
+        assertTrue(g.edgeCount() == 1);
+        assertTrue(copy.size() == 3);
+        g.clear();
+        assertTrue(nodes.isEmpty());
+        assertTrue(edges.isEmpty());
+    }
+
+    @Test
+    final void testStreams() {
+        Graph<Integer> g = GraphGenerator.erdosRenyi(300, 0.05, 5)
+                .populate(new AdjacencyMatrixUndirectedGraph<Integer>(), i -> i);
+        g.addEdge(7, 7);
+        assertTrue(g.nodeIndexStream().parallel().sum() == 299 * 300 / 2);
+        assertTrue(g.edgeStream().count() == g.edgeCount());
+        Set<GraphEdge<Integer>> edges = g.edgeStream().parallel().collect(java.util.stream.Collectors.toSet());
+        assertTrue(edges.equals(g.getEdges()));
+        assertTrue(g.edgeStream().parallel().toArray().length == g.edgeCount());
+
+        // Le due parti di una divisione hanno circa lo stesso numero di archi
+        Spliterator<GraphEdge<Integer>> first = g.edgeStream().spliterator();
+        assertTrue(first.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(first.getExactSizeIfKnown() == g.edgeCount());
+        Spliterator<GraphEdge<Integer>> second = first.trySplit();
+        long[] counts = new long[2];
+        first.forEachRemaining(edge -> counts[0]++);
+        second.forEachRemaining(edge -> counts[1]++);
+        assertTrue(counts[0] + counts[1] == g.edgeCount());
+        assertTrue(Math.abs(counts[0] - counts[1]) < g.edgeCount() / 10);
+        assertTrue(new AdjacencyMatrixUndirectedGraph<String>().edgeStream().count() == 0);
+    }
+
 }
@@ -0,0 +1,184 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Controlla che le operazioni più frequenti non allochino più memoria del
+ * previsto. Ogni operazione viene prima eseguita molte volte, in modo che sia
+ * compilata, e poi misurata con il contatore dei byte allocati dal thread
+ * corrente; la memoria allocata per operazione deve restare entro un budget
+ * fissato, che per le operazioni di lettura è zero. Un test che fallisce
+ * indica che una modifica ha introdotto nuovi oggetti temporanei in un
+ * percorso che prima non ne creava.
+ *
+ * Il contatore è letto con {@link ThreadAllocations}: se la JVM non permette
+ * di misurare la memoria allocata dai thread i controlli vengono saltati.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class AllocationTest {
+
+    /*
+     * Esecuzioni di riscaldamento e misurate di ogni operazione
+     */
+    private static final int WARMUP = 20_000;
+    private static final int REPETITIONS = 20_000;
+
+    /*
+     * Byte tollerati in tutta la misura, per eventuali allocazioni interne
+     * della JVM non legate all'operazione
+     */
+    private static final long TOLERANCE = 1_024;
+
+    /*
+     * Consuma i risultati delle operazioni
+     */
+    private static volatile double sink;
+
+    /*
+     * Restituisce i byte allocati dal thread corrente in REPETITIONS esecuzioni
+     * dell'operazione, dopo WARMUP esecuzioni di riscaldamento, oppure -1 se
+     * non possono essere misurati
+     */
+    private static long allocatedBytes(Runnable operation) {
+        if (!ThreadAllocations.isSupported())
+            return -1;
+        for (int k = 0; k < WARMUP; k++) {
+            operation.run();
+        }
+        long before = ThreadAllocations.allocatedBytes();
+        for (int k = 0; k < REPETITIONS; k++) {
+            operation.run();
+        }
+        return ThreadAllocations.allocatedBytes() - before;
+    }
+
+    /*
+     * Controlla che l'operazione allochi al più budget byte per esecuzione
+     */
+    private static void assertBudget(String name, long budget, Runnable operation) {
+        long bytes = allocatedBytes(operation);
+        if (bytes < 0)
+            return;
+        assertTrue(bytes <= budget * REPETITIONS + TOLERANCE,
+                name + " alloca " + bytes / REPETITIONS + " byte per operazione, budget " + budget);
+    }
+
+    private static Graph<Integer> randomGraph() {
+        return GraphGenerator.erdosRenyi(200, 0.05, 1)
+                .populate(new AdjacencyMatrixUndirectedGraph<Integer>(), i -> i);
+    }
+
+    @Test
+    final void testGetEdge() {
+        Graph<Integer> g = randomGraph();
+        int[] k = {0};
+        assertBudget("getEdge(int,int)", 0, () -> {
+            int i = k[0]++ % 200;
+            GraphEdge<Integer> edge = g.getEdge(i, (i * 31) % 200);
+            if (edge != null)
+                sink = edge.getWeight();
+        });
+    }
+
+    @Test
+    final void testHasEdgeAndGetWeight() {
+        Graph<Integer> g = randomGraph();
+        GraphNode<Integer>[] nodes = g.getNodesByIndex();
+        int[] k = {0};
+        assertBudget("hasEdge(int,int)", 0, () -> {
+            int i = k[0]++ % 200;
+            sink = g.hasEdge(i, (i * 31) % 200) ? 1 : 0;
+        });
+        assertBudget("getWeight(int,int)", 0, () -> {
+            int i = k[0]++ % 200;
+            sink = g.getWeight(i, (i * 31) % 200);
+        });
+        assertBudget("getEdge(GraphNode,GraphNode)", 0, () -> {
+            int i = k[0]++ % 200;
+            GraphEdge<Integer> edge = g.getEdge(nodes[i], nodes[(i * 31) % 200]);
+            if (edge != null)
+                sink = edge.getWeight();
+        });
+    }
+
+    @Test
+    final void testLabelLookup() {
+        Graph<String> g = GraphGenerator.erdosRenyi(200, 0.05, 1)
+                .populate(new AdjacencyMatrixUndirectedGraph<String>(), i -> "node" + i);
+        String[] labels = new String[200];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = "node" + i;
+        }
+        int[] k = {0};
+        assertBudget("getNodeIndexOf(L)", 0, () -> sink = g.getNodeIndexOf(labels[k[0]++ % 200]));
+        assertBudget("getNode(L)", 0, () -> sink = g.getNode(labels[k[0]++ % 200]).getColor());
+        assertBudget("getEdge(L,L)", 0, () -> {
+            int i = k[0]++ % 200;
+            GraphEdge<String> edge = g.getEdge(labels[i], labels[(i * 31) % 200]);
+            if (edge != null)
+                sink = edge.getWeight();
+        });
+    }
+
+    @Test
+    final void testForEachNeighbour() {
+        AdjacencyMatrixUndirectedGraph<Integer> g = (AdjacencyMatrixUndirectedGraph<Integer>) randomGraph();
+        CompressedAdjacency a = CompressedAdjacency.of(g);
+        double[] total = {0};
+        IndexedAdjacency.NeighbourConsumer action = (neighbour, weight) -> total[0] += weight;
+        int[] k = {0};
+        assertBudget("AdjacencyMatrixUndirectedGraph.forEachNeighbour", 0,
+                () -> g.forEachNeighbour(k[0]++ % 200, action));
+        assertBudget("CompressedAdjacency.forEachNeighbour", 0,
+                () -> a.forEachNeighbour(k[0]++ % 200, action));
+        sink = total[0];
+    }
+
+    @Test
+    final void testDisjointSets() {
+        ForestDisjointSets<Integer> f = new ForestDisjointSets<Integer>();
+        Integer[] elements = new Integer[1_000];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = Integer.valueOf(i + 1_000);
+            f.makeSet(elements[i]);
+        }
+        int[] k = {0};
+        assertBudget("ForestDisjointSets.findSet/union", 0, () -> {
+            int i = k[0]++ % elements.length;
+            if (f.findSet(elements[i]) != f.findSet(elements[(i * 7) % elements.length]))
+                f.union(elements[i], elements[(i * 7) % elements.length]);
+        });
+        IntDisjointSets s = new IntDisjointSets(1_000);
+        assertBudget("IntDisjointSets.findSet/union", 0, () -> {
+            int i = k[0]++ % 1_000;
+            s.union(i, (i * 7) % 1_000);
+            sink = s.findSet(i);
+        });
+    }
+
+    @Test
+    final void testPrimMSP() {
+        Graph<Integer> g = randomGraph();
+        PrimMSP<Integer> prim = new PrimMSP<Integer>();
+        SpanningTreeWorkspace<Integer> workspace = new SpanningTreeWorkspace<Integer>();
+        GraphNode<Integer> source = g.getNode(0);
+        // Il calcolo su un workspace già dimensionato non deve creare oggetti
+        assertBudget("PrimMSP.computeSpanningTree", 0, () -> {
+            prim.computeSpanningTree(g, source, workspace);
+            sink = workspace.getTotalWeight();
+        });
+    }
+
+    @Test
+    final void testKruskalMSP() {
+        Graph<Integer> g = randomGraph();
+        KruskalMSP<Integer> kruskal = new KruskalMSP<Integer>();
+        // Solo l'insieme restituito, con un arco per ogni nodo tranne uno
+        long budget = 80L * (g.nodeCount() - 1) + 256;
+        assertBudget("KruskalMSP.computeMSP", budget, () -> sink = kruskal.computeMSP(g).size());
+    }
+}
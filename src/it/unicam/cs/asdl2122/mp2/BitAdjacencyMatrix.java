@@ -0,0 +1,258 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Matrice di adiacenza per grafi non pesati che memorizza un bit per cella.
+ * Le righe sono array di parole long consecutive in un unico array, quindi
+ * una matrice di n nodi occupa circa n * n / 8 byte, 64 volte meno di una
+ * matrice di riferimenti.
+ *
+ * Le operazioni lavorano su parole intere: il grado di un nodo si calcola
+ * con {@link Long#bitCount}, i vicini si scandiscono con
+ * {@link Long#numberOfTrailingZeros} e il numero di vicini comuni di due nodi,
+ * usato per esempio per contare i triangoli, è la somma dei bit dell'and
+ * delle due righe.
+ *
+ * La matrice non memorizza pesi: {@link #set(int, int, double)} accetta solo
+ * Double.NaN, il peso degli archi non pesati, e {@link #getWeight(int, int)}
+ * restituisce sempre Double.NaN.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public class BitAdjacencyMatrix implements WeightMatrix {
+
+    /*
+     * I bit di tutte le righe, ognuna lunga words parole
+     */
+    private long[] bits;
+
+    /*
+     * Numero di parole di ogni riga
+     */
+    private int words;
+
+    /*
+     * Numero di nodi
+     */
+    private int size;
+
+    /**
+     * Crea una matrice vuota.
+     */
+    public BitAdjacencyMatrix() {
+        this.bits = new long[0];
+    }
+
+    @Override
+    public int nodeCount() {
+        return size;
+    }
+
+    @Override
+    public void addNode() {
+        if (size == 64 * words)
+            grow();
+
+        // Riga e colonna possono contenere bit di nodi cancellati
+        Arrays.fill(bits, size * words, (size + 1) * words, 0);
+        long mask = ~(1L << size);
+        for (int r = 0; r < size; r++) {
+            bits[r * words + (size >>> 6)] &= mask;
+        }
+        size++;
+    }
+
+    /*
+     * Raddoppia la lunghezza delle righe, copiando le righe esistenti
+     */
+    private void grow() {
+        int newWords = Math.max(1, 2 * words);
+        if ((long) 64 * newWords * newWords > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Impossibile aggiungere un nodo: la matrice ha già " + size + " nodi");
+
+        long[] grown = new long[64 * newWords * newWords];
+        for (int r = 0; r < size; r++) {
+            System.arraycopy(bits, r * words, grown, r * newWords, words);
+        }
+        bits = grown;
+        words = newWords;
+    }
+
+    @Override
+    public void removeNode(int i) {
+        indexCheck(i);
+
+        System.arraycopy(bits, (i + 1) * words, bits, i * words, (size - i - 1) * words);
+        size--;
+        for (int r = 0; r < size; r++) {
+            removeBit(r * words, i);
+        }
+    }
+
+    /*
+     * Elimina il bit i da una riga, spostando di una posizione i bit
+     * successivi
+     */
+    private void removeBit(int row, int i) {
+        int w = i >>> 6;
+        long word = bits[row + w];
+        long low = word & ((1L << i) - 1);
+        long high = (word >>> 1) & -(1L << i);
+        bits[row + w] = low | high;
+        for (int k = w + 1; k < words; k++) {
+            bits[row + k - 1] |= bits[row + k] << 63;
+            bits[row + k] >>>= 1;
+        }
+    }
+
+    @Override
+    public void clear() {
+        bits = new long[0];
+        words = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean contains(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return (bits[i * words + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    @Override
+    public double getWeight(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return Double.NaN;
+    }
+
+    @Override
+    public void set(int i, int j, double weight) {
+        indexCheck(i);
+        indexCheck(j);
+        if (!Double.isNaN(weight))
+            throw new IllegalArgumentException("Impossibile memorizzare un peso in una matrice di bit");
+
+        bits[i * words + (j >>> 6)] |= 1L << j;
+        bits[j * words + (i >>> 6)] |= 1L << i;
+    }
+
+    @Override
+    public void remove(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        bits[i * words + (j >>> 6)] &= ~(1L << j);
+        bits[j * words + (i >>> 6)] &= ~(1L << i);
+    }
+
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        indexCheck(i);
+        if (action == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+
+        int row = i * words;
+        for (int w = 0; w < words; w++) {
+            long word = bits[row + w];
+            while (word != 0) {
+                action.accept((w << 6) + Long.numberOfTrailingZeros(word), Double.NaN);
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Restituisce il numero di vicini di un nodo, in cui un cappio conta una
+     * sola volta.
+     *
+     * @param i l'indice del nodo
+     * @return il numero di vicini
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public int degree(int i) {
+        indexCheck(i);
+
+        int degree = 0;
+        for (int w = i * words; w < (i + 1) * words; w++) {
+            degree += Long.bitCount(bits[w]);
+        }
+        return degree;
+    }
+
+    /**
+     * Restituisce il numero di nodi adiacenti sia a i sia a j.
+     *
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @return il numero di vicini comuni
+     *
+     * @throws IndexOutOfBoundsException se uno degli indici è fuori
+     * dall'intervallo <code>[0, nodeCount() - 1]</code>
+     */
+    public int commonNeighbourCount(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        int count = 0;
+        int a = i * words;
+        int b = j * words;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(bits[a + w] & bits[b + w]);
+        }
+        return count;
+    }
+
+    /**
+     * Conta i triangoli del grafo, cioè le terne di nodi distinti collegati a
+     * due a due. Per ogni arco (i, j) con i &lt; j vengono contati i vicini
+     * comuni con indice maggiore di j, in modo che ogni triangolo sia contato
+     * una sola volta; i cappi vengono ignorati.
+     *
+     * @return il numero di triangoli
+     */
+    public long triangleCount() {
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            int a = i * words;
+            for (int w = (i + 1) >>> 6; w < words; w++) {
+                long word = bits[a + w];
+                if (w == (i + 1) >>> 6)
+                    word &= -(1L << (i + 1));
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    int b = j * words;
+                    // Solo i vicini comuni con indice maggiore di j
+                    int first = (j + 1) >>> 6;
+                    for (int k = first; k < words; k++) {
+                        long common = bits[a + k] & bits[b + k];
+                        if (k == first)
+                            common &= -(1L << (j + 1));
+                        count += Long.bitCount(common);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param index l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti dell'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int index) {
+        if (index < 0 || index > size - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+}
@@ -0,0 +1,117 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe BitAdjacencyMatrix.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class BitAdjacencyMatrixTest {
+
+    @Test
+    final void testSameAsTriangular() {
+        // Modifiche casuali su più di 64 nodi, confrontate con una matrice pesata
+        BitAdjacencyMatrix m = new BitAdjacencyMatrix();
+        TriangularWeightMatrix expected = new TriangularWeightMatrix();
+        SplittableRandom random = new SplittableRandom(5);
+        for (int step = 0; step < 20_000; step++) {
+            int n = expected.nodeCount();
+            int operation = random.nextInt(20);
+            if (n < 2 || (operation == 0 && n < 200) || step < 150) {
+                m.addNode();
+                expected.addNode();
+            } else if (operation == 1) {
+                int i = random.nextInt(n);
+                m.removeNode(i);
+                expected.removeNode(i);
+            } else {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (operation < 6) {
+                    m.remove(i, j);
+                    expected.remove(i, j);
+                } else {
+                    m.set(i, j, Double.NaN);
+                    expected.set(i, j, Double.NaN);
+                }
+            }
+        }
+        int n = expected.nodeCount();
+        assertTrue(m.nodeCount() == n);
+        for (int i = 0; i < n; i++) {
+            int degree = 0;
+            for (int j = 0; j < n; j++) {
+                assertTrue(m.contains(i, j) == expected.contains(i, j));
+                if (expected.contains(i, j))
+                    degree++;
+            }
+            assertTrue(m.degree(i) == degree);
+            StringBuilder actual = new StringBuilder();
+            StringBuilder wanted = new StringBuilder();
+            m.forEachNeighbour(i, (j, w) -> actual.append(j).append(' '));
+            expected.forEachNeighbour(i, (j, w) -> wanted.append(j).append(' '));
+            assertTrue(actual.toString().equals(wanted.toString()));
+        }
+
+        long triangles = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int common = 0;
+                for (int k = 0; k < n; k++) {
+                    if (expected.contains(i, k) && expected.contains(j, k))
+                        common++;
+                }
+                assertTrue(m.commonNeighbourCount(i, j) == common);
+                for (int k = j + 1; k < n && expected.contains(i, j); k++) {
+                    if (expected.contains(i, k) && expected.contains(j, k))
+                        triangles++;
+                }
+            }
+        }
+        assertTrue(m.triangleCount() == triangles);
+    }
+
+    @Test
+    final void testUnweightedGraph() {
+        Graph<Integer> g = new WeightMatrixUndirectedGraph<Integer>(new BitAdjacencyMatrix());
+        Graph<Integer> expected = new AdjacencyMatrixUndirectedGraph<Integer>();
+        GraphGenerator generator = GraphGenerator.erdosRenyi(150, 0.02, 2);
+        for (int i = 0; i < 150; i++) {
+            g.addNode(i);
+            expected.addNode(i);
+        }
+        generator.generate((i, j, w) -> {
+            g.addEdge(i, j);
+            expected.addEdge(i, j);
+        });
+        assertTrue(g.edgeCount() == expected.edgeCount());
+        assertTrue(g.getEdges().equals(expected.getEdges()));
+        assertArrayEquals(new UndirectedGraphConnectedComponentsComputer<Integer>().computeComponentLabelling(expected).toArray(),
+                new UndirectedGraphConnectedComponentsComputer<Integer>().computeComponentLabelling(g).toArray());
+        assertThrows(IllegalArgumentException.class, () -> g.addWeightedEdge(0, 1, 1.5));
+        assertTrue(g.edgeCount() == expected.edgeCount());
+        assertFalse(g.getEdge(g.getEdges().iterator().next()).hasWeight());
+    }
+
+    @Test
+    final void testExceptions() {
+        BitAdjacencyMatrix m = new BitAdjacencyMatrix();
+        assertThrows(IndexOutOfBoundsException.class, () -> m.contains(0, 0));
+        m.addNode();
+        assertThrows(IllegalArgumentException.class, () -> m.set(0, 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> m.degree(1));
+        assertThrows(NullPointerException.class, () -> m.forEachNeighbour(0, null));
+        m.set(0, 0, Double.NaN);
+        assertTrue(m.contains(0, 0));
+        assertTrue(Double.isNaN(m.getWeight(0, 0)));
+        assertTrue(m.triangleCount() == 0);
+        m.clear();
+        assertTrue(m.nodeCount() == 0);
+    }
+}
@@ -0,0 +1,184 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Calcolatore delle componenti connesse di un grafo non orientato basato su
+ * visite in ampiezza, in alternativa agli insiemi disgiunti usati da
+ * {@link UndirectedGraphConnectedComponentsComputer}. I nodi vengono scanditi
+ * in ordine di indice e da ogni nodo non ancora etichettato parte una visita
+ * che etichetta l'intera componente.
+ *
+ * La visita lavora sugli indici dei nodi tramite {@link IndexedAdjacency}: la
+ * coda è un array di interi e le etichette sono memorizzate in un array, quindi
+ * i colori dei nodi del grafo non vengono usati né modificati. Se il grafo non
+ * fornisce direttamente le adiacenze per indice, queste vengono prima copiate
+ * in una {@link CompressedAdjacency}.
+ *
+ * Oltre alle etichette la visita può restituire l'ordine in cui ha raggiunto i
+ * nodi: i nodi di ogni componente sono contigui e in ordine di visita in
+ * ampiezza.
+ *
+ * Un'istanza non conserva stato tra un calcolo e l'altro e può essere usata
+ * da più thread contemporaneamente.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ *
+ * @param <L> il tipo delle etichette dei nodi del grafo
+ */
+public class BreadthFirstConnectedComponentsComputer<L> {
+
+    /**
+     * Crea un calcolatore di componenti connesse.
+     */
+    public BreadthFirstConnectedComponentsComputer() {
+    }
+
+    /**
+     * Calcola le componenti connesse di un grafo non orientato.
+     *
+     * @param g un grafo non orientato
+     * @return un insieme di componenti connesse, ognuna rappresentata da un
+     *         insieme di nodi del grafo
+     *
+     * @throws NullPointerException se il grafo passato è nullo
+     * @throws IllegalArgumentException se il grafo passato è orientato
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     */
+    public Set<Set<GraphNode<L>>> computeConnectedComponents(Graph<L> g) {
+        return computeComponentLabelling(g).toComponentSets();
+    }
+
+    /**
+     * Calcola le componenti connesse di un grafo non orientato restituendo
+     * l'identificativo della componente di ogni nodo.
+     *
+     * @param g un grafo non orientato
+     * @return l'etichettatura delle componenti connesse di g
+     *
+     * @throws NullPointerException se il grafo passato è nullo
+     * @throws IllegalArgumentException se il grafo passato è orientato
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     */
+    public ConnectedComponentsLabelling<L> computeComponentLabelling(Graph<L> g) {
+        return computeComponentLabelling(g, null);
+    }
+
+    /**
+     * Calcola le componenti connesse di un grafo non orientato restituendo
+     * l'identificativo della componente di ogni nodo e l'ordine di visita.
+     *
+     * @param g un grafo non orientato
+     * @param order un array di lunghezza almeno {@code g.nodeCount()} in cui
+     *              vengono scritti gli indici dei nodi nell'ordine di visita,
+     *              oppure null se l'ordine non interessa
+     * @return l'etichettatura delle componenti connesse di g
+     *
+     * @throws NullPointerException se il grafo passato è nullo
+     * @throws IllegalArgumentException se il grafo passato è orientato o se
+     * l'array dell'ordine è troppo corto
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     */
+    public ConnectedComponentsLabelling<L> computeComponentLabelling(Graph<L> g, int[] order) {
+        if (g == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo su un grafo nullo");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Impossibile eseguire l'algoritmo su un grafo orientato");
+
+        Graph<L> stable = GraphSnapshot.stable(g);
+        IndexedAdjacency adjacency = stable instanceof IndexedAdjacency
+                ? (IndexedAdjacency) stable
+                : CompressedAdjacency.of(stable);
+        return label(adjacency, order, stable.getNodesByIndex());
+    }
+
+    /**
+     * Calcola le componenti connesse di un grafo dato dalle sue adiacenze per
+     * indice.
+     *
+     * @param adjacency le adiacenze del grafo
+     * @param order un array di lunghezza almeno {@code adjacency.nodeCount()}
+     *              in cui vengono scritti gli indici dei nodi nell'ordine di
+     *              visita, oppure null se l'ordine non interessa
+     * @return l'etichettatura delle componenti connesse, senza nodi associati
+     *
+     * @throws NullPointerException se le adiacenze sono null
+     * @throws IllegalArgumentException se l'array dell'ordine è troppo corto
+     */
+    public ConnectedComponentsLabelling<L> computeComponentLabelling(IndexedAdjacency adjacency, int[] order) {
+        if (adjacency == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo su adiacenze nulle");
+
+        return label(adjacency, order, null);
+    }
+
+    /**
+     * Esegue le visite in ampiezza ed etichetta le componenti.
+     *
+     * @param adjacency le adiacenze del grafo
+     * @param order l'array in cui scrivere l'ordine di visita, oppure null
+     * @param nodes i nodi del grafo disposti per indice, oppure null
+     * @return l'etichettatura delle componenti connesse
+     *
+     * @throws IllegalArgumentException se l'array dell'ordine è troppo corto
+     */
+    private ConnectedComponentsLabelling<L> label(IndexedAdjacency adjacency, int[] order, GraphNode<L>[] nodes) {
+        int n = adjacency.nodeCount();
+        if (order != null && order.length < n)
+            throw new IllegalArgumentException("L'array dell'ordine di visita è troppo corto");
+
+        /*
+            Ogni nodo entra in coda una sola volta, quindi la coda non ha bisogno di essere
+            circolare e alla fine contiene proprio l'ordine di visita
+        */
+        Visit visit = new Visit(n, order != null ? order : new int[n]);
+        int componentCount = 0;
+        for (int s = 0; s < n; s++) {
+            if (visit.componentOf[s] == Visit.UNVISITED) {
+                visit.component = componentCount++;
+                visit.enqueue(s);
+                while (visit.head < visit.tail) {
+                    adjacency.forEachNeighbour(visit.queue[visit.head++], visit);
+                }
+            }
+        }
+
+        return new ConnectedComponentsLabelling<>(visit.componentOf, componentCount, nodes);
+    }
+
+    /*
+     * Stato di una visita: è anche l'azione eseguita sui vicini, in modo da non
+     * creare un oggetto per ogni nodo estratto dalla coda
+     */
+    private static final class Visit implements IndexedAdjacency.NeighbourConsumer {
+
+        static final int UNVISITED = -1;
+
+        final int[] componentOf;
+        final int[] queue;
+        int head;
+        int tail;
+        int component;
+
+        Visit(int n, int[] queue) {
+            this.componentOf = new int[n];
+            Arrays.fill(componentOf, UNVISITED);
+            this.queue = queue;
+        }
+
+        void enqueue(int i) {
+            componentOf[i] = component;
+            queue[tail++] = i;
+        }
+
+        @Override
+        public void accept(int neighbour, double weight) {
+            if (componentOf[neighbour] == UNVISITED)
+                enqueue(neighbour);
+        }
+    }
+}
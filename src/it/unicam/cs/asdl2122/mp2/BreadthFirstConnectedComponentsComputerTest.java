@@ -0,0 +1,73 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe BreadthFirstConnectedComponentsComputer.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class BreadthFirstConnectedComponentsComputerTest {
+
+    @Test
+    final void testExceptionsAndTrivialCases() {
+        BreadthFirstConnectedComponentsComputer<String> c = new BreadthFirstConnectedComponentsComputer<String>();
+        assertThrows(NullPointerException.class,
+                () -> c.computeConnectedComponents(null));
+        assertThrows(NullPointerException.class,
+                () -> c.computeComponentLabelling((IndexedAdjacency) null, null));
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        assertTrue(c.computeConnectedComponents(g).isEmpty());
+        g.addNode("a");
+        g.addNode("b");
+        assertThrows(IllegalArgumentException.class,
+                () -> c.computeComponentLabelling(g, new int[1]));
+        assertTrue(c.computeComponentLabelling(g).getComponentCount() == 2);
+    }
+
+    @Test
+    final void testComputeConnectedComponents() {
+        BreadthFirstConnectedComponentsComputer<String> c = new BreadthFirstConnectedComponentsComputer<String>();
+        UndirectedGraphConnectedComponentsComputer<String> s = new UndirectedGraphConnectedComponentsComputer<String>();
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("a");
+        g.addNode("b");
+        g.addNode("c");
+        g.addNode("d");
+        g.addNode("e");
+        g.addNode("f");
+        g.addNode("g");
+        g.addEdge("a", "d");
+        g.addEdge("d", "b");
+        g.addEdge("a", "f");
+        g.addEdge("c", "e");
+        g.addEdge("g", "g");
+        assertTrue(c.computeConnectedComponents(g).equals(s.computeConnectedComponents(g)));
+        int[] order = new int[7];
+        ConnectedComponentsLabelling<String> l = c.computeComponentLabelling(g, order);
+        assertArrayEquals(new int[] {0, 0, 1, 0, 1, 0, 2}, l.toArray());
+        // a, poi i suoi vicini d ed f, poi il vicino di d, poi le altre componenti
+        assertArrayEquals(new int[] {0, 3, 5, 1, 2, 4, 6}, order);
+        g.addEdge("g", "b");
+        g.addEdge("e", "g");
+        assertTrue(c.computeConnectedComponents(g).equals(s.computeConnectedComponents(g)));
+        assertTrue(c.computeComponentLabelling(g).getComponentCount() == 1);
+    }
+
+    @Test
+    final void testComputeComponentLabellingOnCompressedAdjacency() {
+        BreadthFirstConnectedComponentsComputer<Integer> c = new BreadthFirstConnectedComponentsComputer<Integer>();
+        // Cammino 0 - 2 - 4 e arco 1 - 3, il nodo 5 è isolato
+        CompressedAdjacency a = CompressedAdjacency.fromEdgeArrays(6,
+                new int[] {4, 0, 3}, new int[] {2, 2, 1}, new double[3], 3);
+        int[] order = new int[6];
+        ConnectedComponentsLabelling<Integer> l = c.computeComponentLabelling(a, order);
+        assertTrue(l.getComponentCount() == 3);
+        assertArrayEquals(new int[] {0, 1, 0, 1, 0, 2}, l.toArray());
+        assertArrayEquals(new int[] {0, 2, 4, 1, 3, 5}, order);
+        assertThrows(UnsupportedOperationException.class, () -> l.getComponent(0));
+    }
+}
@@ -0,0 +1,280 @@
+package it.unicam.cs.asdl2122.mp2;
+
+/**
+ * Rappresentazione immutabile e compatta delle adiacenze di un grafo non
+ * orientato nel formato CSR (Compressed Sparse Row). I nodi sono identificati
+ * dagli indici <code>[0, nodeCount() - 1]</code>; i vicini del nodo i sono gli
+ * elementi di {@code targets} nelle posizioni
+ * <code>[offsets[i], offsets[i + 1] - 1]</code>, in ordine crescente di
+ * indice, e il peso dell'arco corrispondente si trova nella stessa posizione
+ * di {@code weights}.
+ *
+ * Ogni arco non orientato compare due volte, una nella riga di ciascun
+ * estremo, tranne i cappi che compaiono una sola volta. Tutta la struttura è
+ * fatta da tre array di tipi primitivi, quindi può essere scandita senza
+ * creare oggetti ed è adatta agli algoritmi che lavorano in parallelo.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public final class CompressedAdjacency implements IndexedAdjacency {
+
+    /*
+     * Posizione di inizio della riga di ogni nodo in targets e weights, con un
+     * elemento finale uguale alla lunghezza totale
+     */
+    final int[] offsets;
+
+    /*
+     * Indici dei vicini, riga per riga
+     */
+    final int[] targets;
+
+    /*
+     * Pesi degli archi, paralleli a targets
+     */
+    final double[] weights;
+
+    /*
+     * Numero di archi non orientati
+     */
+    private final int edgeCount;
+
+    /**
+     * Costruisce la struttura a partire dagli array già riempiti, che non
+     * vengono copiati.
+     *
+     * @param offsets gli inizi delle righe, di lunghezza nodeCount + 1
+     * @param targets i vicini, riga per riga
+     * @param weights i pesi paralleli a targets
+     * @param edgeCount il numero di archi non orientati
+     */
+    CompressedAdjacency(int[] offsets, int[] targets, double[] weights, int edgeCount) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.edgeCount = edgeCount;
+    }
+
+    /**
+     * Costruisce la rappresentazione compatta delle adiacenze di un grafo non
+     * orientato, usando gli indici dei nodi del grafo.
+     *
+     * @param g il grafo da rappresentare
+     * @param <L> il tipo delle etichette dei nodi del grafo
+     * @return la rappresentazione compatta delle adiacenze di g
+     *
+     * @throws NullPointerException se il grafo è null
+     * @throws IllegalArgumentException se il grafo è orientato
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     */
+    public static <L> CompressedAdjacency of(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Impossibile rappresentare un grafo nullo");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Impossibile rappresentare un grafo orientato");
+
+        int edgeCount = g.edgeCount();
+        int[] sources = new int[edgeCount];
+        int[] destinations = new int[edgeCount];
+        double[] edgeWeights = new double[edgeCount];
+
+        int k = 0;
+        for (GraphEdge<L> edge : g.getEdges()) {
+            sources[k] = g.getNodeIndexOf(edge.getNode1());
+            destinations[k] = g.getNodeIndexOf(edge.getNode2());
+            edgeWeights[k] = edge.getWeight();
+            k++;
+        }
+
+        return fromEdgeArrays(g.nodeCount(), sources, destinations, edgeWeights, k);
+    }
+
+    /**
+     * Costruisce la rappresentazione compatta di un grafo non orientato dato
+     * come elenco di archi in array paralleli. Gli array non vengono
+     * modificati né conservati. Gli archi duplicati non vengono eliminati.
+     *
+     * @param nodeCount il numero di nodi
+     * @param sources il primo estremo di ogni arco
+     * @param destinations il secondo estremo di ogni arco
+     * @param edgeWeights il peso di ogni arco, Double.NaN per gli archi non pesati
+     * @param edgeCount il numero di archi, cioè di posizioni valide negli array
+     * @return la rappresentazione compatta del grafo
+     *
+     * @throws NullPointerException se almeno uno degli array è null
+     * @throws IllegalArgumentException se nodeCount o edgeCount sono negativi
+     * o edgeCount supera la lunghezza degli array
+     * @throws IndexOutOfBoundsException se un estremo è fuori dall'intervallo
+     * <code>[0, nodeCount - 1]</code>
+     */
+    public static CompressedAdjacency fromEdgeArrays(int nodeCount, int[] sources, int[] destinations,
+                                                     double[] edgeWeights, int edgeCount) {
+        if (sources == null || destinations == null || edgeWeights == null)
+            throw new NullPointerException("Impossibile costruire le adiacenze da array nulli");
+        if (nodeCount < 0 || edgeCount < 0 || edgeCount > sources.length
+                || edgeCount > destinations.length || edgeCount > edgeWeights.length)
+            throw new IllegalArgumentException("Dimensioni non valide");
+
+        // Prima passata: le righe vengono riempite nell'ordine degli archi
+        int[] degrees = new int[nodeCount + 1];
+        for (int k = 0; k < edgeCount; k++) {
+            int u = sources[k];
+            int v = destinations[k];
+            if (u < 0 || u >= nodeCount || v < 0 || v >= nodeCount)
+                throw new IndexOutOfBoundsException("Estremo di un arco non valido");
+            degrees[u]++;
+            if (u != v)
+                degrees[v]++;
+        }
+        int[] unsortedOffsets = prefixSums(degrees);
+        int[] unsortedTargets = new int[unsortedOffsets[nodeCount]];
+        double[] unsortedWeights = new double[unsortedTargets.length];
+        int[] next = new int[nodeCount];
+        System.arraycopy(unsortedOffsets, 0, next, 0, nodeCount);
+        for (int k = 0; k < edgeCount; k++) {
+            int u = sources[k];
+            int v = destinations[k];
+            unsortedTargets[next[u]] = v;
+            unsortedWeights[next[u]++] = edgeWeights[k];
+            if (u != v) {
+                unsortedTargets[next[v]] = u;
+                unsortedWeights[next[v]++] = edgeWeights[k];
+            }
+        }
+
+        /*
+            Seconda passata: visto che le adiacenze sono simmetriche, scandire le righe in
+            ordine crescente e copiare ogni elemento (i, j) nella riga j riempie ogni riga
+            in ordine crescente di indice, senza bisogno di ordinamenti
+        */
+        int[] targets = new int[unsortedTargets.length];
+        double[] weights = new double[unsortedTargets.length];
+        System.arraycopy(unsortedOffsets, 0, next, 0, nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            for (int k = unsortedOffsets[i]; k < unsortedOffsets[i + 1]; k++) {
+                int j = unsortedTargets[k];
+                targets[next[j]] = i;
+                weights[next[j]++] = unsortedWeights[k];
+            }
+        }
+
+        return new CompressedAdjacency(unsortedOffsets, targets, weights, edgeCount);
+    }
+
+    @Override
+    public int nodeCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Restituisce il numero di archi non orientati.
+     *
+     * @return il numero di archi non orientati
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Restituisce il numero di vicini del nodo con indice dato, in cui un
+     * cappio conta una sola volta.
+     *
+     * @param i l'indice del nodo
+     * @return il numero di vicini del nodo
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public int degree(int i) {
+        indexCheck(i);
+
+        return offsets[i + 1] - offsets[i];
+    }
+
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        indexCheck(i);
+        if (action == null)
+            throw new NullPointerException("Impossibile eseguire un'azione nulla");
+
+        for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+            action.accept(targets[k], weights[k]);
+        }
+    }
+
+    /**
+     * Restituisce il k-esimo vicino del nodo con indice dato.
+     *
+     * @param i l'indice del nodo
+     * @param k la posizione del vicino, nell'intervallo <code>[0, degree(i) - 1]</code>
+     * @return l'indice del k-esimo vicino in ordine crescente
+     *
+     * @throws IndexOutOfBoundsException se uno dei due indici non è valido
+     */
+    public int neighbour(int i, int k) {
+        return targets[position(i, k)];
+    }
+
+    /**
+     * Restituisce il peso dell'arco che collega il nodo con indice dato al suo
+     * k-esimo vicino.
+     *
+     * @param i l'indice del nodo
+     * @param k la posizione del vicino, nell'intervallo <code>[0, degree(i) - 1]</code>
+     * @return il peso dell'arco, Double.NaN se l'arco non è pesato
+     *
+     * @throws IndexOutOfBoundsException se uno dei due indici non è valido
+     */
+    public double weight(int i, int k) {
+        return weights[position(i, k)];
+    }
+
+    /**
+     * Calcola la posizione negli array del k-esimo vicino di un nodo.
+     *
+     * @param i l'indice del nodo
+     * @param k la posizione del vicino
+     * @return la posizione in targets e weights
+     *
+     * @throws IndexOutOfBoundsException se uno dei due indici non è valido
+     */
+    private int position(int i, int k) {
+        if (k < 0 || k >= degree(i))
+            throw new IndexOutOfBoundsException("Posizione del vicino non valida");
+
+        return offsets[i] + k;
+    }
+
+    /**
+     * Trasforma un array di conteggi nell'array dei loro inizi, cioè delle
+     * somme prefisse esclusive. L'ultimo elemento dell'array passato viene
+     * ignorato e l'ultimo elemento del risultato è il totale.
+     *
+     * @param counts i conteggi, con un elemento in più in fondo
+     * @return lo stesso array, trasformato
+     */
+    private static int[] prefixSums(int[] counts) {
+        int sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            int count = counts[i];
+            counts[i] = sum;
+            sum += count;
+        }
+        return counts;
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param i l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti
+     * dell'intervallo <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int i) {
+        if (i < 0 || i >= nodeCount())
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+}
@@ -0,0 +1,54 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Supporto ai test che controllano che uno stesso calcolatore possa essere
+ * usato da più thread contemporaneamente: esegue un controllo in parallelo
+ * su diversi thread e raccoglie i risultati.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+final class ConcurrentRuns {
+
+    private ConcurrentRuns() {
+    }
+
+    /**
+     * Avvia il numero dato di thread, ognuno dei quali ripete il controllo
+     * per il numero di volte dato, e attende che finiscano tutti.
+     *
+     * @param threadCount il numero di thread
+     * @param rounds il numero di ripetizioni del controllo in ogni thread
+     * @param check il controllo, che riceve l'indice del thread
+     *              nell'intervallo <code>[0, threadCount - 1]</code>
+     * @return true se tutte le esecuzioni del controllo hanno restituito true,
+     *         false altrimenti
+     *
+     * @throws InterruptedException se il thread corrente viene interrotto
+     * mentre attende gli altri
+     */
+    static boolean allPass(int threadCount, int rounds, IntPredicate check) throws InterruptedException {
+        Thread[] threads = new Thread[threadCount];
+        boolean[] ok = new boolean[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                boolean same = true;
+                for (int k = 0; k < rounds; k++) {
+                    same &= check.test(id);
+                }
+                ok[id] = same;
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (boolean b : ok) {
+            if (!b)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,1094 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+
+// ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Grafo non orientato con matrice di adiacenza che può essere letto e
+ * modificato da più thread contemporaneamente, pensato per molte
+ * interrogazioni e poche modifiche. Come in
+ * {@link AdjacencyMatrixUndirectedGraph} non sono accettate etichette null o
+ * duplicate e i nodi sono indicizzati da 0 a nodeCount() - 1 in ordine di
+ * inserimento.
+ *
+ * Come in {@link TriangularWeightMatrix} la matrice memorizza solo il
+ * triangolo inferiore, diagonale compresa, riga per riga: la cella (i, j)
+ * con j &le; i si trova in posizione i * (i + 1) / 2 + j e contiene l'oggetto
+ * GraphEdge dell'arco o null. Ogni arco occupa quindi una sola cella, che è
+ * letta e scritta in modo atomico: aggiungere o eliminare un arco è un
+ * compareAndSet su quella cella, e chi legge vede l'arco presente o assente,
+ * mai a metà.
+ *
+ * L'array delle celle è diviso in pagine di {@value #PAGE_SIZE} celle,
+ * raggiunte attraverso una directory, e {@link #snapshot()} restituisce in
+ * tempo costante una {@link GraphSnapshot}, cioè una fotografia immutabile
+ * del grafo che condivide con esso directory e pagine. Dopo una fotografia
+ * la directory e le pagine esistenti appartengono alla fotografia: la prima
+ * modifica di una pagina ne crea una copia privata del grafo (copy-on-write),
+ * così chi scrive non aspetta chi analizza la fotografia e la fotografia non
+ * vede le modifiche successive. Ogni pagina e ogni directory ricorda la
+ * generazione, cioè il numero di fotografie già prese, in cui è stata creata,
+ * e solo quelle della generazione corrente si possono modificare sul posto.
+ * Allo stesso modo nodi e mappa degli indici vengono copiati alla prima
+ * modifica strutturale dopo una fotografia.
+ *
+ * La sincronizzazione usa uno {@link StampedLock} con tre modalità:
+ * <ul>
+ * <li>le interrogazioni su nodi e archi (getNode, getNodeIndexOf, getEdge,
+ * hasEdge, getWeight, nodeCount) usano una lettura ottimistica, che non
+ * scrive nulla in memoria condivisa e non blocca; se nel frattempo è avvenuta
+ * una modifica strutturale la lettura viene ripetuta con il lock in
+ * lettura;</li>
+ * <li>l'aggiunta e la cancellazione di archi prendono il lock in lettura, che
+ * è condiviso e impedisce solo le modifiche strutturali, e poi modificano la
+ * cella con un'operazione atomica: modifiche di archi diversi procedono in
+ * parallelo e non invalidano le letture ottimistiche;</li>
+ * <li>l'aggiunta e la cancellazione di nodi e clear() prendono il lock in
+ * scrittura, perché spostano le celle o sostituiscono gli array; anche
+ * snapshot() prende il lock in scrittura, ma solo per il tempo costante
+ * necessario a fissare lo stato.</li>
+ * </ul>
+ *
+ * I metodi che restituiscono insiemi, come {@link #getNodes()} e
+ * {@link #getEdges()}, li copiano con il lock in lettura: sono fotografie
+ * coerenti del grafo in un istante e non cambiano con esso. Anche
+ * {@link #forEachNeighbour} tiene il lock in lettura durante la scansione,
+ * quindi l'azione non deve aggiungere o cancellare nodi. Il peso di un arco
+ * modificato con {@link GraphEdge#setWeight(double)} non è sincronizzato ed
+ * è visto anche dalle fotografie che contengono l'arco: per cambiare un peso
+ * si usa {@link #setEdgeWeight(int, int, double)}, che prende il lock in
+ * scrittura e mette nella cella un nuovo arco, lasciando quello vecchio alle
+ * fotografie.
+ *
+ * {@link KruskalMSP}, {@link PrimMSP} e i calcolatori di componenti connesse
+ * leggono il grafo più volte, prima il numero di nodi e poi le adiacenze:
+ * quando ricevono un grafo di questa classe lavorano su una fotografia presa
+ * all'inizio del calcolo, così i nodi aggiunti o cancellati nel frattempo da
+ * altri thread non ne alterano il risultato.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ *
+ * @param <L> il tipo delle etichette dei nodi
+ */
+public class ConcurrentUndirectedGraph<L> extends Graph<L> implements IndexedAdjacency {
+
+    /**
+     * Massimo numero di nodi, per cui il triangolo sta in un array
+     */
+    public static final int MAX_NODES = 65_535;
+
+    /**
+     * Numero di celle di una pagina
+     */
+    public static final int PAGE_SIZE = 1 << 12;
+
+    /*
+     * Logaritmo in base 2 di PAGE_SIZE e maschera per la posizione nella
+     * pagina
+     */
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /*
+     * Lock strutturale: in scrittura per le modifiche dei nodi, in lettura per
+     * le modifiche degli archi e ottimistico per le interrogazioni
+     */
+    private final StampedLock lock;
+
+    /*
+     * I nodi in ordine di indice e la loro associazione con gli indici,
+     * modificati solo con il lock in scrittura
+     */
+    private GraphNode<L>[] nodes;
+    private NodeIndexMap<L> nodesIndex;
+
+    /*
+     * Vero se nodi e mappa degli indici sono condivisi con una fotografia e
+     * vanno copiati prima di modificarli
+     */
+    private boolean nodesShared;
+
+    /*
+     * Numero di nodi, modificato solo con il lock in scrittura
+     */
+    private int nodeCount;
+
+    /*
+     * Directory delle pagine che contengono le celle del triangolo inferiore,
+     * riga per riga; viene sostituita dalla prima modifica dopo una
+     * fotografia o quando il grafo cresce
+     */
+    private volatile Directory<L> directory;
+
+    /*
+     * Generazione corrente, incrementata da ogni fotografia; modificata solo
+     * con il lock in scrittura
+     */
+    private long generation;
+
+    /*
+     * Serializza le copie di directory e pagine fatte da chi modifica gli
+     * archi con il lock in lettura
+     */
+    private final Object copyLock;
+
+    /*
+     * Numero di archi
+     */
+    private final AtomicInteger edgeCount;
+
+    /**
+     * Crea un grafo vuoto.
+     */
+    public ConcurrentUndirectedGraph() {
+        this.lock = new StampedLock();
+        this.nodes = newNodeArray(16);
+        this.nodesIndex = new NodeIndexMap<>();
+        this.directory = new Directory<>(new AtomicReferenceArray<>(pageCount(16)), 0);
+        this.copyLock = new Object();
+        this.edgeCount = new AtomicInteger();
+    }
+
+    @Override
+    public int nodeCount() {
+        long stamp = lock.tryOptimisticRead();
+        int n = nodeCount;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                n = nodeCount;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount.get();
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            nodes = newNodeArray(16);
+            nodesIndex = new NodeIndexMap<>();
+            nodesShared = false;
+            directory = new Directory<>(new AtomicReferenceArray<>(pageCount(16)), generation);
+            nodeCount = 0;
+            edgeCount.set(0);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        nullCheck(node);
+
+        long stamp = lock.writeLock();
+        try {
+            return nodesIndex.get(node) < 0 && addNodeLocked(node);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean addNode(L label) {
+        nullCheck(label);
+
+        long stamp = lock.writeLock();
+        try {
+            // Il nodo viene creato solo se l'etichetta non è già presente
+            return nodesIndex.indexOfLabel(label) < 0 && addNodeLocked(new GraphNode<>(label));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeNode(GraphNode<L> node) {
+        nullCheck(node);
+
+        long stamp = lock.writeLock();
+        try {
+            removeNodeLocked(nodeToIndex(node));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeNode(L label) {
+        nullCheck(label);
+
+        long stamp = lock.writeLock();
+        try {
+            removeNodeLocked(labelToIndex(label));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeNode(int i) {
+        long stamp = lock.writeLock();
+        try {
+            indexCheck(i);
+            removeNodeLocked(i);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public GraphNode<L> getNode(GraphNode<L> node) {
+        nullCheck(node);
+
+        return getNode(node.getLabel());
+    }
+
+    @Override
+    public GraphNode<L> getNode(L label) {
+        nullCheck(label);
+
+        GraphNode<L> node = null;
+        long stamp = lock.tryOptimisticRead();
+        try {
+            int index = nodesIndex.indexOfLabel(label);
+            GraphNode<L>[] n = nodes;
+            if (index >= 0 && index < n.length)
+                node = n[index];
+        } catch (RuntimeException e) {
+            // Stato letto durante una modifica strutturale, si ripete con il lock
+            stamp = 0;
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                int index = nodesIndex.indexOfLabel(label);
+                node = index < 0 ? null : nodes[index];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return node;
+    }
+
+    @Override
+    public GraphNode<L> getNode(int i) {
+        GraphNode<L> node = null;
+        long stamp = lock.tryOptimisticRead();
+        int n = nodeCount;
+        GraphNode<L>[] array = nodes;
+        if (i >= 0 && i < n && i < array.length)
+            node = array[i];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                n = nodeCount;
+                node = i >= 0 && i < n ? nodes[i] : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (i < 0 || i >= n)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+        return node;
+    }
+
+    @Override
+    public int getNodeIndexOf(GraphNode<L> node) {
+        nullCheck(node);
+
+        return getNodeIndexOf(node.getLabel());
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        nullCheck(label);
+
+        int index = -1;
+        long stamp = lock.tryOptimisticRead();
+        try {
+            index = nodesIndex.indexOfLabel(label);
+        } catch (RuntimeException e) {
+            // Stato letto durante una modifica strutturale, si ripete con il lock
+            stamp = 0;
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                index = nodesIndex.indexOfLabel(label);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (index < 0)
+            throw new IllegalArgumentException("Il nodo specificato non esiste");
+        return index;
+    }
+
+    /*
+     * Copia dei nodi presenti in questo istante
+     */
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        long stamp = lock.readLock();
+        try {
+            return new HashSet<>(Arrays.asList(nodes).subList(0, nodeCount));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public GraphNode<L>[] getNodesByIndex() {
+        long stamp = lock.readLock();
+        try {
+            return Arrays.copyOf(nodes, nodeCount);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        nullCheck(edge);
+
+        if (edge.isDirected())
+            throw new IllegalArgumentException("Impossibile aggiungere un arco orientato in un grafo non orientato");
+
+        long stamp = lock.readLock();
+        try {
+            return addEdgeLocked(nodeToIndex(edge.getNode1()), nodeToIndex(edge.getNode2()), edge);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        return addWeightedEdge(node1, node2, Double.NaN);
+    }
+
+    @Override
+    public boolean addWeightedEdge(GraphNode<L> node1, GraphNode<L> node2, double weight) {
+        return addEdge(new GraphEdge<>(node1, node2, isDirected(), weight));
+    }
+
+    @Override
+    public boolean addEdge(L label1, L label2) {
+        return addWeightedEdge(label1, label2, Double.NaN);
+    }
+
+    @Override
+    public boolean addWeightedEdge(L label1, L label2, double weight) {
+        nullCheck(label1);
+        nullCheck(label2);
+
+        long stamp = lock.readLock();
+        try {
+            int i = labelToIndex(label1);
+            int j = labelToIndex(label2);
+            return addEdgeLocked(i, j, new GraphEdge<>(nodes[i], nodes[j], false, weight));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean addEdge(int i, int j) {
+        return addWeightedEdge(i, j, Double.NaN);
+    }
+
+    @Override
+    public boolean addWeightedEdge(int i, int j, double weight) {
+        long stamp = lock.readLock();
+        try {
+            indexCheck(i);
+            indexCheck(j);
+            return addEdgeLocked(i, j, new GraphEdge<>(nodes[i], nodes[j], false, weight));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void removeEdge(GraphEdge<L> edge) {
+        nullCheck(edge);
+
+        long stamp = lock.readLock();
+        try {
+            int k = cell(nodeToIndex(edge.getNode1()), nodeToIndex(edge.getNode2()));
+            AtomicReferenceArray<GraphEdge<L>> page = writablePage(k >>> PAGE_SHIFT);
+            GraphEdge<L> graphEdge;
+            // Si ripete se un altro thread ha sostituito l'arco nel frattempo
+            do {
+                graphEdge = page.get(k & PAGE_MASK);
+                if (!edge.equals(graphEdge))
+                    throw new IllegalArgumentException("L'arco passato non esiste");
+            } while (!page.compareAndSet(k & PAGE_MASK, graphEdge, null));
+            edgeCount.decrementAndGet();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void removeEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        nullCheck(node1);
+        nullCheck(node2);
+
+        long stamp = lock.readLock();
+        try {
+            removeEdgeLocked(nodeToIndex(node1), nodeToIndex(node2));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void removeEdge(L label1, L label2) {
+        nullCheck(label1);
+        nullCheck(label2);
+
+        long stamp = lock.readLock();
+        try {
+            removeEdgeLocked(labelToIndex(label1), labelToIndex(label2));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void removeEdge(int i, int j) {
+        long stamp = lock.readLock();
+        try {
+            indexCheck(i);
+            indexCheck(j);
+            removeEdgeLocked(i, j);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphEdge<L> edge) {
+        nullCheck(edge);
+
+        return getEdge(edge.getNode1().getLabel(), edge.getNode2().getLabel());
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        nullCheck(node1);
+        nullCheck(node2);
+
+        return getEdge(node1.getLabel(), node2.getLabel());
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(L label1, L label2) {
+        nullCheck(label1);
+        nullCheck(label2);
+
+        int i = -1;
+        int j = -1;
+        GraphEdge<L> edge = null;
+        long stamp = lock.tryOptimisticRead();
+        try {
+            i = nodesIndex.indexOfLabel(label1);
+            j = nodesIndex.indexOfLabel(label2);
+            if (i >= 0 && j >= 0)
+                edge = edgeAt(directory.pages, cell(i, j));
+        } catch (RuntimeException e) {
+            // Stato letto durante una modifica strutturale, si ripete con il lock
+            stamp = 0;
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                i = nodesIndex.indexOfLabel(label1);
+                j = nodesIndex.indexOfLabel(label2);
+                edge = i >= 0 && j >= 0 ? edgeAt(directory.pages, cell(i, j)) : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (i < 0 || j < 0)
+            throw new IllegalArgumentException("Il nodo specificato non esiste");
+        return edge;
+    }
+
+    /*
+     * Lettura ottimistica di una sola cella, senza creare oggetti
+     */
+    @Override
+    public GraphEdge<L> getEdge(int i, int j) {
+        GraphEdge<L> edge = null;
+        long stamp = lock.tryOptimisticRead();
+        int n = nodeCount;
+        if (i >= 0 && i < n && j >= 0 && j < n)
+            edge = edgeAt(directory.pages, cell(i, j));
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                n = nodeCount;
+                edge = i >= 0 && i < n && j >= 0 && j < n ? edgeAt(directory.pages, cell(i, j)) : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (i < 0 || i >= n || j < 0 || j >= n)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+        return edge;
+    }
+
+    /*
+     * Sostituisce l'arco con uno nuovo invece di cambiarne il peso sul posto:
+     * l'oggetto precedente può appartenere a una fotografia, che deve
+     * continuare a vedere il peso vecchio. Il lock in scrittura esclude le
+     * altre modifiche, quindi anche il conteggio delle modifiche
+     */
+    @Override
+    public void setEdgeWeight(int i, int j, double weight) {
+        long stamp = lock.writeLock();
+        try {
+            indexCheck(i);
+            indexCheck(j);
+            int k = cell(i, j);
+            GraphEdge<L> edge = edgeAt(directory.pages, k);
+            if (edge == null)
+                throw new IllegalArgumentException("L'arco passato non esiste");
+            writablePage(k >>> PAGE_SHIFT).compareAndSet(k & PAGE_MASK, edge,
+                    new GraphEdge<>(edge.getNode1(), edge.getNode2(), false, weight));
+            recordChange(GraphChangeLog.WEIGHT_CHANGED, i, j, weight);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean hasEdge(int i, int j) {
+        return getEdge(i, j) != null;
+    }
+
+    @Override
+    public double getWeight(int i, int j) {
+        GraphEdge<L> edge = getEdge(i, j);
+        return edge == null ? Double.NaN : edge.getWeight();
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        nullCheck(node);
+
+        long stamp = lock.readLock();
+        try {
+            return adjacentNodesLocked(nodeToIndex(node));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(L label) {
+        nullCheck(label);
+
+        long stamp = lock.readLock();
+        try {
+            return adjacentNodesLocked(labelToIndex(label));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(int i) {
+        long stamp = lock.readLock();
+        try {
+            indexCheck(i);
+            return adjacentNodesLocked(i);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        nullCheck(node);
+
+        long stamp = lock.readLock();
+        try {
+            return edgesOfLocked(nodeToIndex(node));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(L label) {
+        nullCheck(label);
+
+        long stamp = lock.readLock();
+        try {
+            return edgesOfLocked(labelToIndex(label));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(int i) {
+        long stamp = lock.readLock();
+        try {
+            indexCheck(i);
+            return edgesOfLocked(i);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    /*
+     * Copia degli archi presenti in questo istante; il lock in lettura non
+     * esclude le modifiche degli archi, quindi ogni cella è letta nello stato
+     * in cui si trova quando viene raggiunta
+     */
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        long stamp = lock.readLock();
+        try {
+            AtomicReferenceArray<Page<L>> pages = directory.pages;
+            Set<GraphEdge<L>> edges = new HashSet<>();
+            for (int k = row(nodeCount) - 1; k >= 0; k--) {
+                GraphEdge<L> edge = edgeAt(pages, k);
+                if (edge != null)
+                    edges.add(edge);
+            }
+            return edges;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /*
+     * Scandisce la riga i fino alla diagonale e poi la colonna i, senza
+     * costruire l'insieme degli archi
+     */
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        nullCheck(action);
+
+        long stamp = lock.readLock();
+        try {
+            indexCheck(i);
+            AtomicReferenceArray<Page<L>> pages = directory.pages;
+            for (int j = 0; j < nodeCount; j++) {
+                GraphEdge<L> edge = edgeAt(pages, cell(i, j));
+                if (edge != null)
+                    action.accept(j, edge.getWeight());
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Restituisce una fotografia immutabile del grafo in questo istante, in
+     * tempo costante: la fotografia condivide con il grafo nodi e pagine, che
+     * il grafo copierà solo quando dovrà modificarli. La fotografia non
+     * richiede lock, quindi {@link KruskalMSP},
+     * {@link PrimMSP#computeSpanningTree}, che non modifica i nodi, e
+     * {@link UndirectedGraphConnectedComponentsComputer} possono elaborarla
+     * mentre altri thread continuano a modificare il grafo.
+     *
+     * Gli oggetti GraphNode della fotografia sono gli stessi del grafo e delle
+     * altre fotografie, quindi gli algoritmi che scrivono nei campi dei nodi
+     * (previous, distanza, colore) non vanno eseguiti su di essa: due calcoli
+     * su fotografie diverse si contenderebbero quei campi.
+     * {@link PrimMSP#computeMSP(Graph, GraphNode)} lancia per questo
+     * {@link UnsupportedOperationException} su una fotografia.
+     *
+     * @return la fotografia del grafo
+     */
+    public GraphSnapshot<L> snapshot() {
+        long stamp = lock.writeLock();
+        try {
+            // Da qui in poi directory, pagine e nodi attuali appartengono alla fotografia
+            generation++;
+            nodesShared = true;
+            return new GraphSnapshot<>(nodes, nodeCount, nodesIndex, directory.pages, edgeCount.get());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /*
+     * Aggiunge un nodo non presente; richiede il lock in scrittura
+     */
+    @SuppressWarnings("unchecked")
+    private boolean addNodeLocked(GraphNode<L> node) {
+        if (nodeCount == MAX_NODES)
+            throw new IllegalStateException("Impossibile aggiungere un nodo: il grafo ha già " + nodeCount + " nodi");
+
+        if (nodeCount == nodes.length) {
+            int capacity = Math.min(MAX_NODES, 2 * nodes.length);
+            nodes = Arrays.copyOf(nodes, capacity);
+            nodesIndex = nodesShared ? nodesIndex.copy() : nodesIndex;
+            nodesShared = false;
+            // Le pagine sono condivise con la directory precedente e verranno copiate solo se modificate
+            AtomicReferenceArray<Page<L>> pages = directory.pages;
+            AtomicReferenceArray<Page<L>> grown = new AtomicReferenceArray<>(pageCount(capacity));
+            for (int p = 0; p < pages.length(); p++) {
+                grown.set(p, pages.get(p));
+            }
+            directory = new Directory<>(grown, generation);
+        } else {
+            unshareNodes();
+        }
+        nodes[nodeCount] = node;
+        nodesIndex.put(node);
+        nodeCount++;
+        return true;
+    }
+
+    /*
+     * Cancella il nodo di indice i compattando il triangolo sul posto;
+     * richiede il lock in scrittura
+     */
+    private void removeNodeLocked(int i) {
+        AtomicReferenceArray<Page<L>> pages = directory.pages;
+        int removed = 0;
+        for (int j = 0; j < nodeCount; j++) {
+            if (edgeAt(pages, cell(i, j)) != null)
+                removed++;
+        }
+        edgeCount.addAndGet(-removed);
+
+        // Le righe precedenti a i non si spostano; la posizione di destinazione non supera mai quella di origine
+        int k = row(i);
+        for (int r = i + 1; r < nodeCount; r++) {
+            int from = row(r);
+            for (int c = 0; c <= r; c++) {
+                if (c != i)
+                    moveEdge(from + c, k++);
+            }
+        }
+        // Le celle dell'ultima riga, ormai libere, non devono trattenere archi
+        for (int end = row(nodeCount); k < end; k++) {
+            if (edgeAt(directory.pages, k) != null)
+                writablePage(k >>> PAGE_SHIFT).set(k & PAGE_MASK, null);
+        }
+
+        unshareNodes();
+        // Gli indici maggiori di quello del nodo eliminato diminuiscono di uno
+        nodesIndex.remove(nodes[i]);
+        System.arraycopy(nodes, i + 1, nodes, i, nodeCount - i - 1);
+        nodes[--nodeCount] = null;
+    }
+
+    /*
+     * Inserisce un arco nella cella (i, j) se è vuota; richiede il lock in
+     * lettura
+     */
+    private boolean addEdgeLocked(int i, int j, GraphEdge<L> edge) {
+        int k = cell(i, j);
+        if (!writablePage(k >>> PAGE_SHIFT).compareAndSet(k & PAGE_MASK, null, edge))
+            return false; // Esiste già un arco con gli stessi nodi
+        edgeCount.incrementAndGet();
+        return true;
+    }
+
+    /*
+     * Svuota la cella (i, j); richiede il lock in lettura
+     */
+    private void removeEdgeLocked(int i, int j) {
+        int k = cell(i, j);
+        if (writablePage(k >>> PAGE_SHIFT).getAndSet(k & PAGE_MASK, null) == null)
+            throw new IllegalArgumentException("L'arco passato non esiste");
+        edgeCount.decrementAndGet();
+    }
+
+    /*
+     * Vicini del nodo di indice i; richiede il lock in lettura
+     */
+    private Set<GraphNode<L>> adjacentNodesLocked(int i) {
+        AtomicReferenceArray<Page<L>> pages = directory.pages;
+        Set<GraphNode<L>> adjacent = new HashSet<>();
+        for (int j = 0; j < nodeCount; j++) {
+            if (edgeAt(pages, cell(i, j)) != null)
+                adjacent.add(nodes[j]);
+        }
+        return adjacent;
+    }
+
+    /*
+     * Archi del nodo di indice i; richiede il lock in lettura
+     */
+    private Set<GraphEdge<L>> edgesOfLocked(int i) {
+        AtomicReferenceArray<Page<L>> pages = directory.pages;
+        Set<GraphEdge<L>> edges = new HashSet<>();
+        for (int j = 0; j < nodeCount; j++) {
+            GraphEdge<L> edge = edgeAt(pages, cell(i, j));
+            if (edge != null)
+                edges.add(edge);
+        }
+        return edges;
+    }
+
+    /*
+     * Sposta l'arco dalla cella from alla cella to, scrivendo solo se il
+     * contenuto cambia per non copiare pagine inutilmente; richiede il lock in
+     * scrittura
+     */
+    private void moveEdge(int from, int to) {
+        AtomicReferenceArray<Page<L>> pages = directory.pages;
+        GraphEdge<L> edge = edgeAt(pages, from);
+        if (edge != edgeAt(pages, to))
+            writablePage(to >>> PAGE_SHIFT).set(to & PAGE_MASK, edge);
+    }
+
+    /*
+     * Copia nodi e mappa degli indici se sono condivisi con una fotografia;
+     * richiede il lock in scrittura
+     */
+    private void unshareNodes() {
+        if (nodesShared) {
+            nodes = nodes.clone();
+            nodesIndex = nodesIndex.copy();
+            nodesShared = false;
+        }
+    }
+
+    /*
+     * Restituisce le celle della pagina p, che si possono modificare sul
+     * posto: se directory o pagina appartengono a una generazione precedente,
+     * e quindi a una fotografia, ne crea prima una copia. Richiede il lock in
+     * lettura o in scrittura, che impedisce a una fotografia di cambiare la
+     * generazione nel frattempo
+     */
+    private AtomicReferenceArray<GraphEdge<L>> writablePage(int p) {
+        Directory<L> d = directory;
+        Page<L> page = d.pages.get(p);
+        if (d.generation == generation && page != null && page.generation == generation)
+            return page.cells;
+
+        synchronized (copyLock) {
+            // Un altro thread può aver già fatto la copia
+            d = directory;
+            if (d.generation != generation) {
+                AtomicReferenceArray<Page<L>> pages = new AtomicReferenceArray<>(d.pages.length());
+                for (int q = 0; q < pages.length(); q++) {
+                    pages.set(q, d.pages.get(q));
+                }
+                d = new Directory<>(pages, generation);
+                directory = d;
+            }
+            page = d.pages.get(p);
+            if (page == null || page.generation != generation) {
+                GraphEdge<L>[] cells = page == null ? newCells() : page.toArray();
+                page = new Page<>(new AtomicReferenceArray<>(cells), generation);
+                d.pages.set(p, page);
+            }
+            return page.cells;
+        }
+    }
+
+    /*
+     * Array di celle vuote per una nuova pagina
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <L> GraphEdge<L>[] newCells() {
+        return new GraphEdge[PAGE_SIZE];
+    }
+
+    /*
+     * Arco nella cella k delle pagine date, null se la pagina non esiste
+     * ancora o se k è fuori dalla directory, cosa che può succedere solo in
+     * una lettura ottimistica che verrà comunque scartata
+     */
+    static <L> GraphEdge<L> edgeAt(AtomicReferenceArray<Page<L>> pages, int k) {
+        int p = k >>> PAGE_SHIFT;
+        if (p >= pages.length())
+            return null;
+        Page<L> page = pages.get(p);
+        return page == null ? null : page.cells.get(k & PAGE_MASK);
+    }
+
+    /*
+     * Numero di pagine necessarie per il triangolo di una matrice con il
+     * numero di nodi dato
+     */
+    private static int pageCount(int nodes) {
+        return (int) (((long) nodes * (nodes + 1) / 2 + PAGE_MASK) >>> PAGE_SHIFT);
+    }
+
+    /*
+     * Posizione della cella (i, j) nell'array
+     */
+    static int cell(int i, int j) {
+        return i >= j ? row(i) + j : row(j) + i;
+    }
+
+    /*
+     * Posizione del primo elemento della riga i, cioè numero di celle delle
+     * righe precedenti
+     */
+    private static int row(int i) {
+        return (int) ((long) i * (i + 1) / 2);
+    }
+
+    /*
+     * Pagina di celle con la generazione in cui è stata creata
+     */
+    static final class Page<L> {
+
+        final AtomicReferenceArray<GraphEdge<L>> cells;
+        final long generation;
+
+        Page(AtomicReferenceArray<GraphEdge<L>> cells, long generation) {
+            this.cells = cells;
+            this.generation = generation;
+        }
+
+        /*
+         * Copia delle celle in un array
+         */
+        GraphEdge<L>[] toArray() {
+            GraphEdge<L>[] array = newCells();
+            for (int k = 0; k < PAGE_SIZE; k++) {
+                array[k] = cells.get(k);
+            }
+            return array;
+        }
+    }
+
+    /*
+     * Directory delle pagine con la generazione in cui è stata creata; una
+     * pagina null non contiene archi
+     */
+    private static final class Directory<L> {
+
+        final AtomicReferenceArray<Page<L>> pages;
+        final long generation;
+
+        Directory(AtomicReferenceArray<Page<L>> pages, long generation) {
+            this.pages = pages;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Metodo di utilità che restituisce l'indice del nodo passato; va
+     * chiamato con il lock in lettura o in scrittura
+     *
+     * @param node il nodo
+     * @return l'indice del nodo
+     *
+     * @throws NullPointerException se il nodo è <code>null</code>
+     * @throws IllegalArgumentException se il nodo non esiste
+     */
+    private int nodeToIndex(GraphNode<L> node) {
+        nullCheck(node);
+
+        int index = nodesIndex.get(node);
+        if (index < 0)
+            throw new IllegalArgumentException("Il nodo specificato non esiste");
+        return index;
+    }
+
+    /**
+     * Metodo di utilità che restituisce l'indice del nodo con l'etichetta
+     * data; va chiamato con il lock in lettura o in scrittura
+     *
+     * @param label l'etichetta del nodo
+     * @return l'indice del nodo
+     *
+     * @throws NullPointerException se l'etichetta è <code>null</code>
+     * @throws IllegalArgumentException se nessun nodo ha l'etichetta data
+     */
+    private int labelToIndex(L label) {
+        nullCheck(label);
+
+        int index = nodesIndex.indexOfLabel(label);
+        if (index < 0)
+            throw new IllegalArgumentException("Il nodo specificato non esiste");
+        return index;
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido; va chiamato con il lock in lettura o
+     * in scrittura
+     *
+     * @param index l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti dell'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int index) {
+        if (index < 0 || index > nodeCount - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link NullPointerException} se l'oggetto passato è <code>null</code>
+     *
+     * @param o l'oggetto da controllare
+     *
+     * @throws NullPointerException se l'oggetto è <code>null</code>
+     */
+    private void nullCheck(Object o) {
+        if (o == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+    }
+}
@@ -0,0 +1,250 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe ConcurrentUndirectedGraph.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class ConcurrentUndirectedGraphTest {
+
+    @Test
+    final void testNodesAndEdges() {
+        Graph<String> g = new ConcurrentUndirectedGraph<String>();
+        assertTrue(g.addNode("a"));
+        assertFalse(g.addNode(new GraphNode<String>("a")));
+        assertTrue(g.addNode("b"));
+        assertTrue(g.addNode("c"));
+        assertTrue(g.getNodeIndexOf("c") == 2);
+        assertTrue(g.addWeightedEdge("a", "b", 2.5));
+        assertFalse(g.addEdge("b", "a"));
+        assertTrue(g.addEdge(2, 2));
+        assertTrue(g.edgeCount() == 2);
+        assertTrue(g.getEdge(1, 0).getWeight() == 2.5);
+        assertTrue(g.getEdge("b", "a").equals(new GraphEdge<String>(new GraphNode<String>("a"),
+                new GraphNode<String>("b"), false)));
+        assertTrue(g.hasEdge(2, 2));
+        assertTrue(Double.isNaN(g.getWeight(0, 2)));
+        assertTrue(g.getAdjacentNodesOf("a").equals(Set.of(new GraphNode<String>("b"))));
+        assertTrue(g.getDegreeOf("c") == 1);
+
+        assertThrows(NullPointerException.class, () -> g.addNode((String) null));
+        assertThrows(IllegalArgumentException.class, () -> g.addEdge("a", "d"));
+        assertThrows(IllegalArgumentException.class, () -> g.getNodeIndexOf("d"));
+        assertThrows(IllegalArgumentException.class, () -> g.removeEdge(0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getEdge(0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getNode(-1));
+        assertThrows(IllegalArgumentException.class, () -> g.addEdge(new GraphEdge<String>(
+                new GraphNode<String>("a"), new GraphNode<String>("b"), true)));
+        assertThrows(UnsupportedOperationException.class, () -> g.getIngoingEdgesOf(0));
+
+        g.removeNode("a");
+        assertTrue(g.nodeCount() == 2);
+        assertTrue(g.edgeCount() == 1);
+        assertTrue(g.getNodeIndexOf("c") == 1);
+        assertTrue(g.hasEdge(1, 1));
+        assertTrue(g.getEdges().size() == 1);
+        g.clear();
+        assertTrue(g.isEmpty());
+        assertTrue(g.edgeCount() == 0);
+        assertTrue(g.getNode("b") == null);
+    }
+
+    @Test
+    final void testSameAsAdjacencyMatrix() {
+        // Modifiche casuali confrontate con un grafo di riferimento
+        Graph<Integer> g = new ConcurrentUndirectedGraph<Integer>();
+        Graph<Integer> expected = new AdjacencyMatrixUndirectedGraph<Integer>();
+        SplittableRandom random = new SplittableRandom(5);
+        int next = 0;
+        for (int step = 0; step < 20_000; step++) {
+            int n = expected.nodeCount();
+            int operation = random.nextInt(10);
+            if (n < 2 || (operation == 0 && n < 80)) {
+                Integer label = Integer.valueOf(next++);
+                assertTrue(g.addNode(label) == expected.addNode(label));
+            } else if (operation == 1) {
+                int i = random.nextInt(n);
+                g.removeNode(i);
+                expected.removeNode(i);
+            } else {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (expected.hasEdge(i, j) && operation < 5) {
+                    g.removeEdge(i, j);
+                    expected.removeEdge(i, j);
+                } else {
+                    double w = random.nextDouble();
+                    assertTrue(g.addWeightedEdge(i, j, w) == expected.addWeightedEdge(i, j, w));
+                }
+            }
+        }
+
+        assertTrue(g.nodeCount() == expected.nodeCount());
+        assertTrue(g.edgeCount() == expected.edgeCount());
+        assertTrue(g.getNodes().equals(new HashSet<GraphNode<Integer>>(expected.getNodes())));
+        assertTrue(g.getEdges().equals(new HashSet<GraphEdge<Integer>>(expected.getEdges())));
+        for (int i = 0; i < g.nodeCount(); i++) {
+            assertTrue(g.getNode(i).equals(expected.getNode(i)));
+            assertTrue(g.getEdgesOf(i).equals(expected.getEdgesOf(i)));
+            for (int j = 0; j < g.nodeCount(); j++) {
+                assertTrue(g.getWeight(i, j) == expected.getWeight(i, j)
+                        || Double.isNaN(expected.getWeight(i, j)) && Double.isNaN(g.getWeight(i, j)));
+            }
+            List<Integer> neighbours = new ArrayList<Integer>();
+            ((IndexedAdjacency) g).forEachNeighbour(i, (j, w) -> neighbours.add(j));
+            List<Integer> expectedNeighbours = new ArrayList<Integer>();
+            ((IndexedAdjacency) expected).forEachNeighbour(i, (j, w) -> expectedNeighbours.add(j));
+            assertTrue(neighbours.equals(expectedNeighbours));
+        }
+    }
+
+    @Test
+    final void testConcurrentUpdates() throws InterruptedException {
+        // Ogni thread modifica solo i propri archi, mentre altri thread leggono e aggiungono nodi
+        ConcurrentUndirectedGraph<Integer> g = new ConcurrentUndirectedGraph<Integer>();
+        int nodes = 64;
+        for (int i = 0; i < nodes; i++) {
+            g.addNode(Integer.valueOf(i));
+        }
+        int writers = 4;
+        boolean[][][] present = new boolean[writers][nodes][nodes];
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<Thread>();
+
+        for (int t = 0; t < writers; t++) {
+            int id = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(id);
+                for (int step = 0; step < 20_000; step++) {
+                    // Il thread id possiede le coppie (i, j) con i + j congruo a id
+                    int i = random.nextInt(nodes);
+                    int j = random.nextInt(nodes);
+                    if ((i + j) % writers != id)
+                        continue;
+                    Integer a = Integer.valueOf(i);
+                    Integer b = Integer.valueOf(j);
+                    if (present[id][i][j]) {
+                        g.removeEdge(a, b);
+                    } else if (!g.addWeightedEdge(a, b, i + j)) {
+                        failed.set(true);
+                    }
+                    present[id][i][j] = !present[id][i][j];
+                    present[id][j][i] = present[id][i][j];
+                }
+            }));
+        }
+        threads.add(new Thread(() -> {
+            // Aggiunge e cancella nodi in fondo, spostando gli array
+            for (int step = 0; step < 300; step++) {
+                Integer label = Integer.valueOf(nodes + step);
+                g.addNode(label);
+                g.addEdge(label, Integer.valueOf(0));
+                g.removeNode(label);
+            }
+        }));
+        for (int t = 0; t < 2; t++) {
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom();
+                while (!done.get()) {
+                    int i = random.nextInt(nodes);
+                    int j = random.nextInt(nodes);
+                    GraphEdge<Integer> edge = g.getEdge(Integer.valueOf(i), Integer.valueOf(j));
+                    if (g.getNode(i).getLabel() != i || edge != null && edge.getWeight() != i + j)
+                        failed.set(true);
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (int t = 0; t < writers + 1; t++) {
+            threads.get(t).join();
+        }
+        done.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(failed.get());
+        assertTrue(g.nodeCount() == nodes);
+        int edges = 0;
+        for (int i = 0; i < nodes; i++) {
+            for (int j = i; j < nodes; j++) {
+                boolean expected = present[(i + j) % writers][i][j];
+                assertTrue(g.hasEdge(i, j) == expected);
+                if (expected)
+                    edges++;
+            }
+        }
+        assertTrue(g.edgeCount() == edges);
+        assertTrue(g.getEdges().size() == edges);
+    }
+
+    @Test
+    final void testAlgorithmsDuringStructuralChanges() throws InterruptedException {
+        // Gli algoritmi ricevono il grafo vivo mentre un thread aggiunge e cancella nodi e archi
+        ConcurrentUndirectedGraph<Integer> g = new ConcurrentUndirectedGraph<Integer>();
+        for (int i = 0; i < 100; i++) {
+            g.addNode(Integer.valueOf(i));
+        }
+        GraphGenerator.erdosRenyi(100, 0.05, 5).generate((i, j, w) -> g.addWeightedEdge(i, j, w));
+        GraphNode<Integer> root = g.getNode(0);
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(6);
+            int next = 100;
+            while (!done.get()) {
+                Integer label = Integer.valueOf(next++);
+                g.addNode(label);
+                for (int k = 0; k < 3; k++) {
+                    g.addWeightedEdge(g.nodeCount() - 1, random.nextInt(g.nodeCount() - 1), random.nextDouble());
+                }
+                if (g.nodeCount() > 400)
+                    g.removeNode(1 + random.nextInt(g.nodeCount() - 1));
+            }
+        });
+        writer.start();
+        try {
+            for (int round = 0; round < 50; round++) {
+                ConnectedComponentsLabelling<Integer> labelling =
+                        new UndirectedGraphConnectedComponentsComputer<Integer>().computeComponentLabelling(g);
+                int labelled = 0;
+                for (Set<GraphNode<Integer>> component : labelling.toComponentSets()) {
+                    labelled += component.size();
+                }
+                assertTrue(labelled == labelling.nodeCount());
+                int nodes = 0;
+                for (Set<GraphNode<Integer>> component : new UndirectedGraphConnectedComponentsComputer<Integer>()
+                        .computeConnectedComponents(g)) {
+                    nodes += component.size();
+                }
+                assertTrue(nodes >= 100);
+                assertTrue(new BreadthFirstConnectedComponentsComputer<Integer>().computeComponentLabelling(g)
+                        .getComponentCount() > 0);
+                assertTrue(new ParallelConnectedComponentsComputer<Integer>().computeComponentLabelling(g)
+                        .getComponentCount() > 0);
+                assertTrue(new KruskalMSP<Integer>().computeMSP(g).size() <= 400);
+                SpanningTreeWorkspace<Integer> tree = new PrimMSP<Integer>().computeSpanningTree(g, root);
+                assertTrue(tree.nodeCount() >= 100);
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+    }
+}
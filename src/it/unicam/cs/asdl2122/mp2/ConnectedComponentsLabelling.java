@@ -0,0 +1,274 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Rappresentazione compatta delle componenti connesse di un grafo non
+ * orientato. Ad ogni nodo, identificato dall'indice che aveva nel grafo al
+ * momento del calcolo, è associato l'identificativo della componente di cui fa
+ * parte. Le componenti sono numerate da 0 a {@code getComponentCount() - 1}
+ * nell'ordine del nodo di indice minimo che contengono, quindi il nodo di
+ * indice 0 è sempre nella componente 0.
+ *
+ * Le dimensioni delle componenti vengono calcolate alla costruzione e
+ * conservate in un campo final, quindi il risultato può essere letto da più
+ * thread senza sincronizzazione; gli insiemi di nodi invece vengono costruiti
+ * ad ogni richiesta e non sono conservati, in modo che il risultato occupi
+ * solo un intero per nodo e uno per componente.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ *
+ * @param <L> il tipo delle etichette dei nodi del grafo
+ */
+public class ConnectedComponentsLabelling<L> {
+
+    /*
+     * Identificativo della componente di ogni nodo, indicizzato con l'indice
+     * del nodo nel grafo
+     */
+    private final int[] componentOf;
+
+    /*
+     * Numero di componenti connesse
+     */
+    private final int componentCount;
+
+    /*
+     * Restituisce il nodo con l'indice dato in componentOf, usato solo per
+     * costruire gli insiemi di nodi su richiesta. Può essere null se il calcolo
+     * è stato fatto su una struttura senza nodi
+     */
+    private final IntFunction<GraphNode<L>> nodes;
+
+    /*
+     * Numero di nodi di ogni componente
+     */
+    private final int[] componentSizes;
+
+    /**
+     * Costruisce il risultato a partire dall'etichettatura già calcolata. Gli
+     * array passati non vengono copiati.
+     *
+     * @param componentOf l'identificativo di componente di ogni nodo, nell'intervallo
+     *                    <code>[0, componentCount - 1]</code>
+     * @param componentCount il numero di componenti connesse
+     * @param nodes i nodi del grafo indicizzati come <code>componentOf</code>,
+     *              oppure null se non disponibili
+     */
+    ConnectedComponentsLabelling(int[] componentOf, int componentCount, GraphNode<L>[] nodes) {
+        this(componentOf, componentCount, nodes == null ? null : (IntFunction<GraphNode<L>>) i -> nodes[i]);
+    }
+
+    /**
+     * Costruisce il risultato a partire dall'etichettatura già calcolata, con
+     * i nodi creati solo quando vengono richiesti gli insiemi di nodi. L'array
+     * passato non viene copiato.
+     *
+     * @param componentOf l'identificativo di componente di ogni nodo, nell'intervallo
+     *                    <code>[0, componentCount - 1]</code>
+     * @param componentCount il numero di componenti connesse
+     * @param nodes la funzione che restituisce il nodo di indice dato,
+     *              oppure null se i nodi non sono disponibili
+     */
+    ConnectedComponentsLabelling(int[] componentOf, int componentCount, IntFunction<GraphNode<L>> nodes) {
+        this.componentOf = componentOf;
+        this.componentCount = componentCount;
+        this.nodes = nodes;
+        this.componentSizes = new int[componentCount];
+        for (int c : componentOf) {
+            componentSizes[c]++;
+        }
+    }
+
+    /**
+     * Restituisce il numero di nodi etichettati.
+     *
+     * @return il numero di nodi del grafo al momento del calcolo
+     */
+    public int nodeCount() {
+        return componentOf.length;
+    }
+
+    /**
+     * Restituisce il numero di componenti connesse.
+     *
+     * @return il numero di componenti connesse
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Restituisce l'identificativo della componente di cui fa parte il nodo di
+     * indice dato.
+     *
+     * @param i l'indice del nodo
+     * @return l'identificativo della componente del nodo, nell'intervallo
+     *         <code>[0, getComponentCount() - 1]</code>
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public int getComponentOf(int i) {
+        nodeIndexCheck(i);
+
+        return componentOf[i];
+    }
+
+    /**
+     * Determina se i due nodi con indici dati fanno parte della stessa
+     * componente connessa.
+     *
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @return true se i nodi sono nella stessa componente, false altrimenti
+     *
+     * @throws IndexOutOfBoundsException se almeno uno degli indici è fuori
+     * dall'intervallo <code>[0, nodeCount() - 1]</code>
+     */
+    public boolean areConnected(int i, int j) {
+        return getComponentOf(i) == getComponentOf(j);
+    }
+
+    /**
+     * Restituisce il numero di nodi di una componente.
+     *
+     * @param c l'identificativo della componente
+     * @return il numero di nodi della componente
+     *
+     * @throws IndexOutOfBoundsException se l'identificativo è fuori
+     * dall'intervallo <code>[0, getComponentCount() - 1]</code>
+     */
+    public int getComponentSize(int c) {
+        componentCheck(c);
+
+        return componentSizes[c];
+    }
+
+    /**
+     * Restituisce il numero di nodi di ogni componente.
+     *
+     * @return un nuovo array di lunghezza {@code getComponentCount()} che in
+     *         posizione c contiene il numero di nodi della componente c
+     */
+    public int[] getComponentSizes() {
+        return componentSizes.clone();
+    }
+
+    /**
+     * Restituisce l'etichettatura come array. L'array è una copia, modificarlo
+     * non altera questo risultato.
+     *
+     * @return un nuovo array di lunghezza {@code nodeCount()} che in posizione
+     *         i contiene l'identificativo della componente del nodo di indice i
+     */
+    public int[] toArray() {
+        return componentOf.clone();
+    }
+
+    /**
+     * Costruisce l'insieme dei nodi di una componente.
+     *
+     * @param c l'identificativo della componente
+     * @return un nuovo insieme con i nodi della componente c
+     *
+     * @throws IndexOutOfBoundsException se l'identificativo è fuori
+     * dall'intervallo <code>[0, getComponentCount() - 1]</code>
+     * @throws UnsupportedOperationException se il calcolo non è stato fatto su
+     * un grafo di cui sono noti i nodi
+     */
+    public Set<GraphNode<L>> getComponent(int c) {
+        componentCheck(c);
+        nodesCheck();
+
+        Set<GraphNode<L>> component = new HashSet<>(componentSizes[c] * 4 / 3 + 1);
+        for (int i = 0; i < componentOf.length; i++) {
+            if (componentOf[i] == c)
+                component.add(nodes.apply(i));
+        }
+        return component;
+    }
+
+    /**
+     * Costruisce l'insieme di tutte le componenti, nello stesso formato
+     * restituito da
+     * {@link UndirectedGraphConnectedComponentsComputer#computeConnectedComponents(Graph)}.
+     *
+     * @return un nuovo insieme di componenti connesse, ognuna rappresentata da
+     *         un insieme di nodi del grafo
+     *
+     * @throws UnsupportedOperationException se il calcolo non è stato fatto su
+     * un grafo di cui sono noti i nodi
+     */
+    public Set<Set<GraphNode<L>>> toComponentSets() {
+        nodesCheck();
+
+        // Una sola scansione dei nodi per riempire tutti gli insiemi
+        Set<GraphNode<L>>[] components = newSetArray(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            components[c] = new HashSet<>(componentSizes[c] * 4 / 3 + 1);
+        }
+        for (int i = 0; i < componentOf.length; i++) {
+            components[componentOf[i]].add(nodes.apply(i));
+        }
+
+        Set<Set<GraphNode<L>>> result = new HashSet<>();
+        for (Set<GraphNode<L>> component : components) {
+            result.add(component);
+        }
+        return result;
+    }
+
+    /**
+     * Crea un array di insiemi vuoto della lunghezza data.
+     *
+     * @param length la lunghezza dell'array
+     * @param <T> il tipo degli elementi degli insiemi
+     * @return un nuovo array di insiemi pieno di null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Set<T>[] newSetArray(int length) {
+        return new Set[length];
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice di nodo passato non è valido
+     *
+     * @param i l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti
+     * dell'intervallo <code>[0, nodeCount() - 1]</code>
+     */
+    private void nodeIndexCheck(int i) {
+        if (i < 0 || i >= componentOf.length)
+            throw new IndexOutOfBoundsException("Indice di nodo non valido");
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'identificativo di componente passato non è valido
+     *
+     * @param c l'identificativo da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'identificativo è fuori dai limiti
+     * dell'intervallo <code>[0, getComponentCount() - 1]</code>
+     */
+    private void componentCheck(int c) {
+        if (c < 0 || c >= componentCount)
+            throw new IndexOutOfBoundsException("Identificativo di componente non valido");
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link UnsupportedOperationException}
+     * se i nodi del grafo non sono disponibili
+     *
+     * @throws UnsupportedOperationException se i nodi non sono disponibili
+     */
+    private void nodesCheck() {
+        if (nodes == null)
+            throw new UnsupportedOperationException("I nodi del grafo non sono disponibili");
+    }
+}
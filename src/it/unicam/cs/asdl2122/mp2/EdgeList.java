@@ -0,0 +1,208 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Elenco di archi non orientati letto da un file, con i nodi identificati da
+ * numeri interi arbitrari come nei formati SNAP e DIMACS. Agli identificativi
+ * vengono assegnati indici consecutivi in ordine crescente di
+ * identificativo, e gli archi sono memorizzati come array paralleli di indici
+ * e di pesi, nell'ordine in cui compaiono nel file.
+ *
+ * L'elenco può essere trasformato in una {@link CompressedAdjacency}, passato
+ * arco per arco a un {@link GraphGenerator.EdgeSink} oppure usato per
+ * popolare un grafo con etichette di tipo Long. Gli archi ripetuti e i cappi
+ * presenti nel file vengono conservati.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public final class EdgeList {
+
+    /*
+     * Identificativo di ogni nodo, in ordine crescente
+     */
+    private final long[] ids;
+
+    /*
+     * Estremi e pesi degli archi, in array paralleli
+     */
+    private final int[] sources;
+    private final int[] destinations;
+    private final double[] weights;
+
+    /**
+     * Crea l'elenco a partire dagli array già riempiti, che non vengono
+     * copiati.
+     *
+     * @param ids gli identificativi dei nodi, ordinati e distinti
+     * @param sources il primo estremo di ogni arco
+     * @param destinations il secondo estremo di ogni arco
+     * @param weights il peso di ogni arco
+     */
+    EdgeList(long[] ids, int[] sources, int[] destinations, double[] weights) {
+        this.ids = ids;
+        this.sources = sources;
+        this.destinations = destinations;
+        this.weights = weights;
+    }
+
+    /**
+     * Restituisce il numero di nodi distinti che compaiono negli archi.
+     *
+     * @return il numero di nodi
+     */
+    public int nodeCount() {
+        return ids.length;
+    }
+
+    /**
+     * Restituisce il numero di archi, compresi i ripetuti.
+     *
+     * @return il numero di archi
+     */
+    public int edgeCount() {
+        return sources.length;
+    }
+
+    /**
+     * Restituisce l'identificativo del nodo con indice dato.
+     *
+     * @param i l'indice del nodo
+     * @return l'identificativo letto dal file
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public long getId(int i) {
+        if (i < 0 || i >= ids.length)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+
+        return ids[i];
+    }
+
+    /**
+     * Restituisce l'indice del nodo con l'identificativo dato.
+     *
+     * @param id l'identificativo del nodo
+     * @return l'indice del nodo, -1 se l'identificativo non compare negli
+     *         archi
+     */
+    public int indexOf(long id) {
+        int i = Arrays.binarySearch(ids, id);
+        return i < 0 ? -1 : i;
+    }
+
+    /**
+     * Restituisce l'indice del primo estremo di un arco.
+     *
+     * @param k la posizione dell'arco
+     * @return l'indice del primo estremo
+     *
+     * @throws IndexOutOfBoundsException se la posizione è fuori
+     * dall'intervallo <code>[0, edgeCount() - 1]</code>
+     */
+    public int getSource(int k) {
+        edgeCheck(k);
+
+        return sources[k];
+    }
+
+    /**
+     * Restituisce l'indice del secondo estremo di un arco.
+     *
+     * @param k la posizione dell'arco
+     * @return l'indice del secondo estremo
+     *
+     * @throws IndexOutOfBoundsException se la posizione è fuori
+     * dall'intervallo <code>[0, edgeCount() - 1]</code>
+     */
+    public int getDestination(int k) {
+        edgeCheck(k);
+
+        return destinations[k];
+    }
+
+    /**
+     * Restituisce il peso di un arco.
+     *
+     * @param k la posizione dell'arco
+     * @return il peso dell'arco
+     *
+     * @throws IndexOutOfBoundsException se la posizione è fuori
+     * dall'intervallo <code>[0, edgeCount() - 1]</code>
+     */
+    public double getWeight(int k) {
+        edgeCheck(k);
+
+        return weights[k];
+    }
+
+    /**
+     * Passa tutti gli archi, in ordine, alla destinazione data.
+     *
+     * @param sink la destinazione degli archi
+     *
+     * @throws NullPointerException se la destinazione è null
+     */
+    public void forEach(GraphGenerator.EdgeSink sink) {
+        if (sink == null)
+            throw new NullPointerException("Impossibile passare gli archi a una destinazione nulla");
+
+        for (int k = 0; k < sources.length; k++) {
+            sink.accept(sources[k], destinations[k], weights[k]);
+        }
+    }
+
+    /**
+     * Costruisce la rappresentazione compatta delle adiacenze, con gli stessi
+     * indici dei nodi.
+     *
+     * @return le adiacenze del grafo descritto dagli archi
+     */
+    public CompressedAdjacency toCompressedAdjacency() {
+        return CompressedAdjacency.fromEdgeArrays(ids.length, sources, destinations, weights, sources.length);
+    }
+
+    /**
+     * Aggiunge a un grafo i nodi, etichettati con i loro identificativi, e gli
+     * archi. Gli archi ripetuti vengono ignorati dal grafo.
+     *
+     * @param g il grafo da popolare
+     * @return il grafo passato
+     *
+     * @throws NullPointerException se il grafo è null
+     * @throws IllegalArgumentException se il grafo è orientato o contiene già
+     * uno dei nodi
+     */
+    public Graph<Long> populate(Graph<Long> g) {
+        if (g == null)
+            throw new NullPointerException("Impossibile popolare un grafo nullo");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Impossibile popolare un grafo orientato");
+
+        GraphNode<Long>[] nodes = Graph.newNodeArray(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            nodes[i] = new GraphNode<>(ids[i]);
+            if (!g.addNode(nodes[i]))
+                throw new IllegalArgumentException("Il grafo contiene già il nodo " + nodes[i]);
+        }
+        for (int k = 0; k < sources.length; k++) {
+            g.addWeightedEdge(nodes[sources[k]], nodes[destinations[k]], weights[k]);
+        }
+        return g;
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se la posizione di un arco non è valida
+     *
+     * @param k la posizione da controllare
+     *
+     * @throws IndexOutOfBoundsException se la posizione è fuori
+     * dall'intervallo <code>[0, edgeCount() - 1]</code>
+     */
+    private void edgeCheck(int k) {
+        if (k < 0 || k >= sources.length)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con una posizione non valida");
+    }
+}
@@ -0,0 +1,622 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lettore di file di testo che contengono un elenco di archi non orientati,
+ * una riga per arco. Sono accettati i formati più diffusi:
+ * <ul>
+ * <li>SNAP, con righe "u v" oppure "u v w" separate da spazi o tabulazioni e
+ * commenti che iniziano con '#';</li>
+ * <li>DIMACS, con righe "a u v w", commenti "c" e riga del problema "p";</li>
+ * <li>CSV, con righe "u,v,w" ed eventualmente un'intestazione.</li>
+ * </ul>
+ * Il formato non va indicato: i campi possono essere separati da spazi,
+ * tabulazioni o virgole, una 'a' iniziale viene saltata e tutte le righe vuote
+ * o che non iniziano con un numero vengono ignorate. Gli estremi degli archi
+ * sono interi, il peso è un numero decimale facoltativo e gli eventuali campi
+ * successivi, come i tempi dei grafi temporali, vengono ignorati.
+ *
+ * Il file viene mappato in memoria e diviso in blocchi di righe intere, che
+ * vengono letti in parallelo interpretando i numeri direttamente dai byte,
+ * senza creare stringhe né oggetti per ogni arco. Un file compresso con gzip
+ * viene riconosciuto dai primi byte e decompresso in un unico flusso, mentre
+ * la lettura dei blocchi decompressi resta parallela. Il risultato è un
+ * {@link EdgeList}, da cui si possono costruire le adiacenze compatte o un
+ * grafo.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public class EdgeListParser {
+
+    /*
+     * Dimensione predefinita dei blocchi letti in parallelo
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+
+    /*
+     * Lunghezza massima di una riga che attraversa la fine del suo blocco
+     */
+    private static final int MAX_LINE = 1 << 16;
+
+    /*
+     * Cifre decimali che un double rappresenta sempre in modo esatto, e
+     * potenze di dieci esatte usate per convertire i pesi
+     */
+    private static final int EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int k = 1; k < POWERS_OF_TEN.length; k++) {
+            POWERS_OF_TEN[k] = POWERS_OF_TEN[k - 1] * 10;
+        }
+    }
+
+    /*
+     * Pool che esegue la lettura dei blocchi
+     */
+    private final ForkJoinPool pool;
+
+    /*
+     * Peso assegnato agli archi senza peso
+     */
+    private final double defaultWeight;
+
+    /*
+     * Dimensione dei blocchi in byte
+     */
+    private final int chunkSize;
+
+    /**
+     * Crea un lettore che usa il pool comune e lascia senza peso gli archi che
+     * non lo specificano.
+     */
+    public EdgeListParser() {
+        this(ForkJoinPool.commonPool(), Double.NaN);
+    }
+
+    /**
+     * Crea un lettore che usa il pool dato.
+     *
+     * @param pool il pool che legge i blocchi del file
+     * @param defaultWeight il peso degli archi che non lo specificano,
+     *                      {@code Double.NaN} per lasciarli senza peso
+     *
+     * @throws NullPointerException se il pool è null
+     */
+    public EdgeListParser(ForkJoinPool pool, double defaultWeight) {
+        this(pool, defaultWeight, DEFAULT_CHUNK_SIZE);
+    }
+
+    /*
+     * Crea un lettore con blocchi della dimensione data, usato nei test per
+     * dividere anche file piccoli
+     */
+    EdgeListParser(ForkJoinPool pool, double defaultWeight, int chunkSize) {
+        if (pool == null)
+            throw new NullPointerException("Impossibile creare il lettore con un pool nullo");
+        if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE - MAX_LINE - 1)
+            throw new IllegalArgumentException("Dimensione dei blocchi non valida");
+
+        this.pool = pool;
+        this.defaultWeight = defaultWeight;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Legge tutti gli archi di un file, eventualmente compresso con gzip.
+     *
+     * @param path il file da leggere
+     * @return gli archi contenuti nel file
+     *
+     * @throws NullPointerException se il file è null
+     * @throws IOException se si verifica un errore di lettura, una riga che
+     * inizia con un numero non contiene un arco valido oppure il file ha più
+     * archi di quanti ne possa contenere un array
+     */
+    public EdgeList parse(Path path) throws IOException {
+        if (path == null)
+            throw new NullPointerException("Impossibile leggere un file nullo");
+
+        List<Future<Chunk>> futures = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (isGzip(channel)) {
+                submitCompressed(channel, futures);
+            } else {
+                submitMapped(channel, futures);
+            }
+            return build(collect(futures));
+        } finally {
+            for (Future<Chunk> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /*
+     * Controlla se il file inizia con i due byte che identificano gzip
+     */
+    private static boolean isGzip(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        while (magic.hasRemaining() && channel.read(magic, magic.position()) >= 0) {
+            // Legge finché i due byte non sono disponibili o il file finisce
+        }
+        return magic.position() == 2 && (magic.get(0) & 0xFF) == 0x1F && (magic.get(1) & 0xFF) == 0x8B;
+    }
+
+    /*
+     * Divide un file non compresso in blocchi di chunkSize byte. Ogni blocco
+     * successivo al primo viene mappato a partire dal byte precedente, per
+     * sapere se inizia con una riga, e tutti hanno un margine di MAX_LINE byte
+     * per completare l'ultima riga.
+     */
+    private void submitMapped(FileChannel channel, List<Future<Chunk>> futures) throws IOException {
+        long size = channel.size();
+        for (long start = 0; start < size; start += chunkSize) {
+            long offset = start == 0 ? 0 : start - 1;
+            int skip = (int) (start - offset);
+            int length = (int) Math.min(size - start, chunkSize) + skip;
+            int mapped = (int) Math.min(size - offset, (long) chunkSize + MAX_LINE + skip);
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, mapped);
+            boolean last = offset + mapped == size;
+            futures.add(pool.submit(task(() -> {
+                // Un blocco che non inizia con una riga salta il suo frammento
+                int from = skip == 0 ? 0 : nextLine(buffer, 0, length);
+                if (from < 0)
+                    return new Chunk(0);
+                return parseLines(buffer, from, length, last, offset);
+            })));
+        }
+    }
+
+    /*
+     * Decompressione sequenziale in blocchi di righe intere, letti in
+     * parallelo mentre viene decompresso il blocco successivo
+     */
+    private void submitCompressed(FileChannel channel, List<Future<Chunk>> futures) throws IOException {
+        channel.position(0);
+        InputStream in = new GZIPInputStream(Channels.newInputStream(channel), 1 << 16);
+        byte[] block = new byte[chunkSize];
+        int filled = 0;
+        long base = 0;
+        while (true) {
+            int read = in.read(block, filled, block.length - filled);
+            if (read > 0) {
+                filled += read;
+                if (filled < block.length)
+                    continue;
+            }
+            boolean end = read < 0;
+            int cut = filled;
+            if (!end) {
+                while (cut > 0 && block[cut - 1] != '\n') {
+                    cut--;
+                }
+                // Una riga più lunga del blocco: il blocco viene allargato
+                if (cut == 0) {
+                    block = Arrays.copyOf(block, block.length * 2);
+                    continue;
+                }
+            }
+            if (cut > 0) {
+                ByteBuffer buffer = ByteBuffer.wrap(block, 0, cut);
+                int length = cut;
+                long position = base;
+                futures.add(pool.submit(task(() -> parseLines(buffer, 0, length, true, position))));
+            }
+            if (end)
+                return;
+            byte[] next = new byte[Math.max(chunkSize, filled - cut)];
+            System.arraycopy(block, cut, next, 0, filled - cut);
+            filled -= cut;
+            base += cut;
+            block = next;
+        }
+    }
+
+    /*
+     * Adatta la lettura di un blocco a un Callable, trasportando le
+     * IOException fino a collect
+     */
+    private static Callable<Chunk> task(IOCallable body) {
+        return () -> {
+            try {
+                return body.call();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private interface IOCallable {
+        Chunk call() throws IOException;
+    }
+
+    /*
+     * Attende i blocchi nell'ordine del file
+     */
+    private static List<Chunk> collect(List<Future<Chunk>> futures) throws IOException {
+        List<Chunk> chunks = new ArrayList<>(futures.size());
+        try {
+            for (Future<Chunk> future : futures) {
+                chunks.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lettura interrotta", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException)
+                throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause);
+        }
+        return chunks;
+    }
+
+    /*
+     * Restituisce la posizione successiva al primo '\n' in [from, to), -1 se
+     * non c'è
+     */
+    private static int nextLine(ByteBuffer buffer, int from, int to) {
+        for (int p = from; p < to; p++) {
+            if (buffer.get(p) == '\n')
+                return p + 1;
+        }
+        return -1;
+    }
+
+    /*
+     * Legge le righe che iniziano in [from, length). L'ultima può proseguire
+     * oltre length, fino al limite del buffer; se il buffer non termina il file
+     * la riga deve finire prima del limite.
+     */
+    private Chunk parseLines(ByteBuffer buffer, int from, int length, boolean last, long base)
+            throws IOException {
+        int limit = buffer.limit();
+        Chunk chunk = new Chunk(Math.max(16, length / 16));
+        int p = from;
+        while (p < length) {
+            int lineStart = p;
+            int end = p;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            if (end == limit && !last)
+                throw new IOException("Riga troppo lunga alla posizione " + (base + lineStart));
+            parseLine(buffer, lineStart, end, base, chunk);
+            p = end + 1;
+        }
+        return chunk;
+    }
+
+    /*
+     * Legge una riga in [p, end) e, se contiene un arco, lo aggiunge al blocco
+     */
+    private void parseLine(ByteBuffer buffer, int p, int end, long base, Chunk chunk) throws IOException {
+        int lineStart = p;
+        p = skipBlanks(buffer, p, end);
+        if (p < end && buffer.get(p) == 'a' && p + 1 < end && isSeparator(buffer.get(p + 1))) {
+            p = skipBlanks(buffer, p + 1, end);
+        }
+        if (p == end || !startsNumber(buffer.get(p)))
+            return;
+
+        Cursor cursor = chunk.cursor;
+        cursor.position = p;
+        long u = parseLong(buffer, cursor, end, base + lineStart);
+        long v = parseLong(buffer, cursor, end, base + lineStart);
+        double w = defaultWeight;
+        p = skipSeparators(buffer, cursor.position, end);
+        if (p < end) {
+            cursor.position = p;
+            w = parseDouble(buffer, cursor, end, base + lineStart);
+        }
+        chunk.add(u, v, w);
+    }
+
+    /*
+     * Legge un intero a partire dal cursore, saltando i separatori
+     * precedenti, e sposta il cursore dopo l'ultima cifra
+     */
+    private static long parseLong(ByteBuffer buffer, Cursor cursor, int end, long line) throws IOException {
+        int p = skipSeparators(buffer, cursor.position, end);
+        boolean negative = false;
+        if (p < end && (buffer.get(p) == '-' || buffer.get(p) == '+')) {
+            negative = buffer.get(p) == '-';
+            p++;
+        }
+        int digits = p;
+        long value = 0;
+        while (p < end) {
+            int d = buffer.get(p) - '0';
+            if (d < 0 || d > 9)
+                break;
+            if (value > (Long.MAX_VALUE - d) / 10)
+                throw new IOException("Identificativo troppo grande nella riga alla posizione " + line);
+            value = value * 10 + d;
+            p++;
+        }
+        if (p == digits || (p < end && !isSeparator(buffer.get(p))))
+            throw new IOException("Arco non valido nella riga alla posizione " + line);
+        cursor.position = p;
+        return negative ? -value : value;
+    }
+
+    /*
+     * Legge un numero decimale, anche in notazione scientifica. I numeri con
+     * al più EXACT_DIGITS cifre significative e un esponente piccolo sono
+     * calcolati esattamente con una sola operazione in virgola mobile, che dà
+     * il risultato arrotondato correttamente; gli altri, rari, vengono
+     * convertiti con Double.parseDouble.
+     */
+    private static double parseDouble(ByteBuffer buffer, Cursor cursor, int end, long line) throws IOException {
+        int start = cursor.position;
+        int p = start;
+        boolean negative = false;
+        if (p < end && (buffer.get(p) == '-' || buffer.get(p) == '+')) {
+            negative = buffer.get(p) == '-';
+            p++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean fraction = false;
+        while (p < end) {
+            byte b = buffer.get(p);
+            if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (significant < 19) {
+                    if (mantissa != 0 || b != '0')
+                        significant++;
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (fraction)
+                        exponent--;
+                } else if (!fraction) {
+                    exponent++;
+                }
+            } else {
+                break;
+            }
+            p++;
+        }
+        if (anyDigit && p < end && (buffer.get(p) == 'e' || buffer.get(p) == 'E')) {
+            p++;
+            boolean negativeExponent = false;
+            if (p < end && (buffer.get(p) == '-' || buffer.get(p) == '+')) {
+                negativeExponent = buffer.get(p) == '-';
+                p++;
+            }
+            int digits = p;
+            int e = 0;
+            while (p < end && buffer.get(p) >= '0' && buffer.get(p) <= '9') {
+                e = Math.min(e * 10 + (buffer.get(p) - '0'), 100_000);
+                p++;
+            }
+            if (p == digits)
+                anyDigit = false;
+            exponent += negativeExponent ? -e : e;
+        }
+        if (!anyDigit || (p < end && !isSeparator(buffer.get(p)) && buffer.get(p) != '\r'))
+            return slowDouble(buffer, start, end, line);
+        cursor.position = p;
+
+        double value;
+        if (significant <= EXACT_DIGITS && Math.abs(exponent) < POWERS_OF_TEN.length) {
+            value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            value = slowDouble(buffer, start, p, line);
+        }
+        return negative ? -value : value;
+    }
+
+    /*
+     * Conversione generale di un numero decimale, usata per i casi che la
+     * conversione veloce non calcola esattamente e per NaN e Infinity
+     */
+    private static double slowDouble(ByteBuffer buffer, int start, int end, long line) throws IOException {
+        int p = start;
+        while (p < end && !isSeparator(buffer.get(p))) {
+            p++;
+        }
+        byte[] bytes = new byte[p - start];
+        for (int k = 0; k < bytes.length; k++) {
+            bytes[k] = buffer.get(start + k);
+        }
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw new IOException("Peso non valido nella riga alla posizione " + line, e);
+        }
+    }
+
+    /*
+     * Salta spazi, tabulazioni e ritorni a capo
+     */
+    private static int skipBlanks(ByteBuffer buffer, int p, int end) {
+        while (p < end) {
+            byte b = buffer.get(p);
+            if (b != ' ' && b != '\t' && b != '\r')
+                break;
+            p++;
+        }
+        return p;
+    }
+
+    /*
+     * Salta i separatori tra i campi, virgole comprese
+     */
+    private static int skipSeparators(ByteBuffer buffer, int p, int end) {
+        while (p < end && isSeparator(buffer.get(p))) {
+            p++;
+        }
+        return p;
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == ',' || b == '\r' || b == ';';
+    }
+
+    private static boolean startsNumber(byte b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '+';
+    }
+
+    /*
+     * Unisce i blocchi e assegna gli indici ai nodi. Gli identificativi
+     * ricevono prima un indice provvisorio, nell'ordine in cui compaiono, da
+     * una tabella ad indirizzamento aperto; poi gli indici vengono rinumerati
+     * in ordine crescente di identificativo, così non dipendono da come il
+     * file è stato diviso.
+     */
+    private static EdgeList build(List<Chunk> chunks) throws IOException {
+        long total = 0;
+        for (Chunk chunk : chunks) {
+            total += chunk.size;
+        }
+        if (total > Integer.MAX_VALUE - 8)
+            throw new IOException("Il file contiene troppi archi");
+        int m = (int) total;
+
+        IdTable table = new IdTable(m);
+        int[] sources = new int[m];
+        int[] destinations = new int[m];
+        double[] weights = new double[m];
+        int k = 0;
+        for (Chunk chunk : chunks) {
+            for (int e = 0; e < chunk.size; e++) {
+                sources[k] = table.indexOf(chunk.ends[2 * e]);
+                destinations[k] = table.indexOf(chunk.ends[2 * e + 1]);
+                weights[k] = chunk.weights[e];
+                k++;
+            }
+        }
+
+        int n = table.size;
+        long[] ids = Arrays.copyOf(table.ids, n);
+        Arrays.parallelSort(ids);
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[i] = Arrays.binarySearch(ids, table.ids[i]);
+        }
+        for (int e = 0; e < m; e++) {
+            sources[e] = rank[sources[e]];
+            destinations[e] = rank[destinations[e]];
+        }
+        return new EdgeList(ids, sources, destinations, weights);
+    }
+
+    /*
+     * Tabella ad indirizzamento aperto con scansione lineare che assegna
+     * indici consecutivi agli identificativi, nell'ordine di inserimento
+     */
+    private static final class IdTable {
+
+        /*
+         * Posizioni della tabella, con l'indice più uno e 0 per le libere
+         */
+        int[] slots;
+        long[] ids;
+        int size;
+
+        IdTable(int edgeCount) {
+            slots = new int[Integer.highestOneBit(Math.max(16, edgeCount)) << 1];
+            ids = new long[16];
+        }
+
+        int indexOf(long id) {
+            int mask = slots.length - 1;
+            int slot = hash(id) & mask;
+            while (slots[slot] != 0) {
+                int index = slots[slot] - 1;
+                if (ids[index] == id)
+                    return index;
+                slot = (slot + 1) & mask;
+            }
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, 2 * size);
+            ids[size] = id;
+            slots[slot] = ++size;
+            if (2 * size > slots.length)
+                grow();
+            return size - 1;
+        }
+
+        void grow() {
+            int[] old = slots;
+            slots = new int[2 * old.length];
+            int mask = slots.length - 1;
+            for (int value : old) {
+                if (value != 0) {
+                    int slot = hash(ids[value - 1]) & mask;
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = value;
+                }
+            }
+        }
+
+        static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /*
+     * Posizione di lettura all'interno di una riga, riusata per tutto il blocco
+     */
+    private static final class Cursor {
+        int position;
+    }
+
+    /*
+     * Archi letti da un blocco, con gli estremi alternati in un solo array
+     */
+    private static final class Chunk {
+
+        final Cursor cursor = new Cursor();
+        long[] ends;
+        double[] weights;
+        int size;
+
+        Chunk(int capacity) {
+            ends = new long[2 * capacity];
+            weights = new double[capacity];
+        }
+
+        void add(long u, long v, double w) {
+            if (size == weights.length) {
+                int capacity = weights.length + (weights.length >> 1) + 1;
+                ends = Arrays.copyOf(ends, 2 * capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            ends[2 * size] = u;
+            ends[2 * size + 1] = v;
+            weights[size] = w;
+            size++;
+        }
+    }
+}
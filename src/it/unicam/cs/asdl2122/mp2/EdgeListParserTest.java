@@ -0,0 +1,129 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per le classi EdgeListParser ed EdgeList.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class EdgeListParserTest {
+
+    private static EdgeList parse(EdgeListParser parser, String text, boolean gzip) throws IOException {
+        Path path = Files.createTempFile("edges", gzip ? ".txt.gz" : ".txt");
+        try {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (gzip) {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+                    out.write(bytes);
+                }
+            } else {
+                Files.write(path, bytes);
+            }
+            return parser.parse(path);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    final void testSnap() throws IOException {
+        EdgeList edges = parse(new EdgeListParser(), "# Nodes: 4 Edges: 3\n"
+                + "# FromNodeId\tToNodeId\n"
+                + "30\t10\n"
+                + "10\t20\n"
+                + "\n"
+                + "20 7\n", false);
+        assertTrue(edges.nodeCount() == 4);
+        assertTrue(edges.edgeCount() == 3);
+        assertTrue(edges.getId(0) == 7);
+        assertTrue(edges.getId(3) == 30);
+        assertTrue(edges.indexOf(20) == 2);
+        assertTrue(edges.indexOf(5) == -1);
+        assertTrue(edges.getSource(0) == 3);
+        assertTrue(edges.getDestination(0) == 1);
+        assertTrue(Double.isNaN(edges.getWeight(2)));
+        assertThrows(IndexOutOfBoundsException.class, () -> edges.getSource(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> edges.getId(-1));
+    }
+
+    @Test
+    final void testDimacsAndCsv() throws IOException {
+        EdgeList dimacs = parse(new EdgeListParser(), "c grafo di prova\r\n"
+                + "p sp 3 2\r\n"
+                + "a 1 2 0.25\r\n"
+                + "a 2 3 -1.5e2\r\n", false);
+        assertTrue(dimacs.nodeCount() == 3);
+        assertTrue(dimacs.edgeCount() == 2);
+        assertTrue(dimacs.getWeight(0) == 0.25);
+        assertTrue(dimacs.getWeight(1) == -150);
+
+        EdgeList csv = parse(new EdgeListParser(ForkJoinPool.commonPool(), 1), "source,target,weight\n"
+                + "1,2,3.5\n"
+                + "2,3\n"
+                + "3, 1, 0.1, 1650000000\n"
+                + "4,4,12345678901234567890.5", false);
+        assertTrue(csv.nodeCount() == 4);
+        assertTrue(csv.edgeCount() == 4);
+        assertTrue(csv.getWeight(0) == 3.5);
+        assertTrue(csv.getWeight(1) == 1);
+        assertTrue(csv.getWeight(2) == 0.1);
+        assertTrue(csv.getWeight(3) == 12345678901234567890.5);
+        assertTrue(csv.getSource(3) == csv.getDestination(3));
+    }
+
+    @Test
+    final void testChunksAndGzip() throws IOException {
+        // Un file con molte righe, diviso in blocchi che tagliano le righe
+        GraphGenerator generator = GraphGenerator.erdosRenyi(500, 0.02, 3);
+        StringBuilder text = new StringBuilder("# archi\n");
+        generator.generate((i, j, w) -> text.append(i * 1_000 + 1).append(' ')
+                .append(j * 1_000 + 1).append(' ').append(w).append('\n'));
+        Graph<Long> expected = new AdjacencyMatrixUndirectedGraph<Long>();
+        generator.populate(expected, i -> Long.valueOf(i * 1_000 + 1));
+
+        for (int chunkSize : new int[] {7, 64, 1_000, 1 << 20}) {
+            EdgeListParser parser = new EdgeListParser(ForkJoinPool.commonPool(), Double.NaN, chunkSize);
+            for (boolean gzip : new boolean[] {false, true}) {
+                EdgeList edges = parse(parser, text.toString(), gzip);
+                assertTrue(edges.edgeCount() == expected.edgeCount());
+                Graph<Long> actual = edges.populate(new AdjacencyMatrixUndirectedGraph<Long>());
+                assertTrue(actual.getEdges().equals(expected.getEdges()));
+                for (GraphEdge<Long> edge : expected.getEdges()) {
+                    assertTrue(actual.getEdge(edge.getNode1(), edge.getNode2()).getWeight() == edge.getWeight());
+                }
+                CompressedAdjacency a = edges.toCompressedAdjacency();
+                assertTrue(a.edgeCount() == expected.edgeCount());
+            }
+        }
+    }
+
+    @Test
+    final void testExceptions() throws IOException {
+        EdgeListParser parser = new EdgeListParser();
+        assertThrows(NullPointerException.class, () -> parser.parse(null));
+        assertThrows(NullPointerException.class, () -> new EdgeListParser(null, 1));
+        assertThrows(IOException.class, () -> parse(parser, "1 2\n3\n", false));
+        assertThrows(IOException.class, () -> parse(parser, "1 2 x\n", true));
+        assertThrows(IOException.class, () -> parse(parser, "1 2x 3\n", false));
+        assertThrows(IOException.class, () -> parse(parser, "99999999999999999999 1\n", false));
+        EdgeList empty = parse(parser, "", false);
+        assertTrue(empty.nodeCount() == 0);
+        assertTrue(empty.edgeCount() == 0);
+        assertThrows(NullPointerException.class, () -> empty.forEach(null));
+        Graph<Long> g = new AdjacencyMatrixUndirectedGraph<Long>();
+        g.addNode(Long.valueOf(1));
+        assertThrows(IllegalArgumentException.class, () -> parse(parser, "1 2\n", false).populate(g));
+    }
+}
@@ -1,6 +1,8 @@
 package it.unicam.cs.asdl2122.mp2;
 
 import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Classe astratta per un generico grafo i cui nodi sono etichettati con
@@ -23,6 +25,16 @@ import java.util.Set;
 @SuppressWarnings({"DuplicatedCode", "unused"})
 public abstract class Graph<L> {
 
+    /*
+     * Registro delle modifiche, creato alla prima richiesta
+     */
+    private GraphChangeLog changeLog;
+
+    /*
+     * Numero di modifiche registrate dalla creazione del grafo
+     */
+    private long modificationCount;
+
     /**
      * Restituisce il numero di nodi in questo grafo.
      * 
@@ -235,6 +247,42 @@ public abstract class Graph<L> {
      */
     public abstract Set<GraphNode<L>> getNodes();
 
+    /**
+     * Restituisce i nodi di questo grafo disposti secondo il loro indice
+     * corrente, cioè in un array che in posizione i contiene il nodo di indice
+     * i. È utile agli algoritmi che memorizzano le informazioni calcolate in
+     * array indicizzati con gli indici dei nodi.
+     *
+     * Questa operazione è opzionale.
+     *
+     * @return un nuovo array di lunghezza {@code this.nodeCount()} che in
+     *         posizione i contiene il nodo attualmente associato all'indice i
+     *
+     * @throws UnsupportedOperationException se gli indici dei nodi non sono
+     * supportati dall'implementazione di questo grafo
+     */
+    public GraphNode<L>[] getNodesByIndex() {
+        GraphNode<L>[] nodes = newNodeArray(this.nodeCount());
+        for (GraphNode<L> node : this.getNodes()) {
+            nodes[this.getNodeIndexOf(node)] = node;
+        }
+        return nodes;
+    }
+
+    /**
+     * Crea un array di nodi vuoto della lunghezza data. Java non permette di
+     * creare direttamente array di tipi generici, quindi l'array viene creato
+     * grezzo e convertito qui una volta sola.
+     *
+     * @param length la lunghezza dell'array
+     * @param <L> il tipo delle etichette dei nodi
+     * @return un nuovo array di nodi pieno di null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <L> GraphNode<L>[] newNodeArray(int length) {
+        return new GraphNode[length];
+    }
+
     /**
      * Aggiunge un arco a questo grafo.
      * 
@@ -539,6 +587,80 @@ public abstract class Graph<L> {
      */
     public abstract GraphEdge<L> getEdge(int i, int j);
 
+    /**
+     * Determina se esiste un arco che connette i due nodi con indici dati, con
+     * le stesse regole di {@link #getEdge(int, int)}. Le sottoclassi possono
+     * ridefinire questo metodo per rispondere senza creare né restituire
+     * oggetti {@code GraphEdge}.
+     * 
+     * Questa operazione è opzionale.
+     * 
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @return true se l'arco esiste, false altrimenti
+     *
+     * @throws IndexOutOfBoundsException se almeno uno degli indici
+     * passati non corrisponde a nessun nodo o è fuori dai limiti dell'intervallo
+     * <code>[0, this.nodeCount() - 1]</code>
+     * @throws UnsupportedOperationException se questa operazione non è
+     * supportata dall'implementazione di questo grafo
+     */
+    public boolean hasEdge(int i, int j) {
+        return this.getEdge(i, j) != null;
+    }
+
+    /**
+     * Restituisce il peso dell'arco che connette i due nodi con indici dati,
+     * con le stesse regole di {@link #getEdge(int, int)}. Le sottoclassi
+     * possono ridefinire questo metodo per rispondere senza creare né
+     * restituire oggetti {@code GraphEdge}.
+     * 
+     * Questa operazione è opzionale.
+     * 
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @return il peso dell'arco, Double.NaN se l'arco non è pesato o non
+     *         esiste
+     *
+     * @throws IndexOutOfBoundsException se almeno uno degli indici
+     * passati non corrisponde a nessun nodo o è fuori dai limiti dell'intervallo
+     * <code>[0, this.nodeCount() - 1]</code>
+     * @throws UnsupportedOperationException se questa operazione non è
+     * supportata dall'implementazione di questo grafo
+     */
+    public double getWeight(int i, int j) {
+        GraphEdge<L> edge = this.getEdge(i, j);
+        return edge == null ? Double.NaN : edge.getWeight();
+    }
+
+    /**
+     * Cambia il peso dell'arco che connette i due nodi con indici dati.
+     * Diversamente da {@link GraphEdge#setWeight(double)} chiamato
+     * direttamente sull'arco, la modifica passa dal grafo e viene quindi
+     * registrata come evento nel registro delle modifiche, se il grafo lo
+     * supporta.
+     * 
+     * Questa operazione è opzionale.
+     * 
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @param weight il nuovo peso, Double.NaN per rendere l'arco non pesato
+     *
+     * @throws IndexOutOfBoundsException se almeno uno degli indici
+     * passati non corrisponde a nessun nodo o è fuori dai limiti dell'intervallo
+     * <code>[0, this.nodeCount() - 1]</code>
+     * @throws IllegalArgumentException se l'arco non esiste
+     * @throws UnsupportedOperationException se questa operazione non è
+     * supportata dall'implementazione di questo grafo
+     */
+    public void setEdgeWeight(int i, int j, double weight) {
+        GraphEdge<L> edge = this.getEdge(i, j);
+        if (edge == null)
+            throw new IllegalArgumentException("L'arco passato non esiste");
+        edge.setWeight(weight);
+        this.recordChange(GraphChangeLog.WEIGHT_CHANGED, i, j, weight);
+    }
+
     /**
      * Restituisce l'insieme di tutti i nodi adiacenti a un certo nodo. Se il
      * grafo è orientato, i nodi restituiti sono solo quelli collegati da un
@@ -744,6 +866,107 @@ public abstract class Graph<L> {
      */
     public abstract Set<GraphEdge<L>> getEdges();
 
+    /**
+     * Restituisce uno stream degli indici dei nodi di questo grafo, cioè degli
+     * interi dell'intervallo <code>[0, this.nodeCount() - 1]</code>. Lo stream
+     * si divide in parti uguali, quindi è adatto a elaborazioni parallele su
+     * array indicizzati con gli indici dei nodi.
+     * 
+     * @return uno stream sequenziale degli indici dei nodi
+     */
+    public IntStream nodeIndexStream() {
+        return IntStream.range(0, this.nodeCount());
+    }
+
+    /**
+     * Restituisce uno stream di tutti gli archi di questo grafo, ognuno una
+     * sola volta. L'implementazione di default usa l'insieme restituito da
+     * {@link #getEdges()}; le sottoclassi possono ridefinire questo metodo
+     * per dividere gli archi in parti equilibrate nelle elaborazioni
+     * parallele.
+     * 
+     * @return uno stream sequenziale degli archi di questo grafo
+     */
+    public Stream<GraphEdge<L>> edgeStream() {
+        return this.getEdges().stream();
+    }
+
+    /**
+     * Restituisce il registro delle modifiche di questo grafo, creato alla
+     * prima chiamata. Le modifiche vengono registrate solo mentre c'è almeno
+     * un iscritto al registro, quindi un grafo che nessuno osserva non paga
+     * nulla.
+     * 
+     * Questa operazione è opzionale: è supportata dalle implementazioni per
+     * cui {@link #recordsChanges()} restituisce true.
+     * 
+     * @return il registro delle modifiche
+     * 
+     * @throws UnsupportedOperationException se questa operazione non è
+     * supportata dall'implementazione di questo grafo
+     */
+    public GraphChangeLog getChangeLog() {
+        if (!this.recordsChanges())
+            throw new UnsupportedOperationException(
+                    "Registro delle modifiche non supportato da questo grafo");
+        if (this.changeLog == null)
+            this.changeLog = new GraphChangeLog();
+        return this.changeLog;
+    }
+
+    /**
+     * Restituisce il numero di modifiche fatte a questo grafo dalla sua
+     * creazione, incrementato da ogni metodo che lo modifica compreso
+     * {@link #setEdgeWeight(int, int, double)}. Due valori uguali letti in
+     * momenti diversi garantiscono che il grafo non è cambiato nel frattempo,
+     * quindi il numero si può usare come versione del grafo, per esempio per
+     * riusare risultati calcolati in precedenza. Conta anche i pesi cambiati
+     * con {@link GraphEdge#setWeight(double)} sugli archi restituiti dal
+     * grafo, che per questo devono avvisare il grafo di ogni cambio di peso.
+     * 
+     * Questa operazione è opzionale: è supportata dalle implementazioni per
+     * cui {@link #recordsChanges()} restituisce true.
+     * 
+     * @return il numero di modifiche del grafo
+     * 
+     * @throws UnsupportedOperationException se questa operazione non è
+     * supportata dall'implementazione di questo grafo
+     */
+    public long getModificationCount() {
+        if (!this.recordsChanges())
+            throw new UnsupportedOperationException(
+                    "Conteggio delle modifiche non supportato da questo grafo");
+        return this.modificationCount;
+    }
+
+    /**
+     * Indica se questa implementazione registra le proprie modifiche, cioè
+     * se chiama {@link #recordChange(int, int, int, double)} in ogni metodo
+     * che modifica il grafo. L'implementazione di default restituisce false.
+     * 
+     * @return true se il grafo supporta il registro delle modifiche
+     */
+    protected boolean recordsChanges() {
+        return false;
+    }
+
+    /**
+     * Incrementa il numero di modifiche e registra la modifica nel registro,
+     * se è stato creato. Va chiamato dalle sottoclassi dopo ogni modifica,
+     * con gli indici validi dopo la modifica stessa.
+     * 
+     * @param kind il tipo della modifica, una delle costanti di
+     *             {@link GraphChangeLog}
+     * @param i l'indice del primo nodo coinvolto, -1 se non ce n'è
+     * @param j l'indice del secondo nodo coinvolto, -1 se non ce n'è
+     * @param weight il peso associato alla modifica, Double.NaN se non c'è
+     */
+    protected void recordChange(int kind, int i, int j, double weight) {
+        this.modificationCount++;
+        if (this.changeLog != null)
+            this.changeLog.record(kind, i, j, weight);
+    }
+
     /**
      * Restituisce il grado di un nodo, cioè il numero di archi connessi al
      * nodo. Nel caso di grafo orientato è la somma del numero di archi in
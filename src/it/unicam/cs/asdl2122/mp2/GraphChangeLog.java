@@ -0,0 +1,266 @@
+package it.unicam.cs.asdl2122.mp2;
+
+/**
+ * Registro delle modifiche di un grafo, restituito da
+ * {@link Graph#getChangeLog()}. Ogni modifica è un evento con un tipo, gli
+ * indici dei nodi coinvolti e un peso, memorizzato in un buffer circolare di
+ * capacità fissa fatto di array paralleli, quindi registrare un evento non
+ * crea oggetti.
+ *
+ * Chi vuole seguire le modifiche si iscrive con {@link #subscribe()} e
+ * riceve una {@link Subscription} con il proprio cursore: di tanto in tanto
+ * chiama {@link Subscription#drain(ChangeConsumer)} e riceve in ordine tutti
+ * gli eventi registrati dall'ultima volta. Una struttura derivata dal grafo,
+ * come un'etichettatura delle componenti o una cache, può così aggiornarsi
+ * in tempo proporzionale al numero di modifiche invece di ricalcolare tutto.
+ * Se un iscritto resta indietro di più eventi della capacità del buffer gli
+ * eventi più vecchi vengono sovrascritti: drain() lo segnala e l'iscritto
+ * deve ricostruire il proprio stato dal grafo. Finché non c'è nessun iscritto
+ * gli eventi non vengono registrati.
+ *
+ * Gli indici di un evento sono quelli validi subito dopo la modifica, e gli
+ * eventi vanno applicati nell'ordine in cui vengono ricevuti: per esempio la
+ * cancellazione di un nodo è preceduta dalla cancellazione dei suoi archi e
+ * dopo di essa gli indici maggiori diminuiscono di uno. Il registro non è
+ * sincronizzato, come i grafi che lo usano.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public final class GraphChangeLog {
+
+    /**
+     * Capacità predefinita del buffer
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 10;
+
+    /**
+     * Aggiunta di un nodo, con indice i
+     */
+    public static final int NODE_ADDED = 0;
+
+    /**
+     * Cancellazione di un nodo, che aveva indice i
+     */
+    public static final int NODE_REMOVED = 1;
+
+    /**
+     * Aggiunta di un arco tra i nodi di indice i e j, con il suo peso
+     */
+    public static final int EDGE_ADDED = 2;
+
+    /**
+     * Cancellazione di un arco tra i nodi di indice i e j, con il peso che
+     * aveva
+     */
+    public static final int EDGE_REMOVED = 3;
+
+    /**
+     * Modifica del peso dell'arco tra i nodi di indice i e j, con il nuovo
+     * peso
+     */
+    public static final int WEIGHT_CHANGED = 4;
+
+    /**
+     * Cancellazione di tutti i nodi e gli archi
+     */
+    public static final int CLEARED = 5;
+
+    /**
+     * Azione da eseguire su un evento.
+     */
+    @FunctionalInterface
+    public interface ChangeConsumer {
+
+        /**
+         * Riceve un evento.
+         *
+         * @param kind il tipo dell'evento, una delle costanti di
+         *             {@link GraphChangeLog}
+         * @param i l'indice del primo nodo coinvolto, -1 se non ce n'è
+         * @param j l'indice del secondo nodo coinvolto, -1 se non ce n'è
+         * @param weight il peso associato all'evento, Double.NaN se non c'è
+         */
+        void accept(int kind, int i, int j, double weight);
+    }
+
+    /*
+     * Tipo, indici e peso di ogni posizione del buffer
+     */
+    private final byte[] kinds;
+    private final int[] firsts;
+    private final int[] seconds;
+    private final double[] weights;
+
+    /*
+     * Maschera per ricavare la posizione di un evento dal suo numero
+     */
+    private final int mask;
+
+    /*
+     * Numero di eventi registrati dalla creazione, cioè numero del prossimo
+     * evento
+     */
+    private long head;
+
+    /*
+     * Numero di iscrizioni aperte
+     */
+    private int subscribers;
+
+    /**
+     * Crea un registro con la capacità predefinita.
+     */
+    public GraphChangeLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un registro con la capacità data.
+     *
+     * @param capacity il numero di eventi che il buffer può contenere, una
+     *                 potenza di 2
+     *
+     * @throws IllegalArgumentException se la capacità non è una potenza di 2
+     * positiva
+     */
+    public GraphChangeLog(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("La capacità deve essere una potenza di 2 positiva");
+
+        this.kinds = new byte[capacity];
+        this.firsts = new int[capacity];
+        this.seconds = new int[capacity];
+        this.weights = new double[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Restituisce il numero di eventi registrati dalla creazione del
+     * registro.
+     *
+     * @return il numero di eventi registrati
+     */
+    public long size() {
+        return head;
+    }
+
+    /**
+     * Restituisce il numero di eventi che il buffer può contenere.
+     *
+     * @return la capacità del buffer
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Crea una nuova iscrizione, che riceverà gli eventi registrati da ora in
+     * poi.
+     *
+     * @return l'iscrizione
+     */
+    public Subscription subscribe() {
+        subscribers++;
+        return new Subscription();
+    }
+
+    /**
+     * Restituisce true se qualcuno è iscritto, cioè se gli eventi vengono
+     * registrati.
+     *
+     * @return true se ci sono iscrizioni aperte
+     */
+    public boolean hasSubscribers() {
+        return subscribers > 0;
+    }
+
+    /*
+     * Registra un evento, se c'è almeno un iscritto
+     */
+    void record(int kind, int i, int j, double weight) {
+        if (subscribers == 0)
+            return;
+
+        int s = (int) head & mask;
+        kinds[s] = (byte) kind;
+        firsts[s] = i;
+        seconds[s] = j;
+        weights[s] = weight;
+        head++;
+    }
+
+    /**
+     * Iscrizione al registro, con il numero del prossimo evento da ricevere.
+     */
+    public final class Subscription {
+
+        /*
+         * Numero del prossimo evento da ricevere
+         */
+        private long cursor;
+
+        /*
+         * Vero dopo close()
+         */
+        private boolean closed;
+
+        private Subscription() {
+            this.cursor = head;
+        }
+
+        /**
+         * Restituisce il numero di eventi registrati e non ancora ricevuti,
+         * che può superare la capacità se alcuni sono andati persi.
+         *
+         * @return il numero di eventi in attesa
+         */
+        public long pending() {
+            return head - cursor;
+        }
+
+        /**
+         * Passa all'azione, in ordine, tutti gli eventi registrati dopo
+         * l'ultima chiamata. Se nel frattempo sono stati registrati più
+         * eventi della capacità del buffer, quelli più vecchi sono andati
+         * persi: in questo caso nessun evento viene passato, il cursore si
+         * sposta al prossimo evento e il metodo restituisce -1, e chi è
+         * iscritto deve ricostruire il proprio stato dal grafo.
+         *
+         * @param consumer l'azione da eseguire su ogni evento
+         * @return il numero di eventi passati, -1 se alcuni eventi sono
+         *         andati persi
+         *
+         * @throws NullPointerException se l'azione è null
+         * @throws IllegalStateException se l'iscrizione è stata chiusa
+         */
+        public int drain(ChangeConsumer consumer) {
+            if (consumer == null)
+                throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+            if (closed)
+                throw new IllegalStateException("Impossibile ricevere eventi da un'iscrizione chiusa");
+
+            if (head - cursor > mask + 1) {
+                cursor = head;
+                return -1;
+            }
+            int count = (int) (head - cursor);
+            while (cursor < head) {
+                int s = (int) cursor++ & mask;
+                consumer.accept(kinds[s], firsts[s], seconds[s], weights[s]);
+            }
+            return count;
+        }
+
+        /**
+         * Chiude l'iscrizione; se non restano iscritti il registro smette di
+         * registrare eventi. Chiudere un'iscrizione già chiusa non ha
+         * effetto.
+         */
+        public void close() {
+            if (!closed) {
+                closed = true;
+                subscribers--;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe GraphChangeLog e per la registrazione delle
+ * modifiche in AdjacencyMatrixUndirectedGraph.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class GraphChangeLogTest {
+
+    @Test
+    final void testEvents() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("x");
+        GraphChangeLog.Subscription s = g.getChangeLog().subscribe();
+        g.addNode("a");
+        g.addWeightedEdge("a", "x", 2);
+        g.setEdgeWeight(0, 1, 3);
+        g.addEdge("a", "a");
+        g.removeEdge("x", "a");
+        g.addEdge("x", "a");
+        g.removeNode("a");
+        g.clear();
+
+        List<String> events = new ArrayList<String>();
+        assertTrue(s.pending() == 10);
+        assertTrue(s.drain((kind, i, j, w) -> events.add(kind + " " + i + " " + j + " " + w)) == 10);
+        assertTrue(events.equals(List.of(
+                GraphChangeLog.NODE_ADDED + " 1 -1 NaN",
+                GraphChangeLog.EDGE_ADDED + " 1 0 2.0",
+                GraphChangeLog.WEIGHT_CHANGED + " 0 1 3.0",
+                GraphChangeLog.EDGE_ADDED + " 1 1 NaN",
+                GraphChangeLog.EDGE_REMOVED + " 0 1 3.0",
+                GraphChangeLog.EDGE_ADDED + " 0 1 NaN",
+                GraphChangeLog.EDGE_REMOVED + " 1 0 NaN",
+                GraphChangeLog.EDGE_REMOVED + " 1 1 NaN",
+                GraphChangeLog.NODE_REMOVED + " 1 -1 NaN",
+                GraphChangeLog.CLEARED + " -1 -1 NaN")));
+        assertTrue(s.drain((kind, i, j, w) -> fail("Nessun evento atteso")) == 0);
+        g.addNode("b");
+        assertTrue(s.pending() == 1);
+
+        // Senza iscritti gli eventi non vengono registrati
+        s.close();
+        s.close();
+        assertFalse(g.getChangeLog().hasSubscribers());
+        long size = g.getChangeLog().size();
+        g.addNode("c");
+        assertTrue(g.getChangeLog().size() == size);
+        assertThrows(IllegalStateException.class, () -> s.drain((kind, i, j, w) -> {}));
+        assertThrows(NullPointerException.class, () -> g.getChangeLog().subscribe().drain(null));
+    }
+
+    @Test
+    final void testOverflow() {
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        GraphChangeLog.Subscription s = g.getChangeLog().subscribe();
+        int capacity = g.getChangeLog().capacity();
+        for (int i = 0; i < capacity; i++) {
+            g.addNode(Integer.valueOf(i));
+        }
+        assertTrue(s.drain((kind, i, j, w) -> {}) == capacity);
+        g.addEdge(0, 0);
+        for (int k = 0; k < capacity; k++) {
+            g.setEdgeWeight(0, 0, k);
+        }
+        assertTrue(s.pending() == capacity + 1);
+        assertTrue(s.drain((kind, i, j, w) -> fail("Eventi persi")) == -1);
+        assertTrue(s.pending() == 0);
+        assertThrows(IllegalArgumentException.class, () -> new GraphChangeLog(100));
+    }
+
+    @Test
+    final void testIncrementalDegrees() {
+        // I gradi mantenuti con gli eventi coincidono con quelli del grafo
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        GraphChangeLog.Subscription s = g.getChangeLog().subscribe();
+        List<Integer> degrees = new ArrayList<Integer>();
+        GraphChangeLog.ChangeConsumer consumer = (kind, i, j, w) -> {
+            if (kind == GraphChangeLog.NODE_ADDED) {
+                degrees.add(0);
+            } else if (kind == GraphChangeLog.NODE_REMOVED) {
+                degrees.remove(i);
+            } else if (kind == GraphChangeLog.EDGE_ADDED || kind == GraphChangeLog.EDGE_REMOVED) {
+                int delta = kind == GraphChangeLog.EDGE_ADDED ? 1 : -1;
+                degrees.set(i, degrees.get(i) + delta);
+                if (i != j)
+                    degrees.set(j, degrees.get(j) + delta);
+            } else if (kind == GraphChangeLog.CLEARED) {
+                degrees.clear();
+            }
+        };
+        SplittableRandom random = new SplittableRandom(6);
+        int next = 0;
+        for (int step = 0; step < 5_000; step++) {
+            int n = g.nodeCount();
+            int operation = random.nextInt(20);
+            if (n < 2 || operation == 0) {
+                g.addNode(Integer.valueOf(next++));
+            } else if (operation == 1) {
+                g.removeNode(random.nextInt(n));
+            } else if (operation == 2 && random.nextInt(50) == 0) {
+                g.clear();
+            } else {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (g.hasEdge(i, j))
+                    g.removeEdge(i, j);
+                else
+                    g.addEdge(i, j);
+            }
+            if (random.nextInt(10) == 0)
+                assertTrue(s.drain(consumer) >= 0);
+        }
+        assertTrue(s.drain(consumer) >= 0);
+        assertTrue(degrees.size() == g.nodeCount());
+        for (int i = 0; i < g.nodeCount(); i++) {
+            assertTrue(degrees.get(i) == g.getDegreeOf(i));
+        }
+    }
+
+    @Test
+    final void testSetEdgeWeight() {
+        Graph<String> g = new WeightMatrixUndirectedGraph<String>(new TriangularWeightMatrix());
+        g.addNode("a");
+        g.addNode("b");
+        g.addWeightedEdge(0, 1, 1);
+        g.setEdgeWeight(1, 0, 4);
+        assertTrue(g.getWeight(0, 1) == 4);
+        assertThrows(IllegalArgumentException.class, () -> g.setEdgeWeight(0, 0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> g.getChangeLog());
+
+        Graph<String> h = new AdjacencyMatrixUndirectedGraph<String>();
+        h.addNode("a");
+        assertThrows(IllegalArgumentException.class, () -> h.setEdgeWeight(0, 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> h.setEdgeWeight(0, 1, 1));
+    }
+}
@@ -0,0 +1,324 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntFunction;
+
+/**
+ * Formato binario per salvare su file un grafo non orientato e ricaricarlo
+ * mappandolo in memoria. Il file contiene le adiacenze nel formato CSR di
+ * {@link CompressedAdjacency} e un dizionario delle etichette dei nodi,
+ * scritte come stringhe UTF-8; il caricamento non legge né interpreta il
+ * contenuto ma lo mappa con {@link FileChannel#map}, quindi il grafo è
+ * interrogabile subito e le pagine del file vengono lette dal sistema
+ * operativo solo quando servono.
+ *
+ * Il file è composto da un'intestazione seguita da sezioni allineate a 8 byte,
+ * tutte in ordine little-endian:
+ * <ol>
+ * <li>intestazione: {@link #MAGIC}, {@link #VERSION}, numero di nodi, un
+ * intero riservato, numero di archi, numero di elementi delle adiacenze e
+ * lunghezza del dizionario, più un campo riservato;</li>
+ * <li>gli inizi delle righe, nodeCount + 1 interi;</li>
+ * <li>i vicini, riga per riga in ordine crescente;</li>
+ * <li>i pesi degli archi, paralleli ai vicini;</li>
+ * <li>gli inizi delle etichette nel dizionario, nodeCount + 1 interi;</li>
+ * <li>gli indici dei nodi ordinati per etichetta, usati per la ricerca
+ * binaria;</li>
+ * <li>le etichette codificate in UTF-8, una dopo l'altra.</li>
+ * </ol>
+ *
+ * Le etichette vengono salvate come il risultato di {@code toString()}, quindi
+ * un grafo ricaricato ha sempre etichette di tipo String. Ogni sezione deve
+ * essere più piccola di 2 GB.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public final class GraphFile {
+
+    /**
+     * I primi quattro byte di ogni file, "MP2G".
+     */
+    public static final int MAGIC = 0x4D503247;
+
+    /**
+     * La versione del formato scritta da questa classe.
+     */
+    public static final int VERSION = 1;
+
+    /*
+     * Lunghezza dell'intestazione in byte
+     */
+    static final int HEADER_SIZE = 48;
+
+    /*
+     * Dimensione del buffer usato per la scrittura
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private GraphFile() {
+    }
+
+    /**
+     * Salva un grafo non orientato, con i nodi nell'ordine dei loro indici.
+     *
+     * @param g il grafo da salvare
+     * @param path il file da scrivere, che viene sovrascritto se esiste
+     * @param <L> il tipo delle etichette dei nodi del grafo
+     *
+     * @throws NullPointerException se il grafo o il file sono null
+     * @throws IllegalArgumentException se il grafo è orientato o due nodi
+     * hanno etichette con la stessa rappresentazione testuale
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     * @throws IOException se si verifica un errore di scrittura
+     */
+    public static <L> void write(Graph<L> g, Path path) throws IOException {
+        if (g == null)
+            throw new NullPointerException("Impossibile salvare un grafo nullo");
+
+        CompressedAdjacency adjacency = CompressedAdjacency.of(g);
+        GraphNode<L>[] nodes = g.getNodesByIndex();
+        write(adjacency, i -> nodes[i].getLabel().toString(), path);
+    }
+
+    /**
+     * Salva le adiacenze di un grafo insieme alle etichette dei suoi nodi.
+     *
+     * @param adjacency le adiacenze del grafo
+     * @param labels la funzione che restituisce l'etichetta di ogni indice
+     * @param path il file da scrivere, che viene sovrascritto se esiste
+     *
+     * @throws NullPointerException se uno degli argomenti è null o la funzione
+     * restituisce null
+     * @throws IllegalArgumentException se due nodi hanno la stessa etichetta
+     * @throws IOException se si verifica un errore di scrittura
+     */
+    public static void write(CompressedAdjacency adjacency, IntFunction<String> labels, Path path)
+            throws IOException {
+        if (adjacency == null || labels == null || path == null)
+            throw new NullPointerException("Impossibile salvare il grafo con argomenti nulli");
+
+        int n = adjacency.nodeCount();
+        byte[][] encoded = new byte[n][];
+        long labelBytes = 0;
+        for (int i = 0; i < n; i++) {
+            String label = labels.apply(i);
+            if (label == null)
+                throw new NullPointerException("Etichetta nel nodo nulla");
+            encoded[i] = label.getBytes(StandardCharsets.UTF_8);
+            labelBytes += encoded[i].length;
+        }
+        if (labelBytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Le etichette occupano troppo spazio");
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> encoded[i], Arrays::compareUnsigned));
+        for (int k = 1; k < n; k++) {
+            if (Arrays.equals(encoded[order[k - 1]], encoded[order[k]]))
+                throw new IllegalArgumentException("Due nodi hanno la stessa etichetta: "
+                        + labels.apply(order[k]));
+        }
+
+        int entries = adjacency.offsets[n];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(n);
+            out.putInt(0);
+            out.putLong(adjacency.edgeCount());
+            out.putLong(entries);
+            out.putLong(labelBytes);
+            out.putLong(0);
+
+            for (int i = 0; i <= n; i++) {
+                out.putInt(adjacency.offsets[i]);
+            }
+            out.align();
+            for (int k = 0; k < entries; k++) {
+                out.putInt(adjacency.targets[k]);
+            }
+            out.align();
+            for (int k = 0; k < entries; k++) {
+                out.putDouble(adjacency.weights[k]);
+            }
+            int offset = 0;
+            for (int i = 0; i < n; i++) {
+                out.putInt(offset);
+                offset += encoded[i].length;
+            }
+            out.putInt(offset);
+            out.align();
+            for (int k = 0; k < n; k++) {
+                out.putInt(order[k]);
+            }
+            out.align();
+            for (int i = 0; i < n; i++) {
+                out.putBytes(encoded[i]);
+            }
+            out.align();
+            out.flush();
+        }
+    }
+
+    /**
+     * Carica un grafo salvato mappando il file in memoria. Il file non viene
+     * letto: le sue parti vengono caricate dal sistema operativo quando il
+     * grafo le usa, e rimangono valide anche dopo la chiusura del canale.
+     *
+     * @param path il file da caricare
+     * @return il grafo in sola lettura contenuto nel file
+     *
+     * @throws NullPointerException se il file è null
+     * @throws IOException se si verifica un errore di lettura o il file non è
+     * nel formato previsto
+     */
+    public static MappedGraph map(Path path) throws IOException {
+        if (path == null)
+            throw new NullPointerException("Impossibile caricare un grafo da un file nullo");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE)
+                throw new IOException("Il file non contiene un grafo: " + path);
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC)
+                throw new IOException("Il file non contiene un grafo: " + path);
+            if (header.getInt(4) != VERSION)
+                throw new IOException("Versione del formato non supportata: " + header.getInt(4));
+            int n = header.getInt(8);
+            long edgeCount = header.getLong(16);
+            long entries = header.getLong(24);
+            long labelBytes = header.getLong(32);
+            if (n < 0 || edgeCount < 0 || edgeCount > Integer.MAX_VALUE || entries < 0 || labelBytes < 0)
+                throw new IOException("Intestazione non valida: " + path);
+
+            long position = HEADER_SIZE;
+            ByteBuffer offsets = section(channel, position, 4L * (n + 1));
+            position = align(position + 4L * (n + 1));
+            ByteBuffer targets = section(channel, position, 4 * entries);
+            position = align(position + 4 * entries);
+            ByteBuffer weights = section(channel, position, 8 * entries);
+            position = align(position + 8 * entries);
+            ByteBuffer labelOffsets = section(channel, position, 4L * (n + 1));
+            position = align(position + 4L * (n + 1));
+            ByteBuffer labelOrder = section(channel, position, 4L * n);
+            position = align(position + 4L * n);
+            ByteBuffer labels = section(channel, position, labelBytes);
+            position = align(position + labelBytes);
+            if (position != size)
+                throw new IOException("Lunghezza del file non valida: " + path);
+
+            return new MappedGraph(n, (int) edgeCount, offsets.asIntBuffer(), targets.asIntBuffer(),
+                    weights.asDoubleBuffer(), labelOffsets.asIntBuffer(), labelOrder.asIntBuffer(), labels);
+        }
+    }
+
+    /**
+     * Mappa una sezione del file.
+     *
+     * @param channel il canale del file
+     * @param position l'inizio della sezione
+     * @param length la lunghezza della sezione in byte
+     * @return la sezione mappata, in ordine little-endian
+     *
+     * @throws IOException se la sezione è troppo grande o va oltre la fine
+     * del file
+     */
+    private static ByteBuffer section(FileChannel channel, long position, long length) throws IOException {
+        if (length > Integer.MAX_VALUE)
+            throw new IOException("Sezione del file troppo grande");
+        if (position + length > channel.size())
+            throw new IOException("Il file è troncato");
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Metodo di utilità che arrotonda una posizione al multiplo di 8
+     * successivo.
+     *
+     * @param position la posizione
+     * @return il più piccolo multiplo di 8 maggiore o uguale alla posizione
+     */
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /*
+     * Scrittura bufferizzata su un canale, che tiene traccia della posizione
+     * per allineare le sezioni
+     */
+    private static final class Output {
+
+        final FileChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long position;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            position += 4;
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+            position += 8;
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+            position += 8;
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int k = 0;
+            while (k < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - k);
+                buffer.put(bytes, k, length);
+                k += length;
+                position += length;
+            }
+        }
+
+        void align() throws IOException {
+            while ((position & 7) != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes)
+                flush();
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
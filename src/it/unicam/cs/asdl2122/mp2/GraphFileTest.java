@@ -0,0 +1,118 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per le classi GraphFile e MappedGraph.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class GraphFileTest {
+
+    @Test
+    final void testWriteAndMap() throws IOException {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("città");
+        g.addNode("b");
+        g.addNode("a");
+        g.addNode("d");
+        g.addWeightedEdge("città", "b", 2.5);
+        g.addWeightedEdge("a", "b", 1);
+        g.addEdge("a", "a");
+        Path path = Files.createTempFile("graph", ".mp2g");
+        try {
+            GraphFile.write(g, path);
+            MappedGraph m = GraphFile.map(path);
+            assertTrue(m.nodeCount() == 4);
+            assertTrue(m.edgeCount() == 3);
+            assertFalse(m.isDirected());
+            assertTrue(m.getLabel(0).equals("città"));
+            assertTrue(m.getNodeIndexOf("città") == 0);
+            assertTrue(m.getNodeIndexOf("a") == 2);
+            assertTrue(m.getNodeIndexOf(new GraphNode<String>("d")) == 3);
+            assertNull(m.getNode("e"));
+            assertTrue(m.getNode(1).equals(new GraphNode<String>("b")));
+            assertThrows(IllegalArgumentException.class, () -> m.getNodeIndexOf("e"));
+            assertThrows(IndexOutOfBoundsException.class, () -> m.getNode(4));
+            assertTrue(m.getNodes().equals(g.getNodes()));
+            assertTrue(m.getEdges().equals(g.getEdges()));
+            assertTrue(m.getEdge("b", "città").getWeight() == 2.5);
+            assertTrue(m.getEdge(1, 2).getWeight() == 1);
+            assertFalse(m.getEdge("a", "a").hasWeight());
+            assertNull(m.getEdge(0, 3));
+            assertTrue(m.getWeight(0, 1) == 2.5);
+            assertTrue(Double.isNaN(m.getWeight(0, 2)));
+            assertTrue(m.degree(2) == 2);
+            assertTrue(m.getDegreeOf("b") == 2);
+            assertTrue(m.getAdjacentNodesOf("b").equals(g.getAdjacentNodesOf("b")));
+            assertTrue(m.getEdgesOf(2).equals(g.getEdgesOf(2)));
+            assertThrows(UnsupportedOperationException.class, () -> m.addNode("e"));
+            assertThrows(UnsupportedOperationException.class, () -> m.addEdge(0, 3));
+            assertThrows(UnsupportedOperationException.class, () -> m.removeNode(0));
+            assertThrows(UnsupportedOperationException.class, () -> m.clear());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    final void testAlgorithmsOnMappedGraph() throws IOException {
+        Graph<Integer> g = GraphGenerator.erdosRenyi(300, 0.03, 5)
+                .populate(new AdjacencyMatrixUndirectedGraph<Integer>(), i -> i);
+        Path path = Files.createTempFile("graph", ".mp2g");
+        try {
+            GraphFile.write(g, path);
+            MappedGraph m = GraphFile.map(path);
+            assertTrue(m.edgeCount() == g.edgeCount());
+            for (int i = 0; i < 300; i++) {
+                assertTrue(m.getLabel(i).equals(Integer.toString(i)));
+                assertTrue(m.degree(i) == g.getDegreeOf(i));
+            }
+            double expected = 0;
+            for (GraphEdge<Integer> edge : new KruskalMSP<Integer>().computeMSP(g)) {
+                expected += edge.getWeight();
+            }
+            double actual = 0;
+            for (GraphEdge<String> edge : new KruskalMSP<String>().computeMSP(m)) {
+                actual += edge.getWeight();
+            }
+            assertEquals(expected, actual, 1e-9);
+            assertEquals(expected, new PrimMSP<String>().computeSpanningTree(m, m.getNode(0)).getTotalWeight(), 1e-9);
+            assertArrayEquals(new UndirectedGraphConnectedComponentsComputer<Integer>().computeComponentLabelling(g).toArray(),
+                    new UndirectedGraphConnectedComponentsComputer<String>().computeComponentLabelling(m).toArray());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    final void testExceptions() throws IOException {
+        assertThrows(NullPointerException.class, () -> GraphFile.map(null));
+        Path path = Files.createTempFile("graph", ".mp2g");
+        try {
+            assertThrows(NullPointerException.class, () -> GraphFile.write((Graph<String>) null, path));
+            Graph<Object> g = new AdjacencyMatrixUndirectedGraph<Object>();
+            g.addNode(1);
+            g.addNode("1");
+            assertThrows(IllegalArgumentException.class, () -> GraphFile.write(g, path));
+            Files.write(path, new byte[64]);
+            assertThrows(IOException.class, () -> GraphFile.map(path));
+            // Un file valido troncato
+            g.removeNode("1");
+            GraphFile.write(g, path);
+            byte[] bytes = Files.readAllBytes(path);
+            Files.write(path, Arrays.copyOf(bytes, bytes.length - 8));
+            assertThrows(IOException.class, () -> GraphFile.map(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
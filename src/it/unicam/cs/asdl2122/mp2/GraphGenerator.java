@@ -0,0 +1,482 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Generatore riproducibile di grafi non orientati pesati, da usare per
+ * benchmark e prove di carico. Ogni generatore è determinato dai suoi
+ * parametri e da un seme: generare due volte lo stesso generatore produce gli
+ * stessi archi, con gli stessi pesi e nello stesso ordine.
+ *
+ * Gli archi non vengono raccolti in liste intermedie ma passati uno alla
+ * volta a un {@link EdgeSink}, che li identifica con gli indici dei loro
+ * estremi. Il metodo {@link #populate(Graph, IntFunction)} aggiunge i nodi a un
+ * grafo qualsiasi e inserisce ogni arco direttamente tramite i nodi, senza
+ * dover risalire ai nodi dagli indici.
+ *
+ * Sono disponibili i modelli di Erdős-Rényi, griglie bidimensionali e
+ * tridimensionali, R-MAT, Barabási-Albert, grafi geometrici casuali e grafi
+ * completi. Salvo dove indicato diversamente i pesi sono uniformi in [0, 1).
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public abstract class GraphGenerator {
+
+    /**
+     * Destinazione degli archi prodotti da un generatore.
+     */
+    @FunctionalInterface
+    public interface EdgeSink {
+
+        /**
+         * Riceve un arco non orientato.
+         *
+         * @param i l'indice del primo estremo
+         * @param j l'indice del secondo estremo
+         * @param weight il peso dell'arco
+         */
+        void accept(int i, int j, double weight);
+    }
+
+    /*
+     * Numero di nodi dei grafi generati
+     */
+    private final int nodeCount;
+
+    /*
+     * Seme del generatore di numeri casuali
+     */
+    private final long seed;
+
+    /**
+     * Crea un generatore.
+     *
+     * @param nodeCount il numero di nodi dei grafi generati
+     * @param seed il seme
+     *
+     * @throws IllegalArgumentException se il numero di nodi è negativo
+     */
+    GraphGenerator(int nodeCount, long seed) {
+        if (nodeCount < 0)
+            throw new IllegalArgumentException("Il numero di nodi non può essere negativo");
+
+        this.nodeCount = nodeCount;
+        this.seed = seed;
+    }
+
+    /**
+     * Restituisce il numero di nodi dei grafi generati.
+     *
+     * @return il numero di nodi
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Restituisce il seme del generatore.
+     *
+     * @return il seme
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Genera gli archi e li passa uno alla volta alla destinazione. Gli estremi
+     * sono indici nell'intervallo <code>[0, nodeCount() - 1]</code>; i cappi
+     * non vengono mai generati, gli archi ripetuti solo dove indicato.
+     *
+     * @param sink la destinazione degli archi
+     *
+     * @throws NullPointerException se la destinazione è null
+     */
+    public void generate(EdgeSink sink) {
+        if (sink == null)
+            throw new NullPointerException("Impossibile generare archi verso una destinazione nulla");
+
+        generate(sink, new SplittableRandom(seed));
+    }
+
+    /**
+     * Aggiunge a un grafo i nodi e gli archi generati. I nodi vengono aggiunti
+     * in ordine di indice, con le etichette restituite dalla funzione, dopo
+     * quelli già presenti; gli archi ripetuti vengono ignorati.
+     *
+     * @param g il grafo da popolare
+     * @param labels la funzione che associa un'etichetta a ogni indice
+     * @param <L> il tipo delle etichette dei nodi del grafo
+     * @return il grafo passato
+     *
+     * @throws NullPointerException se il grafo o la funzione sono null, o se
+     * la funzione restituisce null
+     * @throws IllegalArgumentException se il grafo è orientato o contiene già
+     * un nodo con una delle etichette
+     */
+    public <L> Graph<L> populate(Graph<L> g, IntFunction<L> labels) {
+        if (g == null)
+            throw new NullPointerException("Impossibile popolare un grafo nullo");
+        if (labels == null)
+            throw new NullPointerException("Impossibile popolare un grafo senza etichette");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Impossibile popolare un grafo orientato");
+
+        GraphNode<L>[] nodes = Graph.newNodeArray(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = new GraphNode<>(labels.apply(i));
+            if (!g.addNode(nodes[i]))
+                throw new IllegalArgumentException("Il grafo contiene già il nodo " + nodes[i]);
+        }
+        generate((i, j, weight) -> g.addWeightedEdge(nodes[i], nodes[j], weight));
+        return g;
+    }
+
+    /**
+     * Genera gli archi usando il generatore di numeri casuali dato.
+     *
+     * @param sink la destinazione degli archi
+     * @param random il generatore di numeri casuali, inizializzato con il seme
+     */
+    abstract void generate(EdgeSink sink, SplittableRandom random);
+
+    /**
+     * Crea un generatore del modello di Erdős-Rényi G(n, p), in cui ogni
+     * coppia di nodi distinti è collegata indipendentemente con probabilità
+     * p. Invece di estrarre un numero casuale per ogni coppia il generatore
+     * salta direttamente alla coppia successiva collegata, con un salto di
+     * distribuzione geometrica (Batagelj e Brandes, 2005): il tempo è
+     * proporzionale al numero di archi e non al numero di coppie.
+     *
+     * @param n il numero di nodi
+     * @param p la probabilità di ogni arco
+     * @param seed il seme
+     * @return il generatore
+     *
+     * @throws IllegalArgumentException se n è negativo o p non è in [0, 1]
+     */
+    public static GraphGenerator erdosRenyi(int n, double p, long seed) {
+        if (!(p >= 0 && p <= 1))
+            throw new IllegalArgumentException("La probabilità deve essere compresa tra 0 e 1");
+
+        return new GraphGenerator(n, seed) {
+            @Override
+            void generate(EdgeSink sink, SplittableRandom random) {
+                if (p == 0)
+                    return;
+                double logQ = Math.log1p(-p);
+                // Le coppie (v, w) con w < v sono numerate per righe
+                int v = 1;
+                long w = -1;
+                while (v < n) {
+                    // Il salto viene limitato per evitare overflow quando p è molto piccola
+                    double skip = Math.floor(Math.log(1 - random.nextDouble()) / logQ);
+                    w += 1 + (long) Math.min(skip, (double) n * n);
+                    while (w >= v && v < n) {
+                        w -= v;
+                        v++;
+                    }
+                    if (v < n)
+                        sink.accept(v, (int) w, random.nextDouble());
+                }
+            }
+        };
+    }
+
+    /**
+     * Crea un generatore di una griglia bidimensionale, in cui il nodo nella
+     * riga r e nella colonna c ha indice <code>r * columns + c</code> ed è
+     * collegato ai nodi adiacenti sulla stessa riga e sulla stessa colonna.
+     *
+     * @param rows il numero di righe
+     * @param columns il numero di colonne
+     * @param seed il seme
+     * @return il generatore
+     *
+     * @throws IllegalArgumentException se una dimensione è negativa o il
+     * numero di nodi non è rappresentabile
+     */
+    public static GraphGenerator grid(int rows, int columns, long seed) {
+        return grid(1, rows, columns, seed);
+    }
+
+    /**
+     * Crea un generatore di una griglia tridimensionale, in cui il nodo di
+     * coordinate (x, y, z) ha indice <code>(x * sizeY + y) * sizeZ + z</code>
+     * ed è collegato ai sei nodi adiacenti lungo gli assi.
+     *
+     * @param sizeX la dimensione lungo il primo asse
+     * @param sizeY la dimensione lungo il secondo asse
+     * @param sizeZ la dimensione lungo il terzo asse
+     * @param seed il seme
+     * @return il generatore
+     *
+     * @throws IllegalArgumentException se una dimensione è negativa o il
+     * numero di nodi non è rappresentabile
+     */
+    public static GraphGenerator grid(int sizeX, int sizeY, int sizeZ, long seed) {
+        if (sizeX < 0 || sizeY < 0 || sizeZ < 0)
+            throw new IllegalArgumentException("Le dimensioni della griglia non possono essere negative");
+        long n = (long) sizeX * sizeY * sizeZ;
+        if (n > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("La griglia ha troppi nodi");
+
+        return new GraphGenerator((int) n, seed) {
+            @Override
+            void generate(EdgeSink sink, SplittableRandom random) {
+                int plane = sizeY * sizeZ;
+                for (int x = 0; x < sizeX; x++) {
+                    for (int y = 0; y < sizeY; y++) {
+                        for (int z = 0; z < sizeZ; z++) {
+                            int i = x * plane + y * sizeZ + z;
+                            if (z + 1 < sizeZ)
+                                sink.accept(i, i + 1, random.nextDouble());
+                            if (y + 1 < sizeY)
+                                sink.accept(i, i + sizeZ, random.nextDouble());
+                            if (x + 1 < sizeX)
+                                sink.accept(i, i + plane, random.nextDouble());
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Crea un generatore del modello R-MAT (Chakrabarti, Zhan, Faloutsos,
+     * 2004), un caso particolare dei grafi di Kronecker. Il grafo ha
+     * 2<sup>scale</sup> nodi; ogni arco viene posizionato scendendo ricorsivamente
+     * in uno dei quattro quadranti della matrice di adiacenza con
+     * probabilità a, b, c e 1 - a - b - c. Vengono generati esattamente
+     * {@code edgeCount} archi, tra cui possono esserci archi ripetuti, mentre
+     * i cappi vengono scartati e rigenerati.
+     *
+     * @param scale il logaritmo in base 2 del numero di nodi, tra 1 e 30
+     * @param edgeCount il numero di archi da generare
+     * @param a la probabilità del quadrante in alto a sinistra
+     * @param b la probabilità del quadrante in alto a destra
+     * @param c la probabilità del quadrante in basso a sinistra
+     * @param seed il seme
+     * @return il generatore
+     *
+     * @throws IllegalArgumentException se la scala è fuori dall'intervallo, il
+     * numero di archi è negativo, le probabilità non sono valide o, se ci
+     * sono archi da generare, b + c è 0
+     */
+    public static GraphGenerator rmat(int scale, long edgeCount, double a, double b, double c, long seed) {
+        if (scale < 1 || scale > 30)
+            throw new IllegalArgumentException("La scala deve essere compresa tra 1 e 30");
+        if (edgeCount < 0)
+            throw new IllegalArgumentException("Il numero di archi non può essere negativo");
+        if (!(a >= 0 && b >= 0 && c >= 0 && a + b + c <= 1))
+            throw new IllegalArgumentException("Probabilità dei quadranti non valide");
+        // Con b + c = 0 i due indici coincidono sempre e si otterrebbero solo cappi
+        if (edgeCount > 0 && b + c == 0)
+            throw new IllegalArgumentException("Con b + c = 0 si possono generare solo cappi");
+
+        return new GraphGenerator(1 << scale, seed) {
+            @Override
+            void generate(EdgeSink sink, SplittableRandom random) {
+                long generated = 0;
+                while (generated < edgeCount) {
+                    int i = 0;
+                    int j = 0;
+                    for (int bit = scale - 1; bit >= 0; bit--) {
+                        double r = random.nextDouble();
+                        if (r >= a + b + c) {
+                            i |= 1 << bit;
+                            j |= 1 << bit;
+                        } else if (r >= a + b) {
+                            i |= 1 << bit;
+                        } else if (r >= a) {
+                            j |= 1 << bit;
+                        }
+                    }
+                    if (i != j) {
+                        sink.accept(i, j, random.nextDouble());
+                        generated++;
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Crea un generatore del modello di Barabási-Albert. I primi
+     * {@code links + 1} nodi formano un grafo completo e ogni nodo successivo
+     * si collega a {@code links} nodi precedenti distinti, scelti con
+     * probabilità proporzionale al loro grado; la distribuzione dei gradi
+     * segue quindi una legge di potenza.
+     *
+     * @param n il numero di nodi
+     * @param links il numero di archi di ogni nuovo nodo
+     * @param seed il seme
+     * @return il generatore
+     *
+     * @throws IllegalArgumentException se n è negativo, links non è positivo o
+     * il numero di archi non è rappresentabile
+     */
+    public static GraphGenerator barabasiAlbert(int n, int links, long seed) {
+        if (links <= 0)
+            throw new IllegalArgumentException("Il numero di archi di ogni nodo deve essere positivo");
+        if (2L * links * Math.max(n, links + 1) > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Il grafo ha troppi archi");
+
+        return new GraphGenerator(n, seed) {
+            @Override
+            void generate(EdgeSink sink, SplittableRandom random) {
+                /*
+                    Ogni arco compare due volte in ends, una per estremo: estrarre un elemento
+                    a caso equivale a scegliere un nodo con probabilità proporzionale al grado
+                */
+                int[] ends = new int[2 * links * Math.max(n, links + 1)];
+                int size = 0;
+                for (int i = 1; i <= links && i < n; i++) {
+                    for (int j = 0; j < i; j++) {
+                        sink.accept(i, j, random.nextDouble());
+                        ends[size++] = i;
+                        ends[size++] = j;
+                    }
+                }
+                int[] chosen = new int[links];
+                for (int i = links + 1; i < n; i++) {
+                    int count = 0;
+                    while (count < links) {
+                        int j = ends[random.nextInt(size)];
+                        if (!contains(chosen, count, j))
+                            chosen[count++] = j;
+                    }
+                    for (int k = 0; k < links; k++) {
+                        sink.accept(i, chosen[k], random.nextDouble());
+                        ends[size++] = i;
+                        ends[size++] = chosen[k];
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Crea un generatore di grafi geometrici casuali: i nodi sono punti
+     * estratti uniformemente nel quadrato unitario e due nodi sono collegati
+     * se la loro distanza non supera il raggio. Il peso di ogni arco è la
+     * distanza tra i suoi estremi. I punti vengono distribuiti in celle di lato
+     * pari al raggio, quindi ogni punto viene confrontato solo con quelli delle
+     * celle vicine.
+     *
+     * @param n il numero di nodi
+     * @param radius il raggio di connessione
+     * @param seed il seme
+     * @return il generatore
+     *
+     * @throws IllegalArgumentException se n è negativo o il raggio non è
+     * positivo
+     */
+    public static GraphGenerator randomGeometric(int n, double radius, long seed) {
+        if (!(radius > 0))
+            throw new IllegalArgumentException("Il raggio deve essere positivo");
+
+        return new GraphGenerator(n, seed) {
+            @Override
+            void generate(EdgeSink sink, SplittableRandom random) {
+                double[] x = new double[n];
+                double[] y = new double[n];
+                for (int i = 0; i < n; i++) {
+                    x[i] = random.nextDouble();
+                    y[i] = random.nextDouble();
+                }
+
+                // Le celle hanno lato almeno pari al raggio, e sono al più una per punto
+                int side = (int) Math.max(1, Math.min(Math.floor(1 / radius), Math.ceil(Math.sqrt(n))));
+                int[] start = new int[side * side + 1];
+                int[] cellOf = new int[n];
+                for (int i = 0; i < n; i++) {
+                    cellOf[i] = cell(x[i], side) * side + cell(y[i], side);
+                    start[cellOf[i] + 1]++;
+                }
+                for (int c = 0; c < side * side; c++) {
+                    start[c + 1] += start[c];
+                }
+                // Ordinamento per conteggio dei punti nelle celle
+                int[] next = new int[side * side];
+                System.arraycopy(start, 0, next, 0, side * side);
+                int[] points = new int[n];
+                for (int i = 0; i < n; i++) {
+                    points[next[cellOf[i]]++] = i;
+                }
+
+                double squaredRadius = radius * radius;
+                for (int i = 0; i < n; i++) {
+                    int cx = cellOf[i] / side;
+                    int cy = cellOf[i] % side;
+                    for (int nx = Math.max(0, cx - 1); nx <= Math.min(side - 1, cx + 1); nx++) {
+                        for (int ny = Math.max(0, cy - 1); ny <= Math.min(side - 1, cy + 1); ny++) {
+                            int c = nx * side + ny;
+                            for (int k = start[c]; k < start[c + 1]; k++) {
+                                int j = points[k];
+                                // Ogni coppia viene considerata una sola volta
+                                if (j <= i)
+                                    continue;
+                                double dx = x[i] - x[j];
+                                double dy = y[i] - y[j];
+                                double squared = dx * dx + dy * dy;
+                                if (squared <= squaredRadius)
+                                    sink.accept(i, j, Math.sqrt(squared));
+                            }
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Crea un generatore di grafi completi pesati.
+     *
+     * @param n il numero di nodi
+     * @param seed il seme
+     * @return il generatore
+     *
+     * @throws IllegalArgumentException se n è negativo
+     */
+    public static GraphGenerator complete(int n, long seed) {
+        return new GraphGenerator(n, seed) {
+            @Override
+            void generate(EdgeSink sink, SplittableRandom random) {
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        sink.accept(i, j, random.nextDouble());
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Metodo di utilità che restituisce la cella di una coordinata.
+     *
+     * @param coordinate la coordinata, in [0, 1)
+     * @param side il numero di celle per lato
+     * @return l'indice della cella, in <code>[0, side - 1]</code>
+     */
+    private static int cell(double coordinate, int side) {
+        return Math.min(side - 1, (int) (coordinate * side));
+    }
+
+    /**
+     * Metodo di utilità che determina se un valore compare tra i primi
+     * elementi di un array.
+     *
+     * @param values l'array
+     * @param length il numero di elementi da considerare
+     * @param value il valore da cercare
+     * @return true se il valore compare, false altrimenti
+     */
+    private static boolean contains(int[] values, int length, int value) {
+        for (int k = 0; k < length; k++) {
+            if (values[k] == value)
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,191 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe GraphGenerator.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class GraphGeneratorTest {
+
+    /*
+     * Raccoglie gli archi generati come stringhe "i-j:peso", con i < j
+     */
+    private static List<String> edges(GraphGenerator generator) {
+        List<String> edges = new ArrayList<>();
+        generator.generate((i, j, weight) -> {
+            assertTrue(i != j);
+            assertTrue(i >= 0 && i < generator.nodeCount());
+            assertTrue(j >= 0 && j < generator.nodeCount());
+            edges.add(Math.min(i, j) + "-" + Math.max(i, j) + ":" + weight);
+        });
+        return edges;
+    }
+
+    /*
+     * Conta le coppie distinte di estremi
+     */
+    private static int distinctPairs(List<String> edges) {
+        Set<String> pairs = new HashSet<>();
+        for (String edge : edges) {
+            pairs.add(edge.substring(0, edge.indexOf(':')));
+        }
+        return pairs.size();
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.erdosRenyi(-1, 0.5, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.erdosRenyi(10, 1.5, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.erdosRenyi(10, Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.grid(-1, 3, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.grid(100_000, 100_000, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.rmat(0, 10, 0.25, 0.25, 0.25, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.rmat(4, 10, 0.5, 0.5, 0.5, 1));
+        // Parametri che produrrebbero solo cappi
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.rmat(4, 3, 1.0, 0, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.rmat(4, 3, 0, 0, 0, 1));
+        assertTrue(GraphGenerator.rmat(4, 0, 1.0, 0, 0, 1)
+                .populate(new AdjacencyMatrixUndirectedGraph<String>(), String::valueOf).edgeCount() == 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.barabasiAlbert(10, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphGenerator.randomGeometric(10, 0, 1));
+        GraphGenerator generator = GraphGenerator.complete(3, 1);
+        assertThrows(NullPointerException.class,
+                () -> generator.generate(null));
+        assertThrows(NullPointerException.class,
+                () -> generator.populate(null, i -> i));
+        assertThrows(NullPointerException.class,
+                () -> generator.populate(new AdjacencyMatrixUndirectedGraph<Integer>(), null));
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        g.addNode(2);
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.populate(g, i -> i));
+    }
+
+    @Test
+    final void testReproducible() {
+        assertTrue(edges(GraphGenerator.erdosRenyi(200, 0.05, 7))
+                .equals(edges(GraphGenerator.erdosRenyi(200, 0.05, 7))));
+        assertFalse(edges(GraphGenerator.erdosRenyi(200, 0.05, 7))
+                .equals(edges(GraphGenerator.erdosRenyi(200, 0.05, 8))));
+        GraphGenerator generator = GraphGenerator.barabasiAlbert(300, 2, 7);
+        assertTrue(edges(generator).equals(edges(generator)));
+        assertTrue(generator.getSeed() == 7);
+    }
+
+    @Test
+    final void testErdosRenyi() {
+        assertTrue(edges(GraphGenerator.erdosRenyi(50, 0, 1)).isEmpty());
+        List<String> complete = edges(GraphGenerator.erdosRenyi(50, 1, 1));
+        assertTrue(complete.size() == 50 * 49 / 2);
+        assertTrue(distinctPairs(complete) == complete.size());
+        // Valore atteso 19990, deviazione standard circa 140
+        List<String> sparse = edges(GraphGenerator.erdosRenyi(2_000, 0.01, 1));
+        assertTrue(Math.abs(sparse.size() - 19_990) < 1_000);
+        assertTrue(distinctPairs(sparse) == sparse.size());
+        assertTrue(edges(GraphGenerator.erdosRenyi(1, 0.5, 1)).isEmpty());
+    }
+
+    @Test
+    final void testGrid() {
+        List<String> grid = edges(GraphGenerator.grid(4, 5, 1));
+        assertTrue(GraphGenerator.grid(4, 5, 1).nodeCount() == 20);
+        assertTrue(grid.size() == 4 * 4 + 5 * 3);
+        assertTrue(distinctPairs(grid) == grid.size());
+        assertTrue(grid.get(0).startsWith("0-1:"));
+        assertTrue(grid.get(1).startsWith("0-5:"));
+        List<String> cube = edges(GraphGenerator.grid(3, 4, 5, 1));
+        assertTrue(cube.size() == 2 * 4 * 5 + 3 * 3 * 5 + 3 * 4 * 4);
+        assertTrue(distinctPairs(cube) == cube.size());
+    }
+
+    @Test
+    final void testRmat() {
+        GraphGenerator generator = GraphGenerator.rmat(8, 1_000, 0.57, 0.19, 0.19, 1);
+        assertTrue(generator.nodeCount() == 256);
+        List<String> edges = edges(generator);
+        assertTrue(edges.size() == 1_000);
+        // Il quadrante in alto a sinistra è il più probabile, quindi il nodo 0 ha molti vicini
+        int first = 0;
+        for (String edge : edges) {
+            if (edge.startsWith("0-"))
+                first++;
+        }
+        assertTrue(first > 1_000 / 256);
+    }
+
+    @Test
+    final void testBarabasiAlbert() {
+        List<String> edges = edges(GraphGenerator.barabasiAlbert(500, 3, 1));
+        assertTrue(edges.size() == 6 + (500 - 4) * 3);
+        assertTrue(distinctPairs(edges) == edges.size());
+        List<String> small = edges(GraphGenerator.barabasiAlbert(3, 3, 1));
+        assertTrue(small.size() == 3);
+    }
+
+    @Test
+    final void testRandomGeometric() {
+        double radius = 0.08;
+        GraphGenerator generator = GraphGenerator.randomGeometric(400, radius, 3);
+        List<String> edges = edges(generator);
+        assertTrue(distinctPairs(edges) == edges.size());
+        // Confronto con tutte le coppie: i punti si ottengono dallo stesso seme
+        SplittableRandom random = new SplittableRandom(3);
+        double[] x = new double[400];
+        double[] y = new double[400];
+        for (int i = 0; i < 400; i++) {
+            x[i] = random.nextDouble();
+            y[i] = random.nextDouble();
+        }
+        int expected = 0;
+        for (int i = 0; i < 400; i++) {
+            for (int j = i + 1; j < 400; j++) {
+                double dx = x[i] - x[j];
+                double dy = y[i] - y[j];
+                if (dx * dx + dy * dy <= radius * radius)
+                    expected++;
+            }
+        }
+        assertTrue(expected > 0);
+        assertTrue(edges.size() == expected);
+        assertTrue(edges(GraphGenerator.randomGeometric(5, 2, 3)).size() == 10);
+    }
+
+    @Test
+    final void testPopulate() {
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        g.addNode(-1);
+        assertTrue(GraphGenerator.complete(30, 1).populate(g, i -> i) == g);
+        assertTrue(g.nodeCount() == 31);
+        assertTrue(g.edgeCount() == 30 * 29 / 2);
+        assertTrue(g.getNodeIndexOf(0) == 1);
+        // Il nodo già presente ha indice 0 e non viene collegato
+        assertTrue(g.getDegreeOf(0) == 0);
+        assertTrue(g.getDegreeOf(1) == 29);
+        Graph<String> r = GraphGenerator.rmat(6, 500, 0.57, 0.19, 0.19, 1)
+                .populate(new AdjacencyMatrixUndirectedGraph<String>(), i -> "n" + i);
+        assertTrue(r.nodeCount() == 64);
+        assertTrue(r.edgeCount() == distinctPairs(edges(GraphGenerator.rmat(6, 500, 0.57, 0.19, 0.19, 1))));
+    }
+}
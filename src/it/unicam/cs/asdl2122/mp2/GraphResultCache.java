@@ -0,0 +1,278 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache dei risultati di {@link KruskalMSP} e di
+ * {@link UndirectedGraphConnectedComponentsComputer} per più grafi. Ogni
+ * risultato è memorizzato insieme alla versione del grafo su cui è stato
+ * calcolato, cioè al valore di {@link Graph#getModificationCount()}: finché
+ * il grafo non viene modificato una nuova richiesta restituisce in tempo
+ * costante il risultato già calcolato, mentre dopo una modifica il risultato
+ * viene ricalcolato e sostituito.
+ *
+ * Per ogni grafo sono conservati l'insieme degli archi dell'albero di
+ * copertura minimo, il suo peso totale e l'etichettatura delle componenti
+ * connesse. I grafi sono riconosciuti per identità e la cache ne ricorda al
+ * più un numero fissato, eliminando quello usato meno di recente quando ne
+ * arriva uno nuovo; un grafo resta raggiungibile finché è nella cache. I
+ * grafi che non contano le proprie modifiche, cioè per cui
+ * getModificationCount() non è supportato, non vengono messi in cache e i
+ * loro risultati sono sempre ricalcolati.
+ *
+ * Gli insiemi di archi restituiti non sono modificabili, perché sono
+ * condivisi tra le chiamate. I metodi sono sincronizzati sulla cache, ma il
+ * calcolo di un risultato mancante avviene fuori dalla sincronizzazione: se
+ * nel frattempo un altro thread ha memorizzato il risultato di una versione
+ * più recente del grafo, il risultato più vecchio viene restituito ma non
+ * lo sostituisce.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public final class GraphResultCache {
+
+    /**
+     * Numero predefinito di grafi ricordati
+     */
+    public static final int DEFAULT_MAX_GRAPHS = 64;
+
+    /*
+     * Algoritmi usati per calcolare i risultati, condivisi tra i tipi di
+     * etichetta perché non dipendono da essi
+     */
+    private final KruskalMSP<Object> kruskal;
+    private final UndirectedGraphConnectedComponentsComputer<Object> components;
+
+    /*
+     * Risultati di ogni grafo, in ordine di ultimo utilizzo
+     */
+    private final LinkedHashMap<Graph<?>, Entry> entries;
+
+    /*
+     * Numero di richieste servite dalla cache e numero di calcoli
+     */
+    private long hits;
+    private long misses;
+
+    /**
+     * Crea una cache che ricorda al più {@link #DEFAULT_MAX_GRAPHS} grafi.
+     */
+    public GraphResultCache() {
+        this(DEFAULT_MAX_GRAPHS);
+    }
+
+    /**
+     * Crea una cache che ricorda al più il numero di grafi dato.
+     *
+     * @param maxGraphs il numero massimo di grafi ricordati
+     *
+     * @throws IllegalArgumentException se il numero non è positivo
+     */
+    public GraphResultCache(int maxGraphs) {
+        if (maxGraphs <= 0)
+            throw new IllegalArgumentException("Il numero massimo di grafi deve essere positivo");
+
+        this.kruskal = new KruskalMSP<>();
+        this.components = new UndirectedGraphConnectedComponentsComputer<>();
+        // LinkedHashMap in ordine di accesso elimina il grafo usato meno di recente
+        this.entries = new LinkedHashMap<Graph<?>, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Graph<?>, Entry> eldest) {
+                return size() > maxGraphs;
+            }
+        };
+    }
+
+    /**
+     * Restituisce l'insieme degli archi di un albero di copertura minimo del
+     * grafo, come {@link KruskalMSP#computeMSP(Graph)}, calcolandolo solo se
+     * il grafo è cambiato dall'ultima richiesta.
+     *
+     * @param g un grafo non orientato, pesato, con pesi non negativi
+     * @param <L> il tipo delle etichette dei nodi
+     * @return l'insieme non modificabile degli archi dell'albero
+     *
+     * @throws NullPointerException se il grafo è null
+     * @throws IllegalArgumentException se il grafo è orientato, non pesato o
+     * con pesi negativi
+     */
+    public <L> Set<GraphEdge<L>> computeMSP(Graph<L> g) {
+        return this.<L>spanningTree(g).edges;
+    }
+
+    /**
+     * Restituisce il peso totale di un albero di copertura minimo del grafo,
+     * calcolandolo solo se il grafo è cambiato dall'ultima richiesta.
+     *
+     * @param g un grafo non orientato, pesato, con pesi non negativi
+     * @return il peso totale dell'albero
+     *
+     * @throws NullPointerException se il grafo è null
+     * @throws IllegalArgumentException se il grafo è orientato, non pesato o
+     * con pesi negativi
+     */
+    public double getMSPWeight(Graph<?> g) {
+        return spanningTree(g).weight;
+    }
+
+    /**
+     * Restituisce l'etichettatura delle componenti connesse del grafo, come
+     * {@link UndirectedGraphConnectedComponentsComputer#computeComponentLabelling(Graph)},
+     * calcolandola solo se il grafo è cambiato dall'ultima richiesta.
+     *
+     * @param g un grafo non orientato
+     * @param <L> il tipo delle etichette dei nodi
+     * @return l'etichettatura delle componenti
+     *
+     * @throws NullPointerException se il grafo è null
+     * @throws IllegalArgumentException se il grafo è orientato
+     */
+    @SuppressWarnings("unchecked")
+    public <L> ConnectedComponentsLabelling<L> computeComponentLabelling(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo con un parametro nullo");
+
+        long version = versionOf(g);
+        synchronized (this) {
+            Entry entry = entries.get(g);
+            if (entry != null && entry.labelling != null && entry.labellingVersion == version) {
+                hits++;
+                return (ConnectedComponentsLabelling<L>) entry.labelling;
+            }
+            misses++;
+        }
+
+        ConnectedComponentsLabelling<L> labelling =
+                ((UndirectedGraphConnectedComponentsComputer<L>) (Object) components).computeComponentLabelling(g);
+        if (version >= 0) {
+            synchronized (this) {
+                Entry entry = entryOf(g);
+                // Un calcolo lento non sostituisce il risultato di una versione successiva
+                if (entry.labelling == null || entry.labellingVersion <= version) {
+                    entry.labelling = labelling;
+                    entry.labellingVersion = version;
+                }
+            }
+        }
+        return labelling;
+    }
+
+    /**
+     * Restituisce il numero di grafi ricordati.
+     *
+     * @return il numero di grafi nella cache
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Restituisce il numero di richieste servite senza calcolare nulla.
+     *
+     * @return il numero di risultati trovati nella cache
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Restituisce il numero di richieste che hanno richiesto un calcolo.
+     *
+     * @return il numero di risultati calcolati
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Dimentica tutti i grafi e i loro risultati.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /*
+     * Albero di copertura minimo del grafo, dalla cache o calcolato
+     */
+    @SuppressWarnings("unchecked")
+    private <L> SpanningTree<L> spanningTree(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo con un parametro nullo");
+
+        long version = versionOf(g);
+        synchronized (this) {
+            Entry entry = entries.get(g);
+            if (entry != null && entry.tree != null && entry.treeVersion == version) {
+                hits++;
+                return (SpanningTree<L>) entry.tree;
+            }
+            misses++;
+        }
+
+        Set<GraphEdge<L>> edges = ((KruskalMSP<L>) (Object) kruskal).computeMSP(g);
+        double weight = 0;
+        for (GraphEdge<L> edge : edges) {
+            weight += edge.getWeight();
+        }
+        SpanningTree<L> tree = new SpanningTree<>(Collections.unmodifiableSet(edges), weight);
+        if (version >= 0) {
+            synchronized (this) {
+                Entry entry = entryOf(g);
+                // Un calcolo lento non sostituisce il risultato di una versione successiva
+                if (entry.tree == null || entry.treeVersion <= version) {
+                    entry.tree = tree;
+                    entry.treeVersion = version;
+                }
+            }
+        }
+        return tree;
+    }
+
+    /*
+     * Voce del grafo, creata se manca; richiede la sincronizzazione sulla
+     * cache
+     */
+    private Entry entryOf(Graph<?> g) {
+        Entry entry = entries.get(g);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(g, entry);
+        }
+        return entry;
+    }
+
+    /*
+     * Versione del grafo, -1 se il grafo non conta le proprie modifiche
+     */
+    private static long versionOf(Graph<?> g) {
+        return g.recordsChanges() ? g.getModificationCount() : -1;
+    }
+
+    /*
+     * Archi e peso totale di un albero di copertura minimo
+     */
+    private static final class SpanningTree<L> {
+
+        final Set<GraphEdge<L>> edges;
+        final double weight;
+
+        SpanningTree(Set<GraphEdge<L>> edges, double weight) {
+            this.edges = edges;
+            this.weight = weight;
+        }
+    }
+
+    /*
+     * Risultati di un grafo, ognuno con la versione su cui è stato calcolato
+     */
+    private static final class Entry {
+
+        SpanningTree<?> tree;
+        long treeVersion;
+        ConnectedComponentsLabelling<?> labelling;
+        long labellingVersion;
+    }
+}
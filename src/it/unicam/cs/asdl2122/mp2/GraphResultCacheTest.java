@@ -0,0 +1,178 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe GraphResultCache.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class GraphResultCacheTest {
+
+    /*
+     * Grafo con due componenti: il triangolo a, b, c e il nodo isolato d
+     */
+    private static Graph<String> triangle() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("a");
+        g.addNode("b");
+        g.addNode("c");
+        g.addNode("d");
+        g.addWeightedEdge("a", "b", 1);
+        g.addWeightedEdge("b", "c", 2);
+        g.addWeightedEdge("a", "c", 3);
+        return g;
+    }
+
+    @Test
+    final void testServedUntilModified() {
+        GraphResultCache cache = new GraphResultCache();
+        Graph<String> g = triangle();
+        Set<GraphEdge<String>> tree = cache.computeMSP(g);
+        assertTrue(tree.size() == 2);
+        assertTrue(cache.computeMSP(g) == tree);
+        assertTrue(cache.getMSPWeight(g) == 3);
+        ConnectedComponentsLabelling<String> labelling = cache.computeComponentLabelling(g);
+        assertTrue(labelling.getComponentCount() == 2);
+        assertTrue(cache.computeComponentLabelling(g) == labelling);
+        assertTrue(cache.getHitCount() == 3);
+        assertTrue(cache.getMissCount() == 2);
+        assertThrows(UnsupportedOperationException.class, () -> tree.clear());
+
+        // Ogni tipo di modifica rende vecchi i risultati
+        long version = g.getModificationCount();
+        g.setEdgeWeight(0, 1, 5);
+        assertTrue(g.getModificationCount() > version);
+        assertTrue(cache.getMSPWeight(g) == 5);
+        assertFalse(cache.computeComponentLabelling(g) == labelling);
+        g.addEdge("c", "d");
+        assertTrue(cache.computeComponentLabelling(g).getComponentCount() == 1);
+        g.removeEdge("c", "d");
+        assertTrue(cache.computeComponentLabelling(g).getComponentCount() == 2);
+        g.removeNode("d");
+        assertTrue(cache.computeComponentLabelling(g).getComponentCount() == 1);
+        g.clear();
+        assertTrue(cache.computeMSP(g).isEmpty());
+        assertTrue(cache.size() == 1);
+    }
+
+    @Test
+    final void testEdgeSetWeight() {
+        // Un peso cambiato sull'arco restituito dal grafo rende vecchio l'albero
+        GraphResultCache cache = new GraphResultCache();
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("a");
+        g.addNode("b");
+        g.addNode("c");
+        g.addWeightedEdge("a", "b", 1);
+        g.addWeightedEdge("b", "c", 1);
+        g.addWeightedEdge("a", "c", 5);
+        GraphEdge<String> ab = g.getEdge("a", "b");
+        GraphEdge<String> bc = g.getEdge("b", "c");
+        GraphEdge<String> ac = g.getEdge("a", "c");
+        assertTrue(cache.computeMSP(g).equals(Set.of(ab, bc)));
+
+        long version = g.getModificationCount();
+        g.getEdge("a", "b").setWeight(10);
+        assertTrue(g.getModificationCount() > version);
+        assertTrue(cache.computeMSP(g).equals(Set.of(ac, bc)));
+        assertTrue(new KruskalMSP<String>().computeMSP(g).equals(Set.of(ac, bc)));
+        assertTrue(cache.getMSPWeight(g) == 6);
+
+        // Un arco cancellato o quello passato ad addEdge non modificano il grafo
+        g.removeEdge("a", "b");
+        version = g.getModificationCount();
+        ab.setWeight(0);
+        assertTrue(g.getModificationCount() == version);
+        GraphEdge<String> added = new GraphEdge<String>(g.getNode("a"), g.getNode("b"), false, 2);
+        g.addEdge(added);
+        version = g.getModificationCount();
+        added.setWeight(0);
+        assertTrue(g.getModificationCount() == version);
+        assertTrue(g.getEdge("a", "b").getWeight() == 2);
+    }
+
+    @Test
+    final void testStaleResultNotStored() {
+        // Durante il calcolo della versione corrente il grafo cambia e la nuova versione viene calcolata e memorizzata
+        GraphResultCache cache = new GraphResultCache();
+        boolean[] changed = new boolean[1];
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>() {
+            @Override
+            public GraphEdge<String> getEdge(int i, int j) {
+                if (!changed[0]) {
+                    changed[0] = true;
+                    setEdgeWeight(getNodeIndexOf("a"), getNodeIndexOf("c"), 0.5);
+                    assertTrue(cache.getMSPWeight(this) == 1.5);
+                    assertTrue(cache.computeComponentLabelling(this).getComponentCount() == 2);
+                }
+                return super.getEdge(i, j);
+            }
+        };
+        g.addNode("a");
+        g.addNode("b");
+        g.addNode("c");
+        g.addNode("d");
+        g.addWeightedEdge("a", "b", 1);
+        g.addWeightedEdge("b", "c", 2);
+        g.addWeightedEdge("a", "c", 3);
+
+        // Il calcolo esterno, iniziato sulla versione precedente, non sostituisce il risultato più recente
+        cache.getMSPWeight(g);
+        long misses = cache.getMissCount();
+        assertTrue(cache.getMSPWeight(g) == 1.5);
+        assertTrue(cache.getMissCount() == misses);
+        assertTrue(cache.getHitCount() == 1);
+    }
+
+    @Test
+    final void testEviction() {
+        GraphResultCache cache = new GraphResultCache(2);
+        Graph<String> g1 = triangle();
+        Graph<String> g2 = triangle();
+        Graph<String> g3 = triangle();
+        Set<GraphEdge<String>> tree1 = cache.computeMSP(g1);
+        cache.computeMSP(g2);
+        // g1 diventa il più recente, quindi g3 elimina g2
+        assertTrue(cache.computeMSP(g1) == tree1);
+        cache.computeMSP(g3);
+        assertTrue(cache.size() == 2);
+        assertTrue(cache.computeMSP(g1) == tree1);
+        long misses = cache.getMissCount();
+        cache.computeMSP(g2);
+        assertTrue(cache.getMissCount() == misses + 1);
+        cache.clear();
+        assertTrue(cache.size() == 0);
+        assertThrows(IllegalArgumentException.class, () -> new GraphResultCache(0));
+    }
+
+    @Test
+    final void testUncachedGraphs() {
+        // Un grafo che non conta le modifiche viene sempre ricalcolato
+        GraphResultCache cache = new GraphResultCache();
+        Graph<String> g = new WeightMatrixUndirectedGraph<String>();
+        g.addNode("a");
+        g.addNode("b");
+        g.addWeightedEdge("a", "b", 2);
+        assertThrows(UnsupportedOperationException.class, () -> g.getModificationCount());
+        assertTrue(cache.getMSPWeight(g) == 2);
+        g.setEdgeWeight(0, 1, 4);
+        assertTrue(cache.getMSPWeight(g) == 4);
+        assertTrue(cache.size() == 0);
+        assertTrue(cache.getHitCount() == 0);
+
+        // Gli errori non vengono memorizzati
+        Graph<String> h = triangle();
+        h.addEdge("a", "d");
+        assertThrows(IllegalArgumentException.class, () -> cache.computeMSP(h));
+        h.setEdgeWeight(0, 3, 1);
+        assertTrue(cache.getMSPWeight(h) == 4);
+        assertThrows(NullPointerException.class, () -> cache.computeMSP(null));
+        assertThrows(NullPointerException.class, () -> cache.computeComponentLabelling(null));
+    }
+}
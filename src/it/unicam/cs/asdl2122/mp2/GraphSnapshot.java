@@ -0,0 +1,418 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Fotografia immutabile di un {@link ConcurrentUndirectedGraph} in un
+ * istante, restituita da {@link ConcurrentUndirectedGraph#snapshot()}. La
+ * fotografia condivide con il grafo l'array dei nodi, la mappa degli indici e
+ * le pagine delle celle, che il grafo non modifica più ma copia prima di ogni
+ * modifica; per questo si crea in tempo costante e si può leggere da più
+ * thread senza alcun lock, mentre il grafo continua a cambiare.
+ *
+ * Nodi e indici sono quelli del grafo nell'istante della fotografia. Tutti i
+ * metodi di modifica lanciano {@link UnsupportedOperationException}. Gli
+ * oggetti GraphEdge sono gli stessi del grafo, quindi un peso cambiato con
+ * {@link GraphEdge#setWeight(double)} sarebbe visibile anche qui. Anche i
+ * GraphNode sono condivisi, con il grafo e con le altre fotografie: per
+ * questo {@link PrimMSP#computeMSP(Graph, GraphNode)}, che scrive nei campi
+ * dei nodi, rifiuta le fotografie, e al suo posto va usato
+ * {@link PrimMSP#computeSpanningTree(Graph, GraphNode)}.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ *
+ * @param <L> il tipo delle etichette dei nodi
+ */
+public final class GraphSnapshot<L> extends Graph<L> implements IndexedAdjacency {
+
+    /*
+     * Nodi in ordine di indice, dei quali sono validi i primi nodeCount, e
+     * loro associazione con gli indici
+     */
+    private final GraphNode<L>[] nodes;
+    private final NodeIndexMap<L> nodesIndex;
+
+    /*
+     * Numero di nodi e di archi
+     */
+    private final int nodeCount;
+    private final int edgeCount;
+
+    /*
+     * Pagine delle celle del triangolo inferiore
+     */
+    private final AtomicReferenceArray<ConcurrentUndirectedGraph.Page<L>> pages;
+
+    /*
+     * Costruttore usato da ConcurrentUndirectedGraph.snapshot(), che smette
+     * di modificare gli oggetti passati
+     */
+    GraphSnapshot(GraphNode<L>[] nodes, int nodeCount, NodeIndexMap<L> nodesIndex,
+            AtomicReferenceArray<ConcurrentUndirectedGraph.Page<L>> pages, int edgeCount) {
+        this.nodes = nodes;
+        this.nodeCount = nodeCount;
+        this.nodesIndex = nodesIndex;
+        this.pages = pages;
+        this.edgeCount = edgeCount;
+    }
+
+    /**
+     * Restituisce un grafo che non cambia durante un calcolo: una fotografia
+     * se il grafo passato è un {@link ConcurrentUndirectedGraph}, che altri
+     * thread possono modificare tra la lettura del numero di nodi e la
+     * scansione delle adiacenze, altrimenti il grafo stesso. Usato dagli
+     * algoritmi che leggono il grafo più volte durante il calcolo.
+     *
+     * @param g il grafo da elaborare
+     * @param <L> il tipo delle etichette dei nodi
+     * @return la fotografia del grafo se è concorrente, altrimenti g
+     */
+    static <L> Graph<L> stable(Graph<L> g) {
+        return g instanceof ConcurrentUndirectedGraph ? ((ConcurrentUndirectedGraph<L>) g).snapshot() : g;
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public boolean addNode(L label) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public void removeNode(GraphNode<L> node) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public void removeNode(L label) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public void removeNode(int i) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public GraphNode<L> getNode(GraphNode<L> node) {
+        nullCheck(node);
+
+        return getNode(node.getLabel());
+    }
+
+    @Override
+    public GraphNode<L> getNode(L label) {
+        nullCheck(label);
+
+        int index = nodesIndex.indexOfLabel(label);
+        return index < 0 ? null : nodes[index];
+    }
+
+    @Override
+    public GraphNode<L> getNode(int i) {
+        indexCheck(i);
+
+        return nodes[i];
+    }
+
+    @Override
+    public int getNodeIndexOf(GraphNode<L> node) {
+        nullCheck(node);
+
+        return labelToIndex(node.getLabel());
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        return labelToIndex(label);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(nodes).subList(0, nodeCount)));
+    }
+
+    @Override
+    public GraphNode<L>[] getNodesByIndex() {
+        return Arrays.copyOf(nodes, nodeCount);
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public boolean addWeightedEdge(GraphNode<L> node1, GraphNode<L> node2, double weight) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public boolean addEdge(L label1, L label2) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public boolean addWeightedEdge(L label1, L label2, double weight) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public boolean addEdge(int i, int j) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public boolean addWeightedEdge(int i, int j, double weight) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public void removeEdge(GraphEdge<L> edge) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public void removeEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public void removeEdge(L label1, L label2) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public void removeEdge(int i, int j) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public void setEdgeWeight(int i, int j, double weight) {
+        throw new UnsupportedOperationException("Impossibile modificare una fotografia del grafo");
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphEdge<L> edge) {
+        nullCheck(edge);
+
+        return getEdge(edge.getNode1(), edge.getNode2());
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        nullCheck(node1);
+        nullCheck(node2);
+
+        return edgeAt(labelToIndex(node1.getLabel()), labelToIndex(node2.getLabel()));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(L label1, L label2) {
+        nullCheck(label1);
+        nullCheck(label2);
+
+        return edgeAt(labelToIndex(label1), labelToIndex(label2));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return edgeAt(i, j);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        nullCheck(node);
+
+        return getAdjacentNodesOf(labelToIndex(node.getLabel()));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(L label) {
+        return getAdjacentNodesOf(labelToIndex(label));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(int i) {
+        indexCheck(i);
+
+        Set<GraphNode<L>> adjacent = new HashSet<>();
+        for (int j = 0; j < nodeCount; j++) {
+            if (edgeAt(i, j) != null)
+                adjacent.add(nodes[j]);
+        }
+        return adjacent;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        nullCheck(node);
+
+        return getEdgesOf(labelToIndex(node.getLabel()));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(L label) {
+        return getEdgesOf(labelToIndex(label));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(int i) {
+        indexCheck(i);
+
+        Set<GraphEdge<L>> edges = new HashSet<>();
+        for (int j = 0; j < nodeCount; j++) {
+            GraphEdge<L> edge = edgeAt(i, j);
+            if (edge != null)
+                edges.add(edge);
+        }
+        return edges;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        Set<GraphEdge<L>> edges = new HashSet<>();
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = 0; j <= i; j++) {
+                GraphEdge<L> edge = edgeAt(i, j);
+                if (edge != null)
+                    edges.add(edge);
+            }
+        }
+        return Collections.unmodifiableSet(edges);
+    }
+
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        indexCheck(i);
+        nullCheck(action);
+
+        for (int j = 0; j < nodeCount; j++) {
+            GraphEdge<L> edge = edgeAt(i, j);
+            if (edge != null)
+                action.accept(j, edge.getWeight());
+        }
+    }
+
+    /*
+     * Arco nella cella (i, j), null se non c'è
+     */
+    private GraphEdge<L> edgeAt(int i, int j) {
+        return ConcurrentUndirectedGraph.edgeAt(pages, ConcurrentUndirectedGraph.cell(i, j));
+    }
+
+    /**
+     * Metodo di utilità che restituisce l'indice del nodo con l'etichetta
+     * data
+     *
+     * @param label l'etichetta del nodo
+     * @return l'indice del nodo
+     *
+     * @throws NullPointerException se l'etichetta è <code>null</code>
+     * @throws IllegalArgumentException se nessun nodo ha l'etichetta data
+     */
+    private int labelToIndex(L label) {
+        nullCheck(label);
+
+        int index = nodesIndex.indexOfLabel(label);
+        if (index < 0)
+            throw new IllegalArgumentException("Il nodo specificato non esiste");
+        return index;
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param index l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti dell'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int index) {
+        if (index < 0 || index > nodeCount - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link NullPointerException} se l'oggetto passato è <code>null</code>
+     *
+     * @param o l'oggetto da controllare
+     *
+     * @throws NullPointerException se l'oggetto è <code>null</code>
+     */
+    private void nullCheck(Object o) {
+        if (o == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+    }
+}
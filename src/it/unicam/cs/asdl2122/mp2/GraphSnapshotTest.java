@@ -0,0 +1,167 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe GraphSnapshot e per il metodo snapshot() di
+ * ConcurrentUndirectedGraph.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class GraphSnapshotTest {
+
+    /*
+     * Grafo casuale con abbastanza nodi da occupare più pagine
+     */
+    private static ConcurrentUndirectedGraph<Integer> randomGraph(int n, long seed) {
+        ConcurrentUndirectedGraph<Integer> g = new ConcurrentUndirectedGraph<Integer>();
+        for (int i = 0; i < n; i++) {
+            g.addNode(Integer.valueOf(i));
+        }
+        GraphGenerator.erdosRenyi(n, 0.05, seed).generate((i, j, w) -> g.addWeightedEdge(i, j, w));
+        return g;
+    }
+
+    @Test
+    final void testSnapshotIsFrozen() {
+        ConcurrentUndirectedGraph<Integer> g = randomGraph(150, 1);
+        GraphSnapshot<Integer> s = g.snapshot();
+        Set<GraphEdge<Integer>> edges = new HashSet<GraphEdge<Integer>>(g.getEdges());
+        assertTrue(s.getEdges().equals(edges));
+        assertTrue(s.edgeCount() == g.edgeCount());
+
+        // Modifiche di archi, nodi aggiunti oltre la capacità e nodi cancellati
+        SplittableRandom random = new SplittableRandom(2);
+        for (int step = 0; step < 2_000; step++) {
+            int i = random.nextInt(150);
+            int j = random.nextInt(150);
+            if (g.hasEdge(i, j))
+                g.removeEdge(i, j);
+            else
+                g.addWeightedEdge(i, j, 1);
+        }
+        for (int i = 150; i < 300; i++) {
+            g.addNode(Integer.valueOf(i));
+            g.addEdge(i, 0);
+        }
+        g.removeNode(Integer.valueOf(3));
+
+        assertTrue(s.nodeCount() == 150);
+        assertTrue(s.getEdges().equals(edges));
+        assertTrue(s.edgeCount() == edges.size());
+        assertTrue(s.getNode(3).getLabel() == 3);
+        assertTrue(s.getNodeIndexOf(Integer.valueOf(149)) == 149);
+        assertTrue(s.getNode(Integer.valueOf(200)) == null);
+        for (GraphEdge<Integer> edge : edges) {
+            assertTrue(s.getEdge(edge.getNode1(), edge.getNode2()) == edge);
+        }
+
+        // Una nuova fotografia vede le modifiche
+        GraphSnapshot<Integer> t = g.snapshot();
+        assertTrue(t.nodeCount() == 299);
+        assertTrue(t.getEdges().equals(new HashSet<GraphEdge<Integer>>(g.getEdges())));
+        assertTrue(t.getNodeIndexOf(Integer.valueOf(4)) == 3);
+        g.clear();
+        assertTrue(t.edgeCount() == t.getEdges().size());
+        assertTrue(s.getEdges().equals(edges));
+
+        assertThrows(UnsupportedOperationException.class, () -> s.addNode(Integer.valueOf(1000)));
+        assertThrows(UnsupportedOperationException.class, () -> s.removeEdge(0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> s.clear());
+        assertThrows(IndexOutOfBoundsException.class, () -> s.getEdge(0, 150));
+        assertThrows(IllegalArgumentException.class, () -> s.getEdgesOf(Integer.valueOf(1000)));
+        // I nodi sono condivisi con il grafo, quindi Prim non può scriverci
+        assertThrows(UnsupportedOperationException.class,
+                () -> new PrimMSP<Integer>().computeMSP(t, t.getNode(0)));
+        assertTrue(t.getNode(0).getPrevious() == null);
+    }
+
+    @Test
+    final void testSetEdgeWeightAfterSnapshot() {
+        ConcurrentUndirectedGraph<Integer> g = new ConcurrentUndirectedGraph<Integer>();
+        for (int i = 0; i < 3; i++) {
+            g.addNode(Integer.valueOf(i));
+        }
+        g.addWeightedEdge(0, 1, 1);
+        g.addWeightedEdge(1, 2, 2);
+        g.addWeightedEdge(0, 2, 5);
+        GraphSnapshot<Integer> s = g.snapshot();
+        GraphEdge<Integer> edge = s.getEdge(0, 1);
+
+        g.setEdgeWeight(0, 1, 99.0);
+        assertTrue(g.getWeight(0, 1) == 99.0);
+        assertTrue(s.getWeight(0, 1) == 1);
+        assertTrue(edge.getWeight() == 1);
+        double weight = 0;
+        for (GraphEdge<Integer> e : new KruskalMSP<Integer>().computeMSP(s)) {
+            weight += e.getWeight();
+        }
+        assertTrue(weight == 3);
+        assertTrue(g.snapshot().getWeight(0, 1) == 99.0);
+        assertThrows(IllegalArgumentException.class, () -> {
+            g.removeEdge(0, 2);
+            g.setEdgeWeight(0, 2, 1);
+        });
+        assertThrows(IndexOutOfBoundsException.class, () -> g.setEdgeWeight(0, 3, 1));
+    }
+
+    @Test
+    final void testAlgorithmsOnSnapshot() throws InterruptedException {
+        // Gli algoritmi sulla fotografia danno gli stessi risultati di una copia, mentre un thread modifica il grafo
+        ConcurrentUndirectedGraph<Integer> g = randomGraph(200, 3);
+        GraphSnapshot<Integer> s = g.snapshot();
+        Graph<Integer> copy = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (GraphNode<Integer> node : s.getNodesByIndex()) {
+            copy.addNode(node.getLabel());
+        }
+        for (GraphEdge<Integer> edge : s.getEdges()) {
+            copy.addWeightedEdge(edge.getNode1().getLabel(), edge.getNode2().getLabel(), edge.getWeight());
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(4);
+            while (!done.get()) {
+                int i = random.nextInt(g.nodeCount());
+                int j = random.nextInt(g.nodeCount());
+                if (random.nextInt(50) == 0) {
+                    g.removeNode(i);
+                    g.addNode(Integer.valueOf(1000 + random.nextInt(1_000_000)));
+                } else if (g.hasEdge(i, j)) {
+                    g.removeEdge(i, j);
+                } else {
+                    g.addWeightedEdge(i, j, random.nextDouble());
+                }
+            }
+        });
+        writer.start();
+        try {
+            for (int round = 0; round < 5; round++) {
+                double weight = 0;
+                for (GraphEdge<Integer> edge : new KruskalMSP<Integer>().computeMSP(s)) {
+                    weight += edge.getWeight();
+                }
+                double expected = 0;
+                for (GraphEdge<Integer> edge : new KruskalMSP<Integer>().computeMSP(copy)) {
+                    expected += edge.getWeight();
+                }
+                assertEquals(expected, weight, 1e-9);
+                assertEquals(expected, new PrimMSP<Integer>().computeSpanningTree(s, s.getNode(0)).getTotalWeight(), 1e-9);
+                assertArrayEquals(new UndirectedGraphConnectedComponentsComputer<Integer>().computeComponentLabelling(copy).toArray(),
+                        new UndirectedGraphConnectedComponentsComputer<Integer>().computeComponentLabelling(s).toArray());
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+        assertTrue(s.nodeCount() == 200);
+    }
+}
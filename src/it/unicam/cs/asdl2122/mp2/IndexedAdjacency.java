@@ -0,0 +1,53 @@
+package it.unicam.cs.asdl2122.mp2;
+
+/**
+ * Una classe che implementa questa interfaccia permette di scandire i vicini
+ * di un nodo identificato dal suo indice nell'intervallo
+ * <code>[0, nodeCount() - 1]</code>, senza passare dagli oggetti
+ * {@code GraphNode} e {@code GraphEdge} e senza costruire insiemi. È pensata
+ * per gli algoritmi che memorizzano il proprio stato in array indicizzati con
+ * gli indici dei nodi.
+ *
+ * Le adiacenze sono quelle di un grafo non orientato: se j è vicino di i
+ * allora i è vicino di j, con lo stesso peso.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public interface IndexedAdjacency {
+
+    /**
+     * Azione da eseguire su un vicino di un nodo.
+     */
+    @FunctionalInterface
+    interface NeighbourConsumer {
+
+        /**
+         * Esegue l'azione su un vicino.
+         *
+         * @param neighbour l'indice del vicino
+         * @param weight il peso dell'arco che collega il nodo al vicino,
+         *               Double.NaN se l'arco non è pesato
+         */
+        void accept(int neighbour, double weight);
+    }
+
+    /**
+     * Restituisce il numero di nodi.
+     *
+     * @return il numero di nodi
+     */
+    int nodeCount();
+
+    /**
+     * Esegue un'azione su ogni vicino del nodo con indice dato, in ordine
+     * crescente di indice. Un cappio fa comparire il nodo tra i propri vicini.
+     *
+     * @param i l'indice del nodo di cui scandire i vicini
+     * @param action l'azione da eseguire su ogni vicino
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     * @throws NullPointerException se l'azione è null
+     */
+    void forEachNeighbour(int i, NeighbourConsumer action);
+}
@@ -0,0 +1,58 @@
+package it.unicam.cs.asdl2122.mp2;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Versione di {@link UndirectedGraphConnectedComponentsComputer} per i grafi
+ * {@link IntGraph}: gli archi vengono letti direttamente dagli array del
+ * grafo e uniti con {@link IntDisjointSets}, senza creare oggetti per i nodi o
+ * per gli archi.
+ *
+ * La classe non ha stato, quindi la stessa istanza può essere usata da più
+ * thread contemporaneamente.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public class IntConnectedComponentsComputer {
+
+    /**
+     * Calcola le componenti connesse di un grafo restituendo l'identificativo
+     * della componente di ogni nodo, indicizzato con gli indici dei nodi nel
+     * grafo. I nodi degli insiemi restituiti da
+     * {@link ConnectedComponentsLabelling#getComponent(int)} e
+     * {@link ConnectedComponentsLabelling#toComponentSets()} hanno come
+     * etichetta l'identificativo del nodo nel grafo al momento del calcolo e
+     * vengono creati solo quando sono richiesti.
+     *
+     * @param g il grafo
+     * @return l'etichettatura delle componenti connesse di g
+     *
+     * @throws NullPointerException se il grafo passato è nullo
+     */
+    public ConnectedComponentsLabelling<Integer> computeComponentLabelling(IntGraph g) {
+        if (g == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo su un grafo nullo");
+
+        int n = g.nodeCount();
+        IntDisjointSets sets = new IntDisjointSets(n);
+        g.forEachEdge((i, j, weight) -> sets.union(i, j));
+
+        // Numera le componenti nell'ordine del primo nodo che le contiene
+        int[] componentOf = new int[n];
+        int[] ids = new int[n];
+        int[] componentOfRepresentative = new int[n];
+        int componentCount = 0;
+        for (int i = 0; i < n; i++) {
+            int rep = sets.findSet(i);
+            // Lo zero indica un rappresentante non ancora incontrato
+            if (componentOfRepresentative[rep] == 0)
+                componentOfRepresentative[rep] = ++componentCount;
+            componentOf[i] = componentOfRepresentative[rep] - 1;
+            ids[i] = g.getId(i);
+        }
+
+        // Gli identificativi sono copiati perché il grafo può cambiare dopo il calcolo
+        return new ConnectedComponentsLabelling<>(componentOf, componentCount,
+                i -> new GraphNode<>(ids[i]));
+    }
+}
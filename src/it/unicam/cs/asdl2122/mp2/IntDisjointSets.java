@@ -0,0 +1,170 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Versione primitiva di {@link ForestDisjointSets} in cui gli elementi sono gli
+ * interi dell'intervallo <code>[0, size() - 1]</code>, tipicamente gli indici
+ * dei nodi di un grafo. La foresta è rappresentata da due array paralleli
+ * (padre e rango), quindi le operazioni non creano oggetti e non calcolano
+ * hashCode.
+ *
+ * Come in {@link ForestDisjointSets} sono realizzate le euristiche "unione per
+ * rango" e "compressione del cammino"; la compressione è iterativa per non
+ * dipendere dalla profondità dello stack.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+final class IntDisjointSets {
+
+    /*
+     * Il padre di ogni elemento, un elemento è rappresentante se è padre di se
+     * stesso
+     */
+    private int[] parent;
+
+    /*
+     * Il rango di ogni elemento, significativo solo per i rappresentanti
+     */
+    private int[] rank;
+
+    /*
+     * Numero di elementi correntemente gestiti, può essere minore della
+     * lunghezza degli array
+     */
+    private int size;
+
+    /**
+     * Crea una collezione di insiemi disgiunti singoletto per gli elementi
+     * <code>[0, size - 1]</code>.
+     *
+     * @param size il numero di elementi
+     *
+     * @throws IllegalArgumentException se size è negativo
+     */
+    IntDisjointSets(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Impossibile creare un numero negativo di insiemi");
+
+        this.parent = new int[size];
+        this.rank = new int[size];
+        reset(size);
+    }
+
+    /**
+     * Riporta la collezione allo stato iniziale con un insieme singoletto per
+     * ogni elemento <code>[0, size - 1]</code>, riutilizzando gli array se sono
+     * abbastanza grandi.
+     *
+     * @param size il nuovo numero di elementi
+     *
+     * @throws IllegalArgumentException se size è negativo
+     */
+    void reset(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Impossibile creare un numero negativo di insiemi");
+
+        if (parent.length < size) {
+            parent = new int[size];
+            rank = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+        Arrays.fill(rank, 0, size, 0);
+        this.size = size;
+    }
+
+    /**
+     * Svuota la collezione e libera gli array se possono contenere più
+     * elementi della capacità data, in modo che un oggetto riutilizzato non
+     * trattenga la memoria del calcolo più grande che ha eseguito.
+     *
+     * @param capacity il numero massimo di elementi per cui conservare gli
+     *                 array
+     */
+    void trim(int capacity) {
+        if (parent.length > capacity) {
+            parent = new int[0];
+            rank = new int[0];
+        }
+        size = 0;
+    }
+
+    /**
+     * Restituisce il numero di elementi gestiti.
+     *
+     * @return il numero di elementi gestiti
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme che contiene l'elemento dato.
+     *
+     * @param e l'elemento di cui cercare il rappresentante
+     * @return il rappresentante dell'insieme che contiene <code>e</code>
+     *
+     * @throws IndexOutOfBoundsException se l'elemento è fuori dall'intervallo
+     * <code>[0, size() - 1]</code>
+     */
+    int findSet(int e) {
+        indexCheck(e);
+
+        int root = e;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        // Seconda passata: ogni nodo del cammino punta direttamente alla radice
+        while (parent[e] != root) {
+            int next = parent[e];
+            parent[e] = root;
+            e = next;
+        }
+        return root;
+    }
+
+    /**
+     * Unisce gli insiemi che contengono i due elementi dati. Il rappresentante
+     * dell'unione segue la stessa regola di {@link ForestDisjointSets}: vince
+     * la radice di rango maggiore e, a parità di rango, quella di e2.
+     *
+     * @param e1 un elemento del primo insieme
+     * @param e2 un elemento del secondo insieme
+     * @return true se gli insiemi erano distinti e sono stati uniti, false se
+     *         i due elementi erano già nello stesso insieme
+     *
+     * @throws IndexOutOfBoundsException se almeno uno degli elementi è fuori
+     * dall'intervallo <code>[0, size() - 1]</code>
+     */
+    boolean union(int e1, int e2) {
+        int rep1 = findSet(e1);
+        int rep2 = findSet(e2);
+        if (rep1 == rep2)
+            return false;
+
+        if (rank[rep1] > rank[rep2]) {
+            parent[rep2] = rep1;
+        } else {
+            parent[rep1] = rep2;
+            if (rank[rep1] == rank[rep2])
+                rank[rep2]++;
+        }
+        return true;
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'elemento passato non è valido
+     *
+     * @param e l'elemento da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'elemento è fuori dai limiti
+     * dell'intervallo <code>[0, size() - 1]</code>
+     */
+    private void indexCheck(int e) {
+        if (e < 0 || e >= size)
+            throw new IndexOutOfBoundsException("Elemento non presente in nessun insieme");
+    }
+}
@@ -0,0 +1,534 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Grafo non orientato i cui nodi sono semplici identificativi int, senza
+ * oggetti {@code GraphNode} né etichette boxed. I nodi hanno indici
+ * consecutivi nell'intervallo <code>[0, nodeCount() - 1]</code>; la
+ * corrispondenza tra identificativo e indice è una tabella a indirizzamento
+ * aperto con scansione lineare che memorizza solo gli indici, mentre gli
+ * identificativi si trovano nell'array dei nodi.
+ *
+ * Gli archi sono memorizzati in array paralleli: l'arco e ha peso weights[e]
+ * e due estremità, 2e e 2e + 1, ognuna nella lista doppiamente concatenata
+ * del proprio nodo e con l'indice del nodo all'altro capo. Aggiungere e
+ * togliere un arco costa O(1) una volta trovato; per non lasciare buchi
+ * l'ultimo arco prende il posto di quello tolto e, allo stesso modo, l'ultimo
+ * nodo prende l'indice di un nodo cancellato. Gli indici dei nodi e
+ * l'ordine dei vicini, che è quello inverso di inserimento, cambiano quindi
+ * con le cancellazioni.
+ *
+ * Gli archi senza peso hanno peso Double.NaN, come in {@link GraphEdge}.
+ *
+ * Un nodo occupa 8 byte negli array dei nodi (identificativo e testa della
+ * lista) e da 16/3 a 32/3 byte nella tabella, che è piena tra tre ottavi e
+ * tre quarti. Un arco occupa 32 byte: 8 per il peso e 12 per ognuna delle due
+ * estremità (nodo all'altro capo, estremità successiva e precedente). Gli
+ * array crescono raddoppiando e non si riducono mai, quindi la memoria
+ * allocata può arrivare al doppio di quella usata dal numero massimo di nodi
+ * e di archi raggiunto: in tutto da circa 13 a 27 byte per nodo e da 32 a 64
+ * byte per arco, più le intestazioni dei sette array, fisse per ogni grafo.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public class IntGraph {
+
+    /*
+     * Posizione che indica la fine di una lista di adiacenza
+     */
+    private static final int NONE = -1;
+
+    /*
+     * Costante moltiplicativa per distribuire gli identificativi nella tabella
+     */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    /*
+     * Identificativo e prima estremità della lista di adiacenza di ogni nodo
+     */
+    private int[] ids;
+    private int[] heads;
+
+    /*
+     * Tabella da identificativo a indice: ogni posizione contiene l'indice
+     * del nodo più uno, zero se la posizione è libera
+     */
+    private int[] slots;
+
+    /*
+     * Per ogni estremità di arco l'indice del nodo all'altro capo e le
+     * estremità successiva e precedente nella lista del proprio nodo
+     */
+    private int[] targets;
+    private int[] nexts;
+    private int[] previous;
+
+    /*
+     * Peso di ogni arco
+     */
+    private double[] weights;
+
+    /*
+     * Numero di nodi e di archi
+     */
+    private int nodeCount;
+    private int edgeCount;
+
+    /**
+     * Crea un grafo vuoto.
+     */
+    public IntGraph() {
+        clear();
+    }
+
+    /**
+     * Restituisce il numero di nodi.
+     *
+     * @return il numero di nodi
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Restituisce il numero di archi.
+     *
+     * @return il numero di archi
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Elimina tutti i nodi e gli archi.
+     */
+    public void clear() {
+        ids = new int[8];
+        heads = new int[8];
+        slots = new int[16];
+        targets = new int[16];
+        nexts = new int[16];
+        previous = new int[16];
+        weights = new double[8];
+        nodeCount = 0;
+        edgeCount = 0;
+    }
+
+    /**
+     * Aggiunge un nodo con l'identificativo dato, che riceve l'indice
+     * nodeCount().
+     *
+     * @param id l'identificativo del nodo
+     * @return true se il nodo è stato aggiunto, false se era già presente
+     */
+    public boolean addNode(int id) {
+        if (indexOf(id) != NONE)
+            return false;
+
+        if (nodeCount == ids.length) {
+            ids = Arrays.copyOf(ids, 2 * nodeCount);
+            heads = Arrays.copyOf(heads, 2 * nodeCount);
+        }
+        // La tabella resta piena al più per tre quarti
+        if (4 * (nodeCount + 1) > 3 * slots.length)
+            rehash(2 * slots.length);
+
+        ids[nodeCount] = id;
+        heads[nodeCount] = NONE;
+        slots[freeSlot(id)] = ++nodeCount;
+        return true;
+    }
+
+    /**
+     * Controlla se un nodo è presente.
+     *
+     * @param id l'identificativo del nodo
+     * @return true se il nodo è presente
+     */
+    public boolean containsNode(int id) {
+        return indexOf(id) != NONE;
+    }
+
+    /**
+     * Restituisce l'indice di un nodo.
+     *
+     * @param id l'identificativo del nodo
+     * @return l'indice del nodo, -1 se il nodo non è presente
+     */
+    public int indexOf(int id) {
+        int mask = slots.length - 1;
+        for (int s = hash(id); ; s = (s + 1) & mask) {
+            int index = slots[s] - 1;
+            if (index == NONE || ids[index] == id)
+                return index;
+        }
+    }
+
+    /**
+     * Restituisce l'identificativo del nodo con indice dato.
+     *
+     * @param index l'indice del nodo
+     * @return l'identificativo del nodo
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public int getId(int index) {
+        indexCheck(index);
+
+        return ids[index];
+    }
+
+    /**
+     * Elimina un nodo e tutti i suoi archi. L'ultimo nodo prende l'indice di
+     * quello eliminato.
+     *
+     * @param id l'identificativo del nodo
+     *
+     * @throws IllegalArgumentException se il nodo non è presente
+     */
+    public void removeNode(int id) {
+        int index = nodeCheck(id);
+
+        while (heads[index] != NONE) {
+            removeEdgeAt(heads[index] >>> 1);
+        }
+        removeSlot(id);
+
+        int last = --nodeCount;
+        if (index != last) {
+            ids[index] = ids[last];
+            heads[index] = heads[last];
+            // Gli archi del nodo spostato devono puntare al nuovo indice
+            for (int end = heads[index]; end != NONE; end = nexts[end]) {
+                targets[end ^ 1] = index;
+            }
+            slots[slotOf(ids[index])] = index + 1;
+        }
+    }
+
+    /**
+     * Aggiunge un arco non pesato tra due nodi.
+     *
+     * @param id1 l'identificativo del primo nodo
+     * @param id2 l'identificativo del secondo nodo
+     * @return true se l'arco è stato aggiunto, false se era già presente
+     *
+     * @throws IllegalArgumentException se uno dei due nodi non è presente
+     */
+    public boolean addEdge(int id1, int id2) {
+        return addWeightedEdge(id1, id2, Double.NaN);
+    }
+
+    /**
+     * Aggiunge un arco pesato tra due nodi. Se l'arco è già presente il suo
+     * peso non viene modificato.
+     *
+     * @param id1 l'identificativo del primo nodo
+     * @param id2 l'identificativo del secondo nodo
+     * @param weight il peso dell'arco, Double.NaN per un arco non pesato
+     * @return true se l'arco è stato aggiunto, false se era già presente
+     *
+     * @throws IllegalArgumentException se uno dei due nodi non è presente
+     */
+    public boolean addWeightedEdge(int id1, int id2, double weight) {
+        int i = nodeCheck(id1);
+        int j = nodeCheck(id2);
+        if (findEdge(i, j) != NONE)
+            return false;
+
+        appendEdge(i, j, weight);
+        return true;
+    }
+
+    /**
+     * Aggiunge un arco tra i nodi con indici dati senza controllare se è già
+     * presente, per chi costruisce il grafo da archi distinti, come gli
+     * algoritmi che restituiscono un sottoinsieme degli archi di un altro
+     * grafo.
+     *
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @param weight il peso dell'arco, Double.NaN per un arco non pesato
+     */
+    void appendEdge(int i, int j, double weight) {
+        if (edgeCount == weights.length) {
+            weights = Arrays.copyOf(weights, 2 * edgeCount);
+            targets = Arrays.copyOf(targets, 4 * edgeCount);
+            nexts = Arrays.copyOf(nexts, 4 * edgeCount);
+            previous = Arrays.copyOf(previous, 4 * edgeCount);
+        }
+        int e = edgeCount++;
+        weights[e] = weight;
+        link(2 * e, i, j);
+        link(2 * e + 1, j, i);
+    }
+
+    /**
+     * Controlla se esiste un arco tra due nodi.
+     *
+     * @param id1 l'identificativo del primo nodo
+     * @param id2 l'identificativo del secondo nodo
+     * @return true se l'arco è presente
+     *
+     * @throws IllegalArgumentException se uno dei due nodi non è presente
+     */
+    public boolean containsEdge(int id1, int id2) {
+        return findEdge(nodeCheck(id1), nodeCheck(id2)) != NONE;
+    }
+
+    /**
+     * Restituisce il peso dell'arco tra due nodi.
+     *
+     * @param id1 l'identificativo del primo nodo
+     * @param id2 l'identificativo del secondo nodo
+     * @return il peso dell'arco, Double.NaN se l'arco non è pesato o non è
+     *         presente
+     *
+     * @throws IllegalArgumentException se uno dei due nodi non è presente
+     */
+    public double getWeight(int id1, int id2) {
+        int e = findEdge(nodeCheck(id1), nodeCheck(id2));
+        return e == NONE ? Double.NaN : weights[e];
+    }
+
+    /**
+     * Elimina l'arco tra due nodi. L'ultimo arco prende il posto di quello
+     * eliminato.
+     *
+     * @param id1 l'identificativo del primo nodo
+     * @param id2 l'identificativo del secondo nodo
+     *
+     * @throws IllegalArgumentException se uno dei due nodi o l'arco non sono
+     * presenti
+     */
+    public void removeEdge(int id1, int id2) {
+        int e = findEdge(nodeCheck(id1), nodeCheck(id2));
+        if (e == NONE)
+            throw new IllegalArgumentException("Impossibile rimuovere un arco non esistente");
+
+        removeEdgeAt(e);
+    }
+
+    /**
+     * Restituisce il numero di archi di un nodo, in cui un cappio conta una
+     * sola volta.
+     *
+     * @param id l'identificativo del nodo
+     * @return il grado del nodo
+     *
+     * @throws IllegalArgumentException se il nodo non è presente
+     */
+    public int degree(int id) {
+        int index = nodeCheck(id);
+
+        int degree = 0;
+        for (int end = heads[index]; end != NONE; end = nexts[end]) {
+            if (!isSecondLoopEnd(end))
+                degree++;
+        }
+        return degree;
+    }
+
+    /**
+     * Esegue un'azione su ogni vicino del nodo con indice dato, in ordine
+     * inverso di inserimento degli archi. Un cappio fa comparire il nodo una
+     * volta tra i propri vicini.
+     *
+     * @param index l'indice del nodo
+     * @param action l'azione da eseguire su ogni vicino, che riceve l'indice
+     *               del vicino e il peso dell'arco
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     * @throws NullPointerException se l'azione è null
+     */
+    public void forEachNeighbour(int index, IndexedAdjacency.NeighbourConsumer action) {
+        indexCheck(index);
+        if (action == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+
+        for (int end = heads[index]; end != NONE; end = nexts[end]) {
+            if (!isSecondLoopEnd(end))
+                action.accept(targets[end], weights[end >>> 1]);
+        }
+    }
+
+    /**
+     * Esegue un'azione su ogni arco, passando gli indici dei due estremi e il
+     * peso, nell'ordine in cui gli archi sono memorizzati.
+     *
+     * @param sink l'azione da eseguire su ogni arco
+     *
+     * @throws NullPointerException se l'azione è null
+     */
+    public void forEachEdge(GraphGenerator.EdgeSink sink) {
+        if (sink == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+
+        for (int e = 0; e < edgeCount; e++) {
+            sink.accept(targets[2 * e + 1], targets[2 * e], weights[e]);
+        }
+    }
+
+    /*
+     * Un cappio ha entrambe le estremità nella lista dello stesso nodo: la
+     * seconda viene saltata quando si scandiscono i vicini
+     */
+    private boolean isSecondLoopEnd(int end) {
+        return (end & 1) == 1 && targets[end] == targets[end ^ 1];
+    }
+
+    /*
+     * Restituisce l'arco tra i nodi con indici i e j, NONE se non esiste
+     */
+    private int findEdge(int i, int j) {
+        for (int end = heads[i]; end != NONE; end = nexts[end]) {
+            if (targets[end] == j)
+                return end >>> 1;
+        }
+        return NONE;
+    }
+
+    /*
+     * Inserisce un'estremità in testa alla lista del nodo owner
+     */
+    private void link(int end, int owner, int target) {
+        targets[end] = target;
+        previous[end] = NONE;
+        nexts[end] = heads[owner];
+        if (heads[owner] != NONE)
+            previous[heads[owner]] = end;
+        heads[owner] = end;
+    }
+
+    /*
+     * Toglie un'estremità dalla lista del nodo owner
+     */
+    private void unlink(int end, int owner) {
+        if (previous[end] == NONE)
+            heads[owner] = nexts[end];
+        else
+            nexts[previous[end]] = nexts[end];
+        if (nexts[end] != NONE)
+            previous[nexts[end]] = previous[end];
+    }
+
+    /*
+     * Elimina l'arco e e sposta al suo posto l'ultimo arco, aggiornando i
+     * collegamenti che puntano alle estremità spostate
+     */
+    private void removeEdgeAt(int e) {
+        unlink(2 * e, targets[2 * e + 1]);
+        unlink(2 * e + 1, targets[2 * e]);
+
+        int last = --edgeCount;
+        if (e == last)
+            return;
+        weights[e] = weights[last];
+        for (int k = 0; k < 2; k++) {
+            int from = 2 * last + k;
+            int to = 2 * e + k;
+            targets[to] = targets[from];
+            nexts[to] = nexts[from];
+            previous[to] = previous[from];
+            if (previous[to] == NONE)
+                heads[targets[from ^ 1]] = to;
+            else
+                nexts[previous[to]] = to;
+            if (nexts[to] != NONE)
+                previous[nexts[to]] = to;
+        }
+    }
+
+    /*
+     * Posizione iniziale nella tabella per un identificativo
+     */
+    private int hash(int id) {
+        return (id * HASH_MULTIPLIER) >>> (Integer.numberOfLeadingZeros(slots.length) + 1);
+    }
+
+    /*
+     * Prima posizione libera per un identificativo non presente
+     */
+    private int freeSlot(int id) {
+        int mask = slots.length - 1;
+        int s = hash(id);
+        while (slots[s] != 0) {
+            s = (s + 1) & mask;
+        }
+        return s;
+    }
+
+    /*
+     * Posizione di un identificativo presente
+     */
+    private int slotOf(int id) {
+        int mask = slots.length - 1;
+        int s = hash(id);
+        while (ids[slots[s] - 1] != id) {
+            s = (s + 1) & mask;
+        }
+        return s;
+    }
+
+    /*
+     * Libera la posizione di un identificativo e riporta indietro gli elementi
+     * successivi dello stesso gruppo che non sarebbero più raggiungibili,
+     * senza lasciare posizioni cancellate
+     */
+    private void removeSlot(int id) {
+        int mask = slots.length - 1;
+        int free = slotOf(id);
+        for (int s = (free + 1) & mask; slots[s] != 0; s = (s + 1) & mask) {
+            int home = hash(ids[slots[s] - 1]);
+            // L'elemento si sposta se la posizione libera è tra la sua posizione iniziale e quella attuale
+            if (((s - home) & mask) >= ((s - free) & mask)) {
+                slots[free] = slots[s];
+                free = s;
+            }
+        }
+        slots[free] = 0;
+    }
+
+    /*
+     * Ricostruisce la tabella con la capacità data
+     */
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int index = 0; index < nodeCount; index++) {
+            slots[freeSlot(ids[index])] = index + 1;
+        }
+    }
+
+    /**
+     * Metodo di utilità che restituisce l'indice di un nodo, lanciando una
+     * {@link IllegalArgumentException} se il nodo non è presente
+     *
+     * @param id l'identificativo del nodo
+     * @return l'indice del nodo
+     *
+     * @throws IllegalArgumentException se il nodo non è presente
+     */
+    private int nodeCheck(int id) {
+        int index = indexOf(id);
+        if (index == NONE)
+            throw new IllegalArgumentException("Impossibile eseguire il metodo con un nodo non esistente");
+        return index;
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param index l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti dell'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int index) {
+        if (index < 0 || index > nodeCount - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+}
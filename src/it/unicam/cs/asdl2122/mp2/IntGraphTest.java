@@ -0,0 +1,156 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per le classi IntGraph, IntKruskalMSP e
+ * IntConnectedComponentsComputer.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class IntGraphTest {
+
+    /*
+     * Identificativo del nodo i-esimo, sparso e anche negativo
+     */
+    private static int id(int i) {
+        return (i - 100) * 7919;
+    }
+
+    @Test
+    final void testNodesAndEdges() {
+        IntGraph g = new IntGraph();
+        assertTrue(g.addNode(-5));
+        assertFalse(g.addNode(-5));
+        assertTrue(g.addNode(7));
+        assertTrue(g.addNode(0));
+        assertTrue(g.indexOf(7) == 1);
+        assertTrue(g.indexOf(8) == -1);
+        assertTrue(g.getId(2) == 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getId(3));
+
+        assertTrue(g.addWeightedEdge(-5, 7, 2.5));
+        assertFalse(g.addEdge(7, -5));
+        assertTrue(g.addEdge(0, 0));
+        assertTrue(g.addWeightedEdge(0, -5, 1));
+        assertThrows(IllegalArgumentException.class, () -> g.addEdge(0, 8));
+        assertTrue(g.edgeCount() == 3);
+        assertTrue(g.getWeight(7, -5) == 2.5);
+        assertTrue(Double.isNaN(g.getWeight(0, 0)));
+        assertTrue(Double.isNaN(g.getWeight(0, 7)));
+        assertTrue(g.containsEdge(-5, 0));
+        assertTrue(g.degree(0) == 2);
+        int[] neighbours = new int[1];
+        g.forEachNeighbour(2, (j, w) -> neighbours[0]++);
+        assertTrue(neighbours[0] == 2);
+
+        g.removeNode(-5);
+        assertTrue(g.nodeCount() == 2);
+        assertTrue(g.edgeCount() == 1);
+        assertTrue(g.indexOf(0) == 0);
+        assertTrue(g.containsEdge(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> g.removeNode(-5));
+        assertThrows(IllegalArgumentException.class, () -> g.removeEdge(0, 7));
+        assertThrows(NullPointerException.class, () -> g.forEachNeighbour(0, null));
+        g.clear();
+        assertTrue(g.nodeCount() == 0);
+        assertFalse(g.containsNode(0));
+    }
+
+    @Test
+    final void testSameAsAdjacencyMatrix() {
+        // Modifiche casuali confrontate con un grafo di riferimento, attraverso gli identificativi
+        IntGraph g = new IntGraph();
+        Graph<Integer> expected = new AdjacencyMatrixUndirectedGraph<Integer>();
+        SplittableRandom random = new SplittableRandom(3);
+        int next = 0;
+        for (int step = 0; step < 20_000; step++) {
+            int n = expected.nodeCount();
+            int operation = random.nextInt(10);
+            if (n < 2 || (operation == 0 && n < 150)) {
+                assertTrue(g.addNode(id(next)));
+                expected.addNode(Integer.valueOf(id(next++)));
+            } else if (operation == 1) {
+                Integer label = expected.getNode(random.nextInt(n)).getLabel();
+                g.removeNode(label);
+                expected.removeNode(label);
+            } else {
+                Integer a = expected.getNode(random.nextInt(n)).getLabel();
+                Integer b = expected.getNode(random.nextInt(n)).getLabel();
+                if (expected.getEdge(a, b) != null && operation < 5) {
+                    g.removeEdge(a, b);
+                    expected.removeEdge(a, b);
+                } else {
+                    double w = random.nextInt(4) == 0 ? Double.NaN : random.nextDouble();
+                    assertTrue(g.addWeightedEdge(a, b, w) == expected.addWeightedEdge(a, b, w));
+                }
+            }
+        }
+
+        assertTrue(g.nodeCount() == expected.nodeCount());
+        assertTrue(g.edgeCount() == expected.edgeCount());
+        for (int i = 0; i < g.nodeCount(); i++) {
+            Integer a = g.getId(i);
+            assertTrue(g.indexOf(a) == i);
+            assertNotNull(expected.getNode(a));
+            assertTrue(g.degree(a) == expected.getDegreeOf(a));
+            int[] count = new int[1];
+            g.forEachNeighbour(i, (j, w) -> {
+                GraphEdge<Integer> edge = expected.getEdge(a, Integer.valueOf(g.getId(j)));
+                assertTrue(edge != null && Double.compare(edge.getWeight(), w) == 0);
+                count[0]++;
+            });
+            assertTrue(count[0] == expected.getDegreeOf(a));
+        }
+        int[] edges = new int[1];
+        g.forEachEdge((i, j, w) -> {
+            assertTrue(Double.compare(expected.getEdge(Integer.valueOf(g.getId(i)), Integer.valueOf(g.getId(j))).getWeight(), w) == 0);
+            edges[0]++;
+        });
+        assertTrue(edges[0] == expected.edgeCount());
+    }
+
+    @Test
+    final void testAlgorithms() {
+        IntGraph g = new IntGraph();
+        Graph<Integer> expected = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < 300; i++) {
+            g.addNode(id(i));
+            expected.addNode(Integer.valueOf(id(i)));
+        }
+        GraphGenerator.erdosRenyi(300, 0.008, 13).generate((i, j, w) -> {
+            g.addWeightedEdge(id(i), id(j), w);
+            expected.addWeightedEdge(Integer.valueOf(id(i)), Integer.valueOf(id(j)), w);
+        });
+
+        IntGraph tree = new IntKruskalMSP().computeMSP(g);
+        assertTrue(tree.nodeCount() == g.nodeCount());
+        double weight = 0;
+        for (GraphEdge<Integer> edge : new KruskalMSP<Integer>().computeMSP(expected)) {
+            weight += edge.getWeight();
+        }
+        double[] treeWeight = new double[1];
+        tree.forEachEdge((i, j, w) -> treeWeight[0] += w);
+        assertEquals(weight, treeWeight[0], 1e-9);
+
+        ConnectedComponentsLabelling<Integer> labelling = new IntConnectedComponentsComputer().computeComponentLabelling(g);
+        assertArrayEquals(new UndirectedGraphConnectedComponentsComputer<Integer>().computeComponentLabelling(expected).toArray(),
+                labelling.toArray());
+        assertTrue(new IntConnectedComponentsComputer().computeComponentLabelling(tree).getComponentCount()
+                == labelling.getComponentCount());
+        assertTrue(tree.edgeCount() == g.nodeCount() - labelling.getComponentCount());
+        assertTrue(labelling.toComponentSets().equals(
+                new UndirectedGraphConnectedComponentsComputer<Integer>().computeConnectedComponents(expected)));
+        assertTrue(labelling.getComponent(labelling.getComponentOf(0)).contains(new GraphNode<Integer>(id(0))));
+
+        g.addEdge(id(0), id(1));
+        assertThrows(IllegalArgumentException.class, () -> new IntKruskalMSP().computeMSP(g));
+        assertThrows(NullPointerException.class, () -> new IntKruskalMSP().computeMSP(null));
+        assertThrows(NullPointerException.class, () -> new IntConnectedComponentsComputer().computeComponentLabelling(null));
+    }
+}
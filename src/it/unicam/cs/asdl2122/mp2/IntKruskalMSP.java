@@ -0,0 +1,114 @@
+package it.unicam.cs.asdl2122.mp2;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Versione di {@link KruskalMSP} per i grafi {@link IntGraph}. Gli archi
+ * vengono letti direttamente dagli array del grafo, ordinati per peso con
+ * HeapSort, che non usa ricorsione e non richiede memoria aggiuntiva, e
+ * scanditi con {@link IntDisjointSets}; nessun calcolo crea oggetti per i
+ * nodi o per gli archi.
+ *
+ * La classe non ha stato, quindi la stessa istanza può essere usata da più
+ * thread contemporaneamente.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public class IntKruskalMSP {
+
+    /**
+     * Utilizza l'algoritmo goloso di Kruskal per trovare un albero di copertura
+     * minimo in un grafo pesato con pesi degli archi non negativi. Se il grafo
+     * non è connesso viene restituita una foresta, con un albero per ogni
+     * componente.
+     *
+     * @param g un grafo pesato, con pesi non negativi
+     * @return un nuovo grafo con gli stessi nodi di g, con gli stessi indici,
+     *         e gli archi dell'albero di copertura minimo trovato
+     *
+     * @throws NullPointerException se il grafo g è null
+     * @throws IllegalArgumentException se il grafo g è non pesato o con pesi
+     * negativi
+     */
+    public IntGraph computeMSP(IntGraph g) {
+        if (g == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo con un parametro nullo");
+
+        int m = g.edgeCount();
+        int[] ends1 = new int[m];
+        int[] ends2 = new int[m];
+        double[] weights = new double[m];
+        int[] count = new int[1];
+        g.forEachEdge((i, j, weight) -> {
+            // La negazione scarta anche i pesi Double.NaN, cioè gli archi non pesati
+            if (!(weight >= 0))
+                throw new IllegalArgumentException(
+                        "Impossibile eseguire l'algoritmo su un grafo con pesi negativi o non esistenti");
+            ends1[count[0]] = i;
+            ends2[count[0]] = j;
+            weights[count[0]++] = weight;
+        });
+
+        int[] order = new int[m];
+        for (int e = 0; e < m; e++) {
+            order[e] = e;
+        }
+        sortEdges(order, weights);
+
+        IntGraph result = new IntGraph();
+        for (int i = 0; i < g.nodeCount(); i++) {
+            result.addNode(g.getId(i));
+        }
+        IntDisjointSets sets = new IntDisjointSets(g.nodeCount());
+        // Un albero su n nodi ha al più n - 1 archi, poi non serve continuare
+        for (int k = 0; k < m && result.edgeCount() < g.nodeCount() - 1; k++) {
+            int e = order[k];
+            if (sets.union(ends1[e], ends2[e]))
+                result.appendEdge(ends1[e], ends2[e], weights[e]);
+        }
+        return result;
+    }
+
+    /**
+     * Ordina le posizioni degli archi in base al loro peso usando l'algoritmo
+     * di HeapSort.
+     *
+     * @param order le posizioni degli archi da ordinare
+     * @param weights il peso dell'arco in ogni posizione
+     */
+    private static void sortEdges(int[] order, double[] weights) {
+        int n = order.length;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(order, weights, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int top = order[0];
+            order[0] = order[end];
+            order[end] = top;
+            siftDown(order, weights, 0, end);
+        }
+    }
+
+    /**
+     * Fa scendere l'elemento in posizione i nello heap massimo formato dalle
+     * prime n posizioni.
+     *
+     * @param order le posizioni degli archi
+     * @param weights il peso dell'arco in ogni posizione
+     * @param i la posizione da sistemare
+     * @param n la dimensione dello heap
+     */
+    private static void siftDown(int[] order, double[] weights, int i, int n) {
+        int item = order[i];
+        while (2 * i + 1 < n) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && weights[order[child + 1]] > weights[order[child]])
+                child++;
+            if (weights[order[child]] <= weights[item])
+                break;
+            order[i] = order[child];
+            i = child;
+        }
+        order[i] = item;
+    }
+}
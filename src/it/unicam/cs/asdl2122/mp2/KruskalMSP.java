@@ -1,8 +1,7 @@
 package it.unicam.cs.asdl2122.mp2;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 //ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
@@ -11,29 +10,40 @@ import java.util.Set;
  * Classe singoletto che implementa l'algoritmo di Kruskal per trovare un
  * Minimum Spanning Tree di un grafo non orientato, pesato e con pesi non
  * negativi. L'algoritmo implementato si avvale della classe
- * {@code ForestDisjointSets<GraphNode<L>>} per gestire una collezione di
- * insiemi disgiunti di nodi del grafo.
+ * {@code IntDisjointSets}, la versione di {@code ForestDisjointSets} sugli
+ * indici dei nodi, per gestire una collezione di insiemi disgiunti di nodi del
+ * grafo.
+ *
+ * Gli archi vengono raccolti e ordinati in array presi in prestito da un pool
+ * per la durata di ogni calcolo, quindi la stessa istanza può essere usata da
+ * più thread contemporaneamente e, una volta che gli array hanno raggiunto la
+ * dimensione dei grafi su cui si lavora, l'unico oggetto creato da un calcolo
+ * è l'insieme restituito. Gli array più grandi di
+ * {@code WorkspacePool.RETAINED_CAPACITY} elementi vengono invece abbandonati al
+ * termine del calcolo: un grafo molto grande, elaborato una volta sola, non
+ * resta così in memoria per tutta la vita dell'istanza in ognuno degli
+ * oggetti del pool.
  * 
  * @author Luca Tesei (template)
  * Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it (implementazione)
  * 
  * @param <L> tipo delle etichette dei nodi del grafo
  */
-@SuppressWarnings({"ConstantConditions", "FieldMayBeFinal"})
+@SuppressWarnings("ConstantConditions")
 public class KruskalMSP<L> {
 
-    /**
-     * Struttura dati per rappresentare gli insiemi disgiunti utilizzata
-     * dall'algoritmo di Kruskal.
+    /*
+     * Stato di lavoro dei calcoli in corso, preso in prestito da ogni calcolo e
+     * restituito al termine
      */
-    private ForestDisjointSets<GraphNode<L>> disjointSets;
+    private final WorkspacePool<Workspace<L>> pool;
 
     /**
      * Costruisce un calcolatore di un albero di copertura minimo che usa
      * l'algoritmo di Kruskal su un grafo non orientato e pesato.
      */
     public KruskalMSP() {
-        this.disjointSets = new ForestDisjointSets<>();
+        this.pool = new WorkspacePool<>(Workspace::new);
     }
 
     /**
@@ -56,80 +66,179 @@ public class KruskalMSP<L> {
         if (g.isDirected())
             throw new IllegalArgumentException("Impossibile eseguire l'algoritmo su un grafo orientato");
 
-        Set<GraphEdge<L>> edges = g.getEdges();
-        for (GraphEdge<L> edge : edges) {
-            if (!edge.hasWeight() || edge.getWeight() < 0)
-                throw new IllegalArgumentException(
-                        "Impossibile eseguire l'algoritmo su un grafo con pesi negativi o non esistenti");
-        }
+        Graph<L> stable = GraphSnapshot.stable(g);
+        Workspace<L> workspace = pool.acquire();
+        try {
+            collectEdges(stable, workspace);
 
-        Set<GraphEdge<L>> result = new HashSet<>();
+            Set<GraphEdge<L>> result = new HashSet<>();
+            // Crea un nuovo insieme singoletto per ogni nodo
+            workspace.sets.reset(stable.nodeCount());
+            sortEdges(workspace, 0, workspace.edgeCount - 1);
 
-        disjointSets.clear();
-        // Crea un nuovo insieme singoletto per ogni nodo
-        for (GraphNode<L> node : g.getNodes()) {
-            disjointSets.makeSet(node);
-        }
+            // Itera sugli archi in ordine di peso
+            int[] order = workspace.order;
+            for (int k = 0; k < workspace.edgeCount; k++) {
+                int e = order[k];
 
-        List<GraphEdge<L>> edgeList = new ArrayList<>(edges);
-        sortEdges(edgeList, 0, edgeList.size() - 1);
+                // Se i due nodi sono in insiemi diversi allora non sono ancora stati raggiunti da nessun percorso
+                if (workspace.sets.union(workspace.ends1[e], workspace.ends2[e]))
+                    result.add(workspace.edges[e]);
+            }
 
-        // Itera sulla lista ordinata di archi
-        for (GraphEdge<L> edge : edgeList) {
-            GraphNode<L> node1 = edge.getNode1();
-            GraphNode<L> node2 = edge.getNode2();
+            return result;
+        } finally {
+            workspace.clear();
+            pool.release(workspace);
+        }
+    }
 
-            // Se i due nodi sono in insiemi diversi allora non sono ancora stati raggiunti da nessun percorso
-            if (!disjointSets.findSet(node1).equals(disjointSets.findSet(node2))) {
-                result.add(edge);
-                disjointSets.union(node1, node2);
+    /**
+     * Raccoglie gli archi del grafo nel workspace, controllandone i pesi. Se il
+     * grafo fornisce le adiacenze per indice le righe vengono scandite
+     * direttamente, altrimenti vengono usati gli archi restituiti da
+     * {@link Graph#getEdges()}.
+     *
+     * @param g il grafo
+     * @param workspace il workspace in cui raccogliere gli archi
+     *
+     * @throws IllegalArgumentException se un arco non è pesato o ha peso negativo
+     */
+    private void collectEdges(Graph<L> g, Workspace<L> workspace) {
+        workspace.graph = g;
+        if (g instanceof IndexedAdjacency) {
+            IndexedAdjacency adjacency = (IndexedAdjacency) g;
+            for (int i = 0; i < adjacency.nodeCount(); i++) {
+                workspace.current = i;
+                adjacency.forEachNeighbour(i, workspace);
+            }
+        } else {
+            for (GraphEdge<L> edge : g.getEdges()) {
+                workspace.add(g.getNodeIndexOf(edge.getNode1()), g.getNodeIndexOf(edge.getNode2()),
+                        edge.getWeight(), edge);
             }
         }
-        
-        return result;
     }
 
     /**
-     * Ordina una lista di archi usando l'algoritmo di QuickSort
+     * Ordina gli archi raccolti nel workspace usando l'algoritmo di QuickSort.
+     * Viene ordinato l'array {@code order} delle posizioni degli archi, in base
+     * al peso dell'arco in ogni posizione.
      *
-     * @param edges la lista da ordinare
+     * @param workspace il workspace che contiene gli archi
      * @param low il limite inferiore della parte di lista da ordinare
      * @param high il limite superiore della parte di lista da ordinare
      */
-    private void sortEdges(List<GraphEdge<L>> edges, int low, int high) {
+    private void sortEdges(Workspace<L> workspace, int low, int high) {
         if (low < high) {
-            int partIndex = partition(edges, low, high);
+            int partIndex = partition(workspace, low, high);
 
-            sortEdges(edges, low, partIndex - 1);
-            sortEdges(edges, partIndex + 1, high);
+            sortEdges(workspace, low, partIndex - 1);
+            sortEdges(workspace, partIndex + 1, high);
         }
     }
 
     /**
-     * Applica la procedura Partition ad una lista di archi ordinandoli in base al loro peso
+     * Applica la procedura Partition alle posizioni degli archi ordinandole in
+     * base al peso dei rispettivi archi
      *
-     * @param edges la lista da ordinare
+     * @param workspace il workspace che contiene gli archi
      * @param low il limite inferiore della parte di lista da ordinare
      * @param high il limite superiore della parte di lista da ordinare
      * @return l'indice dell'elemento che si trova nella posizione corretta
      */
-    private int partition(List<GraphEdge<L>> edges, int low, int high) {
-        GraphEdge<L> pivot = edges.get(high);
+    private int partition(Workspace<L> workspace, int low, int high) {
+        int[] order = workspace.order;
+        double[] weights = workspace.weights;
+        int pivot = order[high];
         int i = low - 1;
 
         for (int j = low; j < high; j++) {
-            GraphEdge<L> jEdge = edges.get(j);
+            int jEdge = order[j];
 
-            if (jEdge.getWeight() <= pivot.getWeight()) {
+            if (weights[jEdge] <= weights[pivot]) {
                 i++;
 
-                GraphEdge<L> iEdge = edges.set(i, jEdge);
-                edges.set(j, iEdge);
+                order[j] = order[i];
+                order[i] = jEdge;
             }
         }
 
-        GraphEdge<L> iEdge = edges.set(i + 1, pivot);
-        edges.set(high, iEdge);
+        order[high] = order[i + 1];
+        order[i + 1] = pivot;
         return i + 1;
     }
+
+    /*
+     * Array di lavoro di un calcolo: per ogni arco raccolto gli indici dei due
+     * estremi, il peso e l'oggetto arco del grafo, più l'ordine degli archi e
+     * gli insiemi disgiunti dei nodi. È anche l'azione eseguita sui vicini
+     * durante la raccolta degli archi
+     */
+    private static final class Workspace<L> implements IndexedAdjacency.NeighbourConsumer {
+
+        final IntDisjointSets sets = new IntDisjointSets(0);
+        int[] ends1 = new int[0];
+        int[] ends2 = new int[0];
+        double[] weights = new double[0];
+        int[] order = new int[0];
+        GraphEdge<L>[] edges = newEdgeArray(0);
+        int edgeCount;
+
+        Graph<L> graph;
+        int current;
+
+        @Override
+        public void accept(int neighbour, double weight) {
+            // Ogni arco compare nelle righe di entrambi gli estremi, viene raccolto una volta sola
+            if (neighbour >= current)
+                add(current, neighbour, weight, graph.getEdge(current, neighbour));
+        }
+
+        void add(int i, int j, double weight, GraphEdge<L> edge) {
+            // La negazione scarta anche i pesi Double.NaN, cioè gli archi non pesati
+            if (!(weight >= 0))
+                throw new IllegalArgumentException(
+                        "Impossibile eseguire l'algoritmo su un grafo con pesi negativi o non esistenti");
+
+            if (edgeCount == ends1.length) {
+                int capacity = Math.max(16, edgeCount * 2);
+                ends1 = Arrays.copyOf(ends1, capacity);
+                ends2 = Arrays.copyOf(ends2, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                order = Arrays.copyOf(order, capacity);
+                edges = Arrays.copyOf(edges, capacity);
+            }
+            ends1[edgeCount] = i;
+            ends2[edgeCount] = j;
+            weights[edgeCount] = weight;
+            order[edgeCount] = edgeCount;
+            edges[edgeCount++] = edge;
+        }
+
+        /**
+         * Svuota il workspace togliendo i riferimenti al grafo e ai suoi
+         * archi; gli array vengono conservati solo se non superano
+         * {@link WorkspacePool#RETAINED_CAPACITY} elementi.
+         */
+        void clear() {
+            if (ends1.length > WorkspacePool.RETAINED_CAPACITY) {
+                ends1 = new int[0];
+                ends2 = new int[0];
+                weights = new double[0];
+                order = new int[0];
+                edges = newEdgeArray(0);
+            } else {
+                Arrays.fill(edges, 0, edgeCount, null);
+            }
+            sets.trim(WorkspacePool.RETAINED_CAPACITY);
+            edgeCount = 0;
+            graph = null;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <L> GraphEdge<L>[] newEdgeArray(int length) {
+            return new GraphEdge[length];
+        }
+    }
 }
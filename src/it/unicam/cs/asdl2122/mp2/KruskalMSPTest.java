@@ -3,6 +3,7 @@ package it.unicam.cs.asdl2122.mp2;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -206,4 +207,47 @@ class KruskalMSPTest {
             alg.computeMSP(x);
         });
     }
+
+    @Test
+    final void testComputeMSPReentrant() throws InterruptedException {
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 60;
+        Random random = new Random(11);
+        for (int i = 0; i < n; i++) {
+            gr.addNode(i);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (random.nextInt(4) == 0)
+                    gr.addWeightedEdge(i, j, random.nextDouble());
+            }
+        }
+        KruskalMSP<Integer> alg = new KruskalMSP<Integer>();
+        Set<GraphEdge<Integer>> expected = alg.computeMSP(gr);
+        // Un calcolo interrotto da un'eccezione non lascia stato nel calcolatore
+        Graph<Integer> unweighted = new AdjacencyMatrixUndirectedGraph<Integer>();
+        unweighted.addNode(0);
+        unweighted.addNode(1);
+        unweighted.addEdge(0, 1);
+        assertThrows(IllegalArgumentException.class, () -> alg.computeMSP(unweighted));
+        assertTrue(alg.computeMSP(gr).equals(expected));
+        assertTrue(ConcurrentRuns.allPass(8, 20, t -> alg.computeMSP(gr).equals(expected)));
+    }
+
+    @Test
+    final void testComputeMSPAfterLargeGraph() {
+        // Gli array di un grafo con più archi di quelli conservati vengono abbandonati e ricreati
+        Graph<Integer> large = GraphGenerator.complete(380, 3)
+                .populate(new AdjacencyMatrixUndirectedGraph<Integer>(), i -> i);
+        assertTrue(large.edgeCount() > 1 << 16);
+        Graph<Integer> small = GraphGenerator.complete(20, 3)
+                .populate(new AdjacencyMatrixUndirectedGraph<Integer>(), i -> i);
+        KruskalMSP<Integer> alg = new KruskalMSP<Integer>();
+        Set<GraphEdge<Integer>> expected = alg.computeMSP(large);
+        assertTrue(expected.size() == 379);
+        Set<GraphEdge<Integer>> smallTree = alg.computeMSP(small);
+        assertTrue(smallTree.size() == 19);
+        assertTrue(alg.computeMSP(large).equals(expected));
+        assertTrue(alg.computeMSP(small).equals(smallTree));
+    }
 }
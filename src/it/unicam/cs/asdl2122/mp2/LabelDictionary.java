@@ -0,0 +1,251 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Dizionario che associa a ogni etichetta distinta un identificativo intero
+ * nell'intervallo <code>[0, size() - 1]</code>, assegnato in ordine di
+ * inserimento. Serve per codificare una volta sola etichette come le stringhe
+ * in interi densi, da usare per esempio come indici dei nodi o come
+ * identificativi di un {@link IntGraph}, e per ritrovare l'identificativo di
+ * un'etichetta senza creare oggetti.
+ *
+ * La tabella è a indirizzamento aperto con scansione lineare e contiene solo
+ * gli identificativi; etichette e codici hash sono memorizzati una volta
+ * sola, in array indicizzati con l'identificativo. Il codice hash di ogni
+ * etichetta viene calcolato all'inserimento e conservato, quindi durante una
+ * ricerca equals viene chiamato solo sulle etichette con lo stesso codice.
+ *
+ * Quando un'etichetta viene eliminata gli identificativi successivi
+ * diminuiscono di uno, come gli indici dei nodi di un grafo quando viene
+ * cancellato un nodo: per questo i grafi del pacchetto associano i nodi ai
+ * loro indici con un dizionario, attraverso {@link NodeIndexMap}.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ *
+ * @param <L> il tipo delle etichette
+ */
+public final class LabelDictionary<L> {
+
+    /*
+     * Costante moltiplicativa per distribuire i codici hash nella tabella
+     */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    /*
+     * Etichetta e codice hash di ogni identificativo
+     */
+    private Object[] labels;
+    private int[] hashes;
+
+    /*
+     * Tabella: ogni posizione contiene l'identificativo più uno, zero se la
+     * posizione è libera
+     */
+    private int[] slots;
+
+    /*
+     * Numero di etichette
+     */
+    private int size;
+
+    /**
+     * Crea un dizionario vuoto.
+     */
+    public LabelDictionary() {
+        clear();
+    }
+
+    /**
+     * Restituisce il numero di etichette.
+     *
+     * @return il numero di etichette
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Elimina tutte le etichette.
+     */
+    public void clear() {
+        labels = new Object[8];
+        hashes = new int[8];
+        slots = new int[16];
+        size = 0;
+    }
+
+    /**
+     * Restituisce una copia indipendente del dizionario, con gli stessi
+     * identificativi.
+     *
+     * @return la copia
+     */
+    public LabelDictionary<L> copy() {
+        LabelDictionary<L> copy = new LabelDictionary<>();
+        copy.labels = labels.clone();
+        copy.hashes = hashes.clone();
+        copy.slots = slots.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Restituisce l'identificativo di un'etichetta, aggiungendola al
+     * dizionario con identificativo size() se non è presente.
+     *
+     * @param label l'etichetta
+     * @return l'identificativo dell'etichetta
+     *
+     * @throws NullPointerException se l'etichetta è null
+     */
+    public int intern(L label) {
+        int hash = hashOf(label);
+        int slot = find(label, hash);
+        if (slots[slot] != 0)
+            return slots[slot] - 1;
+
+        if (size == labels.length) {
+            labels = Arrays.copyOf(labels, 2 * size);
+            hashes = Arrays.copyOf(hashes, 2 * size);
+        }
+        labels[size] = label;
+        hashes[size] = hash;
+        // La tabella resta piena al più per metà
+        if (2 * (size + 1) > slots.length) {
+            rehash(2 * slots.length);
+            slot = find(label, hash);
+        }
+        slots[slot] = ++size;
+        return size - 1;
+    }
+
+    /**
+     * Restituisce l'identificativo di un'etichetta.
+     *
+     * @param label l'etichetta
+     * @return l'identificativo dell'etichetta, -1 se non è presente
+     *
+     * @throws NullPointerException se l'etichetta è null
+     */
+    public int indexOf(Object label) {
+        return slots[find(label, hashOf(label))] - 1;
+    }
+
+    /**
+     * Restituisce l'etichetta con l'identificativo dato.
+     *
+     * @param id l'identificativo
+     * @return l'etichetta
+     *
+     * @throws IndexOutOfBoundsException se l'identificativo è fuori
+     * dall'intervallo <code>[0, size() - 1]</code>
+     */
+    @SuppressWarnings("unchecked")
+    public L get(int id) {
+        indexCheck(id);
+
+        return (L) labels[id];
+    }
+
+    /**
+     * Elimina l'etichetta con l'identificativo dato. Gli identificativi
+     * maggiori diminuiscono di uno.
+     *
+     * @param id l'identificativo
+     *
+     * @throws IndexOutOfBoundsException se l'identificativo è fuori
+     * dall'intervallo <code>[0, size() - 1]</code>
+     */
+    public void remove(int id) {
+        indexCheck(id);
+
+        int mask = slots.length - 1;
+        int free = find(labels[id], hashes[id]);
+        for (int s = (free + 1) & mask; slots[s] != 0; s = (s + 1) & mask) {
+            int home = home(hashes[slots[s] - 1]);
+            // L'elemento si sposta se la posizione libera è tra la sua posizione iniziale e quella attuale
+            if (((s - home) & mask) >= ((s - free) & mask)) {
+                slots[free] = slots[s];
+                free = s;
+            }
+        }
+        slots[free] = 0;
+
+        System.arraycopy(labels, id + 1, labels, id, size - id - 1);
+        System.arraycopy(hashes, id + 1, hashes, id, size - id - 1);
+        labels[--size] = null;
+        // Rinumera sul posto gli identificativi successivi
+        for (int s = 0; s < slots.length; s++) {
+            if (slots[s] > id + 1)
+                slots[s]--;
+        }
+    }
+
+    /*
+     * Posizione dell'etichetta nella tabella, oppure la posizione libera in
+     * cui andrebbe inserita
+     */
+    private int find(Object label, int hash) {
+        int mask = slots.length - 1;
+        int s = home(hash);
+        while (slots[s] != 0) {
+            int id = slots[s] - 1;
+            if (hashes[id] == hash && labels[id].equals(label))
+                return s;
+            s = (s + 1) & mask;
+        }
+        return s;
+    }
+
+    /*
+     * Posizione iniziale nella tabella per un codice hash
+     */
+    private int home(int hash) {
+        return (hash * HASH_MULTIPLIER) >>> (Integer.numberOfLeadingZeros(slots.length) + 1);
+    }
+
+    /*
+     * Ricostruisce la tabella con la capacità data
+     */
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int s = home(hashes[id]);
+            while (slots[s] != 0) {
+                s = (s + 1) & mask;
+            }
+            slots[s] = id + 1;
+        }
+    }
+
+    /**
+     * Metodo di utilità che restituisce il codice hash di un'etichetta,
+     * lanciando una {@link NullPointerException} se l'etichetta è null
+     *
+     * @param label l'etichetta
+     * @return il codice hash dell'etichetta
+     *
+     * @throws NullPointerException se l'etichetta è null
+     */
+    private static int hashOf(Object label) {
+        if (label == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un'etichetta null");
+        return label.hashCode();
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'identificativo passato non è valido
+     *
+     * @param id l'identificativo da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'identificativo è fuori dai limiti dell'intervallo
+     * <code>[0, size() - 1]</code>
+     */
+    private void indexCheck(int id) {
+        if (id < 0 || id > size - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un identificativo non valido");
+    }
+}
@@ -0,0 +1,74 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe LabelDictionary.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class LabelDictionaryTest {
+
+    @Test
+    final void testInternAndIndexOf() {
+        LabelDictionary<String> d = new LabelDictionary<String>();
+        assertTrue(d.intern("a") == 0);
+        assertTrue(d.intern("b") == 1);
+        assertTrue(d.intern(new String("a")) == 0);
+        assertTrue(d.size() == 2);
+        assertTrue(d.indexOf("b") == 1);
+        assertTrue(d.indexOf("c") == -1);
+        assertTrue(d.get(1).equals("b"));
+        assertThrows(NullPointerException.class, () -> d.intern(null));
+        assertThrows(NullPointerException.class, () -> d.indexOf(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> d.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> d.remove(-1));
+        LabelDictionary<String> copy = d.copy();
+        d.remove(0);
+        assertTrue(d.indexOf("a") == -1);
+        assertTrue(d.indexOf("b") == 0);
+        assertTrue(copy.indexOf("a") == 0);
+        copy.intern("c");
+        assertTrue(d.indexOf("c") == -1);
+        d.clear();
+        assertTrue(d.size() == 0);
+        assertTrue(d.indexOf("b") == -1);
+    }
+
+    @Test
+    final void testSameAsList() {
+        // Etichette con molti codici hash uguali, confrontate con una lista
+        LabelDictionary<String> d = new LabelDictionary<String>();
+        List<String> expected = new ArrayList<String>();
+        SplittableRandom random = new SplittableRandom(9);
+        for (int step = 0; step < 20_000; step++) {
+            if (expected.size() > 0 && random.nextInt(3) == 0) {
+                int id = random.nextInt(expected.size());
+                d.remove(id);
+                expected.remove(id);
+            } else {
+                // "Aa" e "BB" hanno lo stesso codice hash
+                String label = (random.nextBoolean() ? "Aa" : "BB") + random.nextInt(500);
+                int id = d.intern(label);
+                if (!expected.contains(label))
+                    expected.add(label);
+                assertTrue(id == expected.indexOf(label));
+            }
+        }
+        assertTrue(d.size() == expected.size());
+        for (int id = 0; id < expected.size(); id++) {
+            assertTrue(d.get(id).equals(expected.get(id)));
+            assertTrue(d.indexOf(expected.get(id)) == id);
+        }
+        for (int k = 0; k < 500; k++) {
+            assertTrue(d.indexOf("Aa" + k) == expected.indexOf("Aa" + k));
+        }
+    }
+}
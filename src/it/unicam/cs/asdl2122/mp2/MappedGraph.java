@@ -0,0 +1,542 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Grafo non orientato in sola lettura caricato da un file di
+ * {@link GraphFile}. Le adiacenze e le etichette restano nel file mappato in
+ * memoria e vengono lette direttamente da lì: il caricamento non crea oggetti
+ * per i nodi o per gli archi e non occupa spazio nello heap.
+ *
+ * I nodi e gli archi restituiti dai metodi di {@link Graph} vengono creati a
+ * ogni richiesta, quindi due chiamate restituiscono oggetti uguali ma non
+ * identici, e i valori scritti nei loro campi (colore, distanza,
+ * predecessore) non vengono conservati dal grafo. I metodi basati sugli
+ * indici, come {@link #forEachNeighbour(int, NeighbourConsumer)},
+ * {@link #degree(int)} e {@link #getWeight(int, int)}, non creano oggetti.
+ *
+ * Le operazioni che modificano il grafo lanciano
+ * {@link UnsupportedOperationException}.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public final class MappedGraph extends Graph<String> implements IndexedAdjacency {
+
+    /*
+     * Numero di nodi e di archi
+     */
+    private final int nodeCount;
+    private final int edgeCount;
+
+    /*
+     * Adiacenze nel formato CSR, come in CompressedAdjacency
+     */
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+
+    /*
+     * Inizio di ogni etichetta in labels, con un elemento finale
+     */
+    private final IntBuffer labelOffsets;
+
+    /*
+     * Indici dei nodi in ordine di etichetta
+     */
+    private final IntBuffer labelOrder;
+
+    /*
+     * Le etichette codificate in UTF-8
+     */
+    private final ByteBuffer labels;
+
+    /**
+     * Crea il grafo a partire dalle sezioni mappate del file.
+     */
+    MappedGraph(int nodeCount, int edgeCount, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights,
+                IntBuffer labelOffsets, IntBuffer labelOrder, ByteBuffer labels) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.labelOffsets = labelOffsets;
+        this.labelOrder = labelOrder;
+        this.labels = labels;
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public void clear() {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public boolean addNode(GraphNode<String> node) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean addNode(String label) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeNode(GraphNode<String> node) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeNode(String label) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeNode(int i) {
+        throw readOnly();
+    }
+
+    @Override
+    public GraphNode<String> getNode(GraphNode<String> node) {
+        nullCheck(node);
+
+        return getNode(node.getLabel());
+    }
+
+    @Override
+    public GraphNode<String> getNode(String label) {
+        nullCheck(label);
+
+        int i = indexOf(label);
+        return i < 0 ? null : new GraphNode<>(label);
+    }
+
+    @Override
+    public GraphNode<String> getNode(int i) {
+        indexCheck(i);
+
+        return new GraphNode<>(getLabel(i));
+    }
+
+    @Override
+    public int getNodeIndexOf(GraphNode<String> node) {
+        nullCheck(node);
+
+        return getNodeIndexOf(node.getLabel());
+    }
+
+    @Override
+    public int getNodeIndexOf(String label) {
+        nullCheck(label);
+
+        int i = indexOf(label);
+        if (i < 0)
+            throw new IllegalArgumentException("Il nodo specificato non esiste");
+        return i;
+    }
+
+    @Override
+    public Set<GraphNode<String>> getNodes() {
+        Set<GraphNode<String>> nodes = new HashSet<>();
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(new GraphNode<>(getLabel(i)));
+        }
+        return nodes;
+    }
+
+    @Override
+    public GraphNode<String>[] getNodesByIndex() {
+        GraphNode<String>[] nodes = newNodeArray(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = new GraphNode<>(getLabel(i));
+        }
+        return nodes;
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<String> edge) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<String> node1, GraphNode<String> node2) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean addWeightedEdge(GraphNode<String> node1, GraphNode<String> node2, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean addEdge(String label1, String label2) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean addWeightedEdge(String label1, String label2, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean addEdge(int i, int j) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean addWeightedEdge(int i, int j, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeEdge(GraphEdge<String> edge) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeEdge(GraphNode<String> node1, GraphNode<String> node2) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeEdge(String label1, String label2) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeEdge(int i, int j) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setEdgeWeight(int i, int j, double weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public GraphEdge<String> getEdge(GraphEdge<String> edge) {
+        nullCheck(edge);
+
+        return getEdge(edge.getNode1().getLabel(), edge.getNode2().getLabel());
+    }
+
+    @Override
+    public GraphEdge<String> getEdge(GraphNode<String> node1, GraphNode<String> node2) {
+        nullCheck(node1);
+        nullCheck(node2);
+
+        return getEdge(node1.getLabel(), node2.getLabel());
+    }
+
+    @Override
+    public GraphEdge<String> getEdge(String label1, String label2) {
+        return getEdge(getNodeIndexOf(label1), getNodeIndexOf(label2));
+    }
+
+    @Override
+    public GraphEdge<String> getEdge(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        int k = find(i, j);
+        if (k < 0)
+            return null;
+        return new GraphEdge<>(new GraphNode<>(getLabel(i)), new GraphNode<>(getLabel(j)), false, weights.get(k));
+    }
+
+    /*
+     * Cerca l'arco nella riga senza creare nodi e archi
+     */
+    @Override
+    public boolean hasEdge(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return find(i, j) >= 0;
+    }
+
+    @Override
+    public Set<GraphNode<String>> getAdjacentNodesOf(GraphNode<String> node) {
+        return getAdjacentNodesOf(getNodeIndexOf(node));
+    }
+
+    @Override
+    public Set<GraphNode<String>> getAdjacentNodesOf(String label) {
+        return getAdjacentNodesOf(getNodeIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphNode<String>> getAdjacentNodesOf(int i) {
+        indexCheck(i);
+
+        Set<GraphNode<String>> nodes = new HashSet<>();
+        for (int k = offsets.get(i); k < offsets.get(i + 1); k++) {
+            nodes.add(new GraphNode<>(getLabel(targets.get(k))));
+        }
+        return nodes;
+    }
+
+    @Override
+    public Set<GraphNode<String>> getPredecessorNodesOf(GraphNode<String> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<String>> getPredecessorNodesOf(String label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<String>> getPredecessorNodesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<String>> getEdgesOf(GraphNode<String> node) {
+        return getEdgesOf(getNodeIndexOf(node));
+    }
+
+    @Override
+    public Set<GraphEdge<String>> getEdgesOf(String label) {
+        return getEdgesOf(getNodeIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphEdge<String>> getEdgesOf(int i) {
+        indexCheck(i);
+
+        GraphNode<String> node = new GraphNode<>(getLabel(i));
+        Set<GraphEdge<String>> edges = new HashSet<>();
+        for (int k = offsets.get(i); k < offsets.get(i + 1); k++) {
+            int j = targets.get(k);
+            GraphNode<String> other = j == i ? node : new GraphNode<>(getLabel(j));
+            edges.add(new GraphEdge<>(node, other, false, weights.get(k)));
+        }
+        return edges;
+    }
+
+    @Override
+    public Set<GraphEdge<String>> getIngoingEdgesOf(GraphNode<String> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<String>> getIngoingEdgesOf(String label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<String>> getIngoingEdgesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<String>> getEdges() {
+        GraphNode<String>[] nodes = getNodesByIndex();
+        Set<GraphEdge<String>> edges = new HashSet<>();
+        for (int i = 0; i < nodeCount; i++) {
+            // Ogni arco viene creato una sola volta, dalla riga dell'estremo minore
+            for (int k = offsets.get(i); k < offsets.get(i + 1); k++) {
+                int j = targets.get(k);
+                if (j >= i)
+                    edges.add(new GraphEdge<>(nodes[i], nodes[j], false, weights.get(k)));
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        indexCheck(i);
+        nullCheck(action);
+
+        for (int k = offsets.get(i); k < offsets.get(i + 1); k++) {
+            action.accept(targets.get(k), weights.get(k));
+        }
+    }
+
+    /**
+     * Restituisce il numero di vicini del nodo con indice dato, in cui un
+     * cappio conta una sola volta.
+     *
+     * @param i l'indice del nodo
+     * @return il numero di vicini del nodo
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public int degree(int i) {
+        indexCheck(i);
+
+        return offsets.get(i + 1) - offsets.get(i);
+    }
+
+    /**
+     * Restituisce il peso dell'arco tra i nodi con indici dati.
+     *
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @return il peso dell'arco, Double.NaN se l'arco non è pesato o non
+     *         esiste
+     *
+     * @throws IndexOutOfBoundsException se uno degli indici è fuori
+     * dall'intervallo <code>[0, nodeCount() - 1]</code>
+     */
+    @Override
+    public double getWeight(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        int k = find(i, j);
+        return k < 0 ? Double.NaN : weights.get(k);
+    }
+
+    /**
+     * Restituisce l'etichetta del nodo con indice dato.
+     *
+     * @param i l'indice del nodo
+     * @return l'etichetta del nodo
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public String getLabel(int i) {
+        indexCheck(i);
+
+        int start = labelOffsets.get(i);
+        byte[] bytes = new byte[labelOffsets.get(i + 1) - start];
+        labels.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cerca j nella riga i, che è ordinata.
+     *
+     * @param i l'indice della riga
+     * @param j l'indice del vicino da cercare
+     * @return la posizione di j nelle adiacenze, -1 se i e j non sono
+     *         collegati
+     */
+    private int find(int i, int j) {
+        int low = offsets.get(i);
+        int high = offsets.get(i + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int target = targets.get(middle);
+            if (target < j)
+                low = middle + 1;
+            else if (target > j)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return -1;
+    }
+
+    /**
+     * Cerca un'etichetta nel dizionario con una ricerca binaria sugli indici
+     * ordinati per etichetta.
+     *
+     * @param label l'etichetta da cercare
+     * @return l'indice del nodo con l'etichetta, -1 se non esiste
+     */
+    private int indexOf(String label) {
+        byte[] key = label.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = nodeCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int i = labelOrder.get(middle);
+            int comparison = compareLabel(i, key);
+            if (comparison < 0)
+                low = middle + 1;
+            else if (comparison > 0)
+                high = middle - 1;
+            else
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Confronta byte per byte, senza segno, l'etichetta di un nodo con una
+     * chiave codificata in UTF-8.
+     *
+     * @param i l'indice del nodo
+     * @param key la chiave
+     * @return un valore negativo, zero o positivo se l'etichetta precede, è
+     *         uguale o segue la chiave
+     */
+    private int compareLabel(int i, byte[] key) {
+        int start = labelOffsets.get(i);
+        int length = labelOffsets.get(i + 1) - start;
+        int common = Math.min(length, key.length);
+        for (int k = 0; k < common; k++) {
+            int comparison = Byte.compareUnsigned(labels.get(start + k), key[k]);
+            if (comparison != 0)
+                return comparison;
+        }
+        return length - key.length;
+    }
+
+    /**
+     * Metodo di utilità che crea l'eccezione lanciata dalle operazioni di
+     * modifica.
+     *
+     * @return l'eccezione da lanciare
+     */
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Impossibile modificare un grafo in sola lettura");
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param index l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti dell'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int index) {
+        if (index < 0 || index > nodeCount - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link NullPointerException} se l'oggetto passato è <code>null</code>
+     *
+     * @param o l'oggetto da controllare
+     *
+     * @throws NullPointerException se l'oggetto è <code>null</code>
+     */
+    private void nullCheck(Object o) {
+        if (o == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+    }
+}
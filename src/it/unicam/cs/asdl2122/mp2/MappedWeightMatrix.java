@@ -0,0 +1,326 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Matrice di adiacenza memorizzata fuori dallo heap, in un file mappato in
+ * memoria. È pensata per grafi densi troppo grandi per lo heap: le celle non
+ * vengono esaminate dal garbage collector, il sistema operativo tiene in
+ * memoria solo le pagine usate e un processo può riaprire il file e ritrovare
+ * subito la matrice con {@link #open(Path)}.
+ *
+ * Il file ha un'intestazione di {@link #HEADER_SIZE} byte, con
+ * {@link #MAGIC}, la versione, la capacità e il numero di nodi, seguita da
+ * capacità * capacità celle di 8 byte disposte per righe. Ogni cella contiene
+ * il complemento dei bit del peso, così una cella a zero, come quelle di un
+ * file appena esteso, indica un arco assente; il peso Double.NaN indica un
+ * arco senza peso. La capacità, cioè il numero massimo di nodi, è fissata
+ * alla creazione e il file occupa spazio su disco solo per le pagine
+ * effettivamente scritte, se il file system supporta i file sparsi.
+ *
+ * Il file viene mappato in segmenti di {@link MappedByteBuffer} da 1 GB,
+ * perché un singolo buffer non può superare i 2 GB. Le scritture diventano
+ * visibili agli altri processi subito e vengono salvate su disco dal sistema
+ * operativo, oppure con {@link #force()}.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public final class MappedWeightMatrix implements WeightMatrix {
+
+    /**
+     * I primi quattro byte di ogni file, "MP2W".
+     */
+    public static final int MAGIC = 0x4D503257;
+
+    /**
+     * La versione del formato scritta da questa classe.
+     */
+    public static final int VERSION = 1;
+
+    /*
+     * Lunghezza dell'intestazione in byte
+     */
+    static final int HEADER_SIZE = 64;
+
+    /*
+     * Ogni segmento contiene 2^SEGMENT_SHIFT celle, cioè 1 GB
+     */
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    /*
+     * Capacità massima, 2^48 celle
+     */
+    private static final int MAX_CAPACITY = 1 << 24;
+
+    /*
+     * Intestazione mappata, in cui viene aggiornato il numero di nodi
+     */
+    private final MappedByteBuffer header;
+
+    /*
+     * Segmenti consecutivi delle celle
+     */
+    private final MappedByteBuffer[] segments;
+
+    /*
+     * Numero massimo di nodi, che è anche la lunghezza di ogni riga
+     */
+    private final int capacity;
+
+    /*
+     * Numero di nodi
+     */
+    private int size;
+
+    private MappedWeightMatrix(MappedByteBuffer header, MappedByteBuffer[] segments, int capacity, int size) {
+        this.header = header;
+        this.segments = segments;
+        this.capacity = capacity;
+        this.size = size;
+    }
+
+    /**
+     * Crea una matrice vuota in un nuovo file, o sovrascrive il file se
+     * esiste.
+     *
+     * @param path il file della matrice
+     * @param capacity il numero massimo di nodi
+     * @return la matrice vuota
+     *
+     * @throws NullPointerException se il file è null
+     * @throws IllegalArgumentException se la capacità è negativa o troppo
+     * grande
+     * @throws IOException se si verifica un errore nella creazione del file
+     */
+    public static MappedWeightMatrix create(Path path, int capacity) throws IOException {
+        if (path == null)
+            throw new NullPointerException("Impossibile creare la matrice in un file nullo");
+        if (capacity < 0 || capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("Capacità della matrice non valida: " + capacity);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = mapHeader(channel);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, capacity);
+            header.putInt(12, 0);
+            return new MappedWeightMatrix(header, mapCells(channel, capacity), capacity, 0);
+        }
+    }
+
+    /**
+     * Riapre una matrice salvata in un file, con i nodi e gli archi che
+     * conteneva.
+     *
+     * @param path il file della matrice
+     * @return la matrice contenuta nel file
+     *
+     * @throws NullPointerException se il file è null
+     * @throws IOException se si verifica un errore di lettura o il file non
+     * contiene una matrice
+     */
+    public static MappedWeightMatrix open(Path path) throws IOException {
+        if (path == null)
+            throw new NullPointerException("Impossibile aprire la matrice da un file nullo");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException("Il file non contiene una matrice: " + path);
+            MappedByteBuffer header = mapHeader(channel);
+            if (header.getInt(0) != MAGIC)
+                throw new IOException("Il file non contiene una matrice: " + path);
+            if (header.getInt(4) != VERSION)
+                throw new IOException("Versione del formato non supportata: " + header.getInt(4));
+            int capacity = header.getInt(8);
+            int size = header.getInt(12);
+            if (capacity < 0 || capacity > MAX_CAPACITY || size < 0 || size > capacity)
+                throw new IOException("Intestazione non valida: " + path);
+            return new MappedWeightMatrix(header, mapCells(channel, capacity), capacity, size);
+        }
+    }
+
+    private static MappedByteBuffer mapHeader(FileChannel channel) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        return header;
+    }
+
+    /*
+     * Mappa le celle in segmenti, estendendo il file se necessario
+     */
+    private static MappedByteBuffer[] mapCells(FileChannel channel, int capacity) throws IOException {
+        long cells = (long) capacity * capacity;
+        int count = (int) ((cells + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        for (int s = 0; s < count; s++) {
+            long first = (long) s << SEGMENT_SHIFT;
+            long length = Math.min(cells - first, SEGMENT_MASK + 1) * Long.BYTES;
+            segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + first * Long.BYTES, length);
+            segments[s].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+
+    /**
+     * Restituisce il numero massimo di nodi della matrice.
+     *
+     * @return la capacità della matrice
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Salva su disco tutte le modifiche fatte alla matrice.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public int nodeCount() {
+        return size;
+    }
+
+    @Override
+    public void addNode() {
+        if (size == capacity)
+            throw new IllegalStateException("Impossibile aggiungere un nodo: la matrice ha capacità " + capacity);
+
+        // Le celle della nuova riga e colonna possono contenere archi di nodi
+        // cancellati, quindi vengono azzerate
+        for (int k = 0; k <= size; k++) {
+            write(cell(size, k), 0);
+            write(cell(k, size), 0);
+        }
+        resize(size + 1);
+    }
+
+    /*
+     * Sposta le celle in avanti nella matrice ridotta: ogni cella viene
+     * letta da una posizione che segue quella in cui viene scritta, quindi la
+     * copia può avvenire sul posto
+     */
+    @Override
+    public void removeNode(int i) {
+        indexCheck(i);
+
+        for (int r = 0; r < size - 1; r++) {
+            int sourceRow = r < i ? r : r + 1;
+            for (int c = 0; c < size - 1; c++) {
+                int sourceColumn = c < i ? c : c + 1;
+                if (sourceRow != r || sourceColumn != c)
+                    write(cell(r, c), read(cell(sourceRow, sourceColumn)));
+            }
+        }
+        resize(size - 1);
+    }
+
+    @Override
+    public void clear() {
+        resize(0);
+    }
+
+    @Override
+    public boolean contains(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return read(cell(i, j)) != 0;
+    }
+
+    @Override
+    public double getWeight(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return decode(read(cell(i, j)));
+    }
+
+    @Override
+    public void set(int i, int j, double weight) {
+        indexCheck(i);
+        indexCheck(j);
+
+        long value = ~Double.doubleToLongBits(weight);
+        write(cell(i, j), value);
+        write(cell(j, i), value);
+    }
+
+    @Override
+    public void remove(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        write(cell(i, j), 0);
+        write(cell(j, i), 0);
+    }
+
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        indexCheck(i);
+        if (action == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+
+        long row = cell(i, 0);
+        for (int j = 0; j < size; j++) {
+            long value = read(row + j);
+            if (value != 0)
+                action.accept(j, decode(value));
+        }
+    }
+
+    /*
+     * Aggiorna il numero di nodi, anche nell'intestazione del file
+     */
+    private void resize(int newSize) {
+        size = newSize;
+        header.putInt(12, newSize);
+    }
+
+    private long cell(int i, int j) {
+        return (long) i * capacity + j;
+    }
+
+    private long read(long cell) {
+        ByteBuffer segment = segments[(int) (cell >>> SEGMENT_SHIFT)];
+        return segment.getLong((int) (cell & SEGMENT_MASK) << 3);
+    }
+
+    private void write(long cell, long value) {
+        ByteBuffer segment = segments[(int) (cell >>> SEGMENT_SHIFT)];
+        segment.putLong((int) (cell & SEGMENT_MASK) << 3, value);
+    }
+
+    /*
+     * Ricava il peso da una cella, Double.NaN se la cella è vuota
+     */
+    private static double decode(long value) {
+        return value == 0 ? Double.NaN : Double.longBitsToDouble(~value);
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param index l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti dell'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int index) {
+        if (index < 0 || index > size - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+}
@@ -0,0 +1,103 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe MappedWeightMatrix.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class MappedWeightMatrixTest {
+
+    @Test
+    final void testCells() throws IOException {
+        Path path = Files.createTempFile("matrix", ".mp2w");
+        try {
+            MappedWeightMatrix m = MappedWeightMatrix.create(path, 4);
+            assertTrue(m.capacity() == 4);
+            assertTrue(m.nodeCount() == 0);
+            for (int k = 0; k < 4; k++) {
+                m.addNode();
+            }
+            assertThrows(IllegalStateException.class, () -> m.addNode());
+            m.set(0, 3, -0.0);
+            m.set(1, 2, Double.NaN);
+            m.set(2, 2, 7);
+            assertTrue(m.contains(3, 0));
+            assertTrue(Double.doubleToRawLongBits(m.getWeight(3, 0)) == Double.doubleToRawLongBits(-0.0));
+            assertTrue(m.contains(2, 1));
+            assertTrue(Double.isNaN(m.getWeight(2, 1)));
+            assertFalse(m.contains(0, 1));
+            assertTrue(Double.isNaN(m.getWeight(0, 1)));
+            assertThrows(IndexOutOfBoundsException.class, () -> m.contains(0, 4));
+
+            // Eliminando il nodo 1 gli indici 2 e 3 scalano
+            m.removeNode(1);
+            assertTrue(m.nodeCount() == 3);
+            assertTrue(m.getWeight(1, 1) == 7);
+            assertTrue(m.contains(0, 2));
+            assertFalse(m.contains(0, 1));
+            // Il nuovo nodo non eredita gli archi del vecchio nodo 3
+            m.addNode();
+            int[] count = {0};
+            m.forEachNeighbour(3, (j, w) -> count[0]++);
+            assertTrue(count[0] == 0);
+            m.remove(1, 1);
+            assertFalse(m.contains(1, 1));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    final void testReopen() throws IOException {
+        Path path = Files.createTempFile("matrix", ".mp2w");
+        try {
+            WeightMatrixUndirectedGraph<String> g = new WeightMatrixUndirectedGraph<String>(
+                    MappedWeightMatrix.create(path, 16));
+            g.addNode("a");
+            g.addNode("b");
+            g.addNode("c");
+            g.addWeightedEdge("a", "c", 1.5);
+            g.addEdge("b", "b");
+            MappedWeightMatrix m = MappedWeightMatrix.open(path);
+            assertTrue(m.capacity() == 16);
+            assertTrue(m.nodeCount() == 3);
+            Graph<String> reopened = new WeightMatrixUndirectedGraph<String>(m, Arrays.asList("a", "b", "c"));
+            assertTrue(reopened.edgeCount() == 2);
+            assertTrue(reopened.getEdges().equals(g.getEdges()));
+            assertTrue(reopened.getEdge("c", "a").getWeight() == 1.5);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    final void testExceptions() throws IOException {
+        Path path = Files.createTempFile("matrix", ".mp2w");
+        try {
+            assertThrows(NullPointerException.class, () -> MappedWeightMatrix.create(null, 4));
+            assertThrows(NullPointerException.class, () -> MappedWeightMatrix.open(null));
+            assertThrows(IllegalArgumentException.class, () -> MappedWeightMatrix.create(path, -1));
+            assertThrows(IOException.class, () -> MappedWeightMatrix.open(path));
+            Files.write(path, new byte[128]);
+            assertThrows(IOException.class, () -> MappedWeightMatrix.open(path));
+            MappedWeightMatrix m = MappedWeightMatrix.create(path, 2);
+            assertThrows(IndexOutOfBoundsException.class, () -> m.removeNode(0));
+            assertThrows(NullPointerException.class, () -> {
+                m.addNode();
+                m.forEachNeighbour(0, null);
+            });
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
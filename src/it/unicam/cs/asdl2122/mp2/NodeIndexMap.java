@@ -0,0 +1,108 @@
+package it.unicam.cs.asdl2122.mp2;
+
+/**
+ * Associazione tra i nodi di un grafo e i loro indici, pensata per sostituire
+ * una {@code HashMap<GraphNode<L>, Integer>}. Gli indici sono quelli dei
+ * grafi di questo pacchetto: vanno da 0 a size() - 1 in ordine di
+ * inserimento e, quando un nodo viene cancellato, quelli maggiori
+ * diminuiscono di uno.
+ *
+ * È un adattatore ai nodi di un {@link LabelDictionary}, che assegna
+ * esattamente questi identificativi alle etichette: il codice hash di un nodo
+ * è quello della sua etichetta e due nodi sono uguali se hanno etichette
+ * uguali, come in {@link GraphNode}, quindi un indice si può cercare anche
+ * direttamente con l'etichetta, senza creare un nodo.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ *
+ * @param <L> il tipo delle etichette dei nodi
+ */
+final class NodeIndexMap<L> {
+
+    /*
+     * Etichette dei nodi, con identificativo uguale all'indice
+     */
+    private final LabelDictionary<L> labels;
+
+    /**
+     * Crea un'associazione vuota.
+     */
+    NodeIndexMap() {
+        this(new LabelDictionary<>());
+    }
+
+    /*
+     * Crea un'associazione sulle etichette date
+     */
+    private NodeIndexMap(LabelDictionary<L> labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * Restituisce il numero di nodi.
+     *
+     * @return il numero di nodi
+     */
+    int size() {
+        return labels.size();
+    }
+
+    /**
+     * Elimina tutti i nodi.
+     */
+    void clear() {
+        labels.clear();
+    }
+
+    /**
+     * Restituisce una copia indipendente dell'associazione.
+     *
+     * @return la copia
+     */
+    NodeIndexMap<L> copy() {
+        return new NodeIndexMap<>(labels.copy());
+    }
+
+    /**
+     * Restituisce l'indice di un nodo.
+     *
+     * @param node il nodo
+     * @return l'indice del nodo, -1 se non è presente
+     */
+    int get(GraphNode<L> node) {
+        return labels.indexOf(node.getLabel());
+    }
+
+    /**
+     * Restituisce l'indice del nodo con l'etichetta data.
+     *
+     * @param label l'etichetta
+     * @return l'indice del nodo, -1 se non è presente
+     */
+    int indexOfLabel(Object label) {
+        return labels.indexOf(label);
+    }
+
+    /**
+     * Aggiunge un nodo non presente, che riceve l'indice size().
+     *
+     * @param node il nodo
+     * @return l'indice del nodo
+     */
+    int put(GraphNode<L> node) {
+        return labels.intern(node.getLabel());
+    }
+
+    /**
+     * Elimina un nodo; gli indici maggiori del suo diminuiscono di uno.
+     *
+     * @param node il nodo
+     * @return l'indice che aveva il nodo, -1 se non era presente
+     */
+    int remove(GraphNode<L> node) {
+        int index = get(node);
+        if (index >= 0)
+            labels.remove(index);
+        return index;
+    }
+}
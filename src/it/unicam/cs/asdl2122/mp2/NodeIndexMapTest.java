@@ -0,0 +1,66 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe NodeIndexMap.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class NodeIndexMapTest {
+
+    @Test
+    final void testGetPutRemove() {
+        NodeIndexMap<String> m = new NodeIndexMap<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        assertTrue(m.put(a) == 0);
+        assertTrue(m.put(new GraphNode<String>("b")) == 1);
+        assertTrue(m.size() == 2);
+        assertTrue(m.get(new GraphNode<String>("a")) == 0);
+        assertTrue(m.indexOfLabel("b") == 1);
+        assertTrue(m.indexOfLabel("c") == -1);
+        assertTrue(m.remove(new GraphNode<String>("c")) == -1);
+        NodeIndexMap<String> copy = m.copy();
+        assertTrue(m.remove(a) == 0);
+        assertTrue(m.indexOfLabel("b") == 0);
+        assertTrue(m.size() == 1);
+        // La copia non vede la cancellazione
+        assertTrue(copy.indexOfLabel("b") == 1);
+        assertTrue(copy.size() == 2);
+        m.clear();
+        assertTrue(m.indexOfLabel("b") == -1);
+    }
+
+    @Test
+    final void testSameAsList() {
+        // Cancellazioni e rinumerazioni casuali con molti codici hash uguali
+        NodeIndexMap<String> m = new NodeIndexMap<String>();
+        List<String> expected = new ArrayList<String>();
+        SplittableRandom random = new SplittableRandom(4);
+        for (int step = 0; step < 20_000; step++) {
+            if (expected.size() > 0 && random.nextInt(3) == 0) {
+                int index = random.nextInt(expected.size());
+                assertTrue(m.remove(new GraphNode<String>(expected.remove(index))) == index);
+            } else {
+                // "Aa" e "BB" hanno lo stesso codice hash
+                String label = (random.nextBoolean() ? "Aa" : "BB") + random.nextInt(500);
+                if (!expected.contains(label)) {
+                    assertTrue(m.put(new GraphNode<String>(label)) == expected.size());
+                    expected.add(label);
+                }
+            }
+        }
+        assertTrue(m.size() == expected.size());
+        for (int k = 0; k < 500; k++) {
+            assertTrue(m.indexOfLabel("Aa" + k) == expected.indexOf("Aa" + k));
+            assertTrue(m.get(new GraphNode<String>("BB" + k)) == expected.indexOf("BB" + k));
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Calcolatore delle componenti connesse di un grafo non orientato che usa più
+ * thread di un {@link ForkJoinPool}. Realizza l'algoritmo Afforest (Sutton,
+ * Ben-Nun, Barak, 2018), una variante di Shiloach-Vishkin basata su
+ * aggancio ("hooking") delle radici e compressione dei cammini ("pointer
+ * jumping") su un array condiviso di padri.
+ *
+ * Le adiacenze vengono prima copiate in una {@link CompressedAdjacency}.
+ * L'algoritmo collega ogni nodo ai suoi primi {@value #NEIGHBOUR_ROUNDS}
+ * vicini, stima su un campione di nodi quale sia la componente più grande e
+ * poi esamina i vicini rimanenti solo dei nodi che non ne fanno parte: nei
+ * grafi con una componente gigante la maggior parte degli archi non viene mai
+ * letta. Il collegamento fa sempre puntare la radice di indice maggiore a
+ * quella di indice minore tramite compareAndSet, quindi i thread non hanno
+ * bisogno di lock.
+ *
+ * Un'istanza non conserva stato tra un calcolo e l'altro e può essere usata
+ * da più thread contemporaneamente.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ *
+ * @param <L> il tipo delle etichette dei nodi del grafo
+ */
+public class ParallelConnectedComponentsComputer<L> {
+
+    /*
+     * Numero di vicini di ogni nodo esaminati prima del campionamento
+     */
+    private static final int NEIGHBOUR_ROUNDS = 2;
+
+    /*
+     * Numero di nodi campionati per stimare la componente più grande
+     */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /*
+     * Numero di nodi sotto il quale un intervallo viene elaborato senza
+     * dividerlo ulteriormente
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    /*
+     * Il pool in cui vengono eseguiti i calcoli
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea un calcolatore che usa il pool comune.
+     */
+    public ParallelConnectedComponentsComputer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un calcolatore che usa il pool dato.
+     *
+     * @param pool il pool in cui eseguire i calcoli
+     *
+     * @throws NullPointerException se il pool è null
+     */
+    public ParallelConnectedComponentsComputer(ForkJoinPool pool) {
+        if (pool == null)
+            throw new NullPointerException("Impossibile usare un pool nullo");
+
+        this.pool = pool;
+    }
+
+    /**
+     * Calcola le componenti connesse di un grafo non orientato.
+     *
+     * @param g un grafo non orientato
+     * @return un insieme di componenti connesse, ognuna rappresentata da un
+     *         insieme di nodi del grafo
+     *
+     * @throws NullPointerException se il grafo passato è nullo
+     * @throws IllegalArgumentException se il grafo passato è orientato
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     */
+    public Set<Set<GraphNode<L>>> computeConnectedComponents(Graph<L> g) {
+        return computeComponentLabelling(g).toComponentSets();
+    }
+
+    /**
+     * Calcola le componenti connesse di un grafo non orientato restituendo
+     * l'identificativo della componente di ogni nodo.
+     *
+     * @param g un grafo non orientato
+     * @return l'etichettatura delle componenti connesse di g
+     *
+     * @throws NullPointerException se il grafo passato è nullo
+     * @throws IllegalArgumentException se il grafo passato è orientato
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     */
+    public ConnectedComponentsLabelling<L> computeComponentLabelling(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo su un grafo nullo");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Impossibile eseguire l'algoritmo su un grafo orientato");
+
+        Graph<L> stable = GraphSnapshot.stable(g);
+        return computeComponentLabelling(CompressedAdjacency.of(stable), stable.getNodesByIndex());
+    }
+
+    /**
+     * Calcola le componenti connesse di un grafo dato dalle sue adiacenze
+     * compatte.
+     *
+     * @param adjacency le adiacenze del grafo
+     * @return l'etichettatura delle componenti connesse, senza nodi associati
+     *
+     * @throws NullPointerException se le adiacenze sono null
+     */
+    public ConnectedComponentsLabelling<L> computeComponentLabelling(CompressedAdjacency adjacency) {
+        if (adjacency == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo su adiacenze nulle");
+
+        return computeComponentLabelling(adjacency, null);
+    }
+
+    /**
+     * Esegue l'algoritmo Afforest sulle adiacenze date.
+     *
+     * @param adjacency le adiacenze del grafo
+     * @param nodes i nodi del grafo disposti per indice, oppure null
+     * @return l'etichettatura delle componenti connesse
+     */
+    private ConnectedComponentsLabelling<L> computeComponentLabelling(CompressedAdjacency adjacency,
+                                                                      GraphNode<L>[] nodes) {
+        int n = adjacency.nodeCount();
+        int[] offsets = adjacency.offsets;
+        int[] targets = adjacency.targets;
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+
+        forEach(n, v -> parent.set(v, v));
+
+        // Collega ogni nodo ai primi vicini, che bastano a unire quasi tutta la componente gigante
+        for (int r = 0; r < NEIGHBOUR_ROUNDS; r++) {
+            final int round = r;
+            forEach(n, v -> {
+                if (offsets[v] + round < offsets[v + 1])
+                    link(parent, v, targets[offsets[v] + round]);
+            });
+            forEach(n, v -> compress(parent, v));
+        }
+
+        // I nodi della componente più frequente nel campione non hanno bisogno di altri archi
+        int largest = sampleFrequentRoot(parent, n);
+        forEach(n, v -> {
+            if (parent.get(v) != largest) {
+                for (int k = offsets[v] + NEIGHBOUR_ROUNDS; k < offsets[v + 1]; k++) {
+                    link(parent, v, targets[k]);
+                }
+            }
+        });
+        forEach(n, v -> compress(parent, v));
+
+        /*
+            Ogni radice è il nodo di indice minimo della propria componente, quindi scandendo
+            i nodi in ordine crescente la radice di un nodo è sempre già stata numerata
+        */
+        int[] componentOf = new int[n];
+        int componentCount = 0;
+        for (int v = 0; v < n; v++) {
+            int root = parent.get(v);
+            componentOf[v] = root == v ? componentCount++ : componentOf[root];
+        }
+
+        return new ConnectedComponentsLabelling<>(componentOf, componentCount, nodes);
+    }
+
+    /**
+     * Unisce gli alberi che contengono i due nodi dati, facendo puntare la
+     * radice di indice maggiore a quella di indice minore. Se un altro thread
+     * modifica una delle radici nel frattempo il tentativo viene ripetuto
+     * risalendo di nuovo gli alberi.
+     *
+     * @param parent l'array condiviso dei padri
+     * @param u il primo nodo
+     * @param v il secondo nodo
+     */
+    private static void link(AtomicIntegerArray parent, int u, int v) {
+        int p1 = parent.get(u);
+        int p2 = parent.get(v);
+        while (p1 != p2) {
+            int high = Math.max(p1, p2);
+            int low = Math.min(p1, p2);
+            int highParent = parent.get(high);
+
+            // Già collegati, oppure high è una radice e viene agganciata a low
+            if (highParent == low || highParent == high && parent.compareAndSet(high, high, low))
+                return;
+
+            p1 = parent.get(highParent);
+            p2 = parent.get(low);
+        }
+    }
+
+    /**
+     * Comprime il cammino di un nodo facendolo puntare direttamente alla sua
+     * radice.
+     *
+     * @param parent l'array condiviso dei padri
+     * @param v il nodo da comprimere
+     */
+    private static void compress(AtomicIntegerArray parent, int v) {
+        int p = parent.get(v);
+        int grandParent = parent.get(p);
+        while (p != grandParent) {
+            parent.set(v, grandParent);
+            p = grandParent;
+            grandParent = parent.get(p);
+        }
+    }
+
+    /**
+     * Stima la radice più frequente esaminando un campione casuale di nodi.
+     *
+     * @param parent l'array dei padri, già compresso
+     * @param n il numero di nodi
+     * @return la radice più frequente nel campione, -1 se non ci sono nodi
+     */
+    private static int sampleFrequentRoot(AtomicIntegerArray parent, int n) {
+        if (n == 0)
+            return -1;
+
+        // Seme fisso: il risultato non dipende dal campione, solo il tempo di calcolo
+        SplittableRandom random = new SplittableRandom(n);
+        int[] sample = new int[Math.min(SAMPLE_SIZE, n)];
+        for (int k = 0; k < sample.length; k++) {
+            sample[k] = parent.get(random.nextInt(n));
+        }
+        Arrays.sort(sample);
+
+        int best = sample[0];
+        int bestCount = 0;
+        for (int start = 0, end; start < sample.length; start = end) {
+            end = start + 1;
+            while (end < sample.length && sample[end] == sample[start]) {
+                end++;
+            }
+            if (end - start > bestCount) {
+                best = sample[start];
+                bestCount = end - start;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Esegue un'azione per ogni nodo, dividendo l'intervallo degli indici tra
+     * i thread del pool, e attende che tutte le azioni siano terminate.
+     *
+     * @param n il numero di nodi
+     * @param action l'azione da eseguire sull'indice di ogni nodo
+     */
+    private void forEach(int n, IntConsumer action) {
+        if (n <= SEQUENTIAL_THRESHOLD) {
+            for (int v = 0; v < n; v++) {
+                action.accept(v);
+            }
+        } else {
+            pool.invoke(new RangeAction(0, n, action));
+        }
+    }
+
+    /*
+     * Azione che esegue un IntConsumer su un intervallo di indici, dividendolo
+     * a metà finché non è abbastanza piccolo
+     */
+    private static final class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        RangeAction(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int v = from; v < to; v++) {
+                    action.accept(v);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeAction(from, middle, action), new RangeAction(middle, to, action));
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe ParallelConnectedComponentsComputer.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class ParallelConnectedComponentsComputerTest {
+
+    @Test
+    final void testExceptionsAndTrivialCases() {
+        ParallelConnectedComponentsComputer<String> c = new ParallelConnectedComponentsComputer<String>();
+        assertThrows(NullPointerException.class,
+                () -> new ParallelConnectedComponentsComputer<String>(null));
+        assertThrows(NullPointerException.class,
+                () -> c.computeConnectedComponents(null));
+        assertThrows(NullPointerException.class,
+                () -> c.computeComponentLabelling((CompressedAdjacency) null));
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        assertTrue(c.computeConnectedComponents(g).isEmpty());
+        g.addNode("a");
+        assertTrue(c.computeComponentLabelling(g).getComponentCount() == 1);
+    }
+
+    @Test
+    final void testComputeConnectedComponents() {
+        ParallelConnectedComponentsComputer<String> c = new ParallelConnectedComponentsComputer<String>();
+        UndirectedGraphConnectedComponentsComputer<String> s = new UndirectedGraphConnectedComponentsComputer<String>();
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("a");
+        g.addNode("b");
+        g.addNode("c");
+        g.addNode("d");
+        g.addNode("e");
+        g.addNode("f");
+        g.addNode("g");
+        g.addEdge("a", "b");
+        g.addEdge("d", "b");
+        g.addEdge("c", "b");
+        g.addEdge("f", "e");
+        g.addEdge("g", "g");
+        assertTrue(c.computeConnectedComponents(g).equals(s.computeConnectedComponents(g)));
+        assertArrayEquals(new int[] {0, 0, 0, 0, 1, 1, 2},
+                c.computeComponentLabelling(g).toArray());
+        g.addEdge("g", "c");
+        g.addEdge("e", "a");
+        assertTrue(c.computeConnectedComponents(g).equals(s.computeConnectedComponents(g)));
+        assertTrue(c.computeComponentLabelling(g).getComponentCount() == 1);
+    }
+
+    @Test
+    final void testLargeRandomGraphs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelConnectedComponentsComputer<Integer> c = new ParallelConnectedComponentsComputer<Integer>(pool);
+            Random random = new Random(42);
+            int n = 100000;
+            // Grafi sotto e sopra la soglia di comparsa della componente gigante
+            for (int m : new int[] {n / 4, n / 2, n, 3 * n}) {
+                int[] sources = new int[m];
+                int[] destinations = new int[m];
+                double[] weights = new double[m];
+                IntDisjointSets expected = new IntDisjointSets(n);
+                for (int k = 0; k < m; k++) {
+                    sources[k] = random.nextInt(n);
+                    destinations[k] = random.nextInt(n);
+                    expected.union(sources[k], destinations[k]);
+                }
+                ConnectedComponentsLabelling<Integer> l = c.computeComponentLabelling(
+                        CompressedAdjacency.fromEdgeArrays(n, sources, destinations, weights, m));
+                for (int k = 0; k < 1000; k++) {
+                    int u = random.nextInt(n);
+                    int v = random.nextInt(n);
+                    assertEquals(expected.findSet(u) == expected.findSet(v), l.areConnected(u, v));
+                }
+                for (int k = 0; k < m; k++) {
+                    assertTrue(l.areConnected(sources[k], destinations[k]));
+                }
+                int roots = 0;
+                for (int v = 0; v < n; v++) {
+                    if (expected.findSet(v) == v)
+                        roots++;
+                }
+                assertEquals(roots, l.getComponentCount());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -2,9 +2,6 @@ package it.unicam.cs.asdl2122.mp2;
 
 //ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Classe singoletto che implementa l'algoritmo di Prim per trovare un Minimum
  * Spanning Tree di un grafo non orientato, pesato e con pesi non negativi.
@@ -14,8 +11,13 @@ import java.util.List;
  * le operazioni di inserimento, di estrazione del minimo, o di decremento della
  * priorità).
  * 
- * Si possono usare i colori dei nodi per registrare la scoperta e la visita
- * effettuata dei nodi.
+ * Lo stato del calcolo (chiavi, predecessori e nodi visitati) è memorizzato in
+ * un {@link SpanningTreeWorkspace} indicizzato con gli indici dei nodi, al
+ * posto della coda e dei campi dei nodi: la coda di min priorità è realizzata
+ * scandendo le chiavi dei nodi non ancora visitati. In questo modo i nodi del
+ * grafo non vengono modificati e più calcoli possono essere eseguiti
+ * contemporaneamente sullo stesso grafo. Il metodo
+ * {@link #computeMSP(Graph, GraphNode)} riporta poi il risultato nei nodi.
  * 
  * @author Luca Tesei (template)
  * Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it (implementazione)
@@ -26,18 +28,18 @@ import java.util.List;
 public class PrimMSP<L> {
 
     /*
-     * In particolare: si deve usare una coda con priorità che può semplicemente
-     * essere realizzata con una List<GraphNode<L>> e si deve mantenere un
-     * insieme dei nodi già visitati
+     * Stato di lavoro dei calcoli in corso, preso in prestito da ogni calcolo e
+     * restituito al termine
      */
-    List<GraphNode<L>> queue;
+    private final WorkspacePool<Relaxation<L>> pool;
 
     /**
-     * Crea un nuovo algoritmo e inizializza la coda di priorità con una coda
-     * vuota.
+     * Crea un nuovo algoritmo. L'algoritmo non conserva stato tra un calcolo e
+     * l'altro, quindi la stessa istanza può essere usata da più thread
+     * contemporaneamente.
      */
     public PrimMSP() {
-        queue = new ArrayList<>();
+        this.pool = new WorkspacePool<>(Relaxation::new);
     }
 
     /**
@@ -56,66 +58,165 @@ public class PrimMSP<L> {
      * @throws IllegalArgumentException se il nodo sorgente s non esiste in g
      * @throws IllegalArgumentException se il grafo g è orientato, non pesato o
      * con pesi negativi
+     * @throws UnsupportedOperationException se il grafo g è una
+     * {@link GraphSnapshot}, i cui nodi sono condivisi con il grafo originale e
+     * con le altre fotografie: su una fotografia va usato
+     * {@link #computeSpanningTree(Graph, GraphNode)}
      */
     public void computeMSP(Graph<L> g, GraphNode<L> s) {
-        if (g == null || s == null)
-            throw new NullPointerException("Impossibile eseguire l'algoritmo con parametri nulli");
-        if (g.isDirected())
-            throw new IllegalArgumentException("Impossibile eseguire l'algoritmo su un grafo orientato");
+        if (g instanceof GraphSnapshot)
+            throw new UnsupportedOperationException(
+                    "Impossibile modificare i nodi di una fotografia del grafo, usare computeSpanningTree");
 
-        for (GraphEdge<L> edge : g.getEdges()) {
-            if (!edge.hasWeight() || edge.getWeight() < 0)
-                throw new IllegalArgumentException(
-                        "Impossibile eseguire l'algoritmo su un grafo con pesi negativi o assenti");
+        Relaxation<L> relaxation = pool.acquire();
+        try {
+            compute(g, s, relaxation.ownWorkspace, relaxation).copyToNodes();
+        } finally {
+            relaxation.ownWorkspace.trim(WorkspacePool.RETAINED_CAPACITY);
+            pool.release(relaxation);
         }
+    }
 
-        GraphNode<L> root = g.getNode(s);
-        if (root == null)
-            throw new IllegalArgumentException("Il nodo specificato non esiste nel grafo");
+    /**
+     * Utilizza l'algoritmo goloso di Prim per trovare un albero di copertura
+     * minimo in un grafo non orientato e pesato, con pesi degli archi non
+     * negativi, senza modificare i nodi del grafo. Il risultato è restituito
+     * in un nuovo workspace.
+     *
+     * @param g un grafo non orientato, pesato, con pesi non negativi
+     * @param s il nodo del grafo g sorgente, che sarà la radice dell'albero
+     * @return il workspace che contiene l'albero calcolato
+     *
+     * @throws NullPointerException se il grafo g o il nodo sorgente s sono nulli
+     * @throws IllegalArgumentException se il nodo sorgente s non esiste in g
+     * @throws IllegalArgumentException se il grafo g è orientato, non pesato o
+     * con pesi negativi
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     */
+    public SpanningTreeWorkspace<L> computeSpanningTree(Graph<L> g, GraphNode<L> s) {
+        return computeSpanningTree(g, s, new SpanningTreeWorkspace<>());
+    }
 
-        // Inizializza i nodi mettendo la distanza ad infinito e togliendo il predecessore
-        for (GraphNode<L> node : g.getNodes()) {
-            node.setFloatingPointDistance(Double.POSITIVE_INFINITY);
-            node.setPrevious(null);
+    /**
+     * Utilizza l'algoritmo goloso di Prim per trovare un albero di copertura
+     * minimo in un grafo non orientato e pesato, con pesi degli archi non
+     * negativi, senza modificare i nodi del grafo. Il risultato è scritto nel
+     * workspace passato, sostituendo quello di un eventuale calcolo precedente.
+     *
+     * I nodi non raggiungibili dalla sorgente vengono comunque visitati, in
+     * ordine di indice, e formano ulteriori alberi senza predecessore alla
+     * radice, come nella versione che lavora sui nodi.
+     *
+     * @param g un grafo non orientato, pesato, con pesi non negativi
+     * @param s il nodo del grafo g sorgente, che sarà la radice dell'albero
+     * @param workspace il workspace in cui scrivere il risultato
+     * @return il workspace passato
+     *
+     * @throws NullPointerException se il grafo g, il nodo sorgente s o il
+     * workspace sono nulli
+     * @throws IllegalArgumentException se il nodo sorgente s non esiste in g
+     * @throws IllegalArgumentException se il grafo g è orientato, non pesato o
+     * con pesi negativi
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     */
+    public SpanningTreeWorkspace<L> computeSpanningTree(Graph<L> g, GraphNode<L> s,
+                                                        SpanningTreeWorkspace<L> workspace) {
+        if (workspace == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo con parametri nulli");
+
+        Relaxation<L> relaxation = pool.acquire();
+        try {
+            return compute(g, s, workspace, relaxation);
+        } finally {
+            pool.release(relaxation);
         }
-        root.setFloatingPointDistance(0);
-
-        queue.addAll(g.getNodes());
-        while (!queue.isEmpty()) {
-            GraphNode<L> minNode = extractMinNode();
-
-            for (GraphNode<L> node : g.getAdjacentNodesOf(minNode)) {
-                GraphEdge<L> edge = g.getEdge(minNode, node);
-
-                // Se l'arco ha peso minore della distanza associata al nodo, allora
-                // il predecessore e la distanza vanno aggiornati
-                if (queue.contains(node) &&
-                        edge.getWeight() < node.getFloatingPointDistance()) {
-                    node.setPrevious(minNode);
-                    node.setFloatingPointDistance(edge.getWeight());
-                }
+    }
+
+    /**
+     * Esegue l'algoritmo scrivendo il risultato nel workspace dato.
+     *
+     * @param graph un grafo non orientato, pesato, con pesi non negativi
+     * @param s il nodo del grafo sorgente
+     * @param workspace il workspace in cui scrivere il risultato
+     * @param relaxation l'azione sui vicini presa in prestito per questo calcolo
+     * @return il workspace passato
+     */
+    private SpanningTreeWorkspace<L> compute(Graph<L> graph, GraphNode<L> s, SpanningTreeWorkspace<L> workspace,
+                                             Relaxation<L> relaxation) {
+        if (graph == null || s == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo con parametri nulli");
+        if (graph.isDirected())
+            throw new IllegalArgumentException("Impossibile eseguire l'algoritmo su un grafo orientato");
+
+        Graph<L> g = GraphSnapshot.stable(graph);
+
+        // Lancia IllegalArgumentException se il nodo non esiste, senza scandire i nodi
+        int root = g.getNodeIndexOf(s);
+
+        IndexedAdjacency adjacency = g instanceof IndexedAdjacency
+                ? (IndexedAdjacency) g
+                : CompressedAdjacency.of(g);
+        workspace.reset(g.nodeCount(), g, root);
+
+        relaxation.workspace = workspace;
+        try {
+            for (int extracted = 0; extracted < workspace.nodeCount(); extracted++) {
+                relaxation.current = extractMinNode(workspace);
+                adjacency.forEachNeighbour(relaxation.current, relaxation);
             }
-            minNode.setColor(GraphNode.COLOR_BLACK);
+        } finally {
+            relaxation.workspace = null;
         }
+        return workspace;
     }
 
     /**
-     * Rimuove da <code>queue</code> il nodo con la distanza minore e lo restituisce
+     * Marca come visitato il nodo non ancora visitato con la chiave minore e
+     * ne restituisce l'indice. A parità di chiave viene scelto il nodo di
+     * indice minore.
      *
-     * @return il nodo con distanza minore presente in <code>queue</code>
+     * @param workspace il workspace del calcolo
+     * @return l'indice del nodo non visitato con chiave minore
+     */
+    private int extractMinNode(SpanningTreeWorkspace<L> workspace) {
+        double[] key = workspace.key;
+        boolean[] visited = workspace.visited;
+        int min = -1;
+
+        for (int i = 0; i < workspace.nodeCount(); i++) {
+            if (!visited[i] && (min == -1 || key[i] < key[min]))
+                min = i;
+        }
+        visited[min] = true;
+        return min;
+    }
+
+    /*
+     * Azione eseguita sui vicini del nodo appena estratto: controlla il peso
+     * dell'arco e, se il vicino non è ancora visitato e l'arco è più leggero
+     * della sua chiave, aggiorna chiave e predecessore. Viene conservata nel
+     * pool insieme a un workspace usato dai calcoli che non restituiscono il
+     * workspace al chiamante
      */
-    private GraphNode<L> extractMinNode() {
-        GraphNode<L> min = queue.get(0);
-        int minIndex = 0;
+    private static final class Relaxation<L> implements IndexedAdjacency.NeighbourConsumer {
 
-        for (int i = 1; i < queue.size(); i++) {
-            GraphNode<L> node = queue.get(i);
+        final SpanningTreeWorkspace<L> ownWorkspace = new SpanningTreeWorkspace<>();
+        SpanningTreeWorkspace<L> workspace;
+        int current;
+
+        @Override
+        public void accept(int neighbour, double weight) {
+            // La negazione scarta anche i pesi Double.NaN, cioè gli archi non pesati
+            if (!(weight >= 0))
+                throw new IllegalArgumentException(
+                        "Impossibile eseguire l'algoritmo su un grafo con pesi negativi o assenti");
 
-            if (node.getFloatingPointDistance() < min.getFloatingPointDistance()) {
-                min = node;
-                minIndex = i;
+            if (!workspace.visited[neighbour] && weight < workspace.key[neighbour]) {
+                workspace.key[neighbour] = weight;
+                workspace.parent[neighbour] = current;
             }
         }
-        return queue.remove(minIndex);
     }
 }
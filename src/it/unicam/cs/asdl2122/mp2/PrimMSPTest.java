@@ -2,6 +2,8 @@ package it.unicam.cs.asdl2122.mp2;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -302,4 +304,83 @@ class PrimMSPTest {
         assertTrue(c.getFloatingPointDistance() == Double.POSITIVE_INFINITY);
         assertTrue(c.getColor() == GraphNode.COLOR_BLACK);
     }
+
+    @Test
+    final void testComputeSpanningTree() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        PrimMSP<String> alg = new PrimMSP<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 2));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        assertThrows(NullPointerException.class,
+                () -> alg.computeSpanningTree(gr, a, null));
+        SpanningTreeWorkspace<String> w = alg.computeSpanningTree(gr, c);
+        assertTrue(w.getRoot() == 2);
+        assertTrue(w.getParent(2) == SpanningTreeWorkspace.NO_PARENT);
+        assertTrue(w.getParent(0) == 1);
+        assertTrue(w.getParent(1) == 2);
+        assertTrue(w.getParent(3) == 1);
+        assertTrue(w.getParentNode(3) == b);
+        assertTrue(w.getKey(1) == 3);
+        assertTrue(w.isVisited(0));
+        assertTrue(w.getTotalWeight() == 6);
+        // I nodi del grafo non vengono modificati
+        assertTrue(a.getPrevious() == null);
+        assertTrue(d.getColor() == GraphNode.COLOR_WHITE);
+        // Lo stesso workspace viene riutilizzato per un nuovo calcolo
+        assertTrue(alg.computeSpanningTree(gr, a, w) == w);
+        assertTrue(w.getParent(1) == 0);
+        assertTrue(w.getParent(2) == 1);
+        w.copyToNodes();
+        assertTrue(c.getPrevious() == b);
+        assertTrue(c.getFloatingPointDistance() == 3);
+        assertTrue(d.getColor() == GraphNode.COLOR_BLACK);
+        assertThrows(IndexOutOfBoundsException.class, () -> w.getKey(4));
+    }
+
+    @Test
+    final void testSpanningTreeWorkspaceTrim() {
+        Graph<Integer> gr = GraphGenerator.complete(10, 3)
+                .populate(new AdjacencyMatrixUndirectedGraph<Integer>(), i -> i);
+        PrimMSP<Integer> alg = new PrimMSP<Integer>();
+        SpanningTreeWorkspace<Integer> w = alg.computeSpanningTree(gr, gr.getNode(0));
+        double expected = w.getTotalWeight();
+        // Gli array che non superano la capacità vengono conservati
+        w.trim(10);
+        assertTrue(w.key.length == 10 && w.nodeCount() == 0);
+        // Quelli più grandi vengono liberati
+        w.trim(9);
+        assertTrue(w.key.length == 0 && w.parent.length == 0 && w.visited.length == 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> w.getKey(0));
+        assertTrue(alg.computeSpanningTree(gr, gr.getNode(0), w).getTotalWeight() == expected);
+    }
+
+    @Test
+    final void testConcurrentComputeSpanningTree() throws InterruptedException {
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 60;
+        Random random = new Random(7);
+        for (int i = 0; i < n; i++) {
+            gr.addNode(i);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                gr.addWeightedEdge(i, j, random.nextInt(1000));
+            }
+        }
+        PrimMSP<Integer> alg = new PrimMSP<Integer>();
+        double expected = alg.computeSpanningTree(gr, gr.getNode(0)).getTotalWeight();
+        assertTrue(ConcurrentRuns.allPass(8, 20,
+                root -> alg.computeSpanningTree(gr, gr.getNode(root)).getTotalWeight() == expected));
+    }
 }
@@ -0,0 +1,270 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Stato di un calcolo di albero di copertura minimo, memorizzato in array
+ * indicizzati con gli indici dei nodi del grafo invece che nei campi dei nodi.
+ * Per ogni nodo vengono mantenuti la chiave (il peso dell'arco più leggero che
+ * lo collega all'albero), l'indice del predecessore nell'albero e se il nodo è
+ * già stato visitato.
+ *
+ * Visto che i nodi del grafo non vengono modificati, più calcoli possono
+ * lavorare contemporaneamente sullo stesso grafo, ognuno con il proprio
+ * workspace. Lo stesso workspace può essere riutilizzato per calcoli
+ * successivi: gli array vengono riallocati solo se il grafo ha più nodi di
+ * quanti ne possono contenere. Il metodo {@link #copyToNodes()} riporta il
+ * risultato nei campi dei nodi, come farebbe la versione originale
+ * dell'algoritmo.
+ *
+ * Gli indici sono quelli del grafo al momento del calcolo: i metodi che
+ * restituiscono nodi li risolvono sul grafo, quindi vanno usati prima di
+ * aggiungere o togliere nodi.
+ *
+ * Un workspace non può essere usato da più thread contemporaneamente.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ *
+ * @param <L> il tipo delle etichette dei nodi del grafo
+ */
+public class SpanningTreeWorkspace<L> {
+
+    /**
+     * Valore del predecessore di un nodo che non ne ha, come la radice.
+     */
+    public static final int NO_PARENT = -1;
+
+    /*
+     * Chiave di ogni nodo, cioè il peso dell'arco che lo collega al
+     * predecessore, infinito se il nodo non è mai stato raggiunto
+     */
+    double[] key;
+
+    /*
+     * Indice del predecessore di ogni nodo, NO_PARENT se non c'è
+     */
+    int[] parent;
+
+    /*
+     * Indica se ogni nodo è già stato estratto dalla coda
+     */
+    boolean[] visited;
+
+    /*
+     * Il grafo dell'ultimo calcolo, usato solo per risalire ai nodi a partire
+     * dagli indici. Può essere null se il calcolo è stato fatto su una
+     * struttura senza nodi
+     */
+    private Graph<L> graph;
+
+    /*
+     * Numero di nodi del calcolo corrente, può essere minore della lunghezza
+     * degli array
+     */
+    private int nodeCount;
+
+    /*
+     * Indice della radice del calcolo corrente
+     */
+    private int root;
+
+    /**
+     * Crea un workspace vuoto, che verrà dimensionato dal primo calcolo.
+     */
+    public SpanningTreeWorkspace() {
+        this.key = new double[0];
+        this.parent = new int[0];
+        this.visited = new boolean[0];
+        this.root = NO_PARENT;
+    }
+
+    /**
+     * Prepara il workspace per un nuovo calcolo: tutte le chiavi diventano
+     * infinite, nessun nodo ha predecessore e nessun nodo è visitato, tranne
+     * la radice che ha chiave zero.
+     *
+     * @param nodeCount il numero di nodi del grafo
+     * @param graph il grafo su cui viene fatto il calcolo, oppure null
+     * @param root l'indice della radice
+     */
+    void reset(int nodeCount, Graph<L> graph, int root) {
+        if (key.length < nodeCount) {
+            key = new double[nodeCount];
+            parent = new int[nodeCount];
+            visited = new boolean[nodeCount];
+        }
+        Arrays.fill(key, 0, nodeCount, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, 0, nodeCount, NO_PARENT);
+        Arrays.fill(visited, 0, nodeCount, false);
+        key[root] = 0;
+
+        this.nodeCount = nodeCount;
+        this.graph = graph;
+        this.root = root;
+    }
+
+    /**
+     * Dimentica il grafo dell'ultimo calcolo e libera gli array se possono
+     * contenere più nodi della capacità data, in modo che un workspace
+     * conservato in un pool non mantenga in memoria né il grafo né gli array
+     * del calcolo più grande che ha eseguito.
+     *
+     * @param capacity il numero massimo di nodi per cui conservare gli array
+     */
+    void trim(int capacity) {
+        if (key.length > capacity) {
+            key = new double[0];
+            parent = new int[0];
+            visited = new boolean[0];
+        }
+        this.graph = null;
+        this.nodeCount = 0;
+        this.root = NO_PARENT;
+    }
+
+    /**
+     * Restituisce il numero di nodi del calcolo corrente.
+     *
+     * @return il numero di nodi del grafo su cui è stato fatto l'ultimo calcolo
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Restituisce l'indice della radice dell'albero calcolato.
+     *
+     * @return l'indice del nodo sorgente dell'ultimo calcolo, {@link #NO_PARENT}
+     *         se non è stato fatto nessun calcolo
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * Restituisce la chiave del nodo con indice dato, cioè il peso dell'arco
+     * che lo collega al suo predecessore nell'albero.
+     *
+     * @param i l'indice del nodo
+     * @return la chiave del nodo, zero per la radice e infinito per un nodo
+     *         senza predecessore
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public double getKey(int i) {
+        indexCheck(i);
+
+        return key[i];
+    }
+
+    /**
+     * Restituisce l'indice del predecessore del nodo con indice dato
+     * nell'albero calcolato.
+     *
+     * @param i l'indice del nodo
+     * @return l'indice del predecessore, {@link #NO_PARENT} se il nodo non ne ha
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public int getParent(int i) {
+        indexCheck(i);
+
+        return parent[i];
+    }
+
+    /**
+     * Restituisce il predecessore del nodo con indice dato nell'albero
+     * calcolato.
+     *
+     * @param i l'indice del nodo
+     * @return il nodo predecessore, null se il nodo non ne ha
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     * @throws UnsupportedOperationException se il calcolo non è stato fatto su
+     * un grafo di cui sono noti i nodi
+     */
+    public GraphNode<L> getParentNode(int i) {
+        indexCheck(i);
+        nodesCheck();
+
+        return parent[i] == NO_PARENT ? null : graph.getNode(parent[i]);
+    }
+
+    /**
+     * Determina se il nodo con indice dato è stato visitato dall'algoritmo.
+     *
+     * @param i l'indice del nodo
+     * @return true se il nodo è stato visitato, false altrimenti
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    public boolean isVisited(int i) {
+        indexCheck(i);
+
+        return visited[i];
+    }
+
+    /**
+     * Restituisce il peso totale degli archi dell'albero calcolato.
+     *
+     * @return la somma delle chiavi dei nodi che hanno un predecessore
+     */
+    public double getTotalWeight() {
+        double total = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if (parent[i] != NO_PARENT)
+                total += key[i];
+        }
+        return total;
+    }
+
+    /**
+     * Riporta il risultato dell'ultimo calcolo nei nodi del grafo: la chiave
+     * diventa la distanza, il predecessore diventa il campo previous e i nodi
+     * visitati diventano neri.
+     *
+     * @throws UnsupportedOperationException se il calcolo non è stato fatto su
+     * un grafo di cui sono noti i nodi
+     */
+    public void copyToNodes() {
+        nodesCheck();
+
+        GraphNode<L>[] nodes = graph.getNodesByIndex();
+        for (int i = 0; i < nodeCount; i++) {
+            GraphNode<L> node = nodes[i];
+            node.setFloatingPointDistance(key[i]);
+            node.setPrevious(parent[i] == NO_PARENT ? null : nodes[parent[i]]);
+            if (visited[i])
+                node.setColor(GraphNode.COLOR_BLACK);
+        }
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param i l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti
+     * dell'intervallo <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int i) {
+        if (i < 0 || i >= nodeCount)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link UnsupportedOperationException}
+     * se i nodi del grafo non sono disponibili
+     *
+     * @throws UnsupportedOperationException se i nodi non sono disponibili
+     */
+    private void nodesCheck() {
+        if (graph == null)
+            throw new UnsupportedOperationException("I nodi del grafo non sono disponibili");
+    }
+}
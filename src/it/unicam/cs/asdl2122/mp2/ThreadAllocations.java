@@ -0,0 +1,104 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Accesso al contatore dei byte allocati dal thread corrente, usato dai test
+ * sulle allocazioni e dai benchmark. La Java SE non definisce questo
+ * contatore: alcune JVM lo offrono con un'estensione dell'interfaccia
+ * {@link ThreadMXBean}, che qui viene cercata per riflessione senza
+ * dipendere dal pacchetto che la definisce. Se la JVM non la offre, o non
+ * permette di attivare il conteggio, {@link #isSupported()} restituisce
+ * false e {@link #allocatedBytes()} restituisce {@link #NOT_AVAILABLE}.
+ *
+ * Il metodo trovato viene chiamato con un {@link MethodHandle} che riceve e
+ * restituisce valori primitivi, e viene già eseguito una volta durante
+ * l'inizializzazione: una lettura del contatore non alloca memoria, quindi
+ * non altera le misure di cui fa parte.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+final class ThreadAllocations {
+
+    /**
+     * Valore restituito quando la JVM non permette di misurare le
+     * allocazioni
+     */
+    static final long NOT_AVAILABLE = -1;
+
+    /*
+     * Nome dell'estensione di ThreadMXBean che offre il contatore
+     */
+    private static final String EXTENSION = "com.sun.management.ThreadMXBean";
+
+    /*
+     * Il bean dei thread e il metodo che legge il contatore, null se il
+     * contatore non è disponibile
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final MethodHandle ALLOCATED_BYTES = allocatedBytesHandle();
+
+    private ThreadAllocations() {
+    }
+
+    /**
+     * Indica se la JVM permette di misurare i byte allocati dai thread.
+     *
+     * @return true se il contatore è disponibile e attivo
+     */
+    static boolean isSupported() {
+        return ALLOCATED_BYTES != null;
+    }
+
+    /**
+     * Restituisce i byte allocati finora dal thread corrente.
+     *
+     * @return i byte allocati, {@link #NOT_AVAILABLE} se la JVM non permette
+     *         di misurarli
+     */
+    static long allocatedBytes() {
+        if (ALLOCATED_BYTES == null)
+            return NOT_AVAILABLE;
+        return read(ALLOCATED_BYTES);
+    }
+
+    /*
+     * Legge il contatore del thread corrente con il metodo dato
+     */
+    private static long read(MethodHandle allocatedBytes) {
+        try {
+            return (long) allocatedBytes.invokeExact(THREADS, Thread.currentThread().getId());
+        } catch (Throwable e) {
+            return NOT_AVAILABLE;
+        }
+    }
+
+    /*
+     * Cerca il metodo che legge il contatore e attiva il conteggio, null se
+     * non è possibile
+     */
+    private static MethodHandle allocatedBytesHandle() {
+        try {
+            Class<?> extension = Class.forName(EXTENSION);
+            if (!extension.isInstance(THREADS))
+                return null;
+            if (!(Boolean) extension.getMethod("isThreadAllocatedMemorySupported").invoke(THREADS))
+                return null;
+            extension.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(THREADS, true);
+            MethodHandle handle = MethodHandles.publicLookup()
+                    .unreflect(extension.getMethod("getThreadAllocatedBytes", long.class))
+                    .asType(MethodType.methodType(long.class, ThreadMXBean.class, long.class));
+            // La prima chiamata prepara l'invocazione, allocando memoria
+            return read(handle) < 0 ? null : handle;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // Estensione assente o non accessibile
+            return null;
+        }
+    }
+}
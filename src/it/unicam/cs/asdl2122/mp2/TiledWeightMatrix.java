@@ -0,0 +1,335 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Matrice di adiacenza simmetrica memorizzata a blocchi (tile) di
+ * {@link #TILE_SIZE} * {@link #TILE_SIZE} celle in un unico array. Ogni blocco
+ * occupa una zona contigua di memoria e i blocchi sono disposti per righe di
+ * blocchi, quindi un algoritmo che lavora su un blocco alla volta, come la
+ * versione a blocchi di Floyd-Warshall in {@link #shortestPathLengths()},
+ * riusa le stesse linee di cache invece di saltare tra righe diverse.
+ *
+ * La scansione di una riga, con {@link #forEachNeighbour}, legge
+ * {@link #TILE_SIZE} celle contigue per ogni blocco attraversato; i blocchi si
+ * leggono con {@link #copyTile(int, int, double[])}. Come in
+ * {@link TriangularWeightMatrix} ogni cella contiene il complemento dei bit
+ * del peso e una cella a zero indica un arco assente; le celle (i, j) e
+ * (j, i) vengono scritte entrambe.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public class TiledWeightMatrix implements WeightMatrix {
+
+    /**
+     * Il lato di un blocco.
+     */
+    public static final int TILE_SIZE = 64;
+
+    /*
+     * Logaritmo di TILE_SIZE e celle di un blocco
+     */
+    private static final int SHIFT = 6;
+    private static final int TILE_CELLS = TILE_SIZE * TILE_SIZE;
+
+    /*
+     * Le celle, blocco per blocco
+     */
+    private long[] cells;
+
+    /*
+     * Numero di blocchi per lato
+     */
+    private int tiles;
+
+    /*
+     * Numero di nodi
+     */
+    private int size;
+
+    /**
+     * Crea una matrice vuota.
+     */
+    public TiledWeightMatrix() {
+        this.cells = new long[0];
+    }
+
+    @Override
+    public int nodeCount() {
+        return size;
+    }
+
+    /**
+     * Restituisce il numero di blocchi per lato, cioè il numero di blocchi
+     * necessari a coprire nodeCount() righe.
+     *
+     * @return il numero di blocchi per lato occupati dai nodi
+     */
+    public int tileCount() {
+        return (size + TILE_SIZE - 1) >>> SHIFT;
+    }
+
+    @Override
+    public void addNode() {
+        if (size == tiles * TILE_SIZE)
+            grow();
+
+        // Riga e colonna possono contenere archi di nodi cancellati
+        for (int k = 0; k <= size; k++) {
+            cells[cell(size, k)] = 0;
+            cells[cell(k, size)] = 0;
+        }
+        size++;
+    }
+
+    /*
+     * Raddoppia i blocchi per lato, copiando i blocchi esistenti
+     */
+    private void grow() {
+        int newTiles = Math.max(1, 2 * tiles);
+        if ((long) newTiles * newTiles * TILE_CELLS > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Impossibile aggiungere un nodo: la matrice ha già " + size + " nodi");
+
+        long[] grown = new long[newTiles * newTiles * TILE_CELLS];
+        for (int tr = 0; tr < tiles; tr++) {
+            System.arraycopy(cells, tr * tiles * TILE_CELLS, grown, tr * newTiles * TILE_CELLS, tiles * TILE_CELLS);
+        }
+        cells = grown;
+        tiles = newTiles;
+    }
+
+    /*
+     * Le celle vengono scritte nell'ordine in cui sono memorizzate e ognuna
+     * viene letta da una cella con riga e colonna non minori, che si trova
+     * nello stesso blocco più avanti o in un blocco successivo: la
+     * compattazione può quindi avvenire sul posto
+     */
+    @Override
+    public void removeNode(int i) {
+        indexCheck(i);
+
+        int n = size - 1;
+        int used = (n + TILE_SIZE - 1) >>> SHIFT;
+        for (int tr = 0; tr < used; tr++) {
+            for (int tc = 0; tc < used; tc++) {
+                for (int r = tr << SHIFT; r < Math.min(n, (tr + 1) << SHIFT); r++) {
+                    int sourceRow = r < i ? r : r + 1;
+                    for (int c = tc << SHIFT; c < Math.min(n, (tc + 1) << SHIFT); c++) {
+                        int sourceColumn = c < i ? c : c + 1;
+                        cells[cell(r, c)] = cells[cell(sourceRow, sourceColumn)];
+                    }
+                }
+            }
+        }
+        size = n;
+    }
+
+    @Override
+    public void clear() {
+        cells = new long[0];
+        tiles = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean contains(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return cells[cell(i, j)] != 0;
+    }
+
+    @Override
+    public double getWeight(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return decode(cells[cell(i, j)]);
+    }
+
+    @Override
+    public void set(int i, int j, double weight) {
+        indexCheck(i);
+        indexCheck(j);
+
+        long value = ~Double.doubleToLongBits(weight);
+        cells[cell(i, j)] = value;
+        cells[cell(j, i)] = value;
+    }
+
+    @Override
+    public void remove(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        cells[cell(i, j)] = 0;
+        cells[cell(j, i)] = 0;
+    }
+
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        indexCheck(i);
+        if (action == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+
+        for (int tc = 0; tc < tileCount(); tc++) {
+            int start = cell(i, tc << SHIFT);
+            int first = tc << SHIFT;
+            int length = Math.min(TILE_SIZE, size - first);
+            for (int k = 0; k < length; k++) {
+                long value = cells[start + k];
+                if (value != 0)
+                    action.accept(first + k, decode(value));
+            }
+        }
+    }
+
+    /**
+     * Copia i pesi di un blocco in un array di {@link #TILE_SIZE} *
+     * {@link #TILE_SIZE} elementi, per righe: l'elemento r * TILE_SIZE + c è il
+     * peso della cella (tileRow * TILE_SIZE + r, tileColumn * TILE_SIZE + c).
+     * Le celle senza arco e quelle oltre l'ultimo nodo valgono Double.NaN,
+     * come quelle degli archi senza peso.
+     *
+     * @param tileRow la riga del blocco
+     * @param tileColumn la colonna del blocco
+     * @param target l'array in cui copiare i pesi
+     *
+     * @throws IndexOutOfBoundsException se il blocco è fuori dall'intervallo
+     * <code>[0, tileCount() - 1]</code>
+     * @throws IllegalArgumentException se l'array è più corto di un blocco
+     * @throws NullPointerException se l'array è null
+     */
+    public void copyTile(int tileRow, int tileColumn, double[] target) {
+        if (tileRow < 0 || tileRow >= tileCount() || tileColumn < 0 || tileColumn >= tileCount())
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un blocco non valido");
+        if (target == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+        if (target.length < TILE_CELLS)
+            throw new IllegalArgumentException("L'array non contiene un blocco");
+
+        // Le celle oltre l'ultimo nodo possono contenere archi di nodi cancellati
+        int rows = Math.min(TILE_SIZE, size - (tileRow << SHIFT));
+        int columns = Math.min(TILE_SIZE, size - (tileColumn << SHIFT));
+        Arrays.fill(target, 0, TILE_CELLS, Double.NaN);
+        int start = (tileRow * tiles + tileColumn) * TILE_CELLS;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                target[(r << SHIFT) + c] = decode(cells[start + (r << SHIFT) + c]);
+            }
+        }
+    }
+
+    /**
+     * Calcola le lunghezze dei cammini minimi tra tutte le coppie di nodi con
+     * la versione a blocchi dell'algoritmo di Floyd-Warshall. Per ogni blocco
+     * della diagonale si aggiornano prima il blocco stesso, poi i blocchi
+     * della sua riga e della sua colonna e infine tutti gli altri, ognuno
+     * usando solo tre blocchi alla volta. Un arco senza peso ha lunghezza 1.
+     *
+     * @return la matrice delle distanze, Double.POSITIVE_INFINITY tra nodi
+     *         non collegati
+     *
+     * @throws IllegalArgumentException se un arco ha peso negativo, che in un
+     * grafo non orientato forma un ciclo negativo
+     */
+    public double[][] shortestPathLengths() {
+        int t = tileCount();
+        double[] distances = new double[t * t * TILE_CELLS];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < size; i++) {
+            int row = i;
+            distances[index(i, i, t)] = 0;
+            forEachNeighbour(i, (j, weight) -> {
+                double length = Double.isNaN(weight) ? 1 : weight;
+                if (length < 0)
+                    throw new IllegalArgumentException("Impossibile calcolare i cammini minimi con pesi negativi");
+                int k = index(row, j, t);
+                if (length < distances[k])
+                    distances[k] = length;
+            });
+        }
+
+        for (int kb = 0; kb < t; kb++) {
+            int pivot = (kb * t + kb) * TILE_CELLS;
+            relax(distances, pivot, pivot, pivot);
+            for (int b = 0; b < t; b++) {
+                if (b != kb) {
+                    relax(distances, (kb * t + b) * TILE_CELLS, pivot, (kb * t + b) * TILE_CELLS);
+                    relax(distances, (b * t + kb) * TILE_CELLS, (b * t + kb) * TILE_CELLS, pivot);
+                }
+            }
+            for (int rb = 0; rb < t; rb++) {
+                for (int cb = 0; cb < t; cb++) {
+                    if (rb != kb && cb != kb)
+                        relax(distances, (rb * t + cb) * TILE_CELLS, (rb * t + kb) * TILE_CELLS,
+                                (kb * t + cb) * TILE_CELLS);
+                }
+            }
+        }
+
+        double[][] result = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                result[i][j] = distances[index(i, j, t)];
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Aggiorna il blocco c con i cammini che passano per i nodi del blocco
+     * pivot: c[i][j] = min(c[i][j], a[i][k] + b[k][j]), con k nel ciclo
+     * esterno come in Floyd-Warshall, così il risultato è corretto anche
+     * quando c coincide con a o con b
+     */
+    private static void relax(double[] d, int c, int a, int b) {
+        for (int k = 0; k < TILE_SIZE; k++) {
+            int bk = b + k * TILE_SIZE;
+            for (int i = 0; i < TILE_SIZE; i++) {
+                double aik = d[a + i * TILE_SIZE + k];
+                if (aik == Double.POSITIVE_INFINITY)
+                    continue;
+                int ci = c + i * TILE_SIZE;
+                for (int j = 0; j < TILE_SIZE; j++) {
+                    double through = aik + d[bk + j];
+                    if (through < d[ci + j])
+                        d[ci + j] = through;
+                }
+            }
+        }
+    }
+
+    private int cell(int i, int j) {
+        return index(i, j, tiles);
+    }
+
+    /*
+     * Posizione della cella (i, j) in un array di t * t blocchi
+     */
+    private static int index(int i, int j, int t) {
+        return (((i >>> SHIFT) * t + (j >>> SHIFT)) << (2 * SHIFT)) + ((i & (TILE_SIZE - 1)) << SHIFT)
+                + (j & (TILE_SIZE - 1));
+    }
+
+    /*
+     * Ricava il peso da una cella, Double.NaN se la cella è vuota
+     */
+    private static double decode(long value) {
+        return value == 0 ? Double.NaN : Double.longBitsToDouble(~value);
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param index l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti dell'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int index) {
+        if (index < 0 || index > size - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+}
@@ -0,0 +1,108 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe TiledWeightMatrix.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class TiledWeightMatrixTest {
+
+    /*
+     * Applica le stesse modifiche casuali, su più blocchi, alle due matrici
+     */
+    private static void mutate(WeightMatrix a, WeightMatrix b, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int step = 0; step < 10_000; step++) {
+            int n = a.nodeCount();
+            int operation = random.nextInt(30);
+            if (n < 2 || (operation == 0 && n < 180) || step < 140) {
+                a.addNode();
+                b.addNode();
+            } else if (operation == 1) {
+                int i = random.nextInt(n);
+                a.removeNode(i);
+                b.removeNode(i);
+            } else {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (operation < 4) {
+                    a.remove(i, j);
+                    b.remove(i, j);
+                } else {
+                    double w = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(100) / 10.0;
+                    a.set(i, j, w);
+                    b.set(i, j, w);
+                }
+            }
+        }
+    }
+
+    @Test
+    final void testSameAsTriangular() {
+        TiledWeightMatrix m = new TiledWeightMatrix();
+        TriangularWeightMatrix expected = new TriangularWeightMatrix();
+        mutate(m, expected, 9);
+        int n = expected.nodeCount();
+        assertTrue(m.nodeCount() == n);
+        assertTrue(m.tileCount() == (n + 63) / 64);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertTrue(m.contains(i, j) == expected.contains(i, j));
+                assertTrue(Double.compare(m.getWeight(i, j), expected.getWeight(i, j)) == 0);
+            }
+            StringBuilder actual = new StringBuilder();
+            StringBuilder wanted = new StringBuilder();
+            m.forEachNeighbour(i, (j, w) -> actual.append(j).append(':').append(w).append(' '));
+            expected.forEachNeighbour(i, (j, w) -> wanted.append(j).append(':').append(w).append(' '));
+            assertTrue(actual.toString().equals(wanted.toString()));
+        }
+
+        double[] tile = new double[TiledWeightMatrix.TILE_SIZE * TiledWeightMatrix.TILE_SIZE];
+        m.copyTile(1, 0, tile);
+        for (int r = 0; r < 64; r++) {
+            for (int c = 0; c < 64; c++) {
+                double w = 64 + r < n ? expected.getWeight(64 + r, c) : Double.NaN;
+                assertTrue(Double.compare(tile[r * 64 + c], w) == 0);
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> m.copyTile(m.tileCount(), 0, tile));
+        assertThrows(IllegalArgumentException.class, () -> m.copyTile(0, 0, new double[10]));
+    }
+
+    @Test
+    final void testShortestPathLengths() {
+        TiledWeightMatrix m = new TiledWeightMatrix();
+        mutate(m, new TriangularWeightMatrix(), 4);
+        int n = m.nodeCount();
+        // Floyd-Warshall sulla matrice quadrata come riferimento
+        double[][] expected = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double w = m.getWeight(i, j);
+                expected[i][j] = i == j ? 0 : !m.contains(i, j) ? Double.POSITIVE_INFINITY : Double.isNaN(w) ? 1 : w;
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    expected[i][j] = Math.min(expected[i][j], expected[i][k] + expected[k][j]);
+                }
+            }
+        }
+        double[][] actual = m.shortestPathLengths();
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(expected[i], actual[i], 1e-9);
+        }
+
+        m.set(0, 1, -1);
+        assertThrows(IllegalArgumentException.class, () -> m.shortestPathLengths());
+        assertTrue(new TiledWeightMatrix().shortestPathLengths().length == 0);
+    }
+}
@@ -0,0 +1,190 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Matrice di adiacenza simmetrica che memorizza solo il triangolo inferiore,
+ * diagonale compresa, in un unico array: la cella (i, j) con j &le; i si
+ * trova in posizione i * (i + 1) / 2 + j, mentre la cella (i, j) con j &gt; i
+ * coincide con la cella (j, i). Ogni arco occupa quindi una sola cella, la
+ * memoria è la metà di quella di una matrice quadrata e le modifiche
+ * scrivono una sola posizione.
+ *
+ * Le righe sono consecutive, quindi aggiungere un nodo significa solo
+ * aggiungere una riga in fondo all'array; {@link #forEachEdge} scandisce
+ * l'array una sola volta, incontrando ogni arco esattamente una volta.
+ *
+ * Come in {@link MappedWeightMatrix} ogni cella contiene il complemento dei
+ * bit del peso e una cella a zero indica un arco assente.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public class TriangularWeightMatrix implements WeightMatrix {
+
+    /*
+     * Massimo numero di nodi, per cui il triangolo sta in un array
+     */
+    private static final int MAX_NODES = 65_535;
+
+    /*
+     * Le celle del triangolo inferiore, riga per riga
+     */
+    private long[] cells;
+
+    /*
+     * Numero di nodi
+     */
+    private int size;
+
+    /**
+     * Crea una matrice vuota.
+     */
+    public TriangularWeightMatrix() {
+        this.cells = new long[0];
+    }
+
+    @Override
+    public int nodeCount() {
+        return size;
+    }
+
+    @Override
+    public void addNode() {
+        if (size == MAX_NODES)
+            throw new IllegalStateException("Impossibile aggiungere un nodo: la matrice ha già " + size + " nodi");
+
+        int start = row(size);
+        int end = row(size + 1);
+        if (end > cells.length)
+            cells = Arrays.copyOf(cells, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(end, cells.length * 3L / 2)));
+        else
+            Arrays.fill(cells, start, end, 0); // Celle rimaste da nodi cancellati
+        size++;
+    }
+
+    /*
+     * Ogni cella viene letta da una posizione che segue quella in cui viene
+     * scritta, quindi la compattazione può avvenire sul posto
+     */
+    @Override
+    public void removeNode(int i) {
+        indexCheck(i);
+
+        int target = row(i);
+        for (int r = i + 1; r < size; r++) {
+            int source = row(r);
+            System.arraycopy(cells, source, cells, target, i);
+            System.arraycopy(cells, source + i + 1, cells, target + i, r - i);
+            target += r;
+        }
+        size--;
+    }
+
+    @Override
+    public void clear() {
+        cells = new long[0];
+        size = 0;
+    }
+
+    @Override
+    public boolean contains(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return cells[cell(i, j)] != 0;
+    }
+
+    @Override
+    public double getWeight(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return decode(cells[cell(i, j)]);
+    }
+
+    @Override
+    public void set(int i, int j, double weight) {
+        indexCheck(i);
+        indexCheck(j);
+
+        cells[cell(i, j)] = ~Double.doubleToLongBits(weight);
+    }
+
+    @Override
+    public void remove(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        cells[cell(i, j)] = 0;
+    }
+
+    /*
+     * La parte j <= i è la riga i del triangolo, la parte j > i è la colonna
+     * i delle righe successive
+     */
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        indexCheck(i);
+        if (action == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+
+        int start = row(i);
+        for (int j = 0; j <= i; j++) {
+            long value = cells[start + j];
+            if (value != 0)
+                action.accept(j, decode(value));
+        }
+        for (int j = i + 1; j < size; j++) {
+            long value = cells[row(j) + i];
+            if (value != 0)
+                action.accept(j, decode(value));
+        }
+    }
+
+    @Override
+    public void forEachEdge(GraphGenerator.EdgeSink sink) {
+        if (sink == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j <= i; j++, k++) {
+                long value = cells[k];
+                if (value != 0)
+                    sink.accept(j, i, decode(value));
+            }
+        }
+    }
+
+    /*
+     * Posizione della prima cella della riga i
+     */
+    private static int row(int i) {
+        return (int) ((long) i * (i + 1) / 2);
+    }
+
+    private static int cell(int i, int j) {
+        return i >= j ? row(i) + j : row(j) + i;
+    }
+
+    /*
+     * Ricava il peso da una cella, Double.NaN se la cella è vuota
+     */
+    private static double decode(long value) {
+        return value == 0 ? Double.NaN : Double.longBitsToDouble(~value);
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param index l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti dell'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int index) {
+        if (index < 0 || index > size - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+}
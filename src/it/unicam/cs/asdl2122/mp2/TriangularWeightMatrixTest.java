@@ -0,0 +1,91 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe TriangularWeightMatrix.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class TriangularWeightMatrixTest {
+
+    @Test
+    final void testSymmetricCells() {
+        TriangularWeightMatrix m = new TriangularWeightMatrix();
+        for (int k = 0; k < 5; k++) {
+            m.addNode();
+        }
+        m.set(3, 1, 2.5);
+        m.set(4, 4, Double.NaN);
+        m.set(0, 2, 0);
+        assertTrue(m.contains(1, 3));
+        assertTrue(m.getWeight(1, 3) == 2.5);
+        assertTrue(m.contains(4, 4));
+        assertTrue(Double.isNaN(m.getWeight(4, 4)));
+        assertTrue(m.getWeight(2, 0) == 0);
+        m.remove(1, 3);
+        assertFalse(m.contains(3, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> m.set(5, 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> m.contains(-1, 0));
+
+        List<Integer> neighbours = new ArrayList<>();
+        m.forEachNeighbour(0, (j, w) -> neighbours.add(j));
+        assertTrue(neighbours.equals(List.of(2)));
+        List<String> edges = new ArrayList<>();
+        m.forEachEdge((i, j, w) -> edges.add(i + "-" + j));
+        assertTrue(edges.equals(List.of("0-2", "4-4")));
+    }
+
+    @Test
+    final void testRemoveNode() {
+        // Confronto con una matrice quadrata dopo cancellazioni e inserimenti casuali
+        TriangularWeightMatrix m = new TriangularWeightMatrix();
+        List<double[]> square = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(3);
+        for (int step = 0; step < 3_000; step++) {
+            int n = m.nodeCount();
+            int operation = random.nextInt(8);
+            if (n == 0 || (operation == 0 && n < 60)) {
+                m.addNode();
+                for (double[] row : square) {
+                    row[n] = Double.NaN;
+                }
+                double[] row = new double[64];
+                Arrays.fill(row, Double.NaN);
+                square.add(row);
+            } else if (operation == 1) {
+                int i = random.nextInt(n);
+                m.removeNode(i);
+                square.remove(i);
+                for (double[] r : square) {
+                    System.arraycopy(r, i + 1, r, i, 63 - i);
+                }
+            } else {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                double w = random.nextDouble();
+                m.set(i, j, w);
+                square.get(i)[j] = w;
+                square.get(j)[i] = w;
+            }
+        }
+        assertTrue(m.nodeCount() == square.size());
+        for (int i = 0; i < m.nodeCount(); i++) {
+            for (int j = 0; j < m.nodeCount(); j++) {
+                double expected = square.get(i)[j];
+                assertTrue(m.contains(i, j) == !Double.isNaN(expected));
+                assertTrue(Double.compare(m.getWeight(i, j), expected) == 0);
+            }
+        }
+        m.clear();
+        assertTrue(m.nodeCount() == 0);
+    }
+}
@@ -1,5 +1,6 @@
 package it.unicam.cs.asdl2122.mp2;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -11,24 +12,34 @@ import java.util.Set;
  * classe {@link ForestDisjointSets}) per gestire insiemi disgiunti di
  * nodi del grafo che sono, alla fine del calcolo, le componenti connesse.
  * 
+ * Le strutture di lavoro sono prese in prestito da un pool per la durata di
+ * ogni calcolo, quindi la stessa istanza può essere usata da più thread
+ * contemporaneamente.
+ * 
  * @author Luca Tesei (template)
  * Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it (implementazione)
  *
  * @param <L> il tipo delle etichette dei nodi del grafo
  */
-@SuppressWarnings({"FieldMayBeFinal", "ConstantConditions"})
+@SuppressWarnings("ConstantConditions")
 public class UndirectedGraphConnectedComponentsComputer<L> {
 
     /**
-     * Struttura dati per gli insiemi disgiunti.
+     * Strutture dati per gli insiemi disgiunti di nodi.
+     */
+    private final WorkspacePool<ForestDisjointSets<GraphNode<L>>> forests;
+
+    /**
+     * Strutture di lavoro per il calcolo dell'etichettatura.
      */
-    private ForestDisjointSets<GraphNode<L>> f;
+    private final WorkspacePool<Workspace> workspaces;
 
     /**
      * Crea un calcolatore di componenti connesse.
      */
     public UndirectedGraphConnectedComponentsComputer() {
-        this.f = new ForestDisjointSets<>();
+        this.forests = new WorkspacePool<>(ForestDisjointSets::new);
+        this.workspaces = new WorkspacePool<>(Workspace::new);
     }
 
     /**
@@ -48,9 +59,32 @@ public class UndirectedGraphConnectedComponentsComputer<L> {
         if (g.isDirected())
             throw new IllegalArgumentException("Impossibile eseguire l'algoritmo su un grafo orientato");
 
+        Graph<L> stable = GraphSnapshot.stable(g);
+        ForestDisjointSets<GraphNode<L>> f = forests.acquire();
+        try {
+            return computeConnectedComponents(stable, f);
+        } finally {
+            if (stable.nodeCount() > WorkspacePool.RETAINED_CAPACITY) {
+                // Dopo clear() la foresta conserverebbe la tabella dimensionata per tutti i nodi
+                f = new ForestDisjointSets<>();
+            } else {
+                f.clear();
+            }
+            forests.release(f);
+        }
+    }
+
+    /**
+     * Calcola le componenti connesse usando la collezione di insiemi disgiunti
+     * data, che deve essere vuota.
+     *
+     * @param g un grafo non orientato
+     * @param f la collezione di insiemi disgiunti da usare
+     * @return un insieme di componenti connesse
+     */
+    private Set<Set<GraphNode<L>>> computeConnectedComponents(Graph<L> g, ForestDisjointSets<GraphNode<L>> f) {
         Set<Set<GraphNode<L>>> result = new HashSet<>();
 
-        f.clear();
         for (GraphNode<L> node : g.getNodes()) {
             f.makeSet(node);
         }
@@ -76,4 +110,107 @@ public class UndirectedGraphConnectedComponentsComputer<L> {
 
         return result;
     }
+
+    /**
+     * Calcola le componenti connesse di un grafo non orientato restituendo, al
+     * posto di un insieme di insiemi di nodi, l'identificativo della
+     * componente di ogni nodo indicizzato con l'indice del nodo nel grafo. Gli
+     * insiemi disgiunti sono gestiti con array di interi, quindi i nodi non
+     * vengono inseriti in nessuna mappa.
+     *
+     * Il grafo deve supportare le operazioni sugli indici dei nodi.
+     *
+     * @param g un grafo non orientato
+     * @return l'etichettatura delle componenti connesse di g
+     *
+     * @throws NullPointerException se il grafo passato è nullo
+     * @throws IllegalArgumentException se il grafo passato è orientato
+     * @throws UnsupportedOperationException se il grafo non supporta gli
+     * indici dei nodi
+     */
+    public ConnectedComponentsLabelling<L> computeComponentLabelling(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Impossibile eseguire l'algoritmo su un grafo nullo");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Impossibile eseguire l'algoritmo su un grafo orientato");
+
+        Graph<L> stable = GraphSnapshot.stable(g);
+        Workspace workspace = workspaces.acquire();
+        try {
+            int n = stable.nodeCount();
+            IntDisjointSets sets = workspace.sets;
+            sets.reset(n);
+
+            if (stable instanceof IndexedAdjacency) {
+                // Scandisce le righe per indice, senza costruire l'insieme degli archi
+                IndexedAdjacency adjacency = (IndexedAdjacency) stable;
+                for (int i = 0; i < n; i++) {
+                    workspace.current = i;
+                    adjacency.forEachNeighbour(i, workspace);
+                }
+            } else {
+                for (GraphEdge<L> edge : stable.getEdges()) {
+                    sets.union(stable.getNodeIndexOf(edge.getNode1()), stable.getNodeIndexOf(edge.getNode2()));
+                }
+            }
+
+            // Numera le componenti nell'ordine del primo nodo che le contiene
+            int[] componentOf = new int[n];
+            int[] componentOfRepresentative = workspace.componentOfRepresentative(n);
+            int componentCount = 0;
+            for (int i = 0; i < n; i++) {
+                int rep = sets.findSet(i);
+                // Lo zero indica un rappresentante non ancora incontrato
+                if (componentOfRepresentative[rep] == 0)
+                    componentOfRepresentative[rep] = ++componentCount;
+                componentOf[i] = componentOfRepresentative[rep] - 1;
+            }
+
+            return new ConnectedComponentsLabelling<>(componentOf, componentCount, stable.getNodesByIndex());
+        } finally {
+            workspace.clear();
+            workspaces.release(workspace);
+        }
+    }
+
+    /*
+     * Strutture di lavoro per il calcolo dell'etichettatura, che è anche
+     * l'azione eseguita sui vicini di ogni nodo
+     */
+    private static final class Workspace implements IndexedAdjacency.NeighbourConsumer {
+
+        final IntDisjointSets sets = new IntDisjointSets(0);
+        private int[] componentOfRepresentative = new int[0];
+        int current;
+
+        @Override
+        public void accept(int neighbour, double weight) {
+            sets.union(current, neighbour);
+        }
+
+        /**
+         * Restituisce un array azzerato di almeno n elementi.
+         *
+         * @param n il numero di elementi necessari
+         * @return l'array del workspace, azzerato nelle prime n posizioni
+         */
+        int[] componentOfRepresentative(int n) {
+            if (componentOfRepresentative.length < n)
+                componentOfRepresentative = new int[n];
+            else
+                Arrays.fill(componentOfRepresentative, 0, n, 0);
+            return componentOfRepresentative;
+        }
+
+        /**
+         * Prepara il workspace per essere restituito al pool, liberando gli
+         * array che superano {@link WorkspacePool#RETAINED_CAPACITY}
+         * elementi.
+         */
+        void clear() {
+            if (componentOfRepresentative.length > WorkspacePool.RETAINED_CAPACITY)
+                componentOfRepresentative = new int[0];
+            sets.trim(WorkspacePool.RETAINED_CAPACITY);
+        }
+    }
 }
@@ -110,4 +110,41 @@ class UndirectedGraphConnectedComponentsComputerTest {
         result.add(comp1);
         assertTrue(c.computeConnectedComponents(g1).equals(result));
     }
+
+    @Test
+    final void testComputeComponentLabelling() {
+        UndirectedGraphConnectedComponentsComputer<String> c = new UndirectedGraphConnectedComponentsComputer<String>();
+        assertThrows(NullPointerException.class,
+                () -> c.computeComponentLabelling(null));
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        ConnectedComponentsLabelling<String> empty = c.computeComponentLabelling(g);
+        assertTrue(empty.nodeCount() == 0);
+        assertTrue(empty.getComponentCount() == 0);
+        assertTrue(empty.toComponentSets().isEmpty());
+        g.addNode(new GraphNode<String>("a"));
+        g.addNode(new GraphNode<String>("b"));
+        g.addNode(new GraphNode<String>("c"));
+        g.addNode(new GraphNode<String>("d"));
+        g.addNode(new GraphNode<String>("e"));
+        g.addEdge("a", "c");
+        g.addEdge("d", "b");
+        g.addEdge("e", "b");
+        ConnectedComponentsLabelling<String> l = c.computeComponentLabelling(g);
+        assertTrue(l.nodeCount() == 5);
+        assertTrue(l.getComponentCount() == 2);
+        assertArrayEquals(new int[] {0, 1, 0, 1, 1}, l.toArray());
+        assertArrayEquals(new int[] {2, 3}, l.getComponentSizes());
+        assertTrue(l.getComponentSize(1) == 3);
+        assertTrue(l.areConnected(1, 4));
+        assertFalse(l.areConnected(0, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> l.getComponentOf(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> l.getComponent(2));
+        Set<GraphNode<String>> comp1 = new HashSet<>();
+        comp1.add(new GraphNode<String>("a"));
+        comp1.add(new GraphNode<String>("c"));
+        assertTrue(l.getComponent(0).equals(comp1));
+        assertTrue(l.toComponentSets().equals(c.computeConnectedComponents(g)));
+        g.addEdge("c", "e");
+        assertTrue(c.computeComponentLabelling(g).getComponentCount() == 1);
+    }
 }
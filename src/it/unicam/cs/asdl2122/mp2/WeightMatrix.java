@@ -0,0 +1,117 @@
+package it.unicam.cs.asdl2122.mp2;
+
+/**
+ * Matrice di adiacenza simmetrica che memorizza, per ogni coppia di indici di
+ * nodi, se esiste un arco e il suo peso, come valori primitivi anziché come
+ * oggetti {@link GraphEdge}. È la memoria usata da
+ * {@link WeightMatrixUndirectedGraph}, che mantiene nello heap solo i nodi e
+ * i loro indici; le implementazioni decidono dove e con quale disposizione
+ * vengono memorizzate le celle.
+ *
+ * Come in {@link AdjacencyMatrixUndirectedGraph} gli indici vanno da 0 a
+ * nodeCount() - 1: un nuovo nodo riceve l'indice nodeCount() e la
+ * cancellazione di un nodo decrementa di uno gli indici maggiori del suo.
+ * Le celle (i, j) e (j, i) sono sempre uguali.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public interface WeightMatrix extends IndexedAdjacency {
+
+    /**
+     * Aggiunge un nodo senza archi, con indice nodeCount().
+     *
+     * @throws IllegalStateException se la matrice non può contenere altri
+     * nodi
+     */
+    void addNode();
+
+    /**
+     * Elimina il nodo con indice dato e tutti i suoi archi. Gli indici
+     * maggiori vengono decrementati di uno.
+     *
+     * @param i l'indice del nodo da eliminare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    void removeNode(int i);
+
+    /**
+     * Elimina tutti i nodi e tutti gli archi.
+     */
+    void clear();
+
+    /**
+     * Determina se esiste un arco tra due nodi.
+     *
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @return true se i nodi sono collegati da un arco
+     *
+     * @throws IndexOutOfBoundsException se uno degli indici è fuori
+     * dall'intervallo <code>[0, nodeCount() - 1]</code>
+     */
+    boolean contains(int i, int j);
+
+    /**
+     * Restituisce il peso dell'arco tra due nodi.
+     *
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @return il peso dell'arco, Double.NaN se l'arco non è pesato o non
+     *         esiste
+     *
+     * @throws IndexOutOfBoundsException se uno degli indici è fuori
+     * dall'intervallo <code>[0, nodeCount() - 1]</code>
+     */
+    double getWeight(int i, int j);
+
+    /**
+     * Aggiunge l'arco tra due nodi o ne sostituisce il peso.
+     *
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     * @param weight il peso dell'arco, Double.NaN per un arco non pesato
+     *
+     * @throws IndexOutOfBoundsException se uno degli indici è fuori
+     * dall'intervallo <code>[0, nodeCount() - 1]</code>
+     * @throws IllegalArgumentException se la matrice non può memorizzare il
+     * peso dato
+     */
+    void set(int i, int j, double weight);
+
+    /**
+     * Elimina l'arco tra due nodi, se esiste.
+     *
+     * @param i l'indice del primo nodo
+     * @param j l'indice del secondo nodo
+     *
+     * @throws IndexOutOfBoundsException se uno degli indici è fuori
+     * dall'intervallo <code>[0, nodeCount() - 1]</code>
+     */
+    void remove(int i, int j);
+
+    /**
+     * Passa ogni arco alla destinazione data una sola volta, con gli indici
+     * dei suoi estremi e il suo peso. L'implementazione predefinita scandisce
+     * le righe con {@link #forEachNeighbour} e scarta le celle sotto la
+     * diagonale; le matrici che memorizzano ogni arco una volta sola possono
+     * scandire direttamente le proprie celle.
+     *
+     * @param sink la destinazione degli archi
+     *
+     * @throws NullPointerException se la destinazione è null
+     */
+    default void forEachEdge(GraphGenerator.EdgeSink sink) {
+        if (sink == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+
+        for (int i = 0; i < nodeCount(); i++) {
+            int row = i;
+            forEachNeighbour(i, (j, weight) -> {
+                if (j >= row)
+                    sink.accept(row, j, weight);
+            });
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.*;
+
+/**
+ * Grafo non orientato con matrice di adiacenza in cui le celle contengono
+ * solo la presenza e il peso degli archi, memorizzati da una
+ * {@link WeightMatrix}. Non sono accettate etichette dei nodi null e non
+ * sono accettate etichette duplicate nei nodi.
+ *
+ * A differenza di {@link AdjacencyMatrixUndirectedGraph} la matrice non
+ * contiene oggetti {@link GraphEdge}: nello heap restano solo i nodi, in una
+ * lista ordinata per indice, e la mappa che associa a ogni nodo il suo indice.
+ * Gli archi restituiti dai metodi di {@link Graph} vengono creati a ogni
+ * richiesta a partire dai nodi memorizzati, quindi due chiamate restituiscono
+ * archi uguali ma non identici. La disposizione delle celle, e se stanno
+ * nello heap o in un file, dipende dalla matrice passata al costruttore.
+ *
+ * Gli indici dei nodi seguono l'ordine di inserimento e, come in
+ * {@link AdjacencyMatrixUndirectedGraph}, la cancellazione di un nodo
+ * decrementa di uno gli indici maggiori del suo.
+ *
+ * @param <L> il tipo delle etichette dei nodi
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+public class WeightMatrixUndirectedGraph<L> extends Graph<L> implements IndexedAdjacency {
+
+    /*
+     * Associazione di ogni nodo con il proprio indice
+     */
+    private final NodeIndexMap<L> nodesIndex;
+
+    /*
+     * Nodi in ordine di indice
+     */
+    private final ArrayList<GraphNode<L>> nodes;
+
+    /*
+     * Presenza e peso degli archi
+     */
+    private final WeightMatrix matrix;
+
+    /*
+     * Numero di archi, aggiornato a ogni modifica
+     */
+    private int edgeCount;
+
+    /**
+     * Crea un grafo vuoto che memorizza gli archi in una
+     * {@link TriangularWeightMatrix}.
+     */
+    public WeightMatrixUndirectedGraph() {
+        this(new TriangularWeightMatrix());
+    }
+
+    /**
+     * Crea un grafo vuoto che memorizza gli archi nella matrice data.
+     *
+     * @param matrix la matrice, che deve essere vuota
+     *
+     * @throws NullPointerException se la matrice è null
+     * @throws IllegalArgumentException se la matrice contiene dei nodi
+     */
+    public WeightMatrixUndirectedGraph(WeightMatrix matrix) {
+        this(matrix, Collections.emptyList());
+    }
+
+    /**
+     * Crea un grafo a partire da una matrice che contiene già dei nodi, per
+     * esempio una {@link MappedWeightMatrix} riaperta da un file, assegnando
+     * le etichette ai nodi nell'ordine dei loro indici.
+     *
+     * @param matrix la matrice con gli archi del grafo
+     * @param labels le etichette dei nodi della matrice, in ordine di indice
+     *
+     * @throws NullPointerException se la matrice, la lista o una delle
+     * etichette sono null
+     * @throws IllegalArgumentException se il numero di etichette è diverso dal
+     * numero di nodi della matrice o due etichette sono uguali
+     */
+    public WeightMatrixUndirectedGraph(WeightMatrix matrix, List<L> labels) {
+        nullCheck(matrix);
+        nullCheck(labels);
+        if (labels.size() != matrix.nodeCount())
+            throw new IllegalArgumentException("Il numero di etichette è diverso dal numero di nodi della matrice");
+
+        this.matrix = matrix;
+        this.nodesIndex = new NodeIndexMap<>();
+        this.nodes = new ArrayList<>(labels.size());
+        for (L label : labels) {
+            GraphNode<L> node = new GraphNode<>(label);
+            if (nodesIndex.get(node) >= 0)
+                throw new IllegalArgumentException("Etichetta duplicata: " + label);
+            nodesIndex.put(node);
+            nodes.add(node);
+        }
+        matrix.forEachEdge((i, j, weight) -> edgeCount++);
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public void clear() {
+        matrix.clear();
+        nodesIndex.clear();
+        nodes.clear();
+        edgeCount = 0;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        nullCheck(node);
+
+        if (nodesIndex.get(node) >= 0)
+            return false;
+
+        matrix.addNode();
+        nodesIndex.put(node);
+        nodes.add(node);
+        return true;
+    }
+
+    @Override
+    public boolean addNode(L label) {
+        return addNode(new GraphNode<>(label));
+    }
+
+    /*
+     * Gli indici dei nodi il cui valore sia maggiore dell'indice del nodo da
+     * cancellare vengono decrementati di uno
+     */
+    @Override
+    public void removeNode(GraphNode<L> node) {
+        removeNode(getNodeIndexOf(node));
+    }
+
+    @Override
+    public void removeNode(L label) {
+        removeNode(new GraphNode<>(label));
+    }
+
+    @Override
+    public void removeNode(int i) {
+        indexCheck(i);
+
+        int[] removed = {0};
+        matrix.forEachNeighbour(i, (j, weight) -> removed[0]++);
+        edgeCount -= removed[0];
+        matrix.removeNode(i);
+        nodesIndex.remove(nodes.remove(i));
+    }
+
+    @Override
+    public GraphNode<L> getNode(GraphNode<L> node) {
+        nullCheck(node);
+
+        int index = nodesIndex.get(node);
+        return index < 0 ? null : nodes.get(index);
+    }
+
+    @Override
+    public GraphNode<L> getNode(L label) {
+        nullCheck(label);
+
+        int index = nodesIndex.indexOfLabel(label);
+        return index < 0 ? null : nodes.get(index);
+    }
+
+    @Override
+    public GraphNode<L> getNode(int i) {
+        indexCheck(i);
+
+        return nodes.get(i);
+    }
+
+    @Override
+    public int getNodeIndexOf(GraphNode<L> node) {
+        nullCheck(node);
+
+        int index = nodesIndex.get(node);
+        if (index < 0)
+            throw new IllegalArgumentException("Il nodo specificato non esiste");
+
+        return index;
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        nullCheck(label);
+
+        int index = nodesIndex.indexOfLabel(label);
+        if (index < 0)
+            throw new IllegalArgumentException("Il nodo specificato non esiste");
+
+        return index;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        return new HashSet<>(nodes);
+    }
+
+    @Override
+    public GraphNode<L>[] getNodesByIndex() {
+        return nodes.toArray(Graph.<L>newNodeArray(nodes.size()));
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        nullCheck(edge);
+
+        if (edge.isDirected())
+            throw new IllegalArgumentException("Impossibile aggiungere un arco orientato in un grafo non orientato");
+
+        int i = getNodeIndexOf(edge.getNode1());
+        int j = getNodeIndexOf(edge.getNode2());
+        if (matrix.contains(i, j))
+            return false; // Esiste già un arco con gli stessi nodi di quello passato
+
+        matrix.set(i, j, edge.getWeight());
+        edgeCount++;
+        return true;
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        return addEdge(new GraphEdge<>(node1, node2, false));
+    }
+
+    @Override
+    public boolean addWeightedEdge(GraphNode<L> node1, GraphNode<L> node2, double weight) {
+        return addEdge(new GraphEdge<>(node1, node2, false, weight));
+    }
+
+    @Override
+    public boolean addEdge(L label1, L label2) {
+        return addEdge(new GraphNode<>(label1), new GraphNode<>(label2));
+    }
+
+    @Override
+    public boolean addWeightedEdge(L label1, L label2, double weight) {
+        return addWeightedEdge(new GraphNode<>(label1), new GraphNode<>(label2), weight);
+    }
+
+    @Override
+    public boolean addEdge(int i, int j) {
+        return addEdge(getNode(i), getNode(j));
+    }
+
+    @Override
+    public boolean addWeightedEdge(int i, int j, double weight) {
+        return addWeightedEdge(getNode(i), getNode(j), weight);
+    }
+
+    @Override
+    public void removeEdge(GraphEdge<L> edge) {
+        nullCheck(edge);
+
+        removeEdge(getNodeIndexOf(edge.getNode1()), getNodeIndexOf(edge.getNode2()));
+    }
+
+    @Override
+    public void removeEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        removeEdge(getNodeIndexOf(node1), getNodeIndexOf(node2));
+    }
+
+    @Override
+    public void removeEdge(L label1, L label2) {
+        removeEdge(getNodeIndexOf(label1), getNodeIndexOf(label2));
+    }
+
+    @Override
+    public void removeEdge(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        if (!matrix.contains(i, j))
+            throw new IllegalArgumentException("L'arco passato non esiste");
+
+        matrix.remove(i, j);
+        edgeCount--;
+    }
+
+    /*
+     * Gli archi restituiti sono copie, quindi il peso va scritto nella matrice
+     */
+    @Override
+    public void setEdgeWeight(int i, int j, double weight) {
+        indexCheck(i);
+        indexCheck(j);
+
+        if (!matrix.contains(i, j))
+            throw new IllegalArgumentException("L'arco passato non esiste");
+
+        matrix.set(i, j, weight);
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphEdge<L> edge) {
+        nullCheck(edge);
+
+        return getEdge(getNodeIndexOf(edge.getNode1()), getNodeIndexOf(edge.getNode2()));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        return getEdge(getNodeIndexOf(node1), getNodeIndexOf(node2));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(L label1, L label2) {
+        nullCheck(label1);
+        nullCheck(label2);
+
+        return getEdge(getNodeIndexOf(label1), getNodeIndexOf(label2));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        if (!matrix.contains(i, j))
+            return null;
+        return new GraphEdge<>(nodes.get(i), nodes.get(j), false, matrix.getWeight(i, j));
+    }
+
+    /*
+     * Legge la matrice senza creare l'arco
+     */
+    @Override
+    public boolean hasEdge(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return matrix.contains(i, j);
+    }
+
+    /*
+     * Legge la matrice senza creare l'arco
+     */
+    @Override
+    public double getWeight(int i, int j) {
+        indexCheck(i);
+        indexCheck(j);
+
+        return matrix.getWeight(i, j);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        return getAdjacentNodesOf(getNodeIndexOf(node));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(L label) {
+        return getAdjacentNodesOf(new GraphNode<>(label));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(int i) {
+        indexCheck(i);
+
+        Set<GraphNode<L>> adjacent = new HashSet<>();
+        matrix.forEachNeighbour(i, (j, weight) -> adjacent.add(nodes.get(j)));
+        return adjacent;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        return getEdgesOf(getNodeIndexOf(node));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(L label) {
+        return getEdgesOf(new GraphNode<>(label));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(int i) {
+        indexCheck(i);
+
+        GraphNode<L> node = nodes.get(i);
+        Set<GraphEdge<L>> edges = new HashSet<>();
+        matrix.forEachNeighbour(i, (j, weight) -> edges.add(new GraphEdge<>(node, nodes.get(j), false, weight)));
+        return edges;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        // Ogni arco viene creato una sola volta
+        Set<GraphEdge<L>> edges = new HashSet<>();
+        matrix.forEachEdge((i, j, weight) -> edges.add(new GraphEdge<>(nodes.get(i), nodes.get(j), false, weight)));
+        return edges;
+    }
+
+    @Override
+    public void forEachNeighbour(int i, NeighbourConsumer action) {
+        indexCheck(i);
+        nullCheck(action);
+
+        matrix.forEachNeighbour(i, action);
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link IndexOutOfBoundsException}
+     * se l'indice passato non è valido
+     *
+     * @param index l'indice da controllare
+     *
+     * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti dell'intervallo
+     * <code>[0, nodeCount() - 1]</code>
+     */
+    private void indexCheck(int index) {
+        if (index < 0 || index > nodeCount() - 1)
+            throw new IndexOutOfBoundsException("Impossibile eseguire il metodo con un indice non valido");
+    }
+
+    /**
+     * Metodo di utilità che lancia una {@link NullPointerException} se l'oggetto passato è <code>null</code>
+     *
+     * @param o l'oggetto da controllare
+     *
+     * @throws NullPointerException se l'oggetto è <code>null</code>
+     */
+    private void nullCheck(Object o) {
+        if (o == null)
+            throw new NullPointerException("Impossibile eseguire il metodo con un argomento null");
+    }
+}
@@ -0,0 +1,176 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe WeightMatrixUndirectedGraph, eseguita con ogni
+ * implementazione di WeightMatrix.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ */
+@SuppressWarnings("ALL")
+class WeightMatrixUndirectedGraphTest {
+
+    /*
+     * Le matrici da provare, tutte vuote e con spazio per almeno 64 nodi
+     */
+    private static List<Supplier<WeightMatrix>> matrices() {
+        List<Supplier<WeightMatrix>> matrices = new ArrayList<>();
+        matrices.add(TriangularWeightMatrix::new);
+        matrices.add(TiledWeightMatrix::new);
+        matrices.add(() -> {
+            try {
+                Path path = Files.createTempFile("matrix", ".mp2w");
+                path.toFile().deleteOnExit();
+                return MappedWeightMatrix.create(path, 64);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return matrices;
+    }
+
+    @Test
+    final void testNodesAndEdges() {
+        for (Supplier<WeightMatrix> matrix : matrices()) {
+            Graph<String> g = new WeightMatrixUndirectedGraph<String>(matrix.get());
+            assertTrue(g.isEmpty());
+            assertFalse(g.isDirected());
+            GraphNode<String> ns = new GraphNode<String>("s");
+            GraphNode<String> nu = new GraphNode<String>("u");
+            assertTrue(g.addNode(ns));
+            assertFalse(g.addNode("s"));
+            assertTrue(g.addNode(nu));
+            g.addNode("x");
+            assertTrue(g.getNode("s") == ns);
+            assertTrue(g.getNode(1) == nu);
+            assertNull(g.getNode("y"));
+            assertTrue(g.getNodeIndexOf("x") == 2);
+            assertThrows(IllegalArgumentException.class, () -> g.getNodeIndexOf("y"));
+            assertThrows(IndexOutOfBoundsException.class, () -> g.getNode(3));
+
+            assertTrue(g.addWeightedEdge("s", "u", 10.1));
+            assertFalse(g.addEdge("u", "s"));
+            assertTrue(g.addEdge(2, 2));
+            assertTrue(g.addWeightedEdge(ns, new GraphNode<String>("x"), 0));
+            assertThrows(IllegalArgumentException.class, () -> g.addEdge("s", "y"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> g.addEdge(new GraphEdge<String>(ns, nu, true)));
+            assertTrue(g.edgeCount() == 3);
+            assertTrue(g.getEdge("u", "s").getWeight() == 10.1);
+            assertTrue(g.getEdge(0, 2).getWeight() == 0);
+            assertFalse(g.getEdge("x", "x").hasWeight());
+            assertNull(g.getEdge(1, 2));
+            assertTrue(g.getEdge(0, 1).getNode2() == nu || g.getEdge(0, 1).getNode1() == nu);
+            assertTrue(g.getDegreeOf("s") == 2);
+            assertTrue(g.getAdjacentNodesOf("s").equals(new HashSet<>(Arrays.asList(nu, g.getNode("x")))));
+            assertTrue(g.getEdges().size() == 3);
+            assertThrows(UnsupportedOperationException.class, () -> g.getIngoingEdgesOf(0));
+
+            g.removeEdge("s", "u");
+            assertTrue(g.edgeCount() == 2);
+            assertThrows(IllegalArgumentException.class, () -> g.removeEdge("s", "u"));
+            g.removeNode("s");
+            assertTrue(g.nodeCount() == 2);
+            assertTrue(g.edgeCount() == 1);
+            assertTrue(g.getNodeIndexOf("x") == 1);
+            assertTrue(g.getEdge(1, 1) != null);
+            assertTrue(g.getEdgesOf("u").isEmpty());
+            g.clear();
+            assertTrue(g.isEmpty());
+            assertTrue(g.edgeCount() == 0);
+            g.addNode("s");
+            assertTrue(g.getEdgesOf(0).isEmpty());
+        }
+    }
+
+    @Test
+    final void testSameAsAdjacencyMatrix() {
+        // Una sequenza casuale di modifiche applicata anche a un grafo di riferimento
+        for (Supplier<WeightMatrix> matrix : matrices()) {
+            Graph<Integer> g = new WeightMatrixUndirectedGraph<Integer>(matrix.get());
+            Graph<Integer> expected = new AdjacencyMatrixUndirectedGraph<Integer>();
+            SplittableRandom random = new SplittableRandom(7);
+            int next = 0;
+            for (int step = 0; step < 2_000; step++) {
+                int n = expected.nodeCount();
+                int operation = random.nextInt(10);
+                if (n < 2 || (operation == 0 && n < 60)) {
+                    g.addNode(next);
+                    expected.addNode(next++);
+                } else if (operation == 1) {
+                    int i = random.nextInt(n);
+                    g.removeNode(i);
+                    expected.removeNode(i);
+                } else {
+                    int i = random.nextInt(n);
+                    int j = random.nextInt(n);
+                    if (expected.getEdge(i, j) != null && operation < 5) {
+                        g.removeEdge(i, j);
+                        expected.removeEdge(i, j);
+                    } else {
+                        double w = random.nextInt(4) == 0 ? Double.NaN : random.nextDouble();
+                        assertTrue(g.addWeightedEdge(i, j, w) == expected.addWeightedEdge(i, j, w));
+                    }
+                }
+            }
+            assertTrue(g.nodeCount() == expected.nodeCount());
+            assertTrue(g.edgeCount() == expected.edgeCount());
+            assertTrue(Arrays.equals(g.getNodesByIndex(), expected.getNodesByIndex()));
+            assertTrue(g.getEdges().equals(expected.getEdges()));
+            for (int i = 0; i < g.nodeCount(); i++) {
+                assertTrue(g.getEdgesOf(i).equals(expected.getEdgesOf(i)));
+                for (int j = 0; j < g.nodeCount(); j++) {
+                    GraphEdge<Integer> edge = expected.getEdge(i, j);
+                    if (edge == null)
+                        assertNull(g.getEdge(i, j));
+                    else
+                        assertTrue(Double.compare(g.getEdge(i, j).getWeight(), edge.getWeight()) == 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    final void testAlgorithms() {
+        for (Supplier<WeightMatrix> matrix : matrices()) {
+            Graph<Integer> g = GraphGenerator.erdosRenyi(60, 0.05, 11)
+                    .populate(new WeightMatrixUndirectedGraph<Integer>(matrix.get()), i -> i);
+            Graph<Integer> expected = GraphGenerator.erdosRenyi(60, 0.05, 11)
+                    .populate(new AdjacencyMatrixUndirectedGraph<Integer>(), i -> i);
+            assertTrue(new KruskalMSP<Integer>().computeMSP(g).equals(new KruskalMSP<Integer>().computeMSP(expected)));
+            assertArrayEquals(new UndirectedGraphConnectedComponentsComputer<Integer>().computeComponentLabelling(expected).toArray(),
+                    new UndirectedGraphConnectedComponentsComputer<Integer>().computeComponentLabelling(g).toArray());
+        }
+    }
+
+    @Test
+    final void testExistingMatrix() {
+        for (Supplier<WeightMatrix> supplier : matrices()) {
+            WeightMatrix matrix = supplier.get();
+            matrix.addNode();
+            matrix.addNode();
+            matrix.set(0, 1, 2);
+            assertThrows(IllegalArgumentException.class, () -> new WeightMatrixUndirectedGraph<String>(matrix));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new WeightMatrixUndirectedGraph<String>(matrix, Arrays.asList("a", "a")));
+            assertThrows(NullPointerException.class, () -> new WeightMatrixUndirectedGraph<String>(null));
+            Graph<String> g = new WeightMatrixUndirectedGraph<String>(matrix, Arrays.asList("a", "b"));
+            assertTrue(g.edgeCount() == 1);
+            assertTrue(g.getEdge("b", "a").getWeight() == 2);
+        }
+    }
+}
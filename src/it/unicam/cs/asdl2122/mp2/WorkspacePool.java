@@ -0,0 +1,99 @@
+package it.unicam.cs.asdl2122.mp2;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Insieme limitato di oggetti di lavoro riutilizzabili, condiviso tra i thread
+ * che usano lo stesso algoritmo. Ogni calcolo prende in prestito un oggetto con
+ * {@link #acquire()} e lo restituisce con {@link #release(Object)} al termine,
+ * anche in caso di eccezione; gli oggetti conservano i propri array tra un
+ * calcolo e l'altro, quindi dopo i primi calcoli non viene più allocato nulla.
+ *
+ * Gli oggetti che hanno lavorato su un grafo molto grande non devono però
+ * conservarne gli array: prima di essere restituiti liberano quelli con più
+ * di {@link #RETAINED_CAPACITY} elementi, altrimenti un solo calcolo su un
+ * grafo enorme resterebbe in memoria, in ogni oggetto del pool, per tutta la
+ * vita dell'algoritmo.
+ *
+ * Se tutti gli oggetti sono in prestito ne viene creato uno nuovo, e se il
+ * pool è già pieno un oggetto restituito viene semplicemente abbandonato: il
+ * pool non blocca mai e non conserva più di {@code capacity} oggetti.
+ *
+ * @author Federico Maria Cruciani, federicomar.cruciani@studenti.unicam.it
+ *
+ * @param <W> il tipo degli oggetti di lavoro
+ */
+final class WorkspacePool<W> {
+
+    /*
+     * Numero di oggetti conservati se non specificato diversamente: al più uno
+     * per processore può essere in uso contemporaneamente senza attese
+     */
+    static final int DEFAULT_CAPACITY = Runtime.getRuntime().availableProcessors();
+
+    /*
+     * Numero massimo di elementi degli array che gli oggetti di lavoro
+     * conservano tra un calcolo e l'altro
+     */
+    static final int RETAINED_CAPACITY = 1 << 16;
+
+    /*
+     * Gli oggetti disponibili
+     */
+    private final ArrayBlockingQueue<W> free;
+
+    /*
+     * Crea un nuovo oggetto quando non ce ne sono di disponibili
+     */
+    private final Supplier<W> factory;
+
+    /**
+     * Crea un pool vuoto che conserva al più {@link #DEFAULT_CAPACITY} oggetti.
+     *
+     * @param factory la funzione che crea un nuovo oggetto
+     */
+    WorkspacePool(Supplier<W> factory) {
+        this(factory, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un pool vuoto che conserva al più il numero dato di oggetti.
+     *
+     * @param factory la funzione che crea un nuovo oggetto
+     * @param capacity il numero massimo di oggetti conservati
+     *
+     * @throws NullPointerException se la funzione è null
+     * @throws IllegalArgumentException se la capacità non è positiva
+     */
+    WorkspacePool(Supplier<W> factory, int capacity) {
+        if (factory == null)
+            throw new NullPointerException("Impossibile creare un pool senza funzione di creazione");
+        if (capacity <= 0)
+            throw new IllegalArgumentException("La capacità del pool deve essere positiva");
+
+        this.factory = factory;
+        this.free = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Prende in prestito un oggetto, creandolo se non ce ne sono di
+     * disponibili.
+     *
+     * @return un oggetto che nessun altro thread sta usando
+     */
+    W acquire() {
+        W workspace = free.poll();
+        return workspace != null ? workspace : factory.get();
+    }
+
+    /**
+     * Restituisce un oggetto preso in prestito, che non deve più essere usato
+     * dal chiamante.
+     *
+     * @param workspace l'oggetto da restituire
+     */
+    void release(W workspace) {
+        free.offer(workspace);
+    }
+}